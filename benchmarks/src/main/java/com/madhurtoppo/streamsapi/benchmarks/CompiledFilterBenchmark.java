@@ -0,0 +1,146 @@
+package com.madhurtoppo.streamsapi.benchmarks;
+
+import com.madhurtoppo.streamsapi.columnar.ColumnarSnapshot;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.filter.CompiledFilter;
+import com.madhurtoppo.streamsapi.filter.FilterColumns;
+import com.madhurtoppo.streamsapi.filter.FilterSchema;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Exercise 1 and a four-field order filter, written as chained stream lambdas (exercise 1),
+ * composed predicates (exercise 1a), a {@link BiPredicate} (exercise 1b), a {@link CompiledFilter}
+ * over the entities, both looped and as a stream filter, and a {@link CompiledFilter} over a
+ * columnar snapshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class CompiledFilterBenchmark {
+
+  private static final Predicate<Product> HAS_BOOKS =
+      product -> product.getCategory().equalsIgnoreCase("Books");
+
+  private static final Predicate<Product> IS_PRICE_ABOVE_100 = product -> product.getPrice() > 100;
+
+  private static final BiPredicate<Product, String> HAS_CATEGORY =
+      (product, category) -> product.getCategory().equalsIgnoreCase(category);
+
+  private static final LocalDate FROM = LocalDate.of(2021, 3, 1);
+
+  private static final LocalDate TO = LocalDate.of(2021, 9, 30);
+
+  private static final LocalDate DELIVERED_FROM = LocalDate.of(2021, 6, 1);
+
+  private static final Predicate<Order> IS_NEW = order -> order.getStatus().equalsIgnoreCase("NEW");
+
+  private static final Predicate<Order> IS_TOP_TIER = order -> order.getCustomer().getTier() >= 1;
+
+  private static final Predicate<Order> IS_IN_RANGE =
+      order -> !order.getOrderDate().isBefore(FROM) && !order.getOrderDate().isAfter(TO);
+
+  private static final Predicate<Order> IS_DELIVERED_FROM_JUNE =
+      order -> !order.getDeliveryDate().isBefore(DELIVERED_FROM);
+
+  /** Filters compiled and columns extracted once, outside the measurement. */
+  @State(Scope.Benchmark)
+  public static class Compiled {
+
+    CompiledFilter<Product> books;
+
+    CompiledFilter<Order> orders;
+
+    FilterColumns columns;
+
+    @Setup(Level.Trial)
+    public void compile(final SyntheticDataset data) {
+      books = FilterSchema.PRODUCT.compile("category = 'Books' and price > 100");
+      orders =
+          FilterSchema.ORDER.compile(
+              "status = 'NEW' and tier >= 1"
+                  + " and orderDate between 2021-03-01 and 2021-09-30"
+                  + " and deliveryDate >= 2021-06-01");
+      columns =
+          FilterColumns.of(ColumnarSnapshot.of(data.customers, data.products, data.orders));
+      books.count(columns);
+      orders.count(columns);
+    }
+  }
+
+  // exercise 1
+
+  @Benchmark
+  public List<Product> booksLambdas(final SyntheticDataset data) {
+    return data.products.stream()
+        .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+        .filter(product -> product.getPrice() > 100)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> booksComposed(final SyntheticDataset data) {
+    return data.products.stream()
+        .filter(product -> HAS_BOOKS.and(IS_PRICE_ABOVE_100).test(product))
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> booksBiPredicate(final SyntheticDataset data) {
+    return data.products.stream()
+        .filter(product -> HAS_CATEGORY.test(product, "Books") && product.getPrice() > 100)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> booksCompiled(final SyntheticDataset data, final Compiled compiled) {
+    return compiled.books.filter(data.products);
+  }
+
+  @Benchmark
+  public List<Product> booksCompiledStream(final SyntheticDataset data, final Compiled compiled) {
+    return data.products.stream().filter(compiled.books).collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public int[] booksColumnar(final Compiled compiled) {
+    return compiled.books.select(compiled.columns);
+  }
+
+  // status, tier, order date and delivery date
+
+  @Benchmark
+  public List<Order> ordersComposed(final SyntheticDataset data) {
+    return data.orders.stream()
+        .filter(IS_NEW.and(IS_TOP_TIER).and(IS_IN_RANGE).and(IS_DELIVERED_FROM_JUNE))
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Order> ordersCompiled(final SyntheticDataset data, final Compiled compiled) {
+    return compiled.orders.filter(data.orders);
+  }
+
+  @Benchmark
+  public int[] ordersColumnar(final Compiled compiled) {
+    return compiled.orders.select(compiled.columns);
+  }
+}
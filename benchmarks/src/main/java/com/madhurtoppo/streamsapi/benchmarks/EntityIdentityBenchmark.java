@@ -0,0 +1,131 @@
+package com.madhurtoppo.streamsapi.benchmarks;
+
+import com.madhurtoppo.streamsapi.collectors.ById;
+import com.madhurtoppo.streamsapi.entities.Customer;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code distinct()} over products (exercises 4 and 7) and {@code groupingBy} customer (exercise
+ * 12) with three identities: every field, as Lombok's {@code @Data} generated before, the entities'
+ * id-based {@code equals}, and {@link ById} over primitive ids.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class EntityIdentityBenchmark {
+
+  // distinct products of all orders
+
+  @Benchmark
+  public List<Product> distinctAllFields(final SyntheticDataset data) {
+    return data.orders.stream()
+        .flatMap(order -> order.getProducts().stream())
+        .map(ProductFields::new)
+        .distinct()
+        .map(fields -> fields.product)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> distinctEntityId(final SyntheticDataset data) {
+    return data.orders.stream()
+        .flatMap(order -> order.getProducts().stream())
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> distinctPrimitiveId(final SyntheticDataset data) {
+    return data.orders.stream()
+        .flatMap(order -> order.getProducts().stream())
+        .filter(ById.first(Product::getId))
+        .collect(Collectors.toList());
+  }
+
+  // orders per customer
+
+  @Benchmark
+  public Map<CustomerFields, List<Order>> groupAllFields(final SyntheticDataset data) {
+    return data.orders.stream()
+        .collect(Collectors.groupingBy(order -> new CustomerFields(order.getCustomer())));
+  }
+
+  @Benchmark
+  public Map<Customer, List<Order>> groupEntityId(final SyntheticDataset data) {
+    return data.orders.stream().collect(Collectors.groupingBy(Order::getCustomer));
+  }
+
+  @Benchmark
+  public Map<Customer, List<Order>> groupPrimitiveId(final SyntheticDataset data) {
+    return data.orders.stream().collect(ById.ordersByCustomer());
+  }
+
+  /** Equality over every column of a product, as the Lombok-generated methods compared them. */
+  static final class ProductFields {
+
+    private final Product product;
+
+    ProductFields(final Product product) {
+      this.product = product;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (!(other instanceof ProductFields)) {
+        return false;
+      }
+      Product that = ((ProductFields) other).product;
+      return Objects.equals(product.getId(), that.getId())
+          && Objects.equals(product.getName(), that.getName())
+          && Objects.equals(product.getCategory(), that.getCategory())
+          && product.getPriceCents() == that.getPriceCents();
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          product.getId(), product.getName(), product.getCategory(), product.getPriceCents());
+    }
+  }
+
+  /** Equality over every column of a customer. */
+  static final class CustomerFields {
+
+    private final Customer customer;
+
+    CustomerFields(final Customer customer) {
+      this.customer = customer;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (!(other instanceof CustomerFields)) {
+        return false;
+      }
+      Customer that = ((CustomerFields) other).customer;
+      return Objects.equals(customer.getId(), that.getId())
+          && Objects.equals(customer.getName(), that.getName())
+          && Objects.equals(customer.getTier(), that.getTier());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(customer.getId(), customer.getName(), customer.getTier());
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.madhurtoppo.streamsapi.benchmarks;
+
+import com.madhurtoppo.streamsapi.aggregation.AggregationEngine;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parallel {@code Collectors.groupingBy} against {@link AggregationEngine} for exercises 12a and
+ * 15. Run with several {@code parallelism} values to check how the engine scales with cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class GroupByBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Engine {
+
+    @Param({"1", "4", "16", "32"})
+    public int parallelism;
+
+    public AggregationEngine engine;
+
+    @Setup(Level.Trial)
+    public void start() {
+      engine = new AggregationEngine(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+      engine.close();
+    }
+  }
+
+  @Benchmark
+  public Map<Long, List<Long>> exercise12aGroupingBy(final SyntheticDataset data) {
+    return data.orders.parallelStream()
+        .collect(
+            Collectors.groupingBy(
+                order -> order.getCustomer().getId(),
+                HashMap::new,
+                Collectors.mapping(Order::getId, Collectors.toList())));
+  }
+
+  @Benchmark
+  public Map<Long, List<Long>> exercise12aEngine(final SyntheticDataset data, final Engine engine) {
+    return engine.engine.orderIdsByCustomerId(data.orders);
+  }
+
+  @Benchmark
+  public Map<String, Optional<Product>> exercise15GroupingBy(final SyntheticDataset data) {
+    return data.products.parallelStream()
+        .collect(
+            Collectors.groupingBy(
+                Product::getCategory, Collectors.maxBy(Comparator.comparing(Product::getPrice))));
+  }
+
+  @Benchmark
+  public Map<String, Product> exercise15Engine(final SyntheticDataset data, final Engine engine) {
+    return engine.engine.maxProductByCategory(data.products);
+  }
+}
@@ -0,0 +1,443 @@
+package com.madhurtoppo.streamsapi.benchmarks;
+
+import com.madhurtoppo.streamsapi.entities.Customer;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Order exercises from {@code StreamApiTest} (2, 4, 6, 7, 8, 8a, 9, 11, 12, 12a, 13, 13a), each as
+ * a sequential stream, a parallel stream and a hand-written loop.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class OrderExerciseBenchmark {
+
+  private static final LocalDate FEB_1 = LocalDate.of(2021, 2, 1);
+
+  private static final LocalDate MAR_1 = LocalDate.of(2021, 3, 1);
+
+  private static final LocalDate MAR_15 = LocalDate.of(2021, 3, 15);
+
+  private static final LocalDate APR_1 = LocalDate.of(2021, 4, 1);
+
+  private static final BiFunction<Double, Product, Double> ACCUMULATOR =
+      (acc, product) -> acc + product.getPrice();
+
+  // exercise 2
+
+  @Benchmark
+  public List<Order> exercise2Sequential(final SyntheticDataset data) {
+    return data.orders.stream()
+        .filter(
+            o -> o.getProducts().stream().anyMatch(p -> p.getCategory().equalsIgnoreCase("Baby")))
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Order> exercise2Parallel(final SyntheticDataset data) {
+    return data.orders.parallelStream()
+        .filter(
+            o -> o.getProducts().stream().anyMatch(p -> p.getCategory().equalsIgnoreCase("Baby")))
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Order> exercise2Loop(final SyntheticDataset data) {
+    List<Order> result = new ArrayList<>();
+    for (Order order : data.orders) {
+      for (Product product : order.getProducts()) {
+        if (product.getCategory().equalsIgnoreCase("Baby")) {
+          result.add(order);
+          break;
+        }
+      }
+    }
+    return result;
+  }
+
+  // exercise 4
+
+  @Benchmark
+  public List<Product> exercise4Sequential(final SyntheticDataset data) {
+    return data.orders.stream()
+        .filter(order -> order.getCustomer().getTier() == 2)
+        .filter(order -> !order.getOrderDate().isBefore(FEB_1))
+        .filter(order -> !order.getOrderDate().isAfter(APR_1))
+        .flatMap(order -> order.getProducts().stream())
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise4Parallel(final SyntheticDataset data) {
+    return data.orders.parallelStream()
+        .filter(order -> order.getCustomer().getTier() == 2)
+        .filter(order -> !order.getOrderDate().isBefore(FEB_1))
+        .filter(order -> !order.getOrderDate().isAfter(APR_1))
+        .flatMap(order -> order.getProducts().stream())
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise4Loop(final SyntheticDataset data) {
+    Set<Product> result = new LinkedHashSet<>();
+    for (Order order : data.orders) {
+      LocalDate orderDate = order.getOrderDate();
+      if (order.getCustomer().getTier() == 2
+          && !orderDate.isBefore(FEB_1)
+          && !orderDate.isAfter(APR_1)) {
+        result.addAll(order.getProducts());
+      }
+    }
+    return new ArrayList<>(result);
+  }
+
+  // exercise 6
+
+  @Benchmark
+  public List<Order> exercise6Sequential(final SyntheticDataset data) {
+    return data.orders.stream()
+        .sorted(Comparator.comparing(Order::getOrderDate).reversed())
+        .limit(3)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Order> exercise6Parallel(final SyntheticDataset data) {
+    return data.orders.parallelStream()
+        .sorted(Comparator.comparing(Order::getOrderDate).reversed())
+        .limit(3)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Order> exercise6Loop(final SyntheticDataset data) {
+    Order[] top = new Order[3];
+    int size = 0;
+    for (Order order : data.orders) {
+      LocalDate orderDate = order.getOrderDate();
+      if (size == top.length && !orderDate.isAfter(top[size - 1].getOrderDate())) {
+        continue;
+      }
+      int i = size == top.length ? size - 1 : size++;
+      while (i > 0 && orderDate.isAfter(top[i - 1].getOrderDate())) {
+        top[i] = top[i - 1];
+        i--;
+      }
+      top[i] = order;
+    }
+    List<Order> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add(top[i]);
+    }
+    return result;
+  }
+
+  // exercise 7
+
+  @Benchmark
+  public List<Product> exercise7Sequential(final SyntheticDataset data) {
+    return data.orders.stream()
+        .filter(order -> order.getOrderDate().isEqual(MAR_15))
+        .flatMap(order -> order.getProducts().stream())
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise7Parallel(final SyntheticDataset data) {
+    return data.orders.parallelStream()
+        .filter(order -> order.getOrderDate().isEqual(MAR_15))
+        .flatMap(order -> order.getProducts().stream())
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise7Loop(final SyntheticDataset data) {
+    Set<Product> result = new LinkedHashSet<>();
+    for (Order order : data.orders) {
+      if (order.getOrderDate().isEqual(MAR_15)) {
+        result.addAll(order.getProducts());
+      }
+    }
+    return new ArrayList<>(result);
+  }
+
+  // exercise 8
+
+  @Benchmark
+  public double exercise8Sequential(final SyntheticDataset data) {
+    return data.orders.stream()
+        .filter(o -> !o.getOrderDate().isBefore(FEB_1))
+        .filter(o -> o.getOrderDate().isBefore(MAR_1))
+        .flatMap(o -> o.getProducts().stream())
+        .mapToDouble(Product::getPrice)
+        .sum();
+  }
+
+  @Benchmark
+  public double exercise8Parallel(final SyntheticDataset data) {
+    return data.orders.parallelStream()
+        .filter(o -> !o.getOrderDate().isBefore(FEB_1))
+        .filter(o -> o.getOrderDate().isBefore(MAR_1))
+        .flatMap(o -> o.getProducts().stream())
+        .mapToDouble(Product::getPrice)
+        .sum();
+  }
+
+  @Benchmark
+  public double exercise8Loop(final SyntheticDataset data) {
+    double total = 0;
+    for (Order order : data.orders) {
+      LocalDate orderDate = order.getOrderDate();
+      if (!orderDate.isBefore(FEB_1) && orderDate.isBefore(MAR_1)) {
+        for (Product product : order.getProducts()) {
+          total += product.getPrice();
+        }
+      }
+    }
+    return total;
+  }
+
+  // exercise 8a
+
+  @Benchmark
+  public double exercise8aSequential(final SyntheticDataset data) {
+    return data.orders.stream()
+        .filter(o -> !o.getOrderDate().isBefore(FEB_1))
+        .filter(o -> o.getOrderDate().isBefore(MAR_1))
+        .flatMap(o -> o.getProducts().stream())
+        .reduce(0D, ACCUMULATOR, Double::sum);
+  }
+
+  @Benchmark
+  public double exercise8aParallel(final SyntheticDataset data) {
+    return data.orders.parallelStream()
+        .filter(o -> !o.getOrderDate().isBefore(FEB_1))
+        .filter(o -> o.getOrderDate().isBefore(MAR_1))
+        .flatMap(o -> o.getProducts().stream())
+        .reduce(0D, ACCUMULATOR, Double::sum);
+  }
+
+  @Benchmark
+  public double exercise8aLoop(final SyntheticDataset data) {
+    Double total = 0D;
+    for (Order order : data.orders) {
+      LocalDate orderDate = order.getOrderDate();
+      if (!orderDate.isBefore(FEB_1) && orderDate.isBefore(MAR_1)) {
+        for (Product product : order.getProducts()) {
+          total = ACCUMULATOR.apply(total, product);
+        }
+      }
+    }
+    return total;
+  }
+
+  // exercise 9
+
+  @Benchmark
+  public double exercise9Sequential(final SyntheticDataset data) {
+    return data.orders.stream()
+        .filter(order -> order.getOrderDate().isEqual(MAR_15))
+        .flatMap(order -> order.getProducts().stream())
+        .mapToDouble(Product::getPrice)
+        .average()
+        .orElse(Double.NaN);
+  }
+
+  @Benchmark
+  public double exercise9Parallel(final SyntheticDataset data) {
+    return data.orders.parallelStream()
+        .filter(order -> order.getOrderDate().isEqual(MAR_15))
+        .flatMap(order -> order.getProducts().stream())
+        .mapToDouble(Product::getPrice)
+        .average()
+        .orElse(Double.NaN);
+  }
+
+  @Benchmark
+  public double exercise9Loop(final SyntheticDataset data) {
+    double sum = 0;
+    long count = 0;
+    for (Order order : data.orders) {
+      if (order.getOrderDate().isEqual(MAR_15)) {
+        for (Product product : order.getProducts()) {
+          sum += product.getPrice();
+          count++;
+        }
+      }
+    }
+    return count == 0 ? Double.NaN : sum / count;
+  }
+
+  // exercise 11
+
+  @Benchmark
+  public Map<Long, Integer> exercise11Sequential(final SyntheticDataset data) {
+    return data.orders.stream()
+        .collect(Collectors.toMap(Order::getId, order -> order.getProducts().size()));
+  }
+
+  @Benchmark
+  public Map<Long, Integer> exercise11Parallel(final SyntheticDataset data) {
+    return data.orders.parallelStream()
+        .collect(Collectors.toMap(Order::getId, order -> order.getProducts().size()));
+  }
+
+  @Benchmark
+  public Map<Long, Integer> exercise11Loop(final SyntheticDataset data) {
+    Map<Long, Integer> result = new HashMap<>();
+    for (Order order : data.orders) {
+      result.put(order.getId(), order.getProducts().size());
+    }
+    return result;
+  }
+
+  // exercise 12
+
+  @Benchmark
+  public Map<Customer, List<Order>> exercise12Sequential(final SyntheticDataset data) {
+    return data.orders.stream().collect(Collectors.groupingBy(Order::getCustomer));
+  }
+
+  @Benchmark
+  public Map<Customer, List<Order>> exercise12Parallel(final SyntheticDataset data) {
+    return data.orders.parallelStream().collect(Collectors.groupingBy(Order::getCustomer));
+  }
+
+  @Benchmark
+  public Map<Customer, List<Order>> exercise12Loop(final SyntheticDataset data) {
+    Map<Customer, List<Order>> result = new HashMap<>();
+    for (Order order : data.orders) {
+      result.computeIfAbsent(order.getCustomer(), customer -> new ArrayList<>()).add(order);
+    }
+    return result;
+  }
+
+  // exercise 12a
+
+  @Benchmark
+  public Map<Long, List<Long>> exercise12aSequential(final SyntheticDataset data) {
+    return data.orders.stream()
+        .collect(
+            Collectors.groupingBy(
+                order -> order.getCustomer().getId(),
+                HashMap::new,
+                Collectors.mapping(Order::getId, Collectors.toList())));
+  }
+
+  @Benchmark
+  public Map<Long, List<Long>> exercise12aParallel(final SyntheticDataset data) {
+    return data.orders.parallelStream()
+        .collect(
+            Collectors.groupingBy(
+                order -> order.getCustomer().getId(),
+                HashMap::new,
+                Collectors.mapping(Order::getId, Collectors.toList())));
+  }
+
+  @Benchmark
+  public Map<Long, List<Long>> exercise12aLoop(final SyntheticDataset data) {
+    Map<Long, List<Long>> result = new HashMap<>();
+    for (Order order : data.orders) {
+      result
+          .computeIfAbsent(order.getCustomer().getId(), customerId -> new ArrayList<>())
+          .add(order.getId());
+    }
+    return result;
+  }
+
+  // exercise 13
+
+  @Benchmark
+  public Map<Order, Double> exercise13Sequential(final SyntheticDataset data) {
+    return data.orders.stream()
+        .collect(
+            Collectors.toMap(
+                Function.identity(),
+                order -> order.getProducts().stream().mapToDouble(Product::getPrice).sum()));
+  }
+
+  @Benchmark
+  public Map<Order, Double> exercise13Parallel(final SyntheticDataset data) {
+    return data.orders.parallelStream()
+        .collect(
+            Collectors.toMap(
+                Function.identity(),
+                order -> order.getProducts().stream().mapToDouble(Product::getPrice).sum()));
+  }
+
+  @Benchmark
+  public Map<Order, Double> exercise13Loop(final SyntheticDataset data) {
+    Map<Order, Double> result = new HashMap<>();
+    for (Order order : data.orders) {
+      result.put(order, orderTotal(order));
+    }
+    return result;
+  }
+
+  // exercise 13a
+
+  @Benchmark
+  public Map<Long, Double> exercise13aSequential(final SyntheticDataset data) {
+    return data.orders.stream()
+        .collect(
+            Collectors.toMap(
+                Order::getId,
+                order ->
+                    order.getProducts().stream()
+                        .reduce(0D, (acc, product) -> acc + product.getPrice(), Double::sum)));
+  }
+
+  @Benchmark
+  public Map<Long, Double> exercise13aParallel(final SyntheticDataset data) {
+    return data.orders.parallelStream()
+        .collect(
+            Collectors.toMap(
+                Order::getId,
+                order ->
+                    order.getProducts().stream()
+                        .reduce(0D, (acc, product) -> acc + product.getPrice(), Double::sum)));
+  }
+
+  @Benchmark
+  public Map<Long, Double> exercise13aLoop(final SyntheticDataset data) {
+    Map<Long, Double> result = new HashMap<>();
+    for (Order order : data.orders) {
+      result.put(order.getId(), orderTotal(order));
+    }
+    return result;
+  }
+
+  private static double orderTotal(final Order order) {
+    double total = 0;
+    for (Product product : order.getProducts()) {
+      total += product.getPrice();
+    }
+    return total;
+  }
+}
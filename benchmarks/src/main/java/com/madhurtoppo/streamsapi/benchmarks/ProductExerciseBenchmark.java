@@ -0,0 +1,384 @@
+package com.madhurtoppo.streamsapi.benchmarks;
+
+import com.madhurtoppo.streamsapi.entities.Product;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Product-only exercises from {@code StreamApiTest} (1, 1a, 1b, 3, 5, 5a, 5b, 10, 14, 15, 15a),
+ * each as a sequential stream, a parallel stream and a hand-written loop.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ProductExerciseBenchmark {
+
+  private static final Predicate<Product> HAS_BOOKS =
+      product -> product.getCategory().equalsIgnoreCase("Books");
+
+  private static final Predicate<Product> IS_PRICE_ABOVE_100 = product -> product.getPrice() > 100;
+
+  private static final BiPredicate<Product, String> HAS_CATEGORY =
+      (product, category) -> product.getCategory().equalsIgnoreCase(category);
+
+  // exercise 1
+
+  @Benchmark
+  public List<Product> exercise1Sequential(final SyntheticDataset data) {
+    return data.products.stream()
+        .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+        .filter(product -> product.getPrice() > 100)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise1Parallel(final SyntheticDataset data) {
+    return data.products.parallelStream()
+        .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+        .filter(product -> product.getPrice() > 100)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise1Loop(final SyntheticDataset data) {
+    List<Product> result = new ArrayList<>();
+    for (Product product : data.products) {
+      if (product.getCategory().equalsIgnoreCase("Books") && product.getPrice() > 100) {
+        result.add(product);
+      }
+    }
+    return result;
+  }
+
+  // exercise 1a
+
+  @Benchmark
+  public List<Product> exercise1aSequential(final SyntheticDataset data) {
+    return data.products.stream()
+        .filter(product -> HAS_BOOKS.and(IS_PRICE_ABOVE_100).test(product))
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise1aParallel(final SyntheticDataset data) {
+    return data.products.parallelStream()
+        .filter(product -> HAS_BOOKS.and(IS_PRICE_ABOVE_100).test(product))
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise1aLoop(final SyntheticDataset data) {
+    Predicate<Product> predicate = HAS_BOOKS.and(IS_PRICE_ABOVE_100);
+    List<Product> result = new ArrayList<>();
+    for (Product product : data.products) {
+      if (predicate.test(product)) {
+        result.add(product);
+      }
+    }
+    return result;
+  }
+
+  // exercise 1b
+
+  @Benchmark
+  public List<Product> exercise1bSequential(final SyntheticDataset data) {
+    return data.products.stream()
+        .filter(product -> HAS_CATEGORY.test(product, "Books") && product.getPrice() > 100)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise1bParallel(final SyntheticDataset data) {
+    return data.products.parallelStream()
+        .filter(product -> HAS_CATEGORY.test(product, "Books") && product.getPrice() > 100)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise1bLoop(final SyntheticDataset data) {
+    List<Product> result = new ArrayList<>();
+    for (Product product : data.products) {
+      if (HAS_CATEGORY.test(product, "Books") && product.getPrice() > 100) {
+        result.add(product);
+      }
+    }
+    return result;
+  }
+
+  // exercise 3
+
+  @Benchmark
+  public List<Product> exercise3Sequential(final SyntheticDataset data) {
+    return data.products.stream()
+        .filter(product -> product.getCategory().equalsIgnoreCase("Toys"))
+        .map(product -> product.withPrice(product.getPrice() * 0.9))
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise3Parallel(final SyntheticDataset data) {
+    return data.products.parallelStream()
+        .filter(product -> product.getCategory().equalsIgnoreCase("Toys"))
+        .map(product -> product.withPrice(product.getPrice() * 0.9))
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise3Loop(final SyntheticDataset data) {
+    List<Product> result = new ArrayList<>();
+    for (Product product : data.products) {
+      if (product.getCategory().equalsIgnoreCase("Toys")) {
+        result.add(product.withPrice(product.getPrice() * 0.9));
+      }
+    }
+    return result;
+  }
+
+  // exercise 5
+
+  @Benchmark
+  public Optional<Product> exercise5Sequential(final SyntheticDataset data) {
+    return data.products.stream()
+        .filter(p -> p.getCategory().equalsIgnoreCase("Books"))
+        .min(Comparator.comparing(Product::getPrice));
+  }
+
+  @Benchmark
+  public Optional<Product> exercise5Parallel(final SyntheticDataset data) {
+    return data.products.parallelStream()
+        .filter(p -> p.getCategory().equalsIgnoreCase("Books"))
+        .min(Comparator.comparing(Product::getPrice));
+  }
+
+  @Benchmark
+  public Optional<Product> exercise5Loop(final SyntheticDataset data) {
+    Product cheapest = null;
+    for (Product product : data.products) {
+      if (product.getCategory().equalsIgnoreCase("Books")
+          && (cheapest == null || product.getPrice() < cheapest.getPrice())) {
+        cheapest = product;
+      }
+    }
+    return Optional.ofNullable(cheapest);
+  }
+
+  // exercise 5a
+
+  @Benchmark
+  public List<Product> exercise5aSequential(final SyntheticDataset data) {
+    return data.products.stream()
+        .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+        .sorted(Comparator.comparing(Product::getPrice))
+        .limit(3)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise5aParallel(final SyntheticDataset data) {
+    return data.products.parallelStream()
+        .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+        .sorted(Comparator.comparing(Product::getPrice))
+        .limit(3)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise5aLoop(final SyntheticDataset data) {
+    return topThree(data.products, Comparator.comparing(Product::getPrice));
+  }
+
+  // exercise 5b
+
+  @Benchmark
+  public List<Product> exercise5bSequential(final SyntheticDataset data) {
+    return data.products.stream()
+        .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+        .sorted(Comparator.comparing(Product::getPrice).reversed())
+        .limit(3)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise5bParallel(final SyntheticDataset data) {
+    return data.products.parallelStream()
+        .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+        .sorted(Comparator.comparing(Product::getPrice).reversed())
+        .limit(3)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Product> exercise5bLoop(final SyntheticDataset data) {
+    return topThree(data.products, Comparator.comparing(Product::getPrice).reversed());
+  }
+
+  // exercise 10
+
+  @Benchmark
+  public DoubleSummaryStatistics exercise10Sequential(final SyntheticDataset data) {
+    return data.products.stream()
+        .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+        .mapToDouble(Product::getPrice)
+        .summaryStatistics();
+  }
+
+  @Benchmark
+  public DoubleSummaryStatistics exercise10Parallel(final SyntheticDataset data) {
+    return data.products.parallelStream()
+        .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+        .mapToDouble(Product::getPrice)
+        .summaryStatistics();
+  }
+
+  @Benchmark
+  public DoubleSummaryStatistics exercise10Loop(final SyntheticDataset data) {
+    DoubleSummaryStatistics statistics = new DoubleSummaryStatistics();
+    for (Product product : data.products) {
+      if (product.getCategory().equalsIgnoreCase("Books")) {
+        statistics.accept(product.getPrice());
+      }
+    }
+    return statistics;
+  }
+
+  // exercise 14
+
+  @Benchmark
+  public Map<String, List<String>> exercise14Sequential(final SyntheticDataset data) {
+    return data.products.stream()
+        .collect(
+            Collectors.groupingBy(
+                Product::getCategory, Collectors.mapping(Product::getName, Collectors.toList())));
+  }
+
+  @Benchmark
+  public Map<String, List<String>> exercise14Parallel(final SyntheticDataset data) {
+    return data.products.parallelStream()
+        .collect(
+            Collectors.groupingBy(
+                Product::getCategory, Collectors.mapping(Product::getName, Collectors.toList())));
+  }
+
+  @Benchmark
+  public Map<String, List<String>> exercise14Loop(final SyntheticDataset data) {
+    Map<String, List<String>> result = new HashMap<>();
+    for (Product product : data.products) {
+      result.computeIfAbsent(product.getCategory(), category -> new ArrayList<>())
+          .add(product.getName());
+    }
+    return result;
+  }
+
+  // exercise 15
+
+  @Benchmark
+  public Map<String, Optional<Product>> exercise15Sequential(final SyntheticDataset data) {
+    return data.products.stream()
+        .collect(
+            Collectors.groupingBy(
+                Product::getCategory, Collectors.maxBy(Comparator.comparing(Product::getPrice))));
+  }
+
+  @Benchmark
+  public Map<String, Optional<Product>> exercise15Parallel(final SyntheticDataset data) {
+    return data.products.parallelStream()
+        .collect(
+            Collectors.groupingBy(
+                Product::getCategory, Collectors.maxBy(Comparator.comparing(Product::getPrice))));
+  }
+
+  @Benchmark
+  public Map<String, Optional<Product>> exercise15Loop(final SyntheticDataset data) {
+    Map<String, Product> max = maxByCategory(data.products);
+    Map<String, Optional<Product>> result = new HashMap<>();
+    max.forEach((category, product) -> result.put(category, Optional.of(product)));
+    return result;
+  }
+
+  // exercise 15a
+
+  @Benchmark
+  public Map<String, String> exercise15aSequential(final SyntheticDataset data) {
+    return data.products.stream()
+        .collect(
+            Collectors.groupingBy(
+                Product::getCategory,
+                Collectors.collectingAndThen(
+                    Collectors.maxBy(Comparator.comparingDouble(Product::getPrice)),
+                    optionalProduct -> optionalProduct.map(Product::getName).orElse(null))));
+  }
+
+  @Benchmark
+  public Map<String, String> exercise15aParallel(final SyntheticDataset data) {
+    return data.products.parallelStream()
+        .collect(
+            Collectors.groupingBy(
+                Product::getCategory,
+                Collectors.collectingAndThen(
+                    Collectors.maxBy(Comparator.comparingDouble(Product::getPrice)),
+                    optionalProduct -> optionalProduct.map(Product::getName).orElse(null))));
+  }
+
+  @Benchmark
+  public Map<String, String> exercise15aLoop(final SyntheticDataset data) {
+    Map<String, String> result = new HashMap<>();
+    maxByCategory(data.products)
+        .forEach((category, product) -> result.put(category, product.getName()));
+    return result;
+  }
+
+  private static Map<String, Product> maxByCategory(final List<Product> products) {
+    Map<String, Product> max = new HashMap<>();
+    for (Product product : products) {
+      Product current = max.get(product.getCategory());
+      if (current == null || product.getPrice() > current.getPrice()) {
+        max.put(product.getCategory(), product);
+      }
+    }
+    return max;
+  }
+
+  /** Keeps the three smallest "Books" products in a sorted array without sorting the input. */
+  private static List<Product> topThree(
+      final List<Product> products, final Comparator<Product> comparator) {
+    Product[] top = new Product[3];
+    int size = 0;
+    for (Product product : products) {
+      if (!product.getCategory().equalsIgnoreCase("Books")) {
+        continue;
+      }
+      if (size == top.length && comparator.compare(product, top[size - 1]) >= 0) {
+        continue;
+      }
+      int i = size == top.length ? size - 1 : size++;
+      while (i > 0 && comparator.compare(product, top[i - 1]) < 0) {
+        top[i] = top[i - 1];
+        i--;
+      }
+      top[i] = product;
+    }
+    List<Product> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add(top[i]);
+    }
+    return result;
+  }
+}
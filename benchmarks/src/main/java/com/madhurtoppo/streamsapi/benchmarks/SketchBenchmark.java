@@ -0,0 +1,98 @@
+package com.madhurtoppo.streamsapi.benchmarks;
+
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.sketch.Estimate;
+import com.madhurtoppo.streamsapi.sketch.HeavyHitter;
+import com.madhurtoppo.streamsapi.sketch.Sketches;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Exact answers against sketches over every order line: distinct products of tier 2 (exercise 4),
+ * the median Books line price (exercise 5a sorts instead) and the ten most ordered products.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class SketchBenchmark {
+
+  // distinct products of tier 2
+
+  @Benchmark
+  public long distinctExact(final SyntheticDataset data) {
+    return data.orders.stream()
+        .filter(order -> order.getCustomer().getTier() == 2)
+        .flatMap(order -> order.getProducts().stream())
+        .distinct()
+        .count();
+  }
+
+  @Benchmark
+  public Estimate distinctSketch(final SyntheticDataset data) {
+    return data.orders.stream()
+        .filter(order -> order.getCustomer().getTier() == 2)
+        .flatMap(order -> order.getProducts().stream())
+        .collect(Sketches.distinct(Product::getId, 14))
+        .estimate();
+  }
+
+  // median Books line price
+
+  @Benchmark
+  public double medianExact(final SyntheticDataset data) {
+    double[] prices = data.orders.stream()
+        .flatMap(order -> order.getProducts().stream())
+        .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+        .mapToDouble(Product::getPrice)
+        .toArray();
+    Arrays.sort(prices);
+    return prices[(prices.length + 1) / 2 - 1];
+  }
+
+  @Benchmark
+  public Estimate medianSketch(final SyntheticDataset data) {
+    return data.orders.stream()
+        .flatMap(order -> order.getProducts().stream())
+        .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+        .collect(Sketches.quantiles(Product::getPrice, 200))
+        .quantile(0.5);
+  }
+
+  // ten most ordered products
+
+  @Benchmark
+  public List<Long> topExact(final SyntheticDataset data) {
+    Map<Long, Long> lines = data.orders.stream()
+        .flatMap(order -> order.getProducts().stream())
+        .collect(Collectors.groupingBy(Product::getId, Collectors.counting()));
+    return lines.entrySet().stream()
+        .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()))
+        .limit(10)
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Long> topSketch(final SyntheticDataset data) {
+    return data.orders.stream()
+        .flatMap(order -> order.getProducts().stream())
+        .collect(Sketches.heavyHitters(Product::getId, 1_024))
+        .top(10)
+        .stream()
+        .map(HeavyHitter::getKey)
+        .collect(Collectors.toList());
+  }
+}
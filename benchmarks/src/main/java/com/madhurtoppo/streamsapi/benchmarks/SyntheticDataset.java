@@ -0,0 +1,84 @@
+package com.madhurtoppo.streamsapi.benchmarks;
+
+import com.madhurtoppo.streamsapi.entities.Customer;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Seeded, in-memory dataset shaped like {@code data.sql}, scaled by the number of orders. There is
+ * one product per ten orders and one customer per fifty orders, and each order holds one to five
+ * distinct products placed during 2021.
+ */
+@State(Scope.Benchmark)
+public class SyntheticDataset {
+
+  static final String[] CATEGORIES = {"Baby", "Books", "Games", "Grocery", "Toys"};
+
+  static final String[] STATUSES = {"NEW", "PENDING", "DELIVERED"};
+
+  private static final LocalDate FIRST_DAY = LocalDate.of(2021, 1, 1);
+
+  @Param({"10000", "1000000", "10000000"})
+  public int orderCount;
+
+  public List<Customer> customers;
+
+  public List<Product> products;
+
+  public List<Order> orders;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    SplittableRandom random = new SplittableRandom(42);
+
+    int customerCount = Math.max(10, orderCount / 50);
+    customers = new ArrayList<>(customerCount);
+    for (int i = 1; i <= customerCount; i++) {
+      customers.add(
+          Customer.builder().id((long) i).name("Customer " + i).tier(random.nextInt(3)).build());
+    }
+
+    int productCount = Math.max(30, orderCount / 10);
+    products = new ArrayList<>(productCount);
+    for (int i = 1; i <= productCount; i++) {
+      products.add(
+          Product.builder()
+              .id((long) i)
+              .name("Product " + i)
+              .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+              .price(random.nextInt(1_000, 60_000) / 100.0)
+              .build());
+    }
+
+    orders = new ArrayList<>(orderCount);
+    for (int i = 1; i <= orderCount; i++) {
+      LocalDate orderDate = FIRST_DAY.plusDays(random.nextInt(365));
+      int size = 1 + random.nextInt(5);
+      orders.add(
+          Order.builder()
+              .id((long) i)
+              .orderDate(orderDate)
+              .deliveryDate(orderDate.plusDays(1 + random.nextInt(10)))
+              .status(STATUSES[random.nextInt(STATUSES.length)])
+              .customer(customers.get(random.nextInt(customerCount)))
+              .products(
+                  IntStream.generate(() -> random.nextInt(productCount))
+                      .distinct()
+                      .limit(size)
+                      .mapToObj(products::get)
+                      .collect(Collectors.toUnmodifiableSet()))
+              .build());
+    }
+  }
+}
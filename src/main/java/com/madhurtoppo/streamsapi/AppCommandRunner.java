@@ -3,14 +3,20 @@ package com.madhurtoppo.streamsapi;
 import com.madhurtoppo.streamsapi.repositories.CustomerRepository;
 import com.madhurtoppo.streamsapi.repositories.OrderRepository;
 import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import com.madhurtoppo.streamsapi.repositories.StreamingProperties;
+import com.madhurtoppo.streamsapi.repositories.StreamingRepository;
+import java.util.stream.Stream;
 import javax.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+/** Logs every row at startup, except when a dataset is generated. */
 @Slf4j
 @Component
+@Profile("!generate")
 @AllArgsConstructor
 public class AppCommandRunner implements CommandLineRunner {
 
@@ -20,16 +26,26 @@ public class AppCommandRunner implements CommandLineRunner {
 
   private final ProductRepository productRepository;
 
+  private final StreamingProperties streamingProperties;
+
   @Transactional
   @Override
   public void run(final String... args) throws Exception {
     log.info("Customers:");
-    customerRepository.findAll().forEach(customer -> log.info(customer.toString()));
+    logAll(customerRepository);
 
     log.info("Orders:");
-    orderRepository.findAll().forEach(order -> log.info(order.toString()));
+    logAll(orderRepository);
 
     log.info("Products:");
-    productRepository.findAll().forEach(product -> log.info(product.toString()));
+    logAll(productRepository);
+  }
+
+  private void logAll(final StreamingRepository<?, ?> repository) {
+    try (Stream<?> rows =
+        repository.streamAll(
+            streamingProperties.getFetchSize(), streamingProperties.getClearInterval())) {
+      rows.forEach(row -> log.info(row.toString()));
+    }
   }
 }
@@ -1,9 +1,12 @@
 package com.madhurtoppo.streamsapi;
 
+import com.madhurtoppo.streamsapi.repositories.support.StreamingJpaRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
+@EnableJpaRepositories(repositoryBaseClass = StreamingJpaRepository.class)
 public class DemoApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,253 @@
+package com.madhurtoppo.streamsapi.aggregation;
+
+import com.madhurtoppo.streamsapi.collectors.TopK;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parallel group-by over in-memory rows, running on its own {@link ForkJoinPool}.
+ *
+ * <p>Unlike {@code Collectors.groupingBy} on a parallel stream, which builds a full map per split
+ * and merges them pairwise, the input is cut into chunks that each accumulate into one small map
+ * per key partition. Partition {@code p} of all chunks is then merged by a single task, so no two
+ * tasks ever touch the same key and the merge scales with the number of partitions. Groups keep
+ * the encounter order of the input.
+ */
+@Component
+public class AggregationEngine implements AutoCloseable {
+
+  private static final int MIN_CHUNK_SIZE = 4_096;
+
+  private final ForkJoinPool pool;
+
+  /** @param parallelism worker threads; 0 or less uses the number of available processors */
+  @Autowired
+  public AggregationEngine(
+      @Value("${streams-api.aggregation.parallelism:0}") final int parallelism) {
+    this.pool =
+        new ForkJoinPool(
+            parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+            ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+            null,
+            false);
+  }
+
+  public int parallelism() {
+    return pool.getParallelism();
+  }
+
+  /** Groups {@code rows} by {@code key} and reduces every group with {@code downstream}. */
+  public <T, K, A, R> Map<K, R> groupBy(
+      final List<? extends T> rows,
+      final Function<? super T, ? extends K> key,
+      final Collector<? super T, A, R> downstream) {
+    List<? extends T> source = rows instanceof RandomAccess ? rows : new ArrayList<>(rows);
+    int partitions = pool.getParallelism();
+    int chunkSize = Math.max(MIN_CHUNK_SIZE, source.size() / (partitions * 4) + 1);
+    int chunkCount = (source.size() + chunkSize - 1) / chunkSize;
+    if (chunkCount <= 1) {
+      return source.stream().collect(Collectors.groupingBy(key, HashMap::new, downstream));
+    }
+
+    Supplier<A> supplier = downstream.supplier();
+    BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+    BinaryOperator<A> combiner = downstream.combiner();
+    Function<A, R> finisher = downstream.finisher();
+
+    List<ForkJoinTask<List<Map<K, A>>>> accumulate = new ArrayList<>(chunkCount);
+    for (int c = 0; c < chunkCount; c++) {
+      int from = c * chunkSize;
+      int to = Math.min(source.size(), from + chunkSize);
+      accumulate.add(
+          ForkJoinTask.adapt(
+              () -> accumulateChunk(source, from, to, key, partitions, supplier, accumulator)));
+    }
+    List<List<Map<K, A>>> chunks = invokeAll(accumulate);
+
+    List<ForkJoinTask<Map<K, R>>> merge = new ArrayList<>(partitions);
+    for (int p = 0; p < partitions; p++) {
+      int partition = p;
+      merge.add(ForkJoinTask.adapt(() -> mergePartition(chunks, partition, combiner, finisher)));
+    }
+    List<Map<K, R>> merged = invokeAll(merge);
+
+    int size = 0;
+    for (Map<K, R> partition : merged) {
+      size += partition.size();
+    }
+    Map<K, R> result = new HashMap<>(size * 4 / 3 + 1);
+    for (Map<K, R> partition : merged) {
+      result.putAll(partition);
+    }
+    return result;
+  }
+
+  public <T, K> Map<K, Long> countBy(
+      final List<? extends T> rows, final Function<? super T, ? extends K> key) {
+    return groupBy(rows, key, counting());
+  }
+
+  public <T, K> Map<K, Double> sumBy(
+      final List<? extends T> rows,
+      final Function<? super T, ? extends K> key,
+      final ToDoubleFunction<? super T> value) {
+    return groupBy(rows, key, summingDouble(value));
+  }
+
+  /** Largest row per group; groups are never empty, so there is no {@code Optional}. */
+  public <T, K> Map<K, T> maxBy(
+      final List<? extends T> rows,
+      final Function<? super T, ? extends K> key,
+      final Comparator<? super T> comparator) {
+    return groupBy(
+        rows,
+        key,
+        Collectors.collectingAndThen(Collectors.<T>maxBy(comparator), optional -> optional.get()));
+  }
+
+  /** Smallest row per group. */
+  public <T, K> Map<K, T> minBy(
+      final List<? extends T> rows,
+      final Function<? super T, ? extends K> key,
+      final Comparator<? super T> comparator) {
+    return groupBy(
+        rows,
+        key,
+        Collectors.collectingAndThen(Collectors.<T>minBy(comparator), optional -> optional.get()));
+  }
+
+  /** The {@code n} largest rows per group, largest first. */
+  public <T, K> Map<K, List<T>> topN(
+      final List<? extends T> rows,
+      final Function<? super T, ? extends K> key,
+      final Comparator<? super T> comparator,
+      final int n) {
+    return groupBy(rows, key, TopK.greatest(n, comparator));
+  }
+
+  // reports
+
+  /** Exercise 12a: order ids per customer id. */
+  public Map<Long, List<Long>> orderIdsByCustomerId(final List<Order> orders) {
+    return groupBy(
+        orders,
+        order -> order.getCustomer().getId(),
+        Collectors.mapping(Order::getId, Collectors.toList()));
+  }
+
+  /** Exercise 14: product names per category. */
+  public Map<String, List<String>> productNamesByCategory(final List<Product> products) {
+    return groupBy(
+        products,
+        Product::getCategory,
+        Collectors.mapping(Product::getName, Collectors.toList()));
+  }
+
+  /** Exercise 15: most expensive product per category. */
+  public Map<String, Product> maxProductByCategory(final List<Product> products) {
+    return maxBy(products, Product::getCategory, Comparator.comparingLong(Product::getPriceCents));
+  }
+
+  @PreDestroy
+  @Override
+  public void close() {
+    pool.shutdown();
+  }
+
+  private static <T> Collector<T, long[], Long> counting() {
+    return Collector.of(
+        () -> new long[1],
+        (count, row) -> count[0]++,
+        (left, right) -> {
+          left[0] += right[0];
+          return left;
+        },
+        count -> count[0]);
+  }
+
+  private static <T> Collector<T, double[], Double> summingDouble(
+      final ToDoubleFunction<? super T> value) {
+    return Collector.of(
+        () -> new double[1],
+        (sum, row) -> sum[0] += value.applyAsDouble(row),
+        (left, right) -> {
+          left[0] += right[0];
+          return left;
+        },
+        sum -> sum[0]);
+  }
+
+  private static <T, K, A> List<Map<K, A>> accumulateChunk(
+      final List<? extends T> rows,
+      final int from,
+      final int to,
+      final Function<? super T, ? extends K> key,
+      final int partitions,
+      final Supplier<A> supplier,
+      final BiConsumer<A, ? super T> accumulator) {
+    List<Map<K, A>> maps = new ArrayList<>(partitions);
+    for (int p = 0; p < partitions; p++) {
+      maps.add(new HashMap<>());
+    }
+    for (int i = from; i < to; i++) {
+      T row = rows.get(i);
+      K k = key.apply(row);
+      A container =
+          maps.get(partition(k, partitions)).computeIfAbsent(k, ignored -> supplier.get());
+      accumulator.accept(container, row);
+    }
+    return maps;
+  }
+
+  private static <K, A, R> Map<K, R> mergePartition(
+      final List<List<Map<K, A>>> chunks,
+      final int partition,
+      final BinaryOperator<A> combiner,
+      final Function<A, R> finisher) {
+    Map<K, A> merged = new HashMap<>();
+    for (List<Map<K, A>> chunk : chunks) {
+      chunk.get(partition).forEach((k, a) -> merged.merge(k, a, combiner));
+    }
+    Map<K, R> result = new HashMap<>(merged.size() * 4 / 3 + 1);
+    merged.forEach((k, a) -> result.put(k, finisher.apply(a)));
+    return result;
+  }
+
+  private static int partition(final Object key, final int partitions) {
+    int h = key == null ? 0 : key.hashCode();
+    h ^= h >>> 16;
+    return Math.floorMod(h * 0x9E3779B9, partitions);
+  }
+
+  private <R> List<R> invokeAll(final List<ForkJoinTask<R>> tasks) {
+    return pool.invoke(
+        ForkJoinTask.adapt(
+            () -> {
+              ForkJoinTask.invokeAll(tasks);
+              List<R> results = new ArrayList<>(tasks.size());
+              for (ForkJoinTask<R> task : tasks) {
+                results.add(task.join());
+              }
+              return results;
+            }));
+  }
+}
@@ -0,0 +1,42 @@
+package com.madhurtoppo.streamsapi.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes {@code cache.gets} (hit/miss), {@code cache.puts}, {@code cache.evictions} and {@code
+ * cache.removals} for every region of Hibernate's second-level and query caches, tagged with the
+ * region name. Regions and their bounds are configured in {@code application.conf}.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  public SecondLevelCacheMetrics(final EntityManagerFactory entityManagerFactory) {
+    this.entityManagerFactory = entityManagerFactory;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    RegionFactory regionFactory =
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+    if (!(regionFactory instanceof JCacheRegionFactory)) {
+      return;
+    }
+    CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+    for (String name : cacheManager.getCacheNames()) {
+      Cache<Object, Object> cache = cacheManager.getCache(name);
+      new JCacheMetrics(cache, Tags.of("layer", "hibernate")).bindTo(registry);
+    }
+  }
+}
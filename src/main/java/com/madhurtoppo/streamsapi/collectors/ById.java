@@ -0,0 +1,136 @@
+package com.madhurtoppo.streamsapi.collectors;
+
+import com.madhurtoppo.streamsapi.entities.Customer;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.primitive.LongHashSet;
+import com.madhurtoppo.streamsapi.primitive.LongIntMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * {@code distinct()} and {@code groupingBy} by a {@code long} id instead of {@code equals} and
+ * {@code hashCode}: each element costs one primitive hash, and ids read from Hibernate proxies do
+ * not initialize them.
+ */
+public final class ById {
+
+  private ById() {}
+
+  /**
+   * A stateful filter passing the first element of each id, for {@code .filter(ById.first(...))}
+   * on a sequential stream. Use a new predicate per stream; for parallel streams use {@link
+   * #distinct}.
+   */
+  public static <T> Predicate<T> first(final ToLongFunction<? super T> id) {
+    LongHashSet seen = new LongHashSet();
+    return element -> seen.add(id.applyAsLong(element));
+  }
+
+  /** The first element of each id, in encounter order. */
+  public static <T> Collector<T, ?, List<T>> distinct(final ToLongFunction<? super T> id) {
+    return Collector.of(
+        () -> new Distinct<T>(id),
+        Distinct::add,
+        Distinct::merge,
+        distinct -> distinct.elements);
+  }
+
+  /**
+   * Elements grouped by {@code key}, whose identity is {@code id}. The groups keep the first key
+   * object seen for each id and are in encounter order; {@code key.hashCode()} is called once per
+   * group rather than once per element, which initializes a key that is an uninitialized proxy.
+   */
+  public static <T, K> Collector<T, ?, Map<K, List<T>>> grouping(
+      final Function<? super T, ? extends K> key, final ToLongFunction<? super K> id) {
+    return Collector.of(
+        () -> new Groups<T, K>(key, id),
+        Groups::add,
+        Groups::merge,
+        Groups::toMap);
+  }
+
+  /** Orders per customer, as exercise 12's {@code groupingBy(Order::getCustomer)}. */
+  public static Collector<Order, ?, Map<Customer, List<Order>>> ordersByCustomer() {
+    return grouping(Order::getCustomer, Customer::getId);
+  }
+
+  private static final class Distinct<T> {
+
+    private final ToLongFunction<? super T> id;
+
+    private final LongHashSet seen = new LongHashSet();
+
+    private final List<T> elements = new ArrayList<>();
+
+    private Distinct(final ToLongFunction<? super T> id) {
+      this.id = id;
+    }
+
+    private void add(final T element) {
+      if (seen.add(id.applyAsLong(element))) {
+        elements.add(element);
+      }
+    }
+
+    private Distinct<T> merge(final Distinct<T> other) {
+      other.elements.forEach(this::add);
+      return this;
+    }
+  }
+
+  private static final class Groups<T, K> {
+
+    private final Function<? super T, ? extends K> key;
+
+    private final ToLongFunction<? super K> id;
+
+    /** Id to position in {@link #keys} and {@link #groups}. */
+    private final LongIntMap positions = new LongIntMap();
+
+    private final List<K> keys = new ArrayList<>();
+
+    private final List<List<T>> groups = new ArrayList<>();
+
+    private Groups(final Function<? super T, ? extends K> key, final ToLongFunction<? super K> id) {
+      this.key = key;
+      this.id = id;
+    }
+
+    private void add(final T element) {
+      group(key.apply(element)).add(element);
+    }
+
+    private List<T> group(final K groupKey) {
+      long groupId = id.applyAsLong(groupKey);
+      int position = positions.get(groupId, -1);
+      if (position < 0) {
+        positions.put(groupId, groups.size());
+        keys.add(groupKey);
+        groups.add(new ArrayList<>());
+        return groups.get(groups.size() - 1);
+      }
+      return groups.get(position);
+    }
+
+    private Groups<T, K> merge(final Groups<T, K> other) {
+      for (int i = 0; i < other.keys.size(); i++) {
+        group(other.keys.get(i)).addAll(other.groups.get(i));
+      }
+      return this;
+    }
+
+    private Map<K, List<T>> toMap() {
+      Map<K, List<T>> map = new LinkedHashMap<>(keys.size() * 4 / 3 + 1);
+      for (int i = 0; i < keys.size(); i++) {
+        map.put(keys.get(i), groups.get(i));
+      }
+      return map;
+    }
+  }
+}
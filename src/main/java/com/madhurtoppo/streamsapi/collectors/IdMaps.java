@@ -0,0 +1,77 @@
+package com.madhurtoppo.streamsapi.collectors;
+
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.money.Money;
+import com.madhurtoppo.streamsapi.primitive.LongDoubleMap;
+import com.madhurtoppo.streamsapi.primitive.LongIntMap;
+import com.madhurtoppo.streamsapi.primitive.LongLongListMap;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Collectors into primitive id-keyed maps, replacing {@code toMap} and {@code groupingBy} results
+ * that box every key and value. Duplicate keys are summed or appended rather than rejected, and
+ * partial results from parallel streams are merged.
+ */
+public final class IdMaps {
+
+  private IdMaps() {}
+
+  /** Sum of {@code value} per {@code key}. */
+  public static <T> Collector<T, ?, LongIntMap> summingInt(
+      final ToLongFunction<? super T> key, final ToIntFunction<? super T> value) {
+    return Collector.of(
+        LongIntMap::new,
+        (map, element) -> map.addTo(key.applyAsLong(element), value.applyAsInt(element)),
+        LongIntMap::merge,
+        Collector.Characteristics.IDENTITY_FINISH,
+        Collector.Characteristics.UNORDERED);
+  }
+
+  /** Sum of {@code value} per {@code key}. */
+  public static <T> Collector<T, ?, LongDoubleMap> summingDouble(
+      final ToLongFunction<? super T> key, final ToDoubleFunction<? super T> value) {
+    return Collector.of(
+        LongDoubleMap::new,
+        (map, element) -> map.addTo(key.applyAsLong(element), value.applyAsDouble(element)),
+        LongDoubleMap::merge,
+        Collector.Characteristics.IDENTITY_FINISH,
+        Collector.Characteristics.UNORDERED);
+  }
+
+  /** The {@code value}s per {@code key}, in encounter order. */
+  public static <T> Collector<T, ?, LongLongListMap> grouping(
+      final ToLongFunction<? super T> key, final ToLongFunction<? super T> value) {
+    return Collector.of(
+        LongLongListMap::new,
+        (map, element) -> map.add(key.applyAsLong(element), value.applyAsLong(element)),
+        LongLongListMap::merge,
+        Collector.Characteristics.IDENTITY_FINISH);
+  }
+
+  /** Order id to number of products (exercise 11). */
+  public static Collector<Order, ?, LongIntMap> productCountByOrder() {
+    return summingInt(Order::getId, order -> order.getProducts().size());
+  }
+
+  /** Customer id to order ids (exercise 12a). */
+  public static Collector<Order, ?, LongLongListMap> orderIdsByCustomer() {
+    return grouping(order -> order.getCustomer().getId(), Order::getId);
+  }
+
+  /** Order id to total price, summed exactly in cents (exercise 13a). */
+  public static Collector<Order, ?, LongDoubleMap> orderTotals() {
+    return summingDouble(
+        Order::getId,
+        order -> {
+          long cents = 0;
+          for (Product product : order.getProducts()) {
+            cents += product.getPriceCents();
+          }
+          return Money.toAmount(cents);
+        });
+  }
+}
@@ -0,0 +1,45 @@
+package com.madhurtoppo.streamsapi.collectors;
+
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.money.Money;
+import java.util.Comparator;
+import java.util.LongSummaryStatistics;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Comparators and collectors over {@link Product#getPriceCents()}: prices are compared and summed
+ * as primitive {@code long} cents, so nothing is boxed per row and totals are exact.
+ */
+public final class Prices {
+
+  private static final Comparator<Product> CHEAPEST_FIRST =
+      Comparator.comparingLong(Product::getPriceCents);
+
+  private static final Comparator<Product> MOST_EXPENSIVE_FIRST = CHEAPEST_FIRST.reversed();
+
+  private Prices() {}
+
+  public static Comparator<Product> cheapestFirst() {
+    return CHEAPEST_FIRST;
+  }
+
+  public static Comparator<Product> mostExpensiveFirst() {
+    return MOST_EXPENSIVE_FIRST;
+  }
+
+  /** Exact total price of the products, in cents. */
+  public static Collector<Product, ?, Long> totalCents() {
+    return Collectors.summingLong(Product::getPriceCents);
+  }
+
+  /** Exact total price of the products, as an amount. */
+  public static Collector<Product, ?, Double> total() {
+    return Collectors.collectingAndThen(totalCents(), Money::toAmount);
+  }
+
+  /** Count, sum, min, max and average of the prices, in cents. */
+  public static Collector<Product, ?, LongSummaryStatistics> statistics() {
+    return Collectors.summarizingLong(Product::getPriceCents);
+  }
+}
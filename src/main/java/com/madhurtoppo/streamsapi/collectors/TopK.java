@@ -0,0 +1,226 @@
+package com.madhurtoppo.streamsapi.collectors;
+
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Bounded top-K collectors: a drop-in for {@code sorted(comparator).limit(k)} that keeps only
+ * {@code k} elements in a heap, so it runs in O(n log k) time and O(k) memory and can be used on
+ * parallel streams. Results are ordered best first. Elements that tie on the key may come out in
+ * any order.
+ */
+public final class TopK {
+
+  private TopK() {}
+
+  /** The {@code k} greatest elements, greatest first. */
+  public static <T> Collector<T, ?, List<T>> greatest(
+      final int k, final Comparator<? super T> comparator) {
+    checkK(k);
+    return Collector.of(
+        () -> new PriorityQueue<T>(k + 1, comparator),
+        (heap, element) -> offer(heap, element, k, comparator),
+        (left, right) -> {
+          for (T element : right) {
+            offer(left, element, k, comparator);
+          }
+          return left;
+        },
+        heap -> {
+          List<T> result = new ArrayList<>(heap);
+          result.sort(Collections.reverseOrder(comparator));
+          return result;
+        });
+  }
+
+  /** The {@code k} least elements, least first. */
+  public static <T> Collector<T, ?, List<T>> least(
+      final int k, final Comparator<? super T> comparator) {
+    return greatest(k, Collections.reverseOrder(comparator));
+  }
+
+  /** The {@code k} elements with the greatest {@code double} key, without boxing the key. */
+  public static <T> Collector<T, ?, List<T>> greatestByDouble(
+      final int k, final ToDoubleFunction<? super T> key) {
+    checkK(k);
+    return Collector.of(
+        () -> new KeyHeap<T>(k, 1),
+        (heap, element) -> heap.offer(key.applyAsDouble(element), element),
+        KeyHeap::merge,
+        KeyHeap::toList);
+  }
+
+  /** The {@code k} elements with the least {@code double} key, without boxing the key. */
+  public static <T> Collector<T, ?, List<T>> leastByDouble(
+      final int k, final ToDoubleFunction<? super T> key) {
+    checkK(k);
+    return Collector.of(
+        () -> new KeyHeap<T>(k, -1),
+        (heap, element) -> heap.offer(key.applyAsDouble(element), element),
+        KeyHeap::merge,
+        KeyHeap::toList);
+  }
+
+  /** The {@code k} elements with the greatest {@code long} key, without boxing the key. */
+  public static <T> Collector<T, ?, List<T>> greatestByLong(
+      final int k, final ToLongFunction<? super T> key) {
+    checkK(k);
+    return Collector.of(
+        () -> new KeyHeap<T>(k, 1),
+        (heap, element) -> heap.offer(key.applyAsLong(element), element),
+        KeyHeap::merge,
+        KeyHeap::toList);
+  }
+
+  /** The {@code k} elements with the least {@code long} key, without boxing the key. */
+  public static <T> Collector<T, ?, List<T>> leastByLong(
+      final int k, final ToLongFunction<? super T> key) {
+    checkK(k);
+    return Collector.of(
+        () -> new KeyHeap<T>(k, -1),
+        (heap, element) -> heap.offer(key.applyAsLong(element), element),
+        KeyHeap::merge,
+        KeyHeap::toList);
+  }
+
+  /** The {@code k} cheapest products, cheapest first (exercise 5a). */
+  public static Collector<Product, ?, List<Product>> cheapestProducts(final int k) {
+    return leastByLong(k, Product::getPriceCents);
+  }
+
+  /** The {@code k} most expensive products, most expensive first (exercise 5b). */
+  public static Collector<Product, ?, List<Product>> mostExpensiveProducts(final int k) {
+    return greatestByLong(k, Product::getPriceCents);
+  }
+
+  /** The {@code k} most recently placed orders, latest first (exercise 6). */
+  public static Collector<Order, ?, List<Order>> latestOrders(final int k) {
+    return greatestByLong(k, order -> order.getOrderDate().toEpochDay());
+  }
+
+  private static <T> void offer(
+      final PriorityQueue<T> heap,
+      final T element,
+      final int k,
+      final Comparator<? super T> comparator) {
+    if (heap.size() < k) {
+      heap.add(element);
+    } else if (k > 0 && comparator.compare(element, heap.peek()) > 0) {
+      heap.poll();
+      heap.add(element);
+    }
+  }
+
+  /**
+   * Checks {@code k} as these collectors do; the repository rankings use it too, so that both
+   * accept zero.
+   *
+   * @return {@code k}
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public static int checkK(final int k) {
+    if (k < 0) {
+      throw new IllegalArgumentException("k must not be negative: " + k);
+    }
+    return k;
+  }
+
+  /**
+   * Binary heap of (long key, element) pairs in parallel arrays. With {@code sign} 1 the root is
+   * the smallest key (so the heap retains the greatest keys); with -1 the key order is reversed.
+   * {@code double} keys are mapped to longs that sort the same way.
+   */
+  private static final class KeyHeap<T> {
+
+    private final boolean negate;
+
+    private final long[] keys;
+
+    private final Object[] elements;
+
+    private int size;
+
+    private KeyHeap(final int k, final int sign) {
+      this.negate = sign < 0;
+      this.keys = new long[k];
+      this.elements = new Object[k];
+    }
+
+    private void offer(final long key, final T element) {
+      // bitwise NOT reverses the order without overflowing on Long.MIN_VALUE
+      push(negate ? ~key : key, element);
+    }
+
+    private void offer(final double key, final T element) {
+      // flipping the magnitude bits of negative doubles orders them as Double.compare does
+      long bits = Double.doubleToLongBits(key);
+      offer(bits ^ ((bits >> 63) & Long.MAX_VALUE), element);
+    }
+
+    private void push(final long key, final Object element) {
+      if (size < keys.length) {
+        int i = size++;
+        while (i > 0) {
+          int parent = (i - 1) >>> 1;
+          if (keys[parent] <= key) {
+            break;
+          }
+          keys[i] = keys[parent];
+          elements[i] = elements[parent];
+          i = parent;
+        }
+        keys[i] = key;
+        elements[i] = element;
+      } else if (size > 0 && key > keys[0]) {
+        int i = 0;
+        while (true) {
+          int child = 2 * i + 1;
+          if (child >= size) {
+            break;
+          }
+          if (child + 1 < size && keys[child + 1] < keys[child]) {
+            child++;
+          }
+          if (keys[child] >= key) {
+            break;
+          }
+          keys[i] = keys[child];
+          elements[i] = elements[child];
+          i = child;
+        }
+        keys[i] = key;
+        elements[i] = element;
+      }
+    }
+
+    private KeyHeap<T> merge(final KeyHeap<T> other) {
+      for (int i = 0; i < other.size; i++) {
+        push(other.keys[i], other.elements[i]);
+      }
+      return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> toList() {
+      Integer[] order = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (a, b) -> Long.compare(keys[b], keys[a]));
+      List<T> result = new ArrayList<>(size);
+      for (int i : order) {
+        result.add((T) elements[i]);
+      }
+      return result;
+    }
+  }
+}
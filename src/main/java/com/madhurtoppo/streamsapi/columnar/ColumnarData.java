@@ -0,0 +1,116 @@
+package com.madhurtoppo.streamsapi.columnar;
+
+import com.madhurtoppo.streamsapi.money.Money;
+import java.time.LocalDate;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented customers, products and orders addressed by row index, held either on the heap
+ * ({@link ColumnarSnapshot}) or in a mapped file ({@link MappedSnapshot}). The stream views are
+ * written against the accessors so they work on both.
+ */
+public interface ColumnarData {
+
+  // customers
+
+  int customerCount();
+
+  long customerId(int customer);
+
+  String customerName(int customer);
+
+  /** Tier of the customer, or -1 if unknown. */
+  int customerTier(int customer);
+
+  // products
+
+  int productCount();
+
+  long productId(int product);
+
+  String productName(int product);
+
+  int productCategory(int product);
+
+  long productPriceCents(int product);
+
+  default double productPrice(final int product) {
+    return Money.toAmount(productPriceCents(product));
+  }
+
+  // orders
+
+  int orderCount();
+
+  long orderId(int order);
+
+  /** Order date as {@link LocalDate#toEpochDay()}. */
+  long orderDate(int order);
+
+  /** Delivery date as {@link LocalDate#toEpochDay()}, or {@link Long#MIN_VALUE} if unknown. */
+  long orderDeliveryDate(int order);
+
+  int orderStatus(int order);
+
+  /** Index of the order's customer, or -1 if the order has none. */
+  int orderCustomer(int order);
+
+  int orderProductCount(int order);
+
+  /** Product indices of the given order. */
+  IntStream orderProducts(int order);
+
+  default double orderTotal(final int order) {
+    return Money.toAmount(orderProducts(order).mapToLong(this::productPriceCents).sum());
+  }
+
+  // dictionaries
+
+  ColumnarSnapshot.Dictionary categories();
+
+  ColumnarSnapshot.Dictionary statuses();
+
+  // stream views
+
+  /** Indices of the products whose category equals {@code category}, ignoring case. */
+  default IntStream productsInCategory(final String category) {
+    int categoryId = categories().idOf(category);
+    if (categoryId < 0) {
+      return IntStream.empty();
+    }
+    return IntStream.range(0, productCount()).filter(p -> productCategory(p) == categoryId);
+  }
+
+  default DoubleStream productPrices() {
+    return IntStream.range(0, productCount()).mapToDouble(this::productPrice);
+  }
+
+  /** Prices of the products in {@code category}, ignoring case. */
+  default DoubleStream productPrices(final String category) {
+    return productsInCategory(category).mapToDouble(this::productPrice);
+  }
+
+  /** Indices of the orders placed in {@code [from, to)}. */
+  default IntStream ordersBetween(final LocalDate from, final LocalDate to) {
+    long fromDay = from.toEpochDay();
+    long toDay = to.toEpochDay();
+    return IntStream.range(0, orderCount())
+        .filter(o -> orderDate(o) >= fromDay && orderDate(o) < toDay);
+  }
+
+  /** Indices of the orders placed on {@code date}. */
+  default IntStream ordersOn(final LocalDate date) {
+    return ordersBetween(date, date.plusDays(1));
+  }
+
+  /** Product indices of every order in {@code orders}, one entry per order line. */
+  default IntStream orderedProducts(final IntStream orders) {
+    return orders.flatMap(this::orderProducts);
+  }
+
+  /** Prices of every order line of {@code orders}. */
+  default DoubleStream orderedPrices(final IntStream orders) {
+    return orderedProducts(orders).mapToDouble(this::productPrice);
+  }
+}
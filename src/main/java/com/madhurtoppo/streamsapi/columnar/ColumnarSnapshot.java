@@ -0,0 +1,334 @@
+package com.madhurtoppo.streamsapi.columnar;
+
+import com.madhurtoppo.streamsapi.entities.Customer;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.money.Money;
+import com.madhurtoppo.streamsapi.repositories.CustomerRepository;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Read-only, column-oriented copy of the customers, products and orders.
+ *
+ * <p>Every row is addressed by its position (index) rather than its id. Prices are primitive
+ * {@code long} cents, categories and statuses are dictionary encoded, order dates are epoch days and the
+ * {@code order_product_relationship} join is stored as a CSR adjacency array: the products of
+ * order {@code o} are {@code orderProducts[orderProductOffsets[o] .. orderProductOffsets[o + 1])}.
+ */
+public final class ColumnarSnapshot implements ColumnarData {
+
+  private final long[] customerIds;
+  private final String[] customerNames;
+  private final int[] customerTiers;
+
+  private final long[] productIds;
+  private final String[] productNames;
+  private final int[] productCategories;
+  private final long[] productPrices;
+
+  private final long[] orderIds;
+  private final long[] orderDates;
+  private final long[] orderDeliveryDates;
+  private final int[] orderStatuses;
+  private final int[] orderCustomers;
+  private final int[] orderProductOffsets;
+  private final int[] orderProducts;
+
+  private final Dictionary categories;
+  private final Dictionary statuses;
+
+  private ColumnarSnapshot(final Builder builder) {
+    this.customerIds = builder.customerIds;
+    this.customerNames = builder.customerNames;
+    this.customerTiers = builder.customerTiers;
+    this.productIds = builder.productIds;
+    this.productNames = builder.productNames;
+    this.productCategories = builder.productCategories;
+    this.productPrices = builder.productPrices;
+    this.orderIds = builder.orderIds;
+    this.orderDates = builder.orderDates;
+    this.orderDeliveryDates = builder.orderDeliveryDates;
+    this.orderStatuses = builder.orderStatuses;
+    this.orderCustomers = builder.orderCustomers;
+    this.orderProductOffsets = builder.orderProductOffsets;
+    this.orderProducts = builder.orderProducts;
+    this.categories = builder.categories;
+    this.statuses = builder.statuses;
+  }
+
+  /** Loads all rows from the repositories; orders come with their products in one query. */
+  public static ColumnarSnapshot load(
+      final CustomerRepository customerRepository,
+      final ProductRepository productRepository,
+      final OrderRepository orderRepository) {
+    return of(
+        customerRepository.findAll(),
+        productRepository.findAll(),
+        orderRepository.findAllWithProducts());
+  }
+
+  /** Builds a snapshot from already loaded entities. */
+  public static ColumnarSnapshot of(
+      final List<Customer> customers, final List<Product> products, final List<Order> orders) {
+    return new Builder(customers, products, orders).build();
+  }
+
+  // customers
+
+  @Override
+  public int customerCount() {
+    return customerIds.length;
+  }
+
+  @Override
+  public long customerId(final int customer) {
+    return customerIds[customer];
+  }
+
+  @Override
+  public String customerName(final int customer) {
+    return customerNames[customer];
+  }
+
+  @Override
+  public int customerTier(final int customer) {
+    return customerTiers[customer];
+  }
+
+  // products
+
+  @Override
+  public int productCount() {
+    return productIds.length;
+  }
+
+  @Override
+  public long productId(final int product) {
+    return productIds[product];
+  }
+
+  @Override
+  public String productName(final int product) {
+    return productNames[product];
+  }
+
+  @Override
+  public int productCategory(final int product) {
+    return productCategories[product];
+  }
+
+  @Override
+  public long productPriceCents(final int product) {
+    return productPrices[product];
+  }
+
+  // orders
+
+  @Override
+  public int orderCount() {
+    return orderIds.length;
+  }
+
+  @Override
+  public long orderId(final int order) {
+    return orderIds[order];
+  }
+
+  /** Order date as {@link LocalDate#toEpochDay()}. */
+  @Override
+  public long orderDate(final int order) {
+    return orderDates[order];
+  }
+
+  /** Delivery date as {@link LocalDate#toEpochDay()}, or {@link Long#MIN_VALUE} if unknown. */
+  @Override
+  public long orderDeliveryDate(final int order) {
+    return orderDeliveryDates[order];
+  }
+
+  @Override
+  public int orderStatus(final int order) {
+    return orderStatuses[order];
+  }
+
+  /** Index of the order's customer, or -1 if the order has none. */
+  @Override
+  public int orderCustomer(final int order) {
+    return orderCustomers[order];
+  }
+
+  @Override
+  public int orderProductCount(final int order) {
+    return orderProductOffsets[order + 1] - orderProductOffsets[order];
+  }
+
+  /** Product indices of the given order. */
+  @Override
+  public IntStream orderProducts(final int order) {
+    return IntStream.range(orderProductOffsets[order], orderProductOffsets[order + 1])
+        .map(i -> orderProducts[i]);
+  }
+
+  @Override
+  public double orderTotal(final int order) {
+    long total = 0;
+    for (int i = orderProductOffsets[order]; i < orderProductOffsets[order + 1]; i++) {
+      total += productPrices[orderProducts[i]];
+    }
+    return Money.toAmount(total);
+  }
+
+  // dictionaries
+
+  @Override
+  public Dictionary categories() {
+    return categories;
+  }
+
+  @Override
+  public Dictionary statuses() {
+    return statuses;
+  }
+
+  /** Case-insensitive string dictionary; ids are dense and assigned in first-seen order. */
+  public static final class Dictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private final List<String> values = new ArrayList<>();
+
+    int encode(final String value) {
+      if (value == null) {
+        return -1;
+      }
+      return ids.computeIfAbsent(
+          normalize(value),
+          key -> {
+            values.add(value);
+            return values.size() - 1;
+          });
+    }
+
+    /** Id of {@code value} ignoring case, or -1 if it does not occur. */
+    public int idOf(final String value) {
+      return value == null ? -1 : ids.getOrDefault(normalize(value), -1);
+    }
+
+    public String valueOf(final int id) {
+      return id < 0 ? null : values.get(id);
+    }
+
+    public int size() {
+      return values.size();
+    }
+
+    private static String normalize(final String value) {
+      return value.toLowerCase(Locale.ROOT);
+    }
+  }
+
+  private static final class Builder {
+
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary statuses = new Dictionary();
+
+    private final long[] customerIds;
+    private final String[] customerNames;
+    private final int[] customerTiers;
+
+    private final long[] productIds;
+    private final String[] productNames;
+    private final int[] productCategories;
+    private final long[] productPrices;
+
+    private final long[] orderIds;
+    private final long[] orderDates;
+    private final long[] orderDeliveryDates;
+    private final int[] orderStatuses;
+    private final int[] orderCustomers;
+    private final int[] orderProductOffsets;
+    private int[] orderProducts;
+
+    private Builder(
+        final List<Customer> customers, final List<Product> products, final List<Order> orders) {
+      Map<Long, Integer> customerIndex = new HashMap<>(customers.size() * 2);
+      customerIds = new long[customers.size()];
+      customerNames = new String[customers.size()];
+      customerTiers = new int[customers.size()];
+      for (int c = 0; c < customers.size(); c++) {
+        Customer customer = customers.get(c);
+        customerIds[c] = customer.getId();
+        customerNames[c] = customer.getName();
+        customerTiers[c] = customer.getTier() == null ? -1 : customer.getTier();
+        customerIndex.put(customer.getId(), c);
+      }
+
+      Map<Long, Integer> productIndex = new HashMap<>(products.size() * 2);
+      productIds = new long[products.size()];
+      productNames = new String[products.size()];
+      productCategories = new int[products.size()];
+      productPrices = new long[products.size()];
+      for (int p = 0; p < products.size(); p++) {
+        Product product = products.get(p);
+        productIds[p] = product.getId();
+        productNames[p] = product.getName();
+        productCategories[p] = categories.encode(product.getCategory());
+        productPrices[p] = product.getPriceCents();
+        productIndex.put(product.getId(), p);
+      }
+
+      orderIds = new long[orders.size()];
+      orderDates = new long[orders.size()];
+      orderDeliveryDates = new long[orders.size()];
+      orderStatuses = new int[orders.size()];
+      orderCustomers = new int[orders.size()];
+      orderProductOffsets = new int[orders.size() + 1];
+      orderProducts = new int[orders.size() * 4];
+      int lines = 0;
+      for (int o = 0; o < orders.size(); o++) {
+        Order order = orders.get(o);
+        orderIds[o] = order.getId();
+        orderDates[o] = epochDay(order.getOrderDate());
+        orderDeliveryDates[o] = epochDay(order.getDeliveryDate());
+        orderStatuses[o] = statuses.encode(order.getStatus());
+        orderCustomers[o] =
+            order.getCustomer() == null
+                ? -1
+                : customerIndex.getOrDefault(order.getCustomer().getId(), -1);
+        orderProductOffsets[o] = lines;
+        if (order.getProducts() != null) {
+          for (Product product : order.getProducts()) {
+            Integer p = productIndex.get(product.getId());
+            if (p == null) {
+              throw new IllegalArgumentException(
+                  "Order " + order.getId() + " references unknown product " + product.getId());
+            }
+            if (lines == orderProducts.length) {
+              orderProducts = Arrays.copyOf(orderProducts, lines * 2 + 1);
+            }
+            orderProducts[lines++] = p;
+          }
+        }
+      }
+      orderProductOffsets[orders.size()] = lines;
+      orderProducts = Arrays.copyOf(orderProducts, lines);
+    }
+
+    private static long epochDay(final LocalDate date) {
+      return date == null ? Long.MIN_VALUE : date.toEpochDay();
+    }
+
+    private ColumnarSnapshot build() {
+      return new ColumnarSnapshot(this);
+    }
+  }
+}
@@ -0,0 +1,225 @@
+package com.madhurtoppo.streamsapi.columnar;
+
+import com.madhurtoppo.streamsapi.columnar.SnapshotFile.Header;
+import com.madhurtoppo.streamsapi.columnar.SnapshotFile.Section;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * Read-only {@link ColumnarData} over a {@linkplain SnapshotFile snapshot file} mapped with {@link
+ * FileChannel#map}. Opening reads only the header and the small category and status
+ * dictionaries; every other value is read from the mapped pages when it is accessed, so heap use
+ * does not grow with the data. Names are decoded on each call. Safe for concurrent reads.
+ */
+public final class MappedSnapshot implements ColumnarData {
+
+  private final Header header;
+
+  private final LongBuffer customerIds;
+  private final IntBuffer customerNames;
+  private final IntBuffer customerTiers;
+
+  private final LongBuffer productIds;
+  private final IntBuffer productNames;
+  private final IntBuffer productCategories;
+  private final LongBuffer productPrices;
+
+  private final LongBuffer orderIds;
+  private final IntBuffer orderDates;
+  private final IntBuffer orderDeliveryDates;
+  private final IntBuffer orderStatuses;
+  private final IntBuffer orderCustomers;
+  private final IntBuffer orderProductOffsets;
+  private final IntBuffer orderProducts;
+
+  private final IntBuffer stringOffsets;
+  private final ByteBuffer stringBytes;
+
+  private final ColumnarSnapshot.Dictionary categories = new ColumnarSnapshot.Dictionary();
+  private final ColumnarSnapshot.Dictionary statuses = new ColumnarSnapshot.Dictionary();
+
+  private MappedSnapshot(final FileChannel channel) throws IOException {
+    ByteBuffer headerBytes =
+        channel
+            .map(FileChannel.MapMode.READ_ONLY, 0, SnapshotFile.HEADER_BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    header = Header.read(headerBytes);
+    long[] offsets = header.offsets();
+    if (channel.size() < offsets[offsets.length - 1]) {
+      throw new IllegalArgumentException("Truncated snapshot file");
+    }
+    customerIds = map(channel, offsets, Section.CUSTOMER_IDS).asLongBuffer();
+    customerNames = map(channel, offsets, Section.CUSTOMER_NAMES).asIntBuffer();
+    customerTiers = map(channel, offsets, Section.CUSTOMER_TIERS).asIntBuffer();
+    productIds = map(channel, offsets, Section.PRODUCT_IDS).asLongBuffer();
+    productNames = map(channel, offsets, Section.PRODUCT_NAMES).asIntBuffer();
+    productCategories = map(channel, offsets, Section.PRODUCT_CATEGORIES).asIntBuffer();
+    productPrices = map(channel, offsets, Section.PRODUCT_PRICES).asLongBuffer();
+    orderIds = map(channel, offsets, Section.ORDER_IDS).asLongBuffer();
+    orderDates = map(channel, offsets, Section.ORDER_DATES).asIntBuffer();
+    orderDeliveryDates = map(channel, offsets, Section.ORDER_DELIVERY_DATES).asIntBuffer();
+    orderStatuses = map(channel, offsets, Section.ORDER_STATUSES).asIntBuffer();
+    orderCustomers = map(channel, offsets, Section.ORDER_CUSTOMERS).asIntBuffer();
+    orderProductOffsets = map(channel, offsets, Section.ORDER_PRODUCT_OFFSETS).asIntBuffer();
+    orderProducts = map(channel, offsets, Section.ORDER_PRODUCTS).asIntBuffer();
+    stringOffsets = map(channel, offsets, Section.STRING_OFFSETS).asIntBuffer();
+    stringBytes = map(channel, offsets, Section.STRING_BYTES);
+
+    IntBuffer categoryValues = map(channel, offsets, Section.CATEGORY_VALUES).asIntBuffer();
+    for (int id = 0; id < header.categories; id++) {
+      categories.encode(string(categoryValues.get(id)));
+    }
+    IntBuffer statusValues = map(channel, offsets, Section.STATUS_VALUES).asIntBuffer();
+    for (int id = 0; id < header.statuses; id++) {
+      statuses.encode(string(statusValues.get(id)));
+    }
+  }
+
+  /** Maps {@code file}; the mapping stays valid after this returns and the file is closed. */
+  public static MappedSnapshot open(final Path file) {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new MappedSnapshot(channel);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private ByteBuffer map(final FileChannel channel, final long[] offsets, final Section section)
+      throws IOException {
+    long size = header.size(section);
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(section + " is larger than 2 GB");
+    }
+    MappedByteBuffer buffer =
+        channel.map(FileChannel.MapMode.READ_ONLY, offsets[section.ordinal()], size);
+    return buffer.order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private String string(final int index) {
+    if (index == SnapshotFile.NONE) {
+      return null;
+    }
+    int from = stringOffsets.get(index);
+    byte[] bytes = new byte[stringOffsets.get(index + 1) - from];
+    stringBytes.get(from, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static long epochDay(final int epochDay) {
+    return epochDay == SnapshotFile.NONE ? Long.MIN_VALUE : epochDay;
+  }
+
+  // customers
+
+  @Override
+  public int customerCount() {
+    return header.customers;
+  }
+
+  @Override
+  public long customerId(final int customer) {
+    return customerIds.get(customer);
+  }
+
+  @Override
+  public String customerName(final int customer) {
+    return string(customerNames.get(customer));
+  }
+
+  @Override
+  public int customerTier(final int customer) {
+    return customerTiers.get(customer);
+  }
+
+  // products
+
+  @Override
+  public int productCount() {
+    return header.products;
+  }
+
+  @Override
+  public long productId(final int product) {
+    return productIds.get(product);
+  }
+
+  @Override
+  public String productName(final int product) {
+    return string(productNames.get(product));
+  }
+
+  @Override
+  public int productCategory(final int product) {
+    return productCategories.get(product);
+  }
+
+  @Override
+  public long productPriceCents(final int product) {
+    return productPrices.get(product);
+  }
+
+  // orders
+
+  @Override
+  public int orderCount() {
+    return header.orders;
+  }
+
+  @Override
+  public long orderId(final int order) {
+    return orderIds.get(order);
+  }
+
+  @Override
+  public long orderDate(final int order) {
+    return epochDay(orderDates.get(order));
+  }
+
+  @Override
+  public long orderDeliveryDate(final int order) {
+    return epochDay(orderDeliveryDates.get(order));
+  }
+
+  @Override
+  public int orderStatus(final int order) {
+    return orderStatuses.get(order);
+  }
+
+  @Override
+  public int orderCustomer(final int order) {
+    return orderCustomers.get(order);
+  }
+
+  @Override
+  public int orderProductCount(final int order) {
+    return orderProductOffsets.get(order + 1) - orderProductOffsets.get(order);
+  }
+
+  @Override
+  public IntStream orderProducts(final int order) {
+    return IntStream.range(orderProductOffsets.get(order), orderProductOffsets.get(order + 1))
+        .map(orderProducts::get);
+  }
+
+  // dictionaries
+
+  @Override
+  public ColumnarSnapshot.Dictionary categories() {
+    return categories;
+  }
+
+  @Override
+  public ColumnarSnapshot.Dictionary statuses() {
+    return statuses;
+  }
+}
@@ -0,0 +1,457 @@
+package com.madhurtoppo.streamsapi.columnar;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary snapshot format, written from a {@link ColumnarSnapshot} and read as a {@link
+ * MappedSnapshot}. All values are little-endian. A 64-byte header holds a magic number, the format
+ * version and the row, line and string counts. Sections follow in {@link Section} order, each
+ * starting on an 8-byte boundary:
+ *
+ * <ul>
+ *   <li>fixed-width columns: ids and prices as {@code long}; dates as {@code int} epoch days;
+ *       tiers, row references and dictionary codes as {@code int};
+ *   <li>names, categories and statuses as {@code int} indices into a de-duplicated string pool of
+ *       UTF-8 bytes with {@code int} offsets;
+ *   <li>order lines as a CSR adjacency array of product indices with {@code int} offsets per order.
+ * </ul>
+ */
+public final class SnapshotFile {
+
+  static final long MAGIC = 0x5041_4e53_4950_4153L; // "SAPISNAP", little-endian
+
+  static final int VERSION = 1;
+
+  static final int HEADER_BYTES = 64;
+
+  /** A null string, date or tier. */
+  static final int NONE = Integer.MIN_VALUE;
+
+  private static final int BUFFER_BYTES = 1 << 16;
+
+  private SnapshotFile() {}
+
+  /** Sections in file order, with their element width and row count. */
+  enum Section {
+    CUSTOMER_IDS(Long.BYTES),
+    CUSTOMER_NAMES(Integer.BYTES),
+    CUSTOMER_TIERS(Integer.BYTES),
+    PRODUCT_IDS(Long.BYTES),
+    PRODUCT_NAMES(Integer.BYTES),
+    PRODUCT_CATEGORIES(Integer.BYTES),
+    PRODUCT_PRICES(Long.BYTES),
+    ORDER_IDS(Long.BYTES),
+    ORDER_DATES(Integer.BYTES),
+    ORDER_DELIVERY_DATES(Integer.BYTES),
+    ORDER_STATUSES(Integer.BYTES),
+    ORDER_CUSTOMERS(Integer.BYTES),
+    ORDER_PRODUCT_OFFSETS(Integer.BYTES),
+    ORDER_PRODUCTS(Integer.BYTES),
+    CATEGORY_VALUES(Integer.BYTES),
+    STATUS_VALUES(Integer.BYTES),
+    STRING_OFFSETS(Integer.BYTES),
+    STRING_BYTES(Byte.BYTES);
+
+    final int width;
+
+    Section(final int width) {
+      this.width = width;
+    }
+  }
+
+  /** Counts stored in the header, from which every section's position follows. */
+  static final class Header {
+
+    final int customers;
+    final int products;
+    final int orders;
+    final int lines;
+    final int categories;
+    final int statuses;
+    final int strings;
+    final long stringBytes;
+
+    Header(
+        final int customers,
+        final int products,
+        final int orders,
+        final int lines,
+        final int categories,
+        final int statuses,
+        final int strings,
+        final long stringBytes) {
+      this.customers = customers;
+      this.products = products;
+      this.orders = orders;
+      this.lines = lines;
+      this.categories = categories;
+      this.statuses = statuses;
+      this.strings = strings;
+      this.stringBytes = stringBytes;
+    }
+
+    long rows(final Section section) {
+      switch (section) {
+        case CUSTOMER_IDS:
+        case CUSTOMER_NAMES:
+        case CUSTOMER_TIERS:
+          return customers;
+        case PRODUCT_IDS:
+        case PRODUCT_NAMES:
+        case PRODUCT_CATEGORIES:
+        case PRODUCT_PRICES:
+          return products;
+        case ORDER_PRODUCT_OFFSETS:
+          return orders + 1L;
+        case ORDER_PRODUCTS:
+          return lines;
+        case CATEGORY_VALUES:
+          return categories;
+        case STATUS_VALUES:
+          return statuses;
+        case STRING_OFFSETS:
+          return strings + 1L;
+        case STRING_BYTES:
+          return stringBytes;
+        default:
+          return orders;
+      }
+    }
+
+    long size(final Section section) {
+      return rows(section) * section.width;
+    }
+
+    /** Byte offset of every section, followed by the file size. */
+    long[] offsets() {
+      long[] offsets = new long[Section.values().length + 1];
+      long position = HEADER_BYTES;
+      for (Section section : Section.values()) {
+        offsets[section.ordinal()] = position;
+        position = align(position + size(section));
+      }
+      offsets[Section.values().length] = position;
+      return offsets;
+    }
+
+    void write(final ByteBuffer buffer) {
+      buffer.putLong(MAGIC).putInt(VERSION);
+      buffer.putInt(customers).putInt(products).putInt(orders).putInt(lines);
+      buffer.putInt(categories).putInt(statuses).putInt(strings).putLong(stringBytes);
+      while (buffer.position() < HEADER_BYTES) {
+        buffer.put((byte) 0);
+      }
+    }
+
+    static Header read(final ByteBuffer buffer) {
+      if (buffer.getLong() != MAGIC) {
+        throw new IllegalArgumentException("Not a snapshot file");
+      }
+      int version = buffer.getInt();
+      if (version != VERSION) {
+        throw new IllegalArgumentException("Unsupported snapshot version " + version);
+      }
+      return new Header(
+          buffer.getInt(),
+          buffer.getInt(),
+          buffer.getInt(),
+          buffer.getInt(),
+          buffer.getInt(),
+          buffer.getInt(),
+          buffer.getInt(),
+          buffer.getLong());
+    }
+
+    private static long align(final long position) {
+      return (position + 7) & ~7L;
+    }
+  }
+
+  /**
+   * Writes {@code snapshot} to {@code file}, replacing it. The file is written next to the target
+   * and moved into place, so readers never map a partial snapshot.
+   */
+  public static void write(final ColumnarSnapshot snapshot, final Path file) {
+    StringPool pool = new StringPool();
+    int[] customerNames = new int[snapshot.customerCount()];
+    for (int c = 0; c < customerNames.length; c++) {
+      customerNames[c] = pool.add(snapshot.customerName(c));
+    }
+    int[] productNames = new int[snapshot.productCount()];
+    for (int p = 0; p < productNames.length; p++) {
+      productNames[p] = pool.add(snapshot.productName(p));
+    }
+    int[] categoryValues = dictionary(pool, snapshot.categories());
+    int[] statusValues = dictionary(pool, snapshot.statuses());
+    int lines = 0;
+    for (int o = 0; o < snapshot.orderCount(); o++) {
+      lines += snapshot.orderProductCount(o);
+    }
+    Header header =
+        new Header(
+            snapshot.customerCount(),
+            snapshot.productCount(),
+            snapshot.orderCount(),
+            lines,
+            categoryValues.length,
+            statusValues.length,
+            pool.size(),
+            pool.bytes);
+
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel channel =
+        FileChannel.open(
+            temporary,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      Writer out = new Writer(channel);
+      header.write(out.buffer);
+      long[] offsets = header.offsets();
+      for (Section section : Section.values()) {
+        out.padTo(offsets[section.ordinal()]);
+        writeSection(out, section, snapshot, customerNames, productNames, categoryValues,
+            statusValues, pool);
+      }
+      out.padTo(offsets[Section.values().length]);
+      out.flush();
+      channel.force(true);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    try {
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Maps {@code file}; see {@link MappedSnapshot}. */
+  public static MappedSnapshot open(final Path file) {
+    return MappedSnapshot.open(file);
+  }
+
+  private static void writeSection(
+      final Writer out,
+      final Section section,
+      final ColumnarSnapshot snapshot,
+      final int[] customerNames,
+      final int[] productNames,
+      final int[] categoryValues,
+      final int[] statusValues,
+      final StringPool pool)
+      throws IOException {
+    switch (section) {
+      case CUSTOMER_IDS:
+        for (int c = 0; c < snapshot.customerCount(); c++) {
+          out.putLong(snapshot.customerId(c));
+        }
+        break;
+      case CUSTOMER_NAMES:
+        out.putInts(customerNames);
+        break;
+      case CUSTOMER_TIERS:
+        for (int c = 0; c < snapshot.customerCount(); c++) {
+          out.putInt(snapshot.customerTier(c));
+        }
+        break;
+      case PRODUCT_IDS:
+        for (int p = 0; p < snapshot.productCount(); p++) {
+          out.putLong(snapshot.productId(p));
+        }
+        break;
+      case PRODUCT_NAMES:
+        out.putInts(productNames);
+        break;
+      case PRODUCT_CATEGORIES:
+        for (int p = 0; p < snapshot.productCount(); p++) {
+          out.putInt(snapshot.productCategory(p));
+        }
+        break;
+      case PRODUCT_PRICES:
+        for (int p = 0; p < snapshot.productCount(); p++) {
+          out.putLong(snapshot.productPriceCents(p));
+        }
+        break;
+      case ORDER_IDS:
+        for (int o = 0; o < snapshot.orderCount(); o++) {
+          out.putLong(snapshot.orderId(o));
+        }
+        break;
+      case ORDER_DATES:
+        for (int o = 0; o < snapshot.orderCount(); o++) {
+          out.putInt(epochDay(snapshot.orderDate(o)));
+        }
+        break;
+      case ORDER_DELIVERY_DATES:
+        for (int o = 0; o < snapshot.orderCount(); o++) {
+          out.putInt(epochDay(snapshot.orderDeliveryDate(o)));
+        }
+        break;
+      case ORDER_STATUSES:
+        for (int o = 0; o < snapshot.orderCount(); o++) {
+          out.putInt(snapshot.orderStatus(o));
+        }
+        break;
+      case ORDER_CUSTOMERS:
+        for (int o = 0; o < snapshot.orderCount(); o++) {
+          out.putInt(snapshot.orderCustomer(o));
+        }
+        break;
+      case ORDER_PRODUCT_OFFSETS:
+        int offset = 0;
+        for (int o = 0; o < snapshot.orderCount(); o++) {
+          out.putInt(offset);
+          offset += snapshot.orderProductCount(o);
+        }
+        out.putInt(offset);
+        break;
+      case ORDER_PRODUCTS:
+        for (int o = 0; o < snapshot.orderCount(); o++) {
+          for (int p : snapshot.orderProducts(o).toArray()) {
+            out.putInt(p);
+          }
+        }
+        break;
+      case CATEGORY_VALUES:
+        out.putInts(categoryValues);
+        break;
+      case STATUS_VALUES:
+        out.putInts(statusValues);
+        break;
+      case STRING_OFFSETS:
+        long position = 0;
+        for (byte[] value : pool.values) {
+          out.putInt((int) position);
+          position += value.length;
+        }
+        out.putInt((int) position);
+        break;
+      case STRING_BYTES:
+        for (byte[] value : pool.values) {
+          out.put(value);
+        }
+        break;
+      default:
+        throw new IllegalStateException("Unknown section " + section);
+    }
+  }
+
+  private static int[] dictionary(final StringPool pool, final ColumnarSnapshot.Dictionary values) {
+    int[] indices = new int[values.size()];
+    for (int id = 0; id < indices.length; id++) {
+      indices[id] = pool.add(values.valueOf(id));
+    }
+    return indices;
+  }
+
+  private static int epochDay(final long epochDay) {
+    return epochDay == Long.MIN_VALUE ? NONE : Math.toIntExact(epochDay);
+  }
+
+  /** De-duplicated UTF-8 strings; null is {@link #NONE}. */
+  private static final class StringPool {
+
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    private final List<byte[]> values = new ArrayList<>();
+
+    private long bytes;
+
+    private int add(final String value) {
+      if (value == null) {
+        return NONE;
+      }
+      return indices.computeIfAbsent(
+          value,
+          key -> {
+            byte[] encoded = key.getBytes(StandardCharsets.UTF_8);
+            if (bytes + encoded.length > Integer.MAX_VALUE) {
+              throw new IllegalStateException("String pool exceeds 2 GB");
+            }
+            values.add(encoded);
+            bytes += encoded.length;
+            return values.size() - 1;
+          });
+    }
+
+    private int size() {
+      return values.size();
+    }
+  }
+
+  /** Little-endian output through a reused direct buffer. */
+  private static final class Writer {
+
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer =
+        ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+    private long written;
+
+    private Writer(final FileChannel channel) {
+      this.channel = channel;
+    }
+
+    private void putLong(final long value) throws IOException {
+      ensure(Long.BYTES);
+      buffer.putLong(value);
+    }
+
+    private void putInt(final int value) throws IOException {
+      ensure(Integer.BYTES);
+      buffer.putInt(value);
+    }
+
+    private void putInts(final int[] values) throws IOException {
+      for (int value : values) {
+        putInt(value);
+      }
+    }
+
+    private void put(final byte[] bytes) throws IOException {
+      int offset = 0;
+      while (offset < bytes.length) {
+        ensure(1);
+        int length = Math.min(buffer.remaining(), bytes.length - offset);
+        buffer.put(bytes, offset, length);
+        offset += length;
+      }
+    }
+
+    private void padTo(final long position) throws IOException {
+      while (written + buffer.position() < position) {
+        ensure(1);
+        buffer.put((byte) 0);
+      }
+    }
+
+    private void ensure(final int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        written += channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+}
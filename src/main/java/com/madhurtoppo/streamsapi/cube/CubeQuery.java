@@ -0,0 +1,152 @@
+package com.madhurtoppo.streamsapi.cube;
+
+import com.madhurtoppo.streamsapi.money.Money;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoField;
+import java.util.HashMap;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.LongFunction;
+
+/**
+ * Fluent query over the {@link TimeCube}. Results are line price statistics in cents, rolled up
+ * from the day buckets in the date range and the cells matching the category and tier; with no
+ * criteria every order line counts. Cost grows with the number of days and cells in range, not
+ * with the number of orders.
+ */
+public final class CubeQuery {
+
+  private static final Object ALL = new Object();
+
+  private final TimeCube cube;
+
+  private long fromDay = Long.MIN_VALUE;
+
+  private long toDay = Long.MAX_VALUE;
+
+  private String category;
+
+  private boolean anyTier = true;
+
+  private Integer tier;
+
+  CubeQuery(final TimeCube cube) {
+    this.cube = cube;
+  }
+
+  /** Orders placed from {@code from} (inclusive) to {@code to} (exclusive). */
+  public CubeQuery between(final LocalDate from, final LocalDate to) {
+    fromDay = from.toEpochDay();
+    toDay = to.toEpochDay();
+    return this;
+  }
+
+  public CubeQuery on(final LocalDate date) {
+    return between(date, date.plusDays(1));
+  }
+
+  public CubeQuery in(final YearMonth month) {
+    return between(month.atDay(1), month.plusMonths(1).atDay(1));
+  }
+
+  /** Lines of products in {@code category}, ignoring case. */
+  public CubeQuery category(final String category) {
+    this.category = category;
+    return this;
+  }
+
+  /** Lines of orders by customers of {@code tier}; null selects customers without a tier. */
+  public CubeQuery tier(final Integer tier) {
+    this.anyTier = false;
+    this.tier = tier;
+    return this;
+  }
+
+  public LongSummaryStatistics statistics() {
+    return rollUp(day -> ALL, null).getOrDefault(ALL, new LongSummaryStatistics());
+  }
+
+  /** Sum of the line prices, as in exercise 8. */
+  public double revenue() {
+    return Money.toAmount(statistics().getSum());
+  }
+
+  /** Average line price, as in exercise 9; 0 when nothing matches. */
+  public double averagePrice() {
+    return statistics().getAverage() / 100;
+  }
+
+  public NavigableMap<LocalDate, LongSummaryStatistics> byDay() {
+    return new TreeMap<>(rollUp(LocalDate::ofEpochDay, null));
+  }
+
+  /** Statistics per ISO week, keyed by the Monday starting it. */
+  public NavigableMap<LocalDate, LongSummaryStatistics> byWeek() {
+    return new TreeMap<>(
+        rollUp(day -> LocalDate.ofEpochDay(day).with(ChronoField.DAY_OF_WEEK, 1), null));
+  }
+
+  public NavigableMap<YearMonth, LongSummaryStatistics> byMonth() {
+    return new TreeMap<>(rollUp(day -> YearMonth.from(LocalDate.ofEpochDay(day)), null));
+  }
+
+  /** Statistics per category, named as first seen; null for lines with no category. */
+  public Map<String, LongSummaryStatistics> byCategory() {
+    return rollUp(null, CubeState::cellCategory);
+  }
+
+  /** Statistics per customer tier; null for customers without a tier. */
+  public Map<Integer, LongSummaryStatistics> byTier() {
+    return rollUp(null, CubeState::cellTier);
+  }
+
+  /** Merges the selected cells of every day in range, grouped by day key or else by cell key. */
+  private <K> Map<K, LongSummaryStatistics> rollUp(
+      final LongFunction<? extends K> dayKey, final CellKey<? extends K> cellKey) {
+    Map<K, long[]> groups =
+        cube.lookup(
+            state -> {
+              boolean[] cells = state.selectCells(category, anyTier, tier);
+              Map<K, long[]> measures = new HashMap<>();
+              for (Map.Entry<Long, CubeState.Day> entry : state.days(fromDay, toDay).entrySet()) {
+                CubeState.Day day = entry.getValue();
+                K key = dayKey == null ? null : dayKey.apply(entry.getKey());
+                for (int cell = 0; cell < Math.min(cells.length, day.count.length); cell++) {
+                  if (cells[cell] && day.count[cell] > 0) {
+                    add(
+                        measures.computeIfAbsent(
+                            dayKey == null ? cellKey.of(state, cell) : key,
+                            ignored -> new long[] {0, 0, Long.MAX_VALUE, Long.MIN_VALUE}),
+                        day,
+                        cell);
+                  }
+                }
+              }
+              return measures;
+            });
+    Map<K, LongSummaryStatistics> result = new HashMap<>(groups.size() * 2);
+    groups.forEach(
+        (key, measures) ->
+            result.put(
+                key,
+                new LongSummaryStatistics(measures[0], measures[2], measures[3], measures[1])));
+    return result;
+  }
+
+  /** Adds a cell of {@code day} to count, sum, min and max in {@code measures}. */
+  private static void add(final long[] measures, final CubeState.Day day, final int cell) {
+    measures[0] += day.count[cell];
+    measures[1] += day.sum[cell];
+    measures[2] = Math.min(measures[2], day.min[cell]);
+    measures[3] = Math.max(measures[3], day.max[cell]);
+  }
+
+  @FunctionalInterface
+  private interface CellKey<K> {
+
+    K of(CubeState state, int cell);
+  }
+}
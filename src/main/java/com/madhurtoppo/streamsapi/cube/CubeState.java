@@ -0,0 +1,317 @@
+package com.madhurtoppo.streamsapi.cube;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Day buckets of order lines. Every (category, tier) pair seen gets a dense cell id; each day holds
+ * count, sum, min and max of the line prices, in cents, per cell. Each order's lines are kept so
+ * that replacing or removing the order subtracts exactly what it added; a cell whose min or max
+ * was removed is recomputed from that day's orders. Not thread-safe.
+ */
+final class CubeState {
+
+  private final Map<String, Integer> categoryIds = new HashMap<>();
+
+  private final List<String> categoryNames = new ArrayList<>();
+
+  private final Map<Long, Integer> cellIds = new HashMap<>();
+
+  private int[] cellCategories = new int[16];
+
+  private Integer[] cellTiers = new Integer[16];
+
+  private final NavigableMap<Long, Day> days = new TreeMap<>();
+
+  private final Map<Long, OrderRow> orders = new HashMap<>();
+
+  private final Map<Long, Set<Long>> ordersByDay = new HashMap<>();
+
+  /** Category and price of every product, which new order lines are counted with. */
+  private final Map<Long, ProductRow> products = new HashMap<>();
+
+  /** Tier of every customer, which new orders are counted with. */
+  private final Map<Long, Integer> customerTiers = new HashMap<>();
+
+  /** Number of counted order lines per product. */
+  private final Map<Long, Integer> productLines = new HashMap<>();
+
+  /** Number of counted orders per customer. */
+  private final Map<Long, Integer> customerOrders = new HashMap<>();
+
+  /** Whether a saved product differs from the values its counted order lines hold. */
+  boolean changesProduct(final long id, final String category, final long price) {
+    ProductRow row = products.get(id);
+    if (row == null || !productLines.containsKey(id)) {
+      return false;
+    }
+    Integer categoryId =
+        category == null ? Integer.valueOf(-1) : categoryIds.get(normalize(category));
+    return categoryId == null || row.category != categoryId || row.price != price;
+  }
+
+  /** Whether a saved customer has a different tier than its counted orders hold. */
+  boolean changesCustomer(final long id, final Integer tier) {
+    return customerOrders.containsKey(id) && !Objects.equals(customerTiers.get(id), tier);
+  }
+
+  boolean hasProduct(final long id) {
+    return products.containsKey(id);
+  }
+
+  /** The tier of a known customer, or null. */
+  Integer tier(final long customerId) {
+    return customerTiers.get(customerId);
+  }
+
+  void putProduct(final long id, final String category, final long price) {
+    products.put(id, new ProductRow(categoryId(category), price));
+  }
+
+  void putCustomer(final long id, final Integer tier) {
+    customerTiers.put(id, tier);
+  }
+
+  /**
+   * Inserts or replaces an order. {@code productIds} may be null when the order's products were
+   * not loaded, in which case the known lines are kept. Products must have been put first; an
+   * unknown product counts with no category and a zero price.
+   */
+  void putOrder(
+      final long id,
+      final LocalDate orderDate,
+      final Long customerId,
+      final Integer tier,
+      final long[] productIds) {
+    OrderRow old = orders.get(id);
+    long[] lines = productIds != null ? productIds : old != null ? old.productIds : new long[0];
+    if (old != null) {
+      removeOrder(id);
+    }
+    if (customerId != null) {
+      customerTiers.put(customerId, tier);
+    }
+    if (orderDate == null) {
+      return;
+    }
+    long day = orderDate.toEpochDay();
+    int[] cells = new int[lines.length];
+    long[] prices = new long[lines.length];
+    Day bucket = days.computeIfAbsent(day, key -> new Day());
+    for (int i = 0; i < lines.length; i++) {
+      ProductRow product = products.get(lines[i]);
+      cells[i] = cellId(product == null ? -1 : product.category, tier);
+      prices[i] = product == null ? 0 : product.price;
+      bucket.add(cells[i], prices[i]);
+      productLines.merge(lines[i], 1, Integer::sum);
+    }
+    if (customerId != null) {
+      customerOrders.merge(customerId, 1, Integer::sum);
+    }
+    orders.put(id, new OrderRow(day, customerId, lines, cells, prices));
+    ordersByDay.computeIfAbsent(day, key -> new HashSet<>()).add(id);
+  }
+
+  void removeOrder(final long id) {
+    OrderRow old = orders.remove(id);
+    if (old == null) {
+      return;
+    }
+    for (long productId : old.productIds) {
+      productLines.computeIfPresent(productId, (key, n) -> n == 1 ? null : n - 1);
+    }
+    if (old.customerId != null) {
+      customerOrders.computeIfPresent(old.customerId, (key, n) -> n == 1 ? null : n - 1);
+    }
+    Set<Long> sameDay = ordersByDay.get(old.day);
+    sameDay.remove(id);
+    if (sameDay.isEmpty()) {
+      ordersByDay.remove(old.day);
+      days.remove(old.day);
+      return;
+    }
+    Day bucket = days.get(old.day);
+    // recompute only after every line is removed, as one order may hold several lines of a cell
+    Set<Integer> extremesChanged = new HashSet<>();
+    for (int i = 0; i < old.cells.length; i++) {
+      if (bucket.remove(old.cells[i], old.prices[i])) {
+        extremesChanged.add(old.cells[i]);
+      }
+    }
+    for (int cell : extremesChanged) {
+      recompute(old.day, bucket, cell);
+    }
+  }
+
+  private void recompute(final long day, final Day bucket, final int cell) {
+    bucket.clear(cell);
+    for (long orderId : ordersByDay.get(day)) {
+      OrderRow row = orders.get(orderId);
+      for (int i = 0; i < row.cells.length; i++) {
+        if (row.cells[i] == cell) {
+          bucket.add(cell, row.prices[i]);
+        }
+      }
+    }
+  }
+
+  // queries
+
+  int cellCount() {
+    return cellIds.size();
+  }
+
+  /** Cells matching the category (null for any) and tier (null for any). */
+  boolean[] selectCells(final String category, final boolean anyTier, final Integer tier) {
+    Integer categoryId = category == null ? null : categoryIds.get(normalize(category));
+    boolean[] selected = new boolean[cellIds.size()];
+    if (category != null && categoryId == null) {
+      return selected;
+    }
+    for (int cell = 0; cell < selected.length; cell++) {
+      selected[cell] =
+          (categoryId == null || cellCategories[cell] == categoryId)
+              && (anyTier || Objects.equals(cellTiers[cell], tier));
+    }
+    return selected;
+  }
+
+  /** Days from {@code fromDay} (inclusive) to {@code toDay} (exclusive) that have orders. */
+  NavigableMap<Long, Day> days(final long fromDay, final long toDay) {
+    return days.subMap(fromDay, true, toDay, false);
+  }
+
+  /** Category name of {@code cell}, as first seen, or null for lines with no category. */
+  String cellCategory(final int cell) {
+    return cellCategories[cell] < 0 ? null : categoryNames.get(cellCategories[cell]);
+  }
+
+  Integer cellTier(final int cell) {
+    return cellTiers[cell];
+  }
+
+  private int categoryId(final String category) {
+    if (category == null) {
+      return -1;
+    }
+    return categoryIds.computeIfAbsent(
+        normalize(category),
+        key -> {
+          categoryNames.add(category);
+          return categoryNames.size() - 1;
+        });
+  }
+
+  private int cellId(final int category, final Integer tier) {
+    // tiers are small, so the pair packs into one key; Integer.MIN_VALUE stands for no tier
+    long key =
+        ((long) category << 32) | ((tier == null ? Integer.MIN_VALUE : tier) & 0xFFFF_FFFFL);
+    return cellIds.computeIfAbsent(
+        key,
+        ignored -> {
+          int cell = cellIds.size();
+          if (cell == cellCategories.length) {
+            cellCategories = Arrays.copyOf(cellCategories, cell * 2);
+            cellTiers = Arrays.copyOf(cellTiers, cell * 2);
+          }
+          cellCategories[cell] = category;
+          cellTiers[cell] = tier;
+          return cell;
+        });
+  }
+
+  private static String normalize(final String category) {
+    return category.toLowerCase(Locale.ROOT);
+  }
+
+  /** Measures of one day, per cell; cells beyond the arrays are empty. */
+  static final class Day {
+
+    long[] count = new long[4];
+
+    long[] sum = new long[4];
+
+    long[] min = new long[4];
+
+    long[] max = new long[4];
+
+    private void add(final int cell, final long price) {
+      if (cell >= count.length) {
+        int length = Math.max(cell + 1, count.length * 2);
+        count = Arrays.copyOf(count, length);
+        sum = Arrays.copyOf(sum, length);
+        min = Arrays.copyOf(min, length);
+        max = Arrays.copyOf(max, length);
+      }
+      if (count[cell] == 0) {
+        min[cell] = price;
+        max[cell] = price;
+      } else {
+        min[cell] = Math.min(min[cell], price);
+        max[cell] = Math.max(max[cell], price);
+      }
+      count[cell]++;
+      sum[cell] += price;
+    }
+
+    /** Removes one line; true if min or max may now be wrong. */
+    private boolean remove(final int cell, final long price) {
+      count[cell]--;
+      sum[cell] -= price;
+      return count[cell] > 0 && (price == min[cell] || price == max[cell]);
+    }
+
+    private void clear(final int cell) {
+      count[cell] = 0;
+      sum[cell] = 0;
+    }
+  }
+
+  private static final class ProductRow {
+
+    private final int category;
+
+    private final long price;
+
+    private ProductRow(final int category, final long price) {
+      this.category = category;
+      this.price = price;
+    }
+  }
+
+  private static final class OrderRow {
+
+    private final long day;
+
+    private final Long customerId;
+
+    private final long[] productIds;
+
+    private final int[] cells;
+
+    private final long[] prices;
+
+    private OrderRow(
+        final long day,
+        final Long customerId,
+        final long[] productIds,
+        final int[] cells,
+        final long[] prices) {
+      this.day = day;
+      this.customerId = customerId;
+      this.productIds = productIds;
+      this.cells = cells;
+      this.prices = prices;
+    }
+  }
+}
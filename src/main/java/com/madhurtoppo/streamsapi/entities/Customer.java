@@ -1,11 +1,15 @@
 package com.madhurtoppo.streamsapi.entities;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,6 +21,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customer")
 public class Customer {
 
     @Id
@@ -27,4 +33,29 @@ public class Customer {
 
     private Integer tier;
 
+    /**
+     * Equal to any {@code Customer}, including a Hibernate proxy, with the same id. An instance
+     * without an id is only equal to itself.
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Customer)) {
+            return false;
+        }
+        // getId() on a proxy does not initialize it
+        return id != null && id.equals(((Customer) other).getId());
+    }
+
+    /**
+     * Hash of the id. Persisting a new instance assigns its id and so changes its hash; add new
+     * instances to hash-based collections after they are saved.
+     */
+    @Override
+    public int hashCode() {
+        return id == null ? System.identityHashCode(this) : Long.hashCode(id);
+    }
+
 }
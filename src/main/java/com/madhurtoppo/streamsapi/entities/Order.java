@@ -2,6 +2,7 @@ package com.madhurtoppo.streamsapi.entities;
 
 import java.time.LocalDate;
 import java.util.Set;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -11,13 +12,16 @@ import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Builder
 @Data
@@ -25,8 +29,16 @@ import lombok.ToString;
 @AllArgsConstructor
 @Entity
 @Table(name = "product_order")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "order")
+@NamedEntityGraph(
+    name = Order.WITH_CUSTOMER_AND_PRODUCTS,
+    attributeNodes = {@NamedAttributeNode("customer"), @NamedAttributeNode("products")})
 public class Order {
 
+  /** Fetch plan loading the customer and the products together with the order. */
+  public static final String WITH_CUSTOMER_AND_PRODUCTS = "Order.withCustomerAndProducts";
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
@@ -44,11 +56,29 @@ public class Order {
   private Customer customer;
 
   @ManyToMany
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "order-products")
   @JoinTable(
       name = "order_product_relationship",
       joinColumns = {@JoinColumn(name = "order_id")},
       inverseJoinColumns = {@JoinColumn(name = "product_id")})
   @ToString.Exclude
-  @EqualsAndHashCode.Exclude
   Set<Product> products;
+
+  /** Id-based like {@link Customer#equals}, so proxies and detached copies of a row are equal. */
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof Order)) {
+      return false;
+    }
+    return id != null && id.equals(((Order) other).getId());
+  }
+
+  /** See {@link Customer#hashCode} for instances that are not saved yet. */
+  @Override
+  public int hashCode() {
+    return id == null ? System.identityHashCode(this) : Long.hashCode(id);
+  }
 }
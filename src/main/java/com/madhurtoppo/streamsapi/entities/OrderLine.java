@@ -0,0 +1,65 @@
+package com.madhurtoppo.streamsapi.entities;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * One product of an order, denormalized with what revenue queries need: the order's date and
+ * customer, the customer's tier, and the product's category and price when the line was written.
+ * Later price or category changes of the product leave the line alone, so historical totals stay
+ * put. Rows are maintained with SQL by {@code OrderLineWriter}; Hibernate only reads them.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Table(name = "order_line")
+@IdClass(OrderLine.Key.class)
+public class OrderLine {
+
+  @Id
+  @Column(name = "order_id")
+  private Long orderId;
+
+  @Id
+  @Column(name = "product_id")
+  private Long productId;
+
+  @Column(name = "order_date")
+  private LocalDate orderDate;
+
+  @Column(name = "customer_id")
+  private Long customerId;
+
+  private Integer tier;
+
+  private String category;
+
+  @Column(name = "price_cents")
+  private long priceCents;
+
+  /** Primary key of a line. */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long orderId;
+
+    private Long productId;
+  }
+}
@@ -2,6 +2,9 @@ package com.madhurtoppo.streamsapi.entities;
 
 import java.util.Set;
 
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -9,13 +12,17 @@ import javax.persistence.Id;
 import javax.persistence.ManyToMany;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
-import lombok.With;
+
+import com.madhurtoppo.streamsapi.money.CentsConverter;
+import com.madhurtoppo.streamsapi.money.Money;
 
 @Builder
 @Data
@@ -23,6 +30,8 @@ import lombok.With;
 @AllArgsConstructor
 @Entity
 @Table
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
 public class Product {
 
     @Id
@@ -33,12 +42,57 @@ public class Product {
 
     private String category;
 
-    @With
-    private Double price;
+    /** Price in whole cents, stored in the {@code price} column as an amount. */
+    @Convert(converter = CentsConverter.class)
+    @Column(name = "price")
+    private long priceCents;
 
     @ManyToMany(mappedBy = "products")
     @ToString.Exclude
-    @EqualsAndHashCode.Exclude
     private Set<Order> orders;
 
+    public double getPrice() {
+        return Money.toAmount(priceCents);
+    }
+
+    public void setPrice(final double price) {
+        this.priceCents = Money.toCents(price);
+    }
+
+    /** A copy with another price, as exercise 3 does; {@link #discount} changes the price in place. */
+    public Product withPrice(final double price) {
+        return new Product(id, name, category, Money.toCents(price), orders);
+    }
+
+    /** Reduces the price by {@code percent}, rounded half up to the cent. */
+    public void discount(final int percent) {
+        this.priceCents = Money.discount(priceCents, percent);
+    }
+
+    /** Id-based like {@link Customer#equals}, so proxies and detached copies of a row are equal. */
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Product)) {
+            return false;
+        }
+        return id != null && id.equals(((Product) other).getId());
+    }
+
+    /** See {@link Customer#hashCode} for instances that are not saved yet. */
+    @Override
+    public int hashCode() {
+        return id == null ? System.identityHashCode(this) : Long.hashCode(id);
+    }
+
+    public static class ProductBuilder {
+
+        public ProductBuilder price(final double price) {
+            this.priceCents = Money.toCents(price);
+            return this;
+        }
+    }
+
 }
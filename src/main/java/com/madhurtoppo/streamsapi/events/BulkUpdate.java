@@ -0,0 +1,14 @@
+package com.madhurtoppo.streamsapi.events;
+
+import lombok.Value;
+
+/**
+ * Published by writers that change rows with a single SQL statement, which Hibernate reports to no
+ * {@link EntityChangeListener}. Views listening for it rebuild once the transaction commits.
+ */
+@Value
+public class BulkUpdate {
+
+  /** The entity whose table was updated. */
+  Class<?> entityType;
+}
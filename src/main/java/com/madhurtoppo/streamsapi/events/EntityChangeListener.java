@@ -0,0 +1,21 @@
+package com.madhurtoppo.streamsapi.events;
+
+/**
+ * Receives entity changes as Hibernate flushes them. A change to {@code Order.products} (the
+ * {@code order_product_relationship} join table) is reported as {@link #onSaved} of the order.
+ *
+ * <p>Callbacks run on the flushing thread, inside the transaction, before it commits.
+ */
+public interface EntityChangeListener {
+
+  /** The entity was inserted; by default the same as {@link #onSaved}. */
+  default void onInserted(final Object entity) {
+    onSaved(entity);
+  }
+
+  /** The entity was updated, or inserted if {@link #onInserted} is not overridden. */
+  default void onSaved(final Object entity) {}
+
+  /** The entity was deleted. */
+  default void onDeleted(final Object entity) {}
+}
@@ -0,0 +1,162 @@
+package com.madhurtoppo.streamsapi.events;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.CollectionEntry;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/** Registers with Hibernate's event system and fans changes out to {@link EntityChangeListener}s */
+@Component
+public class EntityChangePublisher {
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  private final ObjectProvider<EntityChangeListener> listenerProvider;
+
+  private volatile List<EntityChangeListener> listeners;
+
+  public EntityChangePublisher(
+      final EntityManagerFactory entityManagerFactory,
+      final ObjectProvider<EntityChangeListener> listenerProvider) {
+    this.entityManagerFactory = entityManagerFactory;
+    this.listenerProvider = listenerProvider;
+  }
+
+  @PostConstruct
+  void register() {
+    EventListenerRegistry registry =
+        entityManagerFactory
+            .unwrap(SessionFactoryImpl.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+    HibernateListener listener = new HibernateListener(this);
+    registry.appendListeners(EventType.POST_INSERT, listener);
+    registry.appendListeners(EventType.POST_UPDATE, listener);
+    registry.appendListeners(EventType.POST_DELETE, listener);
+    registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+    registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+    registry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+  }
+
+  void inserted(final Object entity) {
+    for (EntityChangeListener listener : listeners()) {
+      listener.onInserted(entity);
+    }
+  }
+
+  void saved(final Object entity) {
+    for (EntityChangeListener listener : listeners()) {
+      listener.onSaved(entity);
+    }
+  }
+
+  void deleted(final Object entity) {
+    for (EntityChangeListener listener : listeners()) {
+      listener.onDeleted(entity);
+    }
+  }
+
+  /** Resolved on first use, so listeners may depend on beans that need this publisher. */
+  private List<EntityChangeListener> listeners() {
+    List<EntityChangeListener> resolved = listeners;
+    if (resolved == null) {
+      resolved = listenerProvider.orderedStream().collect(Collectors.toUnmodifiableList());
+      listeners = resolved;
+    }
+    return resolved;
+  }
+
+  private static final class HibernateListener
+      implements PostInsertEventListener,
+          PostUpdateEventListener,
+          PostDeleteEventListener,
+          PostCollectionRecreateEventListener,
+          PostCollectionUpdateEventListener,
+          PostCollectionRemoveEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient EntityChangePublisher publisher;
+
+    private HibernateListener(final EntityChangePublisher publisher) {
+      this.publisher = publisher;
+    }
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event) {
+      publisher.inserted(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(final PostUpdateEvent event) {
+      publisher.saved(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(final PostDeleteEvent event) {
+      publisher.deleted(event.getEntity());
+    }
+
+    @Override
+    public void onPostRecreateCollection(final PostCollectionRecreateEvent event) {
+      collectionChanged(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(final PostCollectionUpdateEvent event) {
+      collectionChanged(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(final PostCollectionRemoveEvent event) {
+      collectionChanged(event);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(final EntityPersister persister) {
+      return false;
+    }
+
+    private void collectionChanged(final AbstractCollectionEvent event) {
+      // only the owning side maps the join table; inverse collections mirror it
+      if (event.getAffectedOwnerOrNull() != null && !isInverse(event)) {
+        publisher.saved(event.getAffectedOwnerOrNull());
+      }
+    }
+
+    private static boolean isInverse(final AbstractCollectionEvent event) {
+      CollectionEntry entry =
+          event.getSession().getPersistenceContext().getCollectionEntry(event.getCollection());
+      if (entry == null) {
+        return false;
+      }
+      CollectionPersister persister =
+          entry.getCurrentPersister() != null
+              ? entry.getCurrentPersister()
+              : entry.getLoadedPersister();
+      return persister != null && persister.isInverse();
+    }
+  }
+}
@@ -0,0 +1,261 @@
+package com.madhurtoppo.streamsapi.events;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * An in-memory view of the database kept current from entity changes, such as materialized
+ * aggregates or indexes.
+ *
+ * <p>Subclasses turn each flushed change into a change of the view's state, copying what they
+ * need from the entity when it is flushed. Changes are buffered per transaction and applied after
+ * it commits, so readers never see uncommitted data and a rollback simply drops them. Changes made
+ * outside a transaction are applied at once. Changes must be idempotent: one committed while
+ * {@link #rebuild()} is loading is applied both to the current state and, again, to the rebuilt
+ * one, which may already contain it.
+ *
+ * <p>A change that cannot be applied, whether it fails when flushed or when committed, never fails
+ * the write: it leaves the view {@linkplain #isStale() stale} until the next rebuild. A committed
+ * {@link BulkUpdate} rebuilds the view.
+ *
+ * @param <S> the view's state; it is only touched under the view's lock, so it need not be
+ *     thread-safe
+ */
+@Slf4j
+public abstract class IncrementalView<S> implements EntityChangeListener {
+
+  private final String name;
+
+  private final TransactionTemplate readOnlyTransaction;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Lock rebuilding = new ReentrantLock();
+
+  private final AtomicLong staleMarks = new AtomicLong();
+
+  private volatile long freshMarks = -1;
+
+  private S state;
+
+  /** Changes committed while a rebuild is loading, to be applied to the rebuilt state. */
+  private List<Consumer<S>> missed;
+
+  protected IncrementalView(
+      final String name, final S empty, final PlatformTransactionManager transactionManager) {
+    this.name = name;
+    this.state = empty;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    // sees committed rows only, even when called while a transaction is still bound
+    this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /** Loads the whole state from the database; runs in a new read-only transaction. */
+  protected abstract S load();
+
+  /** Called with the rebuilt state once the changes committed during the load are applied. */
+  protected void completed(final S rebuilt) {}
+
+  /** Reloads the state from the database and replaces the current one. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    rebuilding.lock();
+    try {
+      List<Consumer<S>> changes = new ArrayList<>();
+      long marks = write(current -> {
+        missed = changes;
+        return staleMarks.get();
+      });
+      S rebuilt;
+      try {
+        rebuilt = loadSnapshot();
+      } catch (RuntimeException e) {
+        write(current -> missed = null);
+        throw e;
+      }
+      write(current -> {
+        changes.forEach(change -> apply(rebuilt, change));
+        completed(rebuilt);
+        state = rebuilt;
+        missed = null;
+        freshMarks = marks;
+        return null;
+      });
+    } finally {
+      rebuilding.unlock();
+    }
+    log.info("{} rebuilt", name);
+  }
+
+  /** Rows were changed behind Hibernate's back; the view is stale until rebuilt. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBulkUpdate(final BulkUpdate update) {
+    markStale();
+    rebuild();
+  }
+
+  /** True until the first rebuild, and after a change could not be applied. */
+  public boolean isStale() {
+    return staleMarks.get() != freshMarks;
+  }
+
+  /** Loads a state from the database without touching the current one, e.g. to compare them. */
+  protected final S loadSnapshot() {
+    return readOnlyTransaction.execute(status -> load());
+  }
+
+  @Override
+  public final void onInserted(final Object entity) {
+    try {
+      inserted(entity);
+    } catch (RuntimeException e) {
+      failed("an inserted " + entity.getClass().getSimpleName(), e);
+    }
+  }
+
+  @Override
+  public final void onSaved(final Object entity) {
+    try {
+      saved(entity);
+    } catch (RuntimeException e) {
+      failed("a saved " + entity.getClass().getSimpleName(), e);
+    }
+  }
+
+  @Override
+  public final void onDeleted(final Object entity) {
+    try {
+      deleted(entity);
+    } catch (RuntimeException e) {
+      failed("a deleted " + entity.getClass().getSimpleName(), e);
+    }
+  }
+
+  /** The entity was inserted; by default the same as {@link #saved}. */
+  protected void inserted(final Object entity) {
+    saved(entity);
+  }
+
+  /** The entity was updated, or inserted; see {@link EntityChangeListener#onSaved}. */
+  protected void saved(final Object entity) {}
+
+  /** The entity was deleted; see {@link EntityChangeListener#onDeleted}. */
+  protected void deleted(final Object entity) {}
+
+  /**
+   * Applies {@code change} once the current transaction commits. A later change with the same
+   * {@code key} in the same transaction replaces it.
+   */
+  protected final void onCommit(final Object key, final Consumer<S> change) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      applyCommitted(List.of(change));
+      return;
+    }
+    Map<Object, Consumer<S>> pending = pending();
+    pending.remove(key);
+    pending.put(key, change);
+  }
+
+  /** The change buffered for {@code key} in the current transaction, if any. */
+  protected final Consumer<S> pending(final Object key) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return null;
+    }
+    return pending().get(key);
+  }
+
+  /** Applies changes that are committed already, such as those of a writer bypassing Hibernate. */
+  protected final void applyCommitted(final Collection<Consumer<S>> changes) {
+    write(current -> {
+      for (Consumer<S> change : changes) {
+        apply(current, change);
+        if (missed != null) {
+          missed.add(change);
+        }
+      }
+      return null;
+    });
+  }
+
+  /** Marks the view stale until the next rebuild. */
+  protected final void markStale() {
+    staleMarks.incrementAndGet();
+  }
+
+  protected final <R> R read(final Function<S, R> reader) {
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      return reader.apply(state);
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  private <R> R write(final Function<S, R> writer) {
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      return writer.apply(state);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void apply(final S target, final Consumer<S> change) {
+    try {
+      change.accept(target);
+    } catch (RuntimeException e) {
+      failed("a committed change", e);
+    }
+  }
+
+  private void failed(final String change, final RuntimeException e) {
+    markStale();
+    log.warn("{} is stale: could not apply {}", name, change, e);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<Object, Consumer<S>> pending() {
+    Map<Object, Consumer<S>> pending =
+        (Map<Object, Consumer<S>>) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      Map<Object, Consumer<S>> changes = new LinkedHashMap<>();
+      TransactionSynchronizationManager.bindResource(this, changes);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              applyCommitted(changes.values());
+            }
+
+            @Override
+            public void afterCompletion(final int status) {
+              TransactionSynchronizationManager.unbindResourceIfPossible(IncrementalView.this);
+            }
+          });
+      pending = changes;
+    }
+    return pending;
+  }
+}
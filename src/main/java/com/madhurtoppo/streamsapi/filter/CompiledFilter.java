@@ -0,0 +1,126 @@
+package com.madhurtoppo.streamsapi.filter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A filter expression compiled for one {@link FilterSchema}, evaluated either on entities or on
+ * columns.
+ *
+ * <p>On entities the whole expression is a single {@link MethodHandle} tree of getters, range tests
+ * and {@code guardWithTest} branches with every constant bound in. Each filter is an instance of
+ * its own hidden class, defined from {@link CompiledFilterTemplate}, that holds the tree in a
+ * {@code static final} field: the JIT treats it as a constant and inlines the tree into one
+ * specialized test, instead of a chain of {@link Predicate#and} lambdas. Text constants are
+ * compared ignoring case without converting the tested values.
+ *
+ * <p>On {@link FilterColumns} each comparison is one tight loop over a primitive column that
+ * narrows a selection of row indices: a range test for numbers and dates, a table lookup by
+ * dictionary id for text. {@code and} narrows the selection in turn, so later comparisons only
+ * visit rows that are still candidates.
+ *
+ * <p>A missing value matches no comparison, but {@code not} is plain negation. Thread-safe.
+ */
+public abstract class CompiledFilter<T> implements Predicate<T> {
+
+  private static final byte[] TEMPLATE = template();
+
+  private static final MethodType CONSTRUCTOR =
+      MethodType.methodType(void.class, FilterSchema.class, String.class, FilterExpression.class);
+
+  private final FilterSchema<T> schema;
+
+  private final String expression;
+
+  private final FilterExpression tree;
+
+  CompiledFilter(
+      final FilterSchema<T> schema, final String expression, final FilterExpression tree) {
+    this.schema = schema;
+    this.expression = expression;
+    this.tree = tree;
+  }
+
+  /** Defines a hidden class for {@code tree}, which is unloaded with its last instance. */
+  static <T> CompiledFilter<T> of(
+      final FilterSchema<T> schema, final String expression, final FilterExpression tree) {
+    // (Object)boolean, so that the template can call it exactly
+    MethodHandle handle =
+        tree.compile().asType(MethodType.methodType(boolean.class, Object.class));
+    try {
+      MethodHandles.Lookup filter =
+          MethodHandles.lookup().defineHiddenClassWithClassData(TEMPLATE, handle, true);
+      @SuppressWarnings("unchecked")
+      CompiledFilter<T> compiled =
+          (CompiledFilter<T>)
+              filter
+                  .findConstructor(filter.lookupClass(), CONSTRUCTOR)
+                  .invoke(schema, expression, tree);
+      return compiled;
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public FilterSchema<T> schema() {
+    return schema;
+  }
+
+  public String expression() {
+    return expression;
+  }
+
+  /** The matching entities, in order. */
+  public List<T> filter(final List<? extends T> entities) {
+    List<T> matches = new ArrayList<>();
+    for (T entity : entities) {
+      if (test(entity)) {
+        matches.add(entity);
+      }
+    }
+    return matches;
+  }
+
+  /** Ascending indices of the matching rows. */
+  public int[] select(final FilterColumns columns) {
+    int[] rows = allRows(columns);
+    return Arrays.copyOf(rows, tree.select(columns, rows, rows.length));
+  }
+
+  public int count(final FilterColumns columns) {
+    int[] rows = allRows(columns);
+    return tree.select(columns, rows, rows.length);
+  }
+
+  private int[] allRows(final FilterColumns columns) {
+    int[] rows = new int[schema.rowCount(columns.data())];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = i;
+    }
+    return rows;
+  }
+
+  @Override
+  public String toString() {
+    return expression;
+  }
+
+  private static byte[] template() {
+    try (InputStream in =
+        CompiledFilter.class.getResourceAsStream("CompiledFilterTemplate.class")) {
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
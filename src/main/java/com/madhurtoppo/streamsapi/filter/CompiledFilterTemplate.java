@@ -0,0 +1,40 @@
+package com.madhurtoppo.streamsapi.filter;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * The class file from which {@link CompiledFilter} defines one hidden class per filter. It is
+ * never loaded under its own name; each hidden copy reads its filter's handle from its class data.
+ */
+final class CompiledFilterTemplate extends CompiledFilter<Object> {
+
+  /** {@code (Object)boolean}. */
+  private static final MethodHandle HANDLE = handle();
+
+  CompiledFilterTemplate(
+      final FilterSchema<Object> schema, final String expression, final FilterExpression tree) {
+    super(schema, expression, tree);
+  }
+
+  @Override
+  public boolean test(final Object entity) {
+    try {
+      return (boolean) HANDLE.invokeExact(entity);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static MethodHandle handle() {
+    try {
+      return MethodHandles.classData(
+          MethodHandles.lookup(), ConstantDescs.DEFAULT_NAME, MethodHandle.class);
+    } catch (IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+}
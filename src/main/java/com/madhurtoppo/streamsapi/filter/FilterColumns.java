@@ -0,0 +1,42 @@
+package com.madhurtoppo.streamsapi.filter;
+
+import com.madhurtoppo.streamsapi.columnar.ColumnarData;
+import com.madhurtoppo.streamsapi.columnar.ColumnarSnapshot.Dictionary;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The columns of a {@link ColumnarData} that filters read, copied into primitive arrays the first
+ * time any filter needs them and shared by every filter evaluated against the same data. Keep one
+ * per snapshot. Thread-safe.
+ */
+public final class FilterColumns {
+
+  private final ColumnarData data;
+
+  private final Map<FilterField, Object> columns = new ConcurrentHashMap<>();
+
+  private FilterColumns(final ColumnarData data) {
+    this.data = data;
+  }
+
+  public static FilterColumns of(final ColumnarData data) {
+    return new FilterColumns(data);
+  }
+
+  public ColumnarData data() {
+    return data;
+  }
+
+  long[] longs(final FilterField field) {
+    return (long[]) columns.computeIfAbsent(field, key -> key.readLongs(data));
+  }
+
+  int[] ids(final FilterField field) {
+    return (int[]) columns.computeIfAbsent(field, key -> key.readIds(data));
+  }
+
+  Dictionary dictionary(final FilterField field) {
+    return field.dictionary(data);
+  }
+}
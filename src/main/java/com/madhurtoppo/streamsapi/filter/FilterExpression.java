@@ -0,0 +1,359 @@
+package com.madhurtoppo.streamsapi.filter;
+
+import com.madhurtoppo.streamsapi.columnar.ColumnarSnapshot.Dictionary;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * A parsed filter, normalized so that every comparison is either a closed range over a {@code
+ * long} field or a set of text values. Each node compiles to a {@link MethodHandle} over the entity
+ * and narrows a selection of column rows.
+ */
+abstract class FilterExpression {
+
+  private static final MethodHandle IN_RANGE;
+
+  /** Sets up to this size are scanned; larger ones are searched. */
+  private static final int SCANNED_SET_SIZE = 8;
+
+  private static final MethodHandle IN_ARRAY;
+
+  private static final MethodHandle IN_SET;
+
+  private static final MethodHandle NOT;
+
+  static {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try {
+      IN_RANGE =
+          lookup.findStatic(
+              FilterExpression.class,
+              "inRange",
+              MethodType.methodType(boolean.class, long.class, long.class, long.class));
+      IN_ARRAY =
+          lookup.findStatic(
+              FilterExpression.class,
+              "inArray",
+              MethodType.methodType(boolean.class, String[].class, boolean.class, String.class));
+      IN_SET =
+          lookup.findStatic(
+              FilterExpression.class,
+              "inSet",
+              MethodType.methodType(
+                  boolean.class, NavigableSet.class, boolean.class, String.class));
+      NOT =
+          lookup.findStatic(
+              FilterExpression.class, "not", MethodType.methodType(boolean.class, boolean.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /** A handle of type {@code (entity)boolean}. */
+  abstract MethodHandle compile();
+
+  /**
+   * Keeps the rows among {@code rows[0, count)} that match, in order, at the front of {@code rows}.
+   *
+   * @return how many were kept
+   */
+  abstract int select(FilterColumns columns, int[] rows, int count);
+
+  static boolean inRange(final long lo, final long hi, final long value) {
+    return value >= lo && value <= hi;
+  }
+
+  /** Compares ignoring case; a null never matches, even a negated set. */
+  static boolean inArray(final String[] values, final boolean negated, final String value) {
+    if (value == null) {
+      return false;
+    }
+    for (String candidate : values) {
+      if (candidate.equalsIgnoreCase(value)) {
+        return !negated;
+      }
+    }
+    return negated;
+  }
+
+  /** {@code values} are ordered ignoring case; a null never matches, even a negated set. */
+  static boolean inSet(
+      final NavigableSet<String> values, final boolean negated, final String value) {
+    if (value == null) {
+      return false;
+    }
+    return values.contains(value) != negated;
+  }
+
+  static boolean not(final boolean value) {
+    return !value;
+  }
+
+  /** {@code lo <= field <= hi}; a range never contains {@link FilterField#NULL}. */
+  static final class Range extends FilterExpression {
+
+    private final FilterField field;
+
+    private final long lo;
+
+    private final long hi;
+
+    Range(final FilterField field, final long lo, final long hi) {
+      this.field = field;
+      this.lo = Math.max(lo, FilterField.NULL + 1);
+      this.hi = hi;
+    }
+
+    @Override
+    MethodHandle compile() {
+      return MethodHandles.filterReturnValue(
+          field.getter(), MethodHandles.insertArguments(IN_RANGE, 0, lo, hi));
+    }
+
+    @Override
+    int select(final FilterColumns columns, final int[] rows, final int count) {
+      long[] values = columns.longs(field);
+      int kept = 0;
+      for (int i = 0; i < count; i++) {
+        int row = rows[i];
+        long value = values[row];
+        if (value >= lo && value <= hi) {
+          rows[kept++] = row;
+        }
+      }
+      return kept;
+    }
+
+    @Override
+    public String toString() {
+      return lo + " <= " + field + " <= " + hi;
+    }
+  }
+
+  /** {@code field in (values)}, or {@code not in} when negated, ignoring case. */
+  static final class Match extends FilterExpression {
+
+    private final FilterField field;
+
+    private final String[] values;
+
+    private final boolean negated;
+
+    Match(final FilterField field, final List<String> values, final boolean negated) {
+      this.field = field;
+      this.values =
+          values.stream()
+              .map(value -> value.toLowerCase(Locale.ROOT))
+              .distinct()
+              .toArray(String[]::new);
+      this.negated = negated;
+    }
+
+    @Override
+    MethodHandle compile() {
+      MethodHandle test;
+      if (values.length <= SCANNED_SET_SIZE) {
+        test = MethodHandles.insertArguments(IN_ARRAY, 0, values.clone(), negated);
+      } else {
+        NavigableSet<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        set.addAll(Arrays.asList(values));
+        test = MethodHandles.insertArguments(IN_SET, 0, set, negated);
+      }
+      return MethodHandles.filterReturnValue(field.getter(), test);
+    }
+
+    @Override
+    int select(final FilterColumns columns, final int[] rows, final int count) {
+      int[] ids = columns.ids(field);
+      // indexed by id + 1 so that the null id -1 reads slot 0, which stays false
+      boolean[] matches = matchTable(columns.dictionary(field));
+      int kept = 0;
+      for (int i = 0; i < count; i++) {
+        int row = rows[i];
+        if (matches[ids[row] + 1]) {
+          rows[kept++] = row;
+        }
+      }
+      return kept;
+    }
+
+    private boolean[] matchTable(final Dictionary dictionary) {
+      boolean[] matches = new boolean[dictionary.size() + 1];
+      if (negated) {
+        Arrays.fill(matches, 1, matches.length, true);
+      }
+      for (String value : values) {
+        int id = dictionary.idOf(value);
+        if (id >= 0) {
+          matches[id + 1] = !negated;
+        }
+      }
+      return matches;
+    }
+
+    @Override
+    public String toString() {
+      return field + (negated ? " not in " : " in ") + Arrays.toString(values);
+    }
+  }
+
+  static final class And extends FilterExpression {
+
+    private final List<FilterExpression> operands;
+
+    And(final List<FilterExpression> operands) {
+      this.operands = List.copyOf(operands);
+    }
+
+    List<FilterExpression> operands() {
+      return operands;
+    }
+
+    @Override
+    MethodHandle compile() {
+      MethodHandle handle = operands.get(operands.size() - 1).compile();
+      for (int i = operands.size() - 2; i >= 0; i--) {
+        MethodHandle test = operands.get(i).compile();
+        handle = MethodHandles.guardWithTest(test, handle, constant(test.type(), false));
+      }
+      return handle;
+    }
+
+    @Override
+    int select(final FilterColumns columns, final int[] rows, final int count) {
+      int kept = count;
+      for (FilterExpression operand : operands) {
+        if (kept == 0) {
+          break;
+        }
+        kept = operand.select(columns, rows, kept);
+      }
+      return kept;
+    }
+
+    @Override
+    public String toString() {
+      return join(operands, " and ");
+    }
+  }
+
+  static final class Or extends FilterExpression {
+
+    private final List<FilterExpression> operands;
+
+    Or(final List<FilterExpression> operands) {
+      this.operands = List.copyOf(operands);
+    }
+
+    List<FilterExpression> operands() {
+      return operands;
+    }
+
+    @Override
+    MethodHandle compile() {
+      MethodHandle handle = operands.get(operands.size() - 1).compile();
+      for (int i = operands.size() - 2; i >= 0; i--) {
+        MethodHandle test = operands.get(i).compile();
+        handle = MethodHandles.guardWithTest(test, constant(test.type(), true), handle);
+      }
+      return handle;
+    }
+
+    /** Each operand only sees the rows no earlier operand matched; the matches are merged. */
+    @Override
+    int select(final FilterColumns columns, final int[] rows, final int count) {
+      boolean[] matched = new boolean[count];
+      int[] remaining = Arrays.copyOf(rows, count);
+      int[] positions = new int[count];
+      for (int i = 0; i < count; i++) {
+        positions[i] = i;
+      }
+      int left = count;
+      for (FilterExpression operand : operands) {
+        if (left == 0) {
+          break;
+        }
+        int[] candidates = Arrays.copyOf(remaining, left);
+        int hits = operand.select(columns, candidates, left);
+        // candidates is a subsequence of remaining: walk both to mark hits and keep misses
+        int next = 0;
+        int kept = 0;
+        for (int i = 0; i < left; i++) {
+          if (next < hits && candidates[next] == remaining[i]) {
+            matched[positions[i]] = true;
+            next++;
+          } else {
+            remaining[kept] = remaining[i];
+            positions[kept++] = positions[i];
+          }
+        }
+        left = kept;
+      }
+      int kept = 0;
+      for (int i = 0; i < count; i++) {
+        if (matched[i]) {
+          rows[kept++] = rows[i];
+        }
+      }
+      return kept;
+    }
+
+    @Override
+    public String toString() {
+      return join(operands, " or ");
+    }
+  }
+
+  static final class Not extends FilterExpression {
+
+    private final FilterExpression operand;
+
+    Not(final FilterExpression operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    MethodHandle compile() {
+      return MethodHandles.filterReturnValue(operand.compile(), NOT);
+    }
+
+    @Override
+    int select(final FilterColumns columns, final int[] rows, final int count) {
+      int[] matched = Arrays.copyOf(rows, count);
+      int hits = operand.select(columns, matched, count);
+      int next = 0;
+      int kept = 0;
+      for (int i = 0; i < count; i++) {
+        if (next < hits && matched[next] == rows[i]) {
+          next++;
+        } else {
+          rows[kept++] = rows[i];
+        }
+      }
+      return kept;
+    }
+
+    @Override
+    public String toString() {
+      return "not (" + operand + ")";
+    }
+  }
+
+  private static MethodHandle constant(final MethodType type, final boolean value) {
+    return MethodHandles.dropArguments(
+        MethodHandles.constant(boolean.class, value), 0, type.parameterList());
+  }
+
+  private static String join(final List<FilterExpression> operands, final String operator) {
+    return operands.stream()
+        .map(operand -> "(" + operand + ")")
+        .collect(Collectors.joining(operator));
+  }
+}
@@ -0,0 +1,103 @@
+package com.madhurtoppo.streamsapi.filter;
+
+import com.madhurtoppo.streamsapi.columnar.ColumnarData;
+import com.madhurtoppo.streamsapi.columnar.ColumnarSnapshot.Dictionary;
+import java.lang.invoke.MethodHandle;
+import java.util.function.Function;
+
+/**
+ * A filterable field: its entity getter as a {@link MethodHandle}, and how to read it as a column
+ * from {@link ColumnarData}. Numeric, money and date fields are {@code long}s (cents, epoch days)
+ * with {@link #NULL} for a missing value; text fields are strings on entities and dictionary ids
+ * (-1 for null) in columns.
+ */
+final class FilterField {
+
+  /** A missing numeric value; no range contains it. */
+  static final long NULL = Long.MIN_VALUE;
+
+  enum Kind {
+    NUMBER,
+    MONEY,
+    DATE,
+    TEXT
+  }
+
+  private final String name;
+
+  private final Kind kind;
+
+  private final MethodHandle getter;
+
+  private final Function<ColumnarData, long[]> longColumn;
+
+  private final Function<ColumnarData, int[]> idColumn;
+
+  private final Function<ColumnarData, Dictionary> dictionary;
+
+  private FilterField(
+      final String name,
+      final Kind kind,
+      final MethodHandle getter,
+      final Function<ColumnarData, long[]> longColumn,
+      final Function<ColumnarData, int[]> idColumn,
+      final Function<ColumnarData, Dictionary> dictionary) {
+    this.name = name;
+    this.kind = kind;
+    this.getter = getter;
+    this.longColumn = longColumn;
+    this.idColumn = idColumn;
+    this.dictionary = dictionary;
+  }
+
+  /** A numeric field; {@code getter} returns {@code long}. */
+  static FilterField longField(
+      final String name,
+      final Kind kind,
+      final MethodHandle getter,
+      final Function<ColumnarData, long[]> column) {
+    return new FilterField(name, kind, getter, column, null, null);
+  }
+
+  /** A text field; {@code getter} returns {@link String}. */
+  static FilterField textField(
+      final String name,
+      final MethodHandle getter,
+      final Function<ColumnarData, int[]> column,
+      final Function<ColumnarData, Dictionary> dictionary) {
+    return new FilterField(name, Kind.TEXT, getter, null, column, dictionary);
+  }
+
+  String name() {
+    return name;
+  }
+
+  Kind kind() {
+    return kind;
+  }
+
+  boolean isText() {
+    return kind == Kind.TEXT;
+  }
+
+  MethodHandle getter() {
+    return getter;
+  }
+
+  long[] readLongs(final ColumnarData data) {
+    return longColumn.apply(data);
+  }
+
+  int[] readIds(final ColumnarData data) {
+    return idColumn.apply(data);
+  }
+
+  Dictionary dictionary(final ColumnarData data) {
+    return dictionary.apply(data);
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
@@ -0,0 +1,369 @@
+package com.madhurtoppo.streamsapi.filter;
+
+import com.madhurtoppo.streamsapi.money.Money;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Recursive-descent parser for filter expressions such as {@code category = 'Books' and price >
+ * 100}. Keywords and field names ignore case; text is quoted with {@code '}, doubled to escape it.
+ *
+ * <pre>
+ * expression := term ('or' term)*
+ * term       := factor ('and' factor)*
+ * factor     := 'not' factor | '(' expression ')' | comparison
+ * comparison := field ('=' | '!=' | '&lt;&gt;' | '&lt;' | '&lt;=' | '&gt;' | '&gt;=') literal
+ *             | field 'between' literal 'and' literal
+ *             | field ['not'] 'in' '(' literal (',' literal)* ')'
+ * </pre>
+ */
+final class FilterParser {
+
+  private final String source;
+
+  private final Map<String, FilterField> fields;
+
+  private final List<Token> tokens;
+
+  private int next;
+
+  private FilterParser(final String source, final Map<String, FilterField> fields) {
+    this.source = source;
+    this.fields = fields;
+    this.tokens = tokenize(source);
+  }
+
+  /**
+   * Parses {@code source} against {@code fields}, keyed by lower-case name.
+   *
+   * @throws IllegalArgumentException with the position of the first error
+   */
+  static FilterExpression parse(final String source, final Map<String, FilterField> fields) {
+    FilterParser parser = new FilterParser(source, fields);
+    FilterExpression expression = parser.expression();
+    if (parser.peek().type != TokenType.END) {
+      throw parser.error(parser.peek(), "Unexpected '" + parser.peek().text + "'");
+    }
+    return expression;
+  }
+
+  private FilterExpression expression() {
+    List<FilterExpression> operands = new ArrayList<>();
+    addOr(operands, term());
+    while (acceptKeyword("or")) {
+      addOr(operands, term());
+    }
+    return operands.size() == 1 ? operands.get(0) : new FilterExpression.Or(operands);
+  }
+
+  private FilterExpression term() {
+    List<FilterExpression> operands = new ArrayList<>();
+    addAnd(operands, factor());
+    while (acceptKeyword("and")) {
+      addAnd(operands, factor());
+    }
+    return operands.size() == 1 ? operands.get(0) : new FilterExpression.And(operands);
+  }
+
+  private FilterExpression factor() {
+    if (acceptKeyword("not")) {
+      return new FilterExpression.Not(factor());
+    }
+    if (acceptSymbol("(")) {
+      FilterExpression expression = expression();
+      expectSymbol(")");
+      return expression;
+    }
+    return comparison();
+  }
+
+  private FilterExpression comparison() {
+    Token name = take();
+    FilterField field =
+        name.type == TokenType.WORD ? fields.get(name.text.toLowerCase(Locale.ROOT)) : null;
+    if (field == null) {
+      throw error(name, "Unknown field '" + name.text + "', expected one of " + fields.keySet());
+    }
+    if (acceptKeyword("between")) {
+      Token from = take();
+      if (!acceptKeyword("and")) {
+        throw error(peek(), "Expected 'and'");
+      }
+      Token to = take();
+      if (field.isText()) {
+        throw error(name, "'between' does not apply to text field '" + field + "'");
+      }
+      return new FilterExpression.Range(field, number(field, from), number(field, to));
+    }
+    boolean negated = acceptKeyword("not");
+    if (negated || peekKeyword("in")) {
+      if (!acceptKeyword("in")) {
+        throw error(peek(), "Expected 'in'");
+      }
+      return in(field, negated);
+    }
+    Token operator = take();
+    if (operator.type != TokenType.SYMBOL) {
+      throw error(operator, "Expected a comparison operator");
+    }
+    Token literal = take();
+    if (field.isText()) {
+      return text(field, operator, literal);
+    }
+    long value = number(field, literal);
+    switch (operator.text) {
+      case "=":
+        return new FilterExpression.Range(field, value, value);
+      case "!=":
+      case "<>":
+        return new FilterExpression.Or(
+            List.of(
+                new FilterExpression.Range(field, Long.MIN_VALUE, value - 1),
+                new FilterExpression.Range(field, value + 1, Long.MAX_VALUE)));
+      case "<":
+        return new FilterExpression.Range(field, Long.MIN_VALUE, value - 1);
+      case "<=":
+        return new FilterExpression.Range(field, Long.MIN_VALUE, value);
+      case ">":
+        return new FilterExpression.Range(field, value + 1, Long.MAX_VALUE);
+      case ">=":
+        return new FilterExpression.Range(field, value, Long.MAX_VALUE);
+      default:
+        throw error(operator, "Expected a comparison operator");
+    }
+  }
+
+  private FilterExpression in(final FilterField field, final boolean negated) {
+    expectSymbol("(");
+    List<Token> literals = new ArrayList<>();
+    do {
+      literals.add(take());
+    } while (acceptSymbol(","));
+    expectSymbol(")");
+    if (field.isText()) {
+      List<String> values = new ArrayList<>();
+      for (Token literal : literals) {
+        values.add(text(field, literal));
+      }
+      return new FilterExpression.Match(field, values, negated);
+    }
+    List<FilterExpression> points = new ArrayList<>();
+    for (Token literal : literals) {
+      long value = number(field, literal);
+      points.add(new FilterExpression.Range(field, value, value));
+    }
+    FilterExpression any = points.size() == 1 ? points.get(0) : new FilterExpression.Or(points);
+    if (!negated) {
+      return any;
+    }
+    // like SQL, a missing value is not "not in" anything either
+    return new FilterExpression.And(
+        List.of(
+            new FilterExpression.Range(field, Long.MIN_VALUE, Long.MAX_VALUE),
+            new FilterExpression.Not(any)));
+  }
+
+  private FilterExpression text(
+      final FilterField field, final Token operator, final Token literal) {
+    switch (operator.text) {
+      case "=":
+        return new FilterExpression.Match(field, List.of(text(field, literal)), false);
+      case "!=":
+      case "<>":
+        return new FilterExpression.Match(field, List.of(text(field, literal)), true);
+      default:
+        throw error(operator, "Text field '" + field + "' only supports =, != and in");
+    }
+  }
+
+  private String text(final FilterField field, final Token literal) {
+    if (literal.type != TokenType.STRING) {
+      throw error(literal, "Expected a quoted value for '" + field + "'");
+    }
+    return literal.text;
+  }
+
+  private long number(final FilterField field, final Token literal) {
+    if (literal.type != TokenType.WORD && literal.type != TokenType.STRING) {
+      throw error(literal, "Expected a value for '" + field + "'");
+    }
+    long value;
+    try {
+      value = parseNumber(field, literal.text);
+    } catch (NumberFormatException | DateTimeParseException e) {
+      value = Long.MIN_VALUE;
+    }
+    // the extremes are reserved so that bounds can be moved by one without overflowing
+    if (value == Long.MIN_VALUE || value == Long.MAX_VALUE) {
+      throw error(literal, "'" + literal.text + "' is not a valid value for '" + field + "'");
+    }
+    return value;
+  }
+
+  private static long parseNumber(final FilterField field, final String text) {
+    switch (field.kind()) {
+      case MONEY:
+        double amount = Double.parseDouble(text);
+        return Double.isFinite(amount) ? Money.toCents(amount) : Long.MIN_VALUE;
+      case DATE:
+        return LocalDate.parse(text).toEpochDay();
+      default:
+        return Long.parseLong(text);
+    }
+  }
+
+  /** Adds {@code operand}, inlining a parenthesized disjunction. */
+  private static void addOr(
+      final List<FilterExpression> operands, final FilterExpression operand) {
+    if (operand instanceof FilterExpression.Or) {
+      operands.addAll(((FilterExpression.Or) operand).operands());
+    } else {
+      operands.add(operand);
+    }
+  }
+
+  /** Adds {@code operand}, inlining a parenthesized conjunction. */
+  private static void addAnd(
+      final List<FilterExpression> operands, final FilterExpression operand) {
+    if (operand instanceof FilterExpression.And) {
+      operands.addAll(((FilterExpression.And) operand).operands());
+    } else {
+      operands.add(operand);
+    }
+  }
+
+  // tokens
+
+  private enum TokenType {
+    WORD,
+    STRING,
+    SYMBOL,
+    END
+  }
+
+  private static final class Token {
+
+    private final TokenType type;
+
+    private final String text;
+
+    private final int position;
+
+    Token(final TokenType type, final String text, final int position) {
+      this.type = type;
+      this.text = text;
+      this.position = position;
+    }
+  }
+
+  private Token peek() {
+    return tokens.get(next);
+  }
+
+  private Token take() {
+    Token token = tokens.get(next);
+    if (token.type == TokenType.END) {
+      throw error(token, "Unexpected end of filter");
+    }
+    next++;
+    return token;
+  }
+
+  private boolean peekKeyword(final String keyword) {
+    Token token = peek();
+    return token.type == TokenType.WORD && token.text.equalsIgnoreCase(keyword);
+  }
+
+  private boolean acceptKeyword(final String keyword) {
+    if (peekKeyword(keyword)) {
+      next++;
+      return true;
+    }
+    return false;
+  }
+
+  private boolean acceptSymbol(final String symbol) {
+    Token token = peek();
+    if (token.type == TokenType.SYMBOL && token.text.equals(symbol)) {
+      next++;
+      return true;
+    }
+    return false;
+  }
+
+  private void expectSymbol(final String symbol) {
+    if (!acceptSymbol(symbol)) {
+      throw error(peek(), "Expected '" + symbol + "'");
+    }
+  }
+
+  private IllegalArgumentException error(final Token token, final String message) {
+    return error(source, token.position, message);
+  }
+
+  private static IllegalArgumentException error(
+      final String source, final int position, final String message) {
+    return new IllegalArgumentException(
+        message + " at position " + position + " in filter: " + source);
+  }
+
+  private static List<Token> tokenize(final String source) {
+    List<Token> tokens = new ArrayList<>();
+    int i = 0;
+    while (i < source.length()) {
+      char c = source.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == '\'') {
+        StringBuilder text = new StringBuilder();
+        int start = i++;
+        while (true) {
+          if (i == source.length()) {
+            throw error(source, start, "Unterminated text");
+          }
+          char d = source.charAt(i++);
+          if (d == '\'') {
+            if (i < source.length() && source.charAt(i) == '\'') {
+              i++;
+            } else {
+              break;
+            }
+          }
+          text.append(d);
+        }
+        tokens.add(new Token(TokenType.STRING, text.toString(), start));
+      } else if (isWordPart(c)) {
+        int start = i;
+        while (i < source.length() && isWordPart(source.charAt(i))) {
+          i++;
+        }
+        tokens.add(new Token(TokenType.WORD, source.substring(start, i), start));
+      } else if ("<>!=".indexOf(c) >= 0) {
+        int start = i++;
+        if (i < source.length() && "=>".indexOf(source.charAt(i)) >= 0) {
+          i++;
+        }
+        String symbol = source.substring(start, i);
+        if (!List.of("=", "!=", "<>", "<", "<=", ">", ">=").contains(symbol)) {
+          throw error(source, start, "Unknown operator '" + symbol + "'");
+        }
+        tokens.add(new Token(TokenType.SYMBOL, symbol, start));
+      } else if ("(),".indexOf(c) >= 0) {
+        tokens.add(new Token(TokenType.SYMBOL, String.valueOf(c), i++));
+      } else {
+        throw error(source, i, "Unexpected character '" + c + "'");
+      }
+    }
+    tokens.add(new Token(TokenType.END, "", source.length()));
+    return tokens;
+  }
+
+  /** Letters, digits and the signs and separators in {@code -1.5} or {@code 2021-03-14}. */
+  private static boolean isWordPart(final char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '-' || c == '+';
+  }
+}
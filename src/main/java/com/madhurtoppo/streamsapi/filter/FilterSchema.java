@@ -0,0 +1,199 @@
+package com.madhurtoppo.streamsapi.filter;
+
+import com.madhurtoppo.streamsapi.columnar.ColumnarData;
+import com.madhurtoppo.streamsapi.entities.Customer;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * The fields a filter over an entity type may name, and where the matching rows of a {@link
+ * ColumnarData} come from.
+ *
+ * <ul>
+ *   <li>{@link #PRODUCT}: {@code category} (text) and {@code price} (amount, compared in cents).
+ *   <li>{@link #ORDER}: {@code orderDate} and {@code deliveryDate} ({@code yyyy-MM-dd}), {@code
+ *       status} (text) and {@code tier} of the order's customer.
+ * </ul>
+ */
+public final class FilterSchema<T> {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  public static final FilterSchema<Product> PRODUCT =
+      new FilterSchema<>(Product.class, ColumnarData::productCount)
+          .add(
+              FilterField.textField(
+                  "category",
+                  getter(Product.class, "getCategory", String.class),
+                  FilterSchema::productCategories,
+                  ColumnarData::categories))
+          .add(
+              FilterField.longField(
+                  "price",
+                  FilterField.Kind.MONEY,
+                  getter(Product.class, "getPriceCents", long.class),
+                  FilterSchema::productPrices));
+
+  public static final FilterSchema<Order> ORDER =
+      new FilterSchema<>(Order.class, ColumnarData::orderCount)
+          .add(
+              FilterField.longField(
+                  "orderDate",
+                  FilterField.Kind.DATE,
+                  epochDay(getter(Order.class, "getOrderDate", LocalDate.class)),
+                  FilterSchema::orderDates))
+          .add(
+              FilterField.longField(
+                  "deliveryDate",
+                  FilterField.Kind.DATE,
+                  epochDay(getter(Order.class, "getDeliveryDate", LocalDate.class)),
+                  FilterSchema::orderDeliveryDates))
+          .add(
+              FilterField.textField(
+                  "status",
+                  getter(Order.class, "getStatus", String.class),
+                  FilterSchema::orderStatuses,
+                  ColumnarData::statuses))
+          .add(
+              FilterField.longField(
+                  "tier",
+                  FilterField.Kind.NUMBER,
+                  helper("tier", MethodType.methodType(long.class, Order.class)),
+                  FilterSchema::orderTiers));
+
+  private final Class<T> type;
+
+  private final ToIntFunction<ColumnarData> rowCount;
+
+  /** Keyed by lower-case name. */
+  private final Map<String, FilterField> fields = new LinkedHashMap<>();
+
+  private FilterSchema(final Class<T> type, final ToIntFunction<ColumnarData> rowCount) {
+    this.type = type;
+    this.rowCount = rowCount;
+  }
+
+  private FilterSchema<T> add(final FilterField field) {
+    fields.put(field.name().toLowerCase(Locale.ROOT), field);
+    return this;
+  }
+
+  public Class<T> type() {
+    return type;
+  }
+
+  public Set<String> fields() {
+    return fields.keySet();
+  }
+
+  /**
+   * Parses and compiles {@code expression}. Compiling is far more expensive than testing, so
+   * compile a filter once and keep it.
+   *
+   * @throws IllegalArgumentException if the expression is malformed or names an unknown field
+   */
+  public CompiledFilter<T> compile(final String expression) {
+    return CompiledFilter.of(this, expression, FilterParser.parse(expression, fields));
+  }
+
+  int rowCount(final ColumnarData data) {
+    return rowCount.applyAsInt(data);
+  }
+
+  // entity accessors
+
+  private static MethodHandle getter(
+      final Class<?> owner, final String name, final Class<?> returnType) {
+    try {
+      return LOOKUP.findVirtual(owner, name, MethodType.methodType(returnType));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("No getter " + owner.getSimpleName() + "." + name, e);
+    }
+  }
+
+  private static MethodHandle helper(final String name, final MethodType type) {
+    try {
+      return LOOKUP.findStatic(FilterSchema.class, name, type);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("No helper " + name, e);
+    }
+  }
+
+  private static MethodHandle epochDay(final MethodHandle date) {
+    return MethodHandles.filterReturnValue(
+        date, helper("epochDay", MethodType.methodType(long.class, LocalDate.class)));
+  }
+
+  private static long epochDay(final LocalDate date) {
+    return date == null ? FilterField.NULL : date.toEpochDay();
+  }
+
+  private static long tier(final Order order) {
+    Customer customer = order.getCustomer();
+    if (customer == null || customer.getTier() == null) {
+      return FilterField.NULL;
+    }
+    return customer.getTier();
+  }
+
+  // columns
+
+  private static long[] productPrices(final ColumnarData data) {
+    long[] prices = new long[data.productCount()];
+    for (int p = 0; p < prices.length; p++) {
+      prices[p] = data.productPriceCents(p);
+    }
+    return prices;
+  }
+
+  private static int[] productCategories(final ColumnarData data) {
+    int[] categories = new int[data.productCount()];
+    for (int p = 0; p < categories.length; p++) {
+      categories[p] = data.productCategory(p);
+    }
+    return categories;
+  }
+
+  private static long[] orderDates(final ColumnarData data) {
+    long[] dates = new long[data.orderCount()];
+    for (int o = 0; o < dates.length; o++) {
+      dates[o] = data.orderDate(o);
+    }
+    return dates;
+  }
+
+  private static long[] orderDeliveryDates(final ColumnarData data) {
+    long[] dates = new long[data.orderCount()];
+    for (int o = 0; o < dates.length; o++) {
+      dates[o] = data.orderDeliveryDate(o);
+    }
+    return dates;
+  }
+
+  private static int[] orderStatuses(final ColumnarData data) {
+    int[] statuses = new int[data.orderCount()];
+    for (int o = 0; o < statuses.length; o++) {
+      statuses[o] = data.orderStatus(o);
+    }
+    return statuses;
+  }
+
+  private static long[] orderTiers(final ColumnarData data) {
+    long[] tiers = new long[data.orderCount()];
+    for (int o = 0; o < tiers.length; o++) {
+      int customer = data.orderCustomer(o);
+      int tier = customer < 0 ? -1 : data.customerTier(customer);
+      tiers[o] = tier < 0 ? FilterField.NULL : tier;
+    }
+    return tiers;
+  }
+}
@@ -0,0 +1,278 @@
+package com.madhurtoppo.streamsapi.generator;
+
+import com.madhurtoppo.streamsapi.readmodel.OrderLineWriter;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replaces the contents of the customer, product, order and order line tables with generated rows,
+ * using JDBC batch inserts that bypass Hibernate, then derives the denormalized {@code order_line}
+ * table from them with one insert-select. Outside a transaction each batch is committed on its
+ * own; inside one the load joins it.
+ *
+ * <p>Entity listeners do not see these rows, so the second-level cache is evicted afterwards and
+ * in-memory aggregates and indexes must be rebuilt before they are read.
+ */
+@Slf4j
+@Component
+public class BulkDataLoader {
+
+  private static final String[] CLEAR = {
+    OrderLineWriter.CLEAR,
+    "delete from order_product_relationship",
+    "delete from product_order",
+    "delete from product",
+    "delete from customer"
+  };
+
+  /** Tables whose generated ids must continue after the explicit ones the loader inserts. */
+  private static final String[] IDENTITY_TABLES = {"customer", "product", "product_order"};
+
+  private final DataSource dataSource;
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  public BulkDataLoader(
+      final DataSource dataSource, final EntityManagerFactory entityManagerFactory) {
+    this.dataSource = dataSource;
+    this.entityManagerFactory = entityManagerFactory;
+  }
+
+  /**
+   * Deletes all existing rows and inserts those produced by {@code generator}.
+   *
+   * @return the number of rows inserted
+   */
+  public long load(final SyntheticDataGenerator generator, final int batchSize) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try {
+      boolean transactional = DataSourceUtils.isConnectionTransactional(connection, dataSource);
+      boolean autoCommit = connection.getAutoCommit();
+      if (!transactional) {
+        connection.setAutoCommit(false);
+      }
+      try {
+        return load(connection, generator, batchSize, !transactional);
+      } catch (SQLException | RuntimeException e) {
+        if (!transactional) {
+          connection.rollback();
+        }
+        throw e;
+      } finally {
+        if (!transactional) {
+          connection.setAutoCommit(autoCommit);
+        }
+      }
+    } catch (SQLException e) {
+      throw translate(e);
+    } catch (BulkLoadException e) {
+      throw translate(e.getCause());
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+      entityManagerFactory.getCache().evictAll();
+    }
+  }
+
+  private long load(
+      final Connection connection,
+      final SyntheticDataGenerator generator,
+      final int batchSize,
+      final boolean commit)
+      throws SQLException {
+    long start = System.nanoTime();
+    try (Statement statement = connection.createStatement()) {
+      for (String sql : CLEAR) {
+        statement.executeUpdate(sql);
+      }
+    }
+    try (BatchWriter writer = new BatchWriter(connection, batchSize, commit)) {
+      generator.generate(writer);
+      writer.flush();
+      try (Statement statement = connection.createStatement()) {
+        statement.executeUpdate(OrderLineWriter.BACKFILL);
+        restartIdentities(statement);
+      }
+      if (commit) {
+        connection.commit();
+      }
+      long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+      log.info(
+          "Loaded {} rows in {} ms ({} rows/min)",
+          writer.rows,
+          millis,
+          writer.rows * 60_000 / millis);
+      return writer.rows;
+    }
+  }
+
+  /** H2 does not advance an identity column past explicitly inserted ids. */
+  private static void restartIdentities(final Statement statement) throws SQLException {
+    for (String table : IDENTITY_TABLES) {
+      long next;
+      String query = "select coalesce(max(id), 0) + 1 from " + table;
+      try (ResultSet max = statement.executeQuery(query)) {
+        max.next();
+        next = max.getLong(1);
+      }
+      statement.executeUpdate(
+          "alter table " + table + " alter column id restart with " + next);
+    }
+  }
+
+  private DataAccessException translate(final SQLException e) {
+    return new SQLErrorCodeSQLExceptionTranslator(dataSource).translate("bulk load", null, e);
+  }
+
+  /** Buffers rows in one batch per table and writes them parent tables first. */
+  private static final class BatchWriter implements RowSink, AutoCloseable {
+
+    private final Connection connection;
+
+    private final int batchSize;
+
+    private final boolean commit;
+
+    private final PreparedStatement customers;
+
+    private final PreparedStatement products;
+
+    private final PreparedStatement orders;
+
+    private final PreparedStatement lines;
+
+    private int pending;
+
+    private long rows;
+
+    private BatchWriter(final Connection connection, final int batchSize, final boolean commit)
+        throws SQLException {
+      this.connection = connection;
+      this.batchSize = batchSize;
+      this.commit = commit;
+      this.customers =
+          connection.prepareStatement("insert into customer (id, name, tier) values (?, ?, ?)");
+      this.products =
+          connection.prepareStatement(
+              "insert into product (id, name, category, price) values (?, ?, ?, ?)");
+      this.orders =
+          connection.prepareStatement(
+              "insert into product_order (id, order_date, delivery_date, status, customer_id)"
+                  + " values (?, ?, ?, ?, ?)");
+      this.lines =
+          connection.prepareStatement(
+              "insert into order_product_relationship (order_id, product_id) values (?, ?)");
+    }
+
+    @Override
+    public void customer(final long id, final String name, final int tier) {
+      try {
+        customers.setLong(1, id);
+        customers.setString(2, name);
+        customers.setInt(3, tier);
+        add(customers);
+      } catch (SQLException e) {
+        throw new BulkLoadException(e);
+      }
+    }
+
+    @Override
+    public void product(
+        final long id, final String name, final String category, final long priceCents) {
+      try {
+        products.setLong(1, id);
+        products.setString(2, name);
+        products.setString(3, category);
+        // same scale as CentsConverter
+        products.setDouble(4, priceCents / 100.0);
+        add(products);
+      } catch (SQLException e) {
+        throw new BulkLoadException(e);
+      }
+    }
+
+    @Override
+    public void order(
+        final long id,
+        final LocalDate orderDate,
+        final LocalDate deliveryDate,
+        final String status,
+        final long customerId) {
+      try {
+        orders.setLong(1, id);
+        orders.setDate(2, Date.valueOf(orderDate));
+        orders.setDate(3, Date.valueOf(deliveryDate));
+        orders.setString(4, status);
+        orders.setLong(5, customerId);
+        add(orders);
+      } catch (SQLException e) {
+        throw new BulkLoadException(e);
+      }
+    }
+
+    @Override
+    public void orderLine(final long orderId, final long productId) {
+      try {
+        lines.setLong(1, orderId);
+        lines.setLong(2, productId);
+        add(lines);
+      } catch (SQLException e) {
+        throw new BulkLoadException(e);
+      }
+    }
+
+    private void add(final PreparedStatement statement) throws SQLException {
+      statement.addBatch();
+      rows++;
+      if (++pending >= batchSize) {
+        flush();
+      }
+    }
+
+    private void flush() throws SQLException {
+      if (pending == 0) {
+        return;
+      }
+      customers.executeBatch();
+      products.executeBatch();
+      orders.executeBatch();
+      lines.executeBatch();
+      if (commit) {
+        connection.commit();
+      }
+      pending = 0;
+    }
+
+    @Override
+    public void close() throws SQLException {
+      customers.close();
+      products.close();
+      orders.close();
+      lines.close();
+    }
+  }
+
+  /** Carries a {@link SQLException} out of the {@link RowSink} callbacks. */
+  private static final class BulkLoadException extends RuntimeException {
+
+    private BulkLoadException(final SQLException cause) {
+      super(cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+      return (SQLException) super.getCause();
+    }
+  }
+}
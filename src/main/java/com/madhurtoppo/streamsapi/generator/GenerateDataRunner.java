@@ -0,0 +1,35 @@
+package com.madhurtoppo.streamsapi.generator;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replaces the sample data with a generated dataset at startup, before aggregates and indexes are
+ * built. Enabled by the {@code generate} profile, for example {@code
+ * --spring.profiles.active=generate --streams-api.generator.orders=10000000}.
+ */
+@Slf4j
+@Component
+@Profile("generate")
+@AllArgsConstructor
+public class GenerateDataRunner implements CommandLineRunner {
+
+  private final GeneratorProperties properties;
+
+  private final BulkDataLoader loader;
+
+  @Override
+  public void run(final String... args) {
+    SyntheticDataGenerator generator = new SyntheticDataGenerator(properties);
+    log.info(
+        "Generating {} orders, {} customers and {} products with seed {}",
+        properties.getOrders(),
+        generator.customerCount(),
+        generator.productCount(),
+        properties.getSeed());
+    loader.load(generator, properties.getBatchSize());
+  }
+}
@@ -0,0 +1,33 @@
+package com.madhurtoppo.streamsapi.generator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Size and shape of the dataset written by {@link GenerateDataRunner} */
+@Data
+@Component
+@ConfigurationProperties(prefix = "streams-api.generator")
+public class GeneratorProperties {
+
+  private long seed = 42;
+
+  private int orders = 1_000_000;
+
+  /** Orders per customer; there are {@code orders / ordersPerCustomer} customers. */
+  private int ordersPerCustomer = 50;
+
+  /** Orders per product; there are {@code orders / ordersPerProduct} products. */
+  private int ordersPerProduct = 10;
+
+  /** Skew of product popularity; 0 is uniform, around 1 is typical of retail sales. */
+  private double productSkew = 1.0;
+
+  /** Skew of orders across customers. */
+  private double customerSkew = 0.6;
+
+  private int year = 2021;
+
+  /** Rows per JDBC batch and per commit. */
+  private int batchSize = 10_000;
+}
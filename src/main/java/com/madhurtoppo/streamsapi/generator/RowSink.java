@@ -0,0 +1,15 @@
+package com.madhurtoppo.streamsapi.generator;
+
+import java.time.LocalDate;
+
+/** Receives generated rows in load order: customers, products, then each order and its lines. */
+public interface RowSink {
+
+  void customer(long id, String name, int tier);
+
+  void product(long id, String name, String category, long priceCents);
+
+  void order(long id, LocalDate orderDate, LocalDate deliveryDate, String status, long customerId);
+
+  void orderLine(long orderId, long productId);
+}
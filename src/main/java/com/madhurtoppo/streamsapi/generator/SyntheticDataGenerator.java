@@ -0,0 +1,158 @@
+package com.madhurtoppo.streamsapi.generator;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of customers, products, orders and order lines: the same properties and
+ * seed always produce the same rows. The data is skewed like real sales:
+ *
+ * <ul>
+ *   <li>product popularity and orders per customer follow Zipf distributions;
+ *   <li>most orders hold one or two products, a few up to eight;
+ *   <li>10% of customers are tier 0, 60% tier 1 and 30% tier 2, as in {@code data.sql};
+ *   <li>order dates peak in November and December, dip in February and are busier at weekends.
+ * </ul>
+ *
+ * <p>Rows are handed to a {@link RowSink} as they are generated, so nothing is kept in memory
+ * beyond the sampling tables.
+ */
+public final class SyntheticDataGenerator {
+
+  static final String[] CATEGORIES = {"Baby", "Books", "Games", "Grocery", "Toys"};
+
+  private static final int[] CATEGORY_WEIGHTS = {20, 15, 10, 20, 35};
+
+  private static final double[] MONTH_WEIGHTS = {
+    0.9, 0.7, 0.9, 0.9, 1.0, 1.0, 0.9, 0.9, 1.0, 1.1, 1.6, 1.9
+  };
+
+  private static final double WEEKEND_WEIGHT = 1.4;
+
+  /** Products per order: 1 is the most likely, 8 the largest. */
+  private static final double[] LINE_COUNT_WEIGHTS = {40, 25, 14, 9, 5, 4, 2, 1};
+
+  private static final int MAX_DELIVERY_DAYS = 10;
+
+  private final GeneratorProperties properties;
+
+  public SyntheticDataGenerator(final GeneratorProperties properties) {
+    this.properties = properties;
+  }
+
+  public int customerCount() {
+    return Math.max(1, properties.getOrders() / properties.getOrdersPerCustomer());
+  }
+
+  public int productCount() {
+    return Math.max(
+        LINE_COUNT_WEIGHTS.length, properties.getOrders() / properties.getOrdersPerProduct());
+  }
+
+  public void generate(final RowSink sink) {
+    SplittableRandom random = new SplittableRandom(properties.getSeed());
+    int customers = customerCount();
+    int products = productCount();
+
+    for (int i = 1; i <= customers; i++) {
+      int roll = random.nextInt(10);
+      sink.customer(i, "Customer " + i, roll == 0 ? 0 : roll <= 6 ? 1 : 2);
+    }
+
+    int[] categoryTable = table(CATEGORY_WEIGHTS);
+    for (int i = 1; i <= products; i++) {
+      String category = CATEGORIES[categoryTable[random.nextInt(categoryTable.length)]];
+      // log-uniform between 1.00 and 1000.00, so cheap products are more common
+      long priceCents = Math.round(100 * Math.pow(1000, random.nextDouble()));
+      sink.product(i, "Product " + i, category, priceCents);
+    }
+
+    LocalDate firstDay = LocalDate.of(properties.getYear(), 1, 1);
+    double[] dayCumulative = dayWeights(firstDay);
+    double[] lineCumulative = cumulative(LINE_COUNT_WEIGHTS);
+    ZipfSampler productSampler = new ZipfSampler(products, properties.getProductSkew());
+    ZipfSampler customerSampler = new ZipfSampler(customers, properties.getCustomerSkew());
+    long[] lines = new long[LINE_COUNT_WEIGHTS.length];
+    for (long id = 1; id <= properties.getOrders(); id++) {
+      LocalDate orderDate = firstDay.plusDays(search(dayCumulative, random.nextDouble()));
+      LocalDate deliveryDate = orderDate.plusDays(1 + random.nextInt(MAX_DELIVERY_DAYS));
+      int roll = random.nextInt(10);
+      String status = roll < 5 ? "NEW" : roll < 7 ? "PENDING" : "DELIVERED";
+      sink.order(id, orderDate, deliveryDate, status, 1 + customerSampler.next(random));
+
+      int count = Math.min(1 + search(lineCumulative, random.nextDouble()), products);
+      int distinct = 0;
+      while (distinct < count) {
+        long productId = 1 + productSampler.next(random);
+        if (!contains(lines, distinct, productId)) {
+          lines[distinct++] = productId;
+          sink.orderLine(id, productId);
+        }
+      }
+    }
+  }
+
+  private static double[] dayWeights(final LocalDate firstDay) {
+    int days = firstDay.lengthOfYear();
+    double[] weights = new double[days];
+    for (int day = 0; day < days; day++) {
+      LocalDate date = firstDay.plusDays(day);
+      boolean weekend = date.getDayOfWeek().getValue() >= 6;
+      weights[day] = MONTH_WEIGHTS[date.getMonthValue() - 1] * (weekend ? WEEKEND_WEIGHT : 1);
+    }
+    return cumulative(weights);
+  }
+
+  private static double[] cumulative(final double[] weights) {
+    double[] cumulative = new double[weights.length];
+    double sum = 0;
+    for (int i = 0; i < weights.length; i++) {
+      sum += weights[i];
+      cumulative[i] = sum;
+    }
+    for (int i = 0; i < weights.length; i++) {
+      cumulative[i] /= sum;
+    }
+    return cumulative;
+  }
+
+  /** Index of the first cumulative weight above {@code value}. */
+  private static int search(final double[] cumulative, final double value) {
+    int low = 0;
+    int high = cumulative.length - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (cumulative[mid] > value) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  /** Expands integer weights into a lookup table indexed by a uniform draw. */
+  private static int[] table(final int[] weights) {
+    int total = 0;
+    for (int weight : weights) {
+      total += weight;
+    }
+    int[] table = new int[total];
+    int position = 0;
+    for (int i = 0; i < weights.length; i++) {
+      for (int j = 0; j < weights[i]; j++) {
+        table[position++] = i;
+      }
+    }
+    return table;
+  }
+
+  private static boolean contains(final long[] values, final int length, final long value) {
+    for (int i = 0; i < length; i++) {
+      if (values[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
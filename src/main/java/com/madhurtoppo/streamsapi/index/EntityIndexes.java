@@ -0,0 +1,154 @@
+package com.madhurtoppo.streamsapi.index;
+
+import com.madhurtoppo.streamsapi.entities.Customer;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.events.IncrementalView;
+import com.madhurtoppo.streamsapi.ingest.IngestedOrder;
+import com.madhurtoppo.streamsapi.ingest.OrderEvent;
+import com.madhurtoppo.streamsapi.ingest.OrderIngestListener;
+import com.madhurtoppo.streamsapi.repositories.CustomerRepository;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Secondary indexes over products and orders: normalized category to product ids, order day to
+ * order ids, customer tier to order ids and category to the orders containing it. Lookups replace
+ * the {@code equalsIgnoreCase} and date-range scans of exercises 1 to 10; the resulting ids can be
+ * fetched with {@code findAllById}.
+ *
+ * <p>Kept current from committed changes and ingested orders like the materialized aggregates, and
+ * rebuilt after a {@link com.madhurtoppo.streamsapi.events.BulkUpdate}. Ids are bit positions: a
+ * row whose id does not fit in an {@code int} is left out and makes the indexes {@linkplain
+ * #isStale() stale}.
+ */
+@Component
+public class EntityIndexes extends IncrementalView<IndexState> implements OrderIngestListener {
+
+  private final CustomerRepository customerRepository;
+
+  private final ProductRepository productRepository;
+
+  private final OrderRepository orderRepository;
+
+  public EntityIndexes(
+      final CustomerRepository customerRepository,
+      final ProductRepository productRepository,
+      final OrderRepository orderRepository,
+      final PlatformTransactionManager transactionManager) {
+    super("Entity indexes", new IndexState(), transactionManager);
+    this.customerRepository = customerRepository;
+    this.productRepository = productRepository;
+    this.orderRepository = orderRepository;
+  }
+
+  /** Ids of the products in {@code category}, ignoring case (exercise 1). */
+  public BitSet productsInCategory(final String category) {
+    return read(current -> current.productsInCategory(category));
+  }
+
+  /** A new query over the order indexes. */
+  public IndexQuery orders() {
+    return new IndexQuery(this);
+  }
+
+  /** Adds ingested orders with the current tier of their customer. */
+  @Override
+  public void onIngested(final List<IngestedOrder> orders) {
+    List<Consumer<IndexState>> changes = new ArrayList<>(orders.size());
+    for (IngestedOrder order : orders) {
+      long id = order.getId();
+      OrderEvent event = order.getEvent();
+      long[] productIds = event.getProductIds().clone();
+      Long customerId = event.getCustomerId();
+      changes.add(target -> {
+        Integer tier = customerId == null ? null : target.tier(customerId);
+        target.putOrder(id, event.getOrderDate(), customerId, tier, productIds);
+      });
+    }
+    applyCommitted(changes);
+  }
+
+  @Override
+  protected IndexState load() {
+    IndexState fresh = new IndexState();
+    customerRepository.findAll().forEach(customer -> customerRow(customer).accept(fresh));
+    productRepository.findAll().forEach(product -> productRow(product).accept(fresh));
+    orderRepository.findAllWithProducts().forEach(order -> orderRow(order).accept(fresh));
+    return fresh;
+  }
+
+  @Override
+  protected void saved(final Object entity) {
+    if (entity instanceof Customer) {
+      Customer customer = (Customer) entity;
+      onCommit(List.of(Customer.class, customer.getId()), customerRow(customer));
+    } else if (entity instanceof Product) {
+      Product product = (Product) entity;
+      onCommit(List.of(Product.class, product.getId()), productRow(product));
+    } else if (entity instanceof Order) {
+      Order order = (Order) entity;
+      onCommit(List.of(Order.class, order.getId()), orderRow(order));
+    }
+  }
+
+  @Override
+  protected void deleted(final Object entity) {
+    if (entity instanceof Product) {
+      long id = ((Product) entity).getId();
+      onCommit(List.of(Product.class, id), current -> current.removeProduct(id));
+    } else if (entity instanceof Order) {
+      long id = ((Order) entity).getId();
+      onCommit(List.of(Order.class, id), current -> current.removeOrder(id));
+    }
+  }
+
+  <R> R lookup(final Function<IndexState, R> reader) {
+    return read(reader);
+  }
+
+  private static Consumer<IndexState> customerRow(final Customer customer) {
+    long id = customer.getId();
+    Integer tier = customer.getTier();
+    return target -> target.putCustomer(id, tier);
+  }
+
+  private static Consumer<IndexState> productRow(final Product product) {
+    long id = product.getId();
+    String category = product.getCategory();
+    return target -> target.putProduct(id, category);
+  }
+
+  /** Copies the order now, with the current category of each of its products. */
+  private static Consumer<IndexState> orderRow(final Order order) {
+    long id = order.getId();
+    LocalDate orderDate = order.getOrderDate();
+    Customer customer = order.getCustomer();
+    Long customerId = customer == null ? null : customer.getId();
+    Integer tier = customer == null ? null : customer.getTier();
+    long[] productIds = null;
+    List<Consumer<IndexState>> products = new ArrayList<>();
+    if (order.getProducts() != null && Hibernate.isInitialized(order.getProducts())) {
+      productIds = new long[order.getProducts().size()];
+      int i = 0;
+      for (Product product : order.getProducts()) {
+        productIds[i++] = product.getId();
+        products.add(productRow(product));
+      }
+    }
+    long[] lines = productIds;
+    return target -> {
+      products.forEach(product -> product.accept(target));
+      target.putOrder(id, orderDate, customerId, tier, lines);
+    };
+  }
+}
@@ -0,0 +1,69 @@
+package com.madhurtoppo.streamsapi.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Fluent query over the order indexes. Every criterion selects a bitmap of order ids and the
+ * result is their intersection; with no criteria every indexed order matches.
+ */
+public final class IndexQuery {
+
+  private final EntityIndexes indexes;
+
+  private final List<Function<IndexState, BitSet>> criteria = new ArrayList<>();
+
+  IndexQuery(final EntityIndexes indexes) {
+    this.indexes = indexes;
+  }
+
+  /** Orders with at least one product in {@code category}, ignoring case. */
+  public IndexQuery inCategory(final String category) {
+    criteria.add(state -> state.ordersInCategory(category));
+    return this;
+  }
+
+  /** Orders placed from {@code from} (inclusive) to {@code to} (exclusive). */
+  public IndexQuery orderedBetween(final LocalDate from, final LocalDate to) {
+    criteria.add(state -> state.ordersBetween(from, to));
+    return this;
+  }
+
+  public IndexQuery orderedOn(final LocalDate date) {
+    return orderedBetween(date, date.plusDays(1));
+  }
+
+  /** Orders of customers with the given tier. */
+  public IndexQuery ofTier(final int tier) {
+    criteria.add(state -> state.ordersOfTier(tier));
+    return this;
+  }
+
+  /** Matching order ids as a bitmap owned by the caller. */
+  public BitSet bitmap() {
+    return indexes.lookup(this::evaluate);
+  }
+
+  /** Matching order ids in ascending order. */
+  public long[] ids() {
+    return bitmap().stream().asLongStream().toArray();
+  }
+
+  public int count() {
+    return bitmap().cardinality();
+  }
+
+  private BitSet evaluate(final IndexState state) {
+    if (criteria.isEmpty()) {
+      return state.allOrders();
+    }
+    BitSet result = criteria.get(0).apply(state);
+    for (int i = 1; i < criteria.size() && !result.isEmpty(); i++) {
+      result.and(criteria.get(i).apply(state));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,255 @@
+package com.madhurtoppo.streamsapi.index;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Bitmaps of entity ids keyed by normalized category, order day, customer tier and customer, plus
+ * the per-row state needed to move an id between bitmaps when a row changes. Ids are bit positions,
+ * so they must fit in an {@code int}; a row with a larger id is rejected before anything changes.
+ * Not thread-safe.
+ */
+final class IndexState {
+
+  private final Map<Long, String> productCategories = new HashMap<>();
+
+  private final Map<String, BitSet> productsByCategory = new HashMap<>();
+
+  private final Map<Long, OrderRow> orders = new HashMap<>();
+
+  private final BitSet allOrders = new BitSet();
+
+  private final NavigableMap<Long, BitSet> ordersByDay = new TreeMap<>();
+
+  private final Map<Long, BitSet> ordersByProduct = new HashMap<>();
+
+  /** Per category, the number of the order's products in that category, by order id. */
+  private final Map<String, Map<Long, Integer>> categoryLineCounts = new HashMap<>();
+
+  private final Map<String, BitSet> ordersByCategory = new HashMap<>();
+
+  private final Map<Long, Integer> customerTiers = new HashMap<>();
+
+  private final Map<Long, BitSet> ordersByCustomer = new HashMap<>();
+
+  private final Map<Integer, BitSet> ordersByTier = new HashMap<>();
+
+  /** The tier of a known customer, or null. */
+  Integer tier(final long customerId) {
+    return customerTiers.get(customerId);
+  }
+
+  void putCustomer(final long id, final Integer tier) {
+    Integer old = customerTiers.put(id, tier);
+    BitSet customerOrders = ordersByCustomer.get(id);
+    if (customerOrders == null || Objects.equals(old, tier)) {
+      return;
+    }
+    if (old != null) {
+      BitSet tierOrders = ordersByTier.get(old);
+      tierOrders.andNot(customerOrders);
+      removeIfEmpty(ordersByTier, old, tierOrders);
+    }
+    if (tier != null) {
+      ordersByTier.computeIfAbsent(tier, key -> new BitSet()).or(customerOrders);
+    }
+  }
+
+  void putProduct(final long id, final String category) {
+    int bit = bit(id);
+    String key = normalize(category);
+    String old = productCategories.put(id, key);
+    if (key.equals(old)) {
+      return;
+    }
+    if (old != null) {
+      unset(productsByCategory, old, id);
+    }
+    productsByCategory.computeIfAbsent(key, k -> new BitSet()).set(bit);
+
+    BitSet containing = ordersByProduct.get(id);
+    if (containing != null) {
+      for (int order = containing.nextSetBit(0); order >= 0; order = containing.nextSetBit(order + 1)) {
+        if (old != null) {
+          removeLine(old, order);
+        }
+        addLine(key, order);
+      }
+    }
+  }
+
+  void removeProduct(final long id) {
+    String old = productCategories.remove(id);
+    if (old == null) {
+      return;
+    }
+    unset(productsByCategory, old, id);
+    // orders still referencing the product no longer match its category
+    BitSet containing = ordersByProduct.get(id);
+    if (containing != null) {
+      for (int order = containing.nextSetBit(0); order >= 0; order = containing.nextSetBit(order + 1)) {
+        removeLine(old, order);
+      }
+    }
+  }
+
+  /**
+   * Inserts or replaces an order. {@code productIds} may be null when the order's products were
+   * not loaded, in which case the known products are kept.
+   */
+  void putOrder(
+      final long id,
+      final LocalDate orderDate,
+      final Long customerId,
+      final Integer tier,
+      final long[] productIds) {
+    int bit = bit(id);
+    OrderRow old = orders.get(id);
+    long[] lines = productIds != null ? productIds : old != null ? old.productIds : new long[0];
+    if (old != null) {
+      removeOrder(id);
+    }
+    allOrders.set(bit);
+    Long day = orderDate == null ? null : orderDate.toEpochDay();
+    if (day != null) {
+      ordersByDay.computeIfAbsent(day, key -> new BitSet()).set(bit);
+    }
+    if (customerId != null) {
+      ordersByCustomer.computeIfAbsent(customerId, key -> new BitSet()).set(bit);
+      putCustomer(customerId, tier);
+      if (tier != null) {
+        ordersByTier.computeIfAbsent(tier, key -> new BitSet()).set(bit);
+      }
+    }
+    for (long productId : lines) {
+      ordersByProduct.computeIfAbsent(productId, key -> new BitSet()).set(bit);
+      String category = productCategories.get(productId);
+      if (category != null) {
+        addLine(category, bit);
+      }
+    }
+    orders.put(id, new OrderRow(day, customerId, lines));
+  }
+
+  void removeOrder(final long id) {
+    OrderRow old = orders.remove(id);
+    if (old == null) {
+      return;
+    }
+    int bit = bit(id);
+    allOrders.clear(bit);
+    if (old.day != null) {
+      unset(ordersByDay, old.day, id);
+    }
+    if (old.customerId != null) {
+      Integer tier = customerTiers.get(old.customerId);
+      if (tier != null) {
+        unset(ordersByTier, tier, id);
+      }
+      unset(ordersByCustomer, old.customerId, id);
+    }
+    for (long productId : old.productIds) {
+      unset(ordersByProduct, productId, id);
+      String category = productCategories.get(productId);
+      if (category != null) {
+        removeLine(category, bit);
+      }
+    }
+  }
+
+  BitSet productsInCategory(final String category) {
+    return copy(productsByCategory.get(normalize(category)));
+  }
+
+  BitSet allOrders() {
+    return (BitSet) allOrders.clone();
+  }
+
+  /** Orders with at least one product in {@code category}, ignoring case. */
+  BitSet ordersInCategory(final String category) {
+    return copy(ordersByCategory.get(normalize(category)));
+  }
+
+  /** Orders placed from {@code from} (inclusive) to {@code to} (exclusive). */
+  BitSet ordersBetween(final LocalDate from, final LocalDate to) {
+    BitSet result = new BitSet();
+    if (from.isBefore(to)) {
+      for (BitSet day : ordersByDay.subMap(from.toEpochDay(), to.toEpochDay()).values()) {
+        result.or(day);
+      }
+    }
+    return result;
+  }
+
+  BitSet ordersOfTier(final int tier) {
+    return copy(ordersByTier.get(tier));
+  }
+
+  private void addLine(final String category, final int order) {
+    Map<Long, Integer> counts = categoryLineCounts.computeIfAbsent(category, key -> new HashMap<>());
+    if (counts.merge((long) order, 1, Integer::sum) == 1) {
+      ordersByCategory.computeIfAbsent(category, key -> new BitSet()).set(order);
+    }
+  }
+
+  private void removeLine(final String category, final int order) {
+    Map<Long, Integer> counts = categoryLineCounts.get(category);
+    if (counts == null || counts.computeIfPresent((long) order, (key, n) -> n == 1 ? null : n - 1) != null) {
+      return;
+    }
+    if (counts.isEmpty()) {
+      categoryLineCounts.remove(category);
+    }
+    unset(ordersByCategory, category, order);
+  }
+
+  private static <K> void unset(final Map<K, BitSet> index, final K key, final long id) {
+    BitSet ids = index.get(key);
+    if (ids != null) {
+      ids.clear(bit(id));
+      removeIfEmpty(index, key, ids);
+    }
+  }
+
+  private static <K> void removeIfEmpty(final Map<K, BitSet> index, final K key, final BitSet ids) {
+    if (ids.isEmpty()) {
+      index.remove(key);
+    }
+  }
+
+  private static BitSet copy(final BitSet ids) {
+    return ids == null ? new BitSet() : (BitSet) ids.clone();
+  }
+
+  private static int bit(final long id) {
+    if (id < 0 || id > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Id " + id + " cannot be indexed in a bitmap");
+    }
+    return (int) id;
+  }
+
+  static String normalize(final String category) {
+    return category == null ? "" : category.toLowerCase(Locale.ROOT);
+  }
+
+  private static final class OrderRow {
+
+    private final Long day;
+
+    private final Long customerId;
+
+    private final long[] productIds;
+
+    private OrderRow(final Long day, final Long customerId, final long[] productIds) {
+      this.day = day;
+      this.customerId = customerId;
+      this.productIds = productIds;
+    }
+  }
+}
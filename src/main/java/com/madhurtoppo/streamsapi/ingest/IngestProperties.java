@@ -0,0 +1,22 @@
+package com.madhurtoppo.streamsapi.ingest;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Batching and backpressure settings for {@link OrderIngestor} */
+@Data
+@Component
+@ConfigurationProperties(prefix = "streams-api.ingest")
+public class IngestProperties {
+
+  /** Orders per JDBC batch and per commit. */
+  private int batchSize = 1_000;
+
+  /** Longest time a partial batch waits for more orders before it is written. */
+  private Duration flushInterval = Duration.ofMillis(50);
+
+  /** Orders accepted but not yet written; producers block once it is full. */
+  private int queueCapacity = 20_000;
+}
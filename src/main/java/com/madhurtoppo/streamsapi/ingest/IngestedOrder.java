@@ -0,0 +1,12 @@
+package com.madhurtoppo.streamsapi.ingest;
+
+import lombok.Value;
+
+/** An order written by {@link OrderIngestor}, with the id the database generated for it. */
+@Value
+public class IngestedOrder {
+
+  long id;
+
+  OrderEvent event;
+}
@@ -0,0 +1,24 @@
+package com.madhurtoppo.streamsapi.ingest;
+
+import java.time.LocalDate;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A new order as submitted to {@link OrderIngestor}: the columns of {@code product_order} and the
+ * products for its {@code order_product_relationship} rows. The product ids are not copied.
+ */
+@Value
+@Builder
+public class OrderEvent {
+
+  Long customerId;
+
+  long[] productIds;
+
+  LocalDate orderDate;
+
+  LocalDate deliveryDate;
+
+  String status;
+}
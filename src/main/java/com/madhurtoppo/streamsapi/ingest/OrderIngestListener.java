@@ -0,0 +1,16 @@
+package com.madhurtoppo.streamsapi.ingest;
+
+import java.util.List;
+
+/**
+ * Receives the batches written by {@link OrderIngestor}, in order, on its writer thread. A slow
+ * listener slows ingestion down and, once the queue is full, the producers too.
+ */
+public interface OrderIngestListener {
+
+  /** The orders were inserted and committed. */
+  void onIngested(List<IngestedOrder> orders);
+
+  /** The batch was rolled back; none of its orders were written. */
+  default void onFailed(final List<OrderEvent> orders, final Exception cause) {}
+}
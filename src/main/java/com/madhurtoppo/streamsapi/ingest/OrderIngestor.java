@@ -0,0 +1,380 @@
+package com.madhurtoppo.streamsapi.ingest;
+
+import com.madhurtoppo.streamsapi.readmodel.OrderLineWriter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes a high-rate stream of new orders with JDBC batch inserts that bypass Hibernate.
+ *
+ * <p>Producers {@link #submit} orders into a bounded queue. A single writer thread takes up to
+ * {@code batch-size} orders, or fewer once {@code flush-interval} has passed since the first, and
+ * inserts them and their product lines in one transaction, reading the generated order ids back
+ * from the batch and copying the lines into {@code order_line}. Committed batches go to every
+ * {@link OrderIngestListener}. When the database falls behind the queue fills up and producers
+ * block, so memory stays bounded.
+ *
+ * <p>A batch that fails, for example on an unknown customer or product, is rolled back as a whole
+ * and reported to {@link OrderIngestListener#onFailed}. Entity listeners and the second-level cache
+ * do not see ingested orders; the in-memory aggregates, indexes, cube and sketches take them from
+ * {@link OrderIngestListener#onIngested} instead.
+ */
+@Slf4j
+@Component
+public class OrderIngestor implements MeterBinder, AutoCloseable {
+
+  private static final String INSERT_ORDER =
+      "insert into product_order (order_date, delivery_date, status, customer_id)"
+          + " values (?, ?, ?, ?)";
+
+  private static final String INSERT_LINE =
+      "insert into order_product_relationship (order_id, product_id) values (?, ?)";
+
+  private final DataSource dataSource;
+
+  private final ObjectProvider<OrderIngestListener> listenerProvider;
+
+  private final int batchSize;
+
+  private final long flushIntervalNanos;
+
+  private final BlockingQueue<OrderEvent> queue;
+
+  private final Thread writer;
+
+  private final Object progress = new Object();
+
+  private volatile boolean running;
+
+  private volatile List<OrderIngestListener> listeners;
+
+  /** Orders accepted into the queue; guarded by {@link #progress}. */
+  private long accepted;
+
+  /** Orders written or failed; guarded by {@link #progress}. */
+  private long completed;
+
+  private volatile long ingested;
+
+  private volatile long failed;
+
+  public OrderIngestor(
+      final IngestProperties properties,
+      final DataSource dataSource,
+      final ObjectProvider<OrderIngestListener> listenerProvider) {
+    if (properties.getBatchSize() < 1 || properties.getQueueCapacity() < 1) {
+      throw new IllegalArgumentException("Batch size and queue capacity must be positive");
+    }
+    this.dataSource = dataSource;
+    this.listenerProvider = listenerProvider;
+    this.batchSize = properties.getBatchSize();
+    this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+    this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    this.writer = new Thread(this::drain, "order-ingest");
+    this.writer.setDaemon(true);
+  }
+
+  @PostConstruct
+  void start() {
+    running = true;
+    writer.start();
+  }
+
+  /**
+   * Queues {@code order} for writing, waiting while the queue is full.
+   *
+   * @throws IllegalArgumentException if the order has no products list or repeats a product
+   * @throws IllegalStateException if the ingestor is closed
+   */
+  public void submit(final OrderEvent order) throws InterruptedException {
+    validate(order);
+    synchronized (progress) {
+      ensureRunning();
+      accepted++;
+    }
+    try {
+      queue.put(order);
+    } catch (InterruptedException e) {
+      complete(1);
+      throw e;
+    }
+  }
+
+  /**
+   * Queues {@code order} unless the queue stays full for {@code timeout}.
+   *
+   * @return false if the order was not accepted
+   */
+  public boolean offer(final OrderEvent order, final Duration timeout)
+      throws InterruptedException {
+    validate(order);
+    synchronized (progress) {
+      ensureRunning();
+      accepted++;
+    }
+    boolean queued = false;
+    try {
+      queued = queue.offer(order, timeout.toNanos(), TimeUnit.NANOSECONDS);
+      return queued;
+    } finally {
+      if (!queued) {
+        complete(1);
+      }
+    }
+  }
+
+  /**
+   * Waits until every order accepted so far has been written or has failed.
+   *
+   * @return false if that did not happen within {@code timeout}
+   */
+  public boolean flush(final Duration timeout) throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    synchronized (progress) {
+      long target = accepted;
+      while (completed < target) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(progress, remaining);
+      }
+      return true;
+    }
+  }
+
+  /** Orders waiting in the queue. */
+  public int queued() {
+    return queue.size();
+  }
+
+  /** Orders written since startup. */
+  public long ingested() {
+    return ingested;
+  }
+
+  /** Orders in batches that were rolled back since startup. */
+  public long failed() {
+    return failed;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    Gauge.builder("streams.ingest.queue", queue, BlockingQueue::size)
+        .description("Orders accepted but not yet written")
+        .register(registry);
+    FunctionCounter.builder("streams.ingest.orders", this, OrderIngestor::ingested)
+        .tag("result", "ingested")
+        .register(registry);
+    FunctionCounter.builder("streams.ingest.orders", this, OrderIngestor::failed)
+        .tag("result", "failed")
+        .register(registry);
+  }
+
+  /** Stops accepting orders and waits for the queued ones to be written. */
+  @PreDestroy
+  @Override
+  public void close() throws InterruptedException {
+    synchronized (progress) {
+      if (!running) {
+        return;
+      }
+      running = false;
+    }
+    writer.join();
+    log.info("Order ingestion stopped: {} orders written, {} failed", ingested, failed);
+  }
+
+  private void ensureRunning() {
+    if (!running) {
+      throw new IllegalStateException("Order ingestor is closed");
+    }
+  }
+
+  private static void validate(final OrderEvent order) {
+    long[] productIds = Objects.requireNonNull(order.getProductIds(), "productIds");
+    for (int i = 1; i < productIds.length; i++) {
+      for (int j = 0; j < i; j++) {
+        if (productIds[i] == productIds[j]) {
+          throw new IllegalArgumentException("Product " + productIds[i] + " is repeated");
+        }
+      }
+    }
+  }
+
+  private void drain() {
+    List<OrderEvent> batch = new ArrayList<>(batchSize);
+    try {
+      while (running || pending()) {
+        OrderEvent first = queue.poll(Math.max(flushIntervalNanos, 1), TimeUnit.NANOSECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+          queue.drainTo(batch, batchSize - batch.size());
+          long remaining = deadline - System.nanoTime();
+          if (batch.size() == batchSize || remaining <= 0) {
+            break;
+          }
+          OrderEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+        write(batch);
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("Order ingestion interrupted with {} orders queued", queue.size());
+    }
+  }
+
+  private void write(final List<OrderEvent> batch) {
+    List<IngestedOrder> written;
+    try {
+      written = insert(batch);
+    } catch (SQLException | RuntimeException e) {
+      log.error("Rolled back a batch of {} orders", batch.size(), e);
+      failed += batch.size();
+      for (OrderIngestListener listener : listeners()) {
+        inform(listener, () -> listener.onFailed(List.copyOf(batch), e));
+      }
+      complete(batch.size());
+      return;
+    }
+    ingested += written.size();
+    for (OrderIngestListener listener : listeners()) {
+      inform(listener, () -> listener.onIngested(written));
+    }
+    complete(batch.size());
+  }
+
+  private List<IngestedOrder> insert(final List<OrderEvent> batch) throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      boolean autoCommit = connection.getAutoCommit();
+      connection.setAutoCommit(false);
+      try {
+        List<IngestedOrder> written = insert(connection, batch);
+        connection.commit();
+        return written;
+      } catch (SQLException | RuntimeException e) {
+        connection.rollback();
+        throw e;
+      } finally {
+        connection.setAutoCommit(autoCommit);
+      }
+    }
+  }
+
+  private static List<IngestedOrder> insert(
+      final Connection connection, final List<OrderEvent> batch) throws SQLException {
+    List<IngestedOrder> written = new ArrayList<>(batch.size());
+    try (PreparedStatement orders = connection.prepareStatement(INSERT_ORDER, new String[] {"id"});
+        PreparedStatement lines = connection.prepareStatement(INSERT_LINE);
+        PreparedStatement copies = connection.prepareStatement(OrderLineWriter.COPY_ORDER)) {
+      for (OrderEvent order : batch) {
+        setDate(orders, 1, order.getOrderDate());
+        setDate(orders, 2, order.getDeliveryDate());
+        orders.setString(3, order.getStatus());
+        if (order.getCustomerId() == null) {
+          orders.setNull(4, Types.BIGINT);
+        } else {
+          orders.setLong(4, order.getCustomerId());
+        }
+        orders.addBatch();
+      }
+      orders.executeBatch();
+      try (ResultSet keys = orders.getGeneratedKeys()) {
+        for (OrderEvent order : batch) {
+          if (!keys.next()) {
+            throw new SQLException("Fewer generated ids than orders in the batch");
+          }
+          written.add(new IngestedOrder(keys.getLong(1), order));
+        }
+      }
+      for (IngestedOrder order : written) {
+        for (long productId : order.getEvent().getProductIds()) {
+          lines.setLong(1, order.getId());
+          lines.setLong(2, productId);
+          lines.addBatch();
+        }
+      }
+      lines.executeBatch();
+      for (IngestedOrder order : written) {
+        copies.setLong(1, order.getId());
+        copies.addBatch();
+      }
+      copies.executeBatch();
+    }
+    return written;
+  }
+
+  private static void setDate(
+      final PreparedStatement statement, final int index, final LocalDate date)
+      throws SQLException {
+    if (date == null) {
+      statement.setNull(index, Types.DATE);
+    } else {
+      statement.setDate(index, Date.valueOf(date));
+    }
+  }
+
+  private static void inform(final OrderIngestListener listener, final Runnable callback) {
+    try {
+      callback.run();
+    } catch (RuntimeException e) {
+      log.error("Order ingest listener {} failed", listener, e);
+    }
+  }
+
+  /** Whether accepted orders are still queued, in flight, or about to be queued by a producer. */
+  private boolean pending() {
+    synchronized (progress) {
+      return completed < accepted;
+    }
+  }
+
+  private void complete(final int orders) {
+    synchronized (progress) {
+      completed += orders;
+      progress.notifyAll();
+    }
+  }
+
+  /** Resolved on first use, so listeners may depend on beans that need this ingestor. */
+  private List<OrderIngestListener> listeners() {
+    List<OrderIngestListener> resolved = listeners;
+    if (resolved == null) {
+      resolved = listenerProvider.orderedStream().collect(Collectors.toUnmodifiableList());
+      listeners = resolved;
+    }
+    return resolved;
+  }
+}
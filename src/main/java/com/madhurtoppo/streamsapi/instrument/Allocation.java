@@ -0,0 +1,33 @@
+package com.madhurtoppo.streamsapi.instrument;
+
+import java.lang.management.ManagementFactory;
+
+/** Bytes allocated by the current thread, where the JVM reports them. */
+final class Allocation {
+
+  private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+  private Allocation() {}
+
+  static boolean isSupported() {
+    return THREADS != null;
+  }
+
+  /** Bytes allocated so far by the current thread, or 0 when unsupported. */
+  static long current() {
+    return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+  }
+
+  private static com.sun.management.ThreadMXBean threads() {
+    if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+      return null;
+    }
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    if (!threads.isThreadAllocatedMemorySupported()) {
+      return null;
+    }
+    threads.setThreadAllocatedMemoryEnabled(true);
+    return threads;
+  }
+}
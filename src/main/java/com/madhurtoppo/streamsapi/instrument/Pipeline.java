@@ -0,0 +1,40 @@
+package com.madhurtoppo.streamsapi.instrument;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/** One run of a profiled pipeline; obtain it from {@link PipelineRecorder#pipeline(String)}. */
+public final class Pipeline {
+
+  private final PipelineProfile profile;
+
+  private final PipelineRecorder recorder;
+
+  Pipeline(final String name, final PipelineRecorder recorder) {
+    this.profile = new PipelineProfile(name);
+    this.recorder = recorder;
+  }
+
+  /** Starts the pipeline with a timed load phase, such as a repository query. */
+  public <T> ProfiledStream<T> load(
+      final String name, final Supplier<? extends Collection<T>> loader) {
+    StageStats stage = stage(name);
+    Collection<T> rows = ProfiledStream.timed(stage, loader);
+    stage.elementsOut = rows.size();
+    return new ProfiledStream<>(rows.stream(), this);
+  }
+
+  /** The profile so far; complete once the terminal operation has returned. */
+  public PipelineProfile profile() {
+    return profile;
+  }
+
+  StageStats stage(final String name) {
+    return profile.addStage(name);
+  }
+
+  void finish() {
+    profile.finish();
+    recorder.publish(profile);
+  }
+}
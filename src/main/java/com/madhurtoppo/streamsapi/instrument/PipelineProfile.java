@@ -0,0 +1,63 @@
+package com.madhurtoppo.streamsapi.instrument;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Stages of one profiled pipeline run, in pipeline order, and its wall-clock time. */
+public final class PipelineProfile {
+
+  private final String pipeline;
+
+  private final List<StageStats> stages = new ArrayList<>();
+
+  private long startNanos;
+
+  private long nanos;
+
+  PipelineProfile(final String pipeline) {
+    this.pipeline = pipeline;
+  }
+
+  public String getPipeline() {
+    return pipeline;
+  }
+
+  public List<StageStats> getStages() {
+    return Collections.unmodifiableList(stages);
+  }
+
+  /** The first stage called {@code name}. */
+  public StageStats stage(final String name) {
+    return stages.stream()
+        .filter(stage -> stage.getName().equals(name))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("No stage " + name + " in " + pipeline));
+  }
+
+  /** Wall-clock time from the load to the end of the terminal operation. */
+  public long getNanos() {
+    return nanos;
+  }
+
+  StageStats addStage(final String name) {
+    if (stages.isEmpty()) {
+      startNanos = System.nanoTime();
+    }
+    StageStats stage = new StageStats(name);
+    stages.add(stage);
+    return stage;
+  }
+
+  void finish() {
+    nanos = System.nanoTime() - startNanos;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder text =
+        new StringBuilder(String.format("%s - %.3f ms", pipeline, nanos / 1e6));
+    stages.forEach(stage -> text.append(System.lineSeparator()).append("  ").append(stage));
+    return text.toString();
+  }
+}
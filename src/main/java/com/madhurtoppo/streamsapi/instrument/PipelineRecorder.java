@@ -0,0 +1,81 @@
+package com.madhurtoppo.streamsapi.instrument;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts {@linkplain Pipeline profiled pipelines} and publishes each finished profile as Micrometer
+ * meters tagged with the pipeline and stage, and as {@link PipelineStageEvent JFR events}:
+ *
+ * <ul>
+ *   <li>{@code streams.pipeline} - wall-clock time per run;
+ *   <li>{@code streams.pipeline.stage} - exclusive time per stage;
+ *   <li>{@code streams.pipeline.stage.elements} - elements, tagged {@code direction} in or out;
+ *   <li>{@code streams.pipeline.stage.allocated} - bytes allocated per stage and run.
+ * </ul>
+ */
+@Component
+public class PipelineRecorder {
+
+  private final MeterRegistry registry;
+
+  public PipelineRecorder(final MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  public Pipeline pipeline(final String name) {
+    return new Pipeline(name, this);
+  }
+
+  void publish(final PipelineProfile profile) {
+    Tags pipeline = Tags.of("pipeline", profile.getPipeline());
+    Timer.builder("streams.pipeline")
+        .tags(pipeline)
+        .register(registry)
+        .record(profile.getNanos(), TimeUnit.NANOSECONDS);
+
+    List<StageStats> stages = profile.getStages();
+    for (int i = 0; i < stages.size(); i++) {
+      StageStats stats = stages.get(i);
+      // the index keeps repeated stage names, such as two filters, apart
+      Tags stage = pipeline.and("stage", i + ":" + stats.getName());
+      Timer.builder("streams.pipeline.stage")
+          .tags(stage)
+          .register(registry)
+          .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+      Counter.builder("streams.pipeline.stage.elements")
+          .tags(stage.and("direction", "in"))
+          .register(registry)
+          .increment(stats.getElementsIn());
+      Counter.builder("streams.pipeline.stage.elements")
+          .tags(stage.and("direction", "out"))
+          .register(registry)
+          .increment(stats.getElementsOut());
+      if (Allocation.isSupported()) {
+        DistributionSummary.builder("streams.pipeline.stage.allocated")
+            .baseUnit("bytes")
+            .tags(stage)
+            .register(registry)
+            .record(stats.getAllocatedBytes());
+      }
+
+      PipelineStageEvent event = new PipelineStageEvent();
+      if (event.isEnabled()) {
+        event.pipeline = profile.getPipeline();
+        event.stage = stats.getName();
+        event.index = i;
+        event.elementsIn = stats.getElementsIn();
+        event.elementsOut = stats.getElementsOut();
+        event.stageTime = stats.getNanos();
+        event.allocated = stats.getAllocatedBytes();
+        event.commit();
+      }
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.madhurtoppo.streamsapi.instrument;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** JFR event with the totals of one stage, committed when its pipeline finishes. */
+@Name("com.madhurtoppo.streamsapi.PipelineStage")
+@Label("Stream Pipeline Stage")
+@Category({"Streams API", "Pipelines"})
+@Description("Elements, exclusive time and allocation of one stage of a profiled stream")
+@StackTrace(false)
+class PipelineStageEvent extends Event {
+
+  @Label("Pipeline")
+  String pipeline;
+
+  @Label("Stage")
+  String stage;
+
+  @Label("Index")
+  int index;
+
+  @Label("Elements In")
+  long elementsIn;
+
+  @Label("Elements Out")
+  long elementsOut;
+
+  @Label("Stage Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long stageTime;
+
+  @Label("Allocated")
+  @DataAmount(DataAmount.BYTES)
+  long allocated;
+}
@@ -0,0 +1,161 @@
+package com.madhurtoppo.streamsapi.instrument;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sequential stream wrapper that records elements in and out, exclusive time and allocated bytes
+ * for every stage. Each call to a stage's lambda is timed, which adds tens of nanoseconds per
+ * element, so use it to find the expensive stage rather than to measure absolute speed. Stages are
+ * named to tell repeated operations apart; the terminal {@link #collect} finishes the pipeline and
+ * publishes its {@link PipelineProfile}.
+ */
+public final class ProfiledStream<T> {
+
+  private final Stream<T> stream;
+
+  private final Pipeline pipeline;
+
+  ProfiledStream(final Stream<T> stream, final Pipeline pipeline) {
+    this.stream = stream.sequential();
+    this.pipeline = pipeline;
+  }
+
+  public ProfiledStream<T> filter(final String name, final Predicate<? super T> predicate) {
+    StageStats stage = pipeline.stage(name);
+    return next(
+        stream.filter(
+            element -> {
+              boolean matches = timed(stage, () -> predicate.test(element));
+              stage.elementsIn++;
+              if (matches) {
+                stage.elementsOut++;
+              }
+              return matches;
+            }));
+  }
+
+  public <R> ProfiledStream<R> map(
+      final String name, final Function<? super T, ? extends R> mapper) {
+    StageStats stage = pipeline.stage(name);
+    return next(
+        stream.map(
+            element -> {
+              R result = timed(stage, () -> mapper.apply(element));
+              stage.elementsIn++;
+              stage.elementsOut++;
+              return result;
+            }));
+  }
+
+  /**
+   * Each inner stream is drained into a list inside the timed call, so time includes traversing
+   * it, such as initializing a lazy collection, which only happens once the inner stream is
+   * consumed; the stages downstream are still excluded.
+   */
+  public <R> ProfiledStream<R> flatMap(
+      final String name, final Function<? super T, ? extends Stream<? extends R>> mapper) {
+    StageStats stage = pipeline.stage(name);
+    return next(
+        stream.flatMap(
+            element -> {
+              List<R> results = timed(stage, () -> drain(mapper.apply(element)));
+              stage.elementsIn++;
+              stage.elementsOut += results.size();
+              return results.stream();
+            }));
+  }
+
+  /** Keeps the first occurrence of each element by {@code equals}, like {@link Stream#distinct}. */
+  public ProfiledStream<T> distinct() {
+    StageStats stage = pipeline.stage("distinct");
+    Set<T> seen = new HashSet<>();
+    return next(
+        stream.filter(
+            element -> {
+              boolean first = timed(stage, () -> seen.add(element));
+              stage.elementsIn++;
+              if (first) {
+                stage.elementsOut++;
+              }
+              return first;
+            }));
+  }
+
+  /** Time and allocation cover the comparisons; the sort buffer is not attributed. */
+  public ProfiledStream<T> sorted(final Comparator<? super T> comparator) {
+    StageStats stage = pipeline.stage("sorted");
+    return next(
+        stream
+            .peek(element -> stage.elementsIn++)
+            .sorted((left, right) -> timed(stage, () -> comparator.compare(left, right)))
+            .peek(element -> stage.elementsOut++));
+  }
+
+  @SuppressWarnings("unchecked")
+  public ProfiledStream<T> sorted() {
+    return sorted((left, right) -> ((Comparable<? super T>) left).compareTo(right));
+  }
+
+  /**
+   * Collects the elements and finishes the pipeline. The collect stage counts one element out,
+   * or the size of the result when it is a collection or map.
+   */
+  public <R, A> R collect(final Collector<? super T, A, R> collector) {
+    StageStats stage = pipeline.stage("collect");
+    BiConsumer<A, ? super T> accumulator = collector.accumulator();
+    A container = timed(stage, () -> collector.supplier().get());
+    stream.forEach(
+        element -> {
+          timed(
+              stage,
+              () -> {
+                accumulator.accept(container, element);
+                return null;
+              });
+          stage.elementsIn++;
+        });
+    R result = timed(stage, () -> collector.finisher().apply(container));
+    stage.elementsOut =
+        result instanceof Collection
+            ? ((Collection<?>) result).size()
+            : result instanceof Map ? ((Map<?, ?>) result).size() : 1;
+    pipeline.finish();
+    return result;
+  }
+
+  private static <R> List<R> drain(final Stream<? extends R> inner) {
+    if (inner == null) {
+      return List.of();
+    }
+    try (inner) {
+      return inner.collect(Collectors.toList());
+    }
+  }
+
+  private <R> ProfiledStream<R> next(final Stream<R> next) {
+    return new ProfiledStream<>(next, pipeline);
+  }
+
+  static <R> R timed(final StageStats stage, final Supplier<R> work) {
+    long allocated = Allocation.current();
+    long start = System.nanoTime();
+    try {
+      return work.get();
+    } finally {
+      stage.nanos += System.nanoTime() - start;
+      stage.allocatedBytes += Allocation.current() - allocated;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.madhurtoppo.streamsapi.instrument;
+
+/**
+ * Counters for one stage of a {@link ProfiledStream}. Time and allocation are exclusive: they cover
+ * only this stage's own work (its lambda, set or sort), not the stages downstream of it.
+ */
+public final class StageStats {
+
+  private final String name;
+
+  long elementsIn;
+
+  long elementsOut;
+
+  long nanos;
+
+  long allocatedBytes;
+
+  StageStats(final String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getElementsIn() {
+    return elementsIn;
+  }
+
+  public long getElementsOut() {
+    return elementsOut;
+  }
+
+  /** Elements out per element in; 1 for stages without input, such as the load. */
+  public double getSelectivity() {
+    return elementsIn == 0 ? 1 : (double) elementsOut / elementsIn;
+  }
+
+  public long getNanos() {
+    return nanos;
+  }
+
+  /** Bytes allocated by the stage, or 0 when the JVM does not report thread allocation. */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%-24s in %9d out %9d (%6.2f%%) %9.3f ms %,14d B",
+        name,
+        elementsIn,
+        elementsOut,
+        100 * getSelectivity(),
+        nanos / 1e6,
+        allocatedBytes);
+  }
+}
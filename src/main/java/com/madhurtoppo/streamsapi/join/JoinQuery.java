@@ -0,0 +1,89 @@
+package com.madhurtoppo.streamsapi.join;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Left-deep chain of hash joins with filter pushdown: every {@link #where} condition is applied to
+ * the base relation that owns its column before any join runs, wherever it appears in the chain.
+ * Joins without a pushed-down filter still read their whole input, so put selective filters on
+ * every relation that has one.
+ *
+ * <pre>{@code
+ * long[] productIds = JoinQuery.from(tables.orders())
+ *     .join(tables.customers(), "order.customer_id", "customer.id")
+ *     .join(tables.lines(), "order.id", "line.order_id")
+ *     .where("customer.tier", tier -> tier == 2)
+ *     .where("order.order_date", day -> day >= from && day <= to)
+ *     .distinct("line.product_id");
+ * }</pre>
+ */
+public final class JoinQuery {
+
+  private final List<Relation> inputs = new ArrayList<>();
+
+  private final List<String[]> joinKeys = new ArrayList<>();
+
+  private final List<Filter> filters = new ArrayList<>();
+
+  private JoinQuery(final Relation first) {
+    inputs.add(first);
+  }
+
+  public static JoinQuery from(final Relation relation) {
+    return new JoinQuery(relation);
+  }
+
+  /** Joins on {@code column} (of the relations joined so far) = {@code otherColumn}. */
+  public JoinQuery join(final Relation other, final String column, final String otherColumn) {
+    inputs.add(other);
+    joinKeys.add(new String[] {column, otherColumn});
+    return this;
+  }
+
+  public JoinQuery where(final String column, final LongPredicate predicate) {
+    filters.add(new Filter(column, predicate));
+    return this;
+  }
+
+  public Relation execute() {
+    List<Relation> filtered = new ArrayList<>(inputs);
+    for (Filter filter : filters) {
+      int owner = owner(filter.column);
+      filtered.set(owner, filtered.get(owner).filter(filter.column, filter.predicate));
+    }
+    Relation result = filtered.get(0);
+    for (int i = 1; i < filtered.size(); i++) {
+      String[] keys = joinKeys.get(i - 1);
+      result = result.join(filtered.get(i), keys[0], keys[1]);
+    }
+    return result;
+  }
+
+  /** Runs the query and returns the distinct values of {@code column}, ascending. */
+  public long[] distinct(final String column) {
+    return execute().distinct(column);
+  }
+
+  private int owner(final String column) {
+    for (int i = 0; i < inputs.size(); i++) {
+      if (inputs.get(i).hasColumn(column)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("No relation in the query has column " + column);
+  }
+
+  private static final class Filter {
+
+    private final String column;
+
+    private final LongPredicate predicate;
+
+    private Filter(final String column, final LongPredicate predicate) {
+      this.column = column;
+      this.predicate = predicate;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.madhurtoppo.streamsapi.join;
+
+import com.madhurtoppo.streamsapi.primitive.LongIntMap;
+
+/**
+ * Hash index from a {@code long} key column to the rows holding each key: a map from each distinct
+ * key to the first of its rows, with the rest chained through {@code next}.
+ */
+final class LongHashIndex {
+
+  private final LongIntMap heads;
+
+  private final int[] next;
+
+  private LongHashIndex(final int rows) {
+    this.heads = new LongIntMap(rows);
+    this.next = new int[rows];
+  }
+
+  /** Indexes rows {@code 0 .. size-1} of {@code column}; {@link Relation#NULL} keys are skipped. */
+  static LongHashIndex build(final long[] column, final int size) {
+    LongHashIndex index = new LongHashIndex(size);
+    // insert in reverse so each chain lists its rows in ascending order
+    for (int row = size - 1; row >= 0; row--) {
+      long key = column[row];
+      if (key != Relation.NULL) {
+        index.next[row] = index.heads.get(key, -1);
+        index.heads.put(key, row);
+      }
+    }
+    return index;
+  }
+
+  /** Pairs of (build row, probe row) for every probe row whose key is indexed. */
+  RowPairs probe(final long[] column, final int size) {
+    RowPairs pairs = new RowPairs(size);
+    for (int probeRow = 0; probeRow < size; probeRow++) {
+      long key = column[probeRow];
+      if (key == Relation.NULL) {
+        continue;
+      }
+      for (int row = heads.get(key, -1); row >= 0; row = next[row]) {
+        pairs.add(row, probeRow);
+      }
+    }
+    return pairs;
+  }
+}
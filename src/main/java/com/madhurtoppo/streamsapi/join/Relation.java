@@ -0,0 +1,147 @@
+package com.madhurtoppo.streamsapi.join;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable table of {@code long} columns stored column by column. Column names are qualified by
+ * their source table, such as {@code order.customer_id}, so they stay unique after joins. Strings
+ * are dictionary encoded, dates are epoch days and prices are cents; {@link #NULL} marks a missing
+ * value and never matches in a join.
+ */
+public final class Relation {
+
+  public static final long NULL = Long.MIN_VALUE;
+
+  private final String[] columns;
+
+  private final long[][] values;
+
+  private final int size;
+
+  Relation(final String[] columns, final long[][] values, final int size) {
+    this.columns = columns;
+    this.values = values;
+    this.size = size;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public String[] columns() {
+    return columns.clone();
+  }
+
+  public boolean hasColumn(final String column) {
+    return indexOf(column) >= 0;
+  }
+
+  public long value(final String column, final int row) {
+    return values[columnIndex(column)][row];
+  }
+
+  /** A copy of the values of {@code column}. */
+  public long[] values(final String column) {
+    return Arrays.copyOf(values[columnIndex(column)], size);
+  }
+
+  /** The distinct values of {@code column}, ascending, without {@link #NULL}. */
+  public long[] distinct(final String column) {
+    long[] sorted = values(column);
+    Arrays.sort(sorted);
+    int count = 0;
+    for (int i = 0; i < sorted.length; i++) {
+      if (sorted[i] != NULL && (count == 0 || sorted[i] != sorted[count - 1])) {
+        sorted[count++] = sorted[i];
+      }
+    }
+    return Arrays.copyOf(sorted, count);
+  }
+
+  /** The rows whose {@code column} matches {@code predicate}; {@link #NULL} never matches. */
+  public Relation filter(final String column, final LongPredicate predicate) {
+    long[] tested = values[columnIndex(column)];
+    int[] rows = new int[size];
+    int count = 0;
+    for (int row = 0; row < size; row++) {
+      long value = tested[row];
+      if (value != NULL && predicate.test(value)) {
+        rows[count++] = row;
+      }
+    }
+    return count == size ? this : select(rows, count);
+  }
+
+  /** A relation with only {@code keep}, in the order given. */
+  public Relation project(final String... keep) {
+    long[][] projected = new long[keep.length][];
+    for (int i = 0; i < keep.length; i++) {
+      projected[i] = values[columnIndex(keep[i])];
+    }
+    return new Relation(keep.clone(), projected, size);
+  }
+
+  /**
+   * Equi-join on {@code column = otherColumn}. The smaller input is built into a hash index and
+   * the larger one probes it; the result has this relation's columns followed by {@code other}'s.
+   */
+  public Relation join(final Relation other, final String column, final String otherColumn) {
+    long[] keys = values[columnIndex(column)];
+    long[] otherKeys = other.values[other.columnIndex(otherColumn)];
+    RowPairs pairs =
+        size <= other.size
+            ? LongHashIndex.build(keys, size).probe(otherKeys, other.size)
+            : LongHashIndex.build(otherKeys, other.size).probe(keys, size).swap();
+
+    String[] joinedColumns = Arrays.copyOf(columns, columns.length + other.columns.length);
+    System.arraycopy(other.columns, 0, joinedColumns, columns.length, other.columns.length);
+    long[][] joined = new long[joinedColumns.length][];
+    for (int i = 0; i < columns.length; i++) {
+      joined[i] = gather(values[i], pairs.left, pairs.size);
+    }
+    for (int i = 0; i < other.columns.length; i++) {
+      joined[columns.length + i] = gather(other.values[i], pairs.right, pairs.size);
+    }
+    return new Relation(joinedColumns, joined, pairs.size);
+  }
+
+  private Relation select(final int[] rows, final int count) {
+    long[][] selected = new long[values.length][];
+    for (int i = 0; i < values.length; i++) {
+      selected[i] = gather(values[i], rows, count);
+    }
+    return new Relation(columns, selected, count);
+  }
+
+  private static long[] gather(final long[] column, final int[] rows, final int count) {
+    long[] gathered = new long[count];
+    for (int i = 0; i < count; i++) {
+      gathered[i] = column[rows[i]];
+    }
+    return gathered;
+  }
+
+  private int indexOf(final String column) {
+    for (int i = 0; i < columns.length; i++) {
+      if (columns[i].equals(column)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int columnIndex(final String column) {
+    int index = indexOf(column);
+    if (index < 0) {
+      throw new IllegalArgumentException(
+          "No column " + column + " in " + Arrays.toString(columns));
+    }
+    return index;
+  }
+
+  @Override
+  public String toString() {
+    return "Relation" + Arrays.toString(columns) + " with " + size + " rows";
+  }
+}
@@ -0,0 +1,35 @@
+package com.madhurtoppo.streamsapi.join;
+
+import java.util.Arrays;
+
+/** Growable list of matching (left row, right row) pairs produced by a join. */
+final class RowPairs {
+
+  int[] left;
+
+  int[] right;
+
+  int size;
+
+  RowPairs(final int capacity) {
+    left = new int[Math.max(16, capacity)];
+    right = new int[left.length];
+  }
+
+  void add(final int leftRow, final int rightRow) {
+    if (size == left.length) {
+      left = Arrays.copyOf(left, size * 2);
+      right = Arrays.copyOf(right, size * 2);
+    }
+    left[size] = leftRow;
+    right[size] = rightRow;
+    size++;
+  }
+
+  RowPairs swap() {
+    int[] rows = left;
+    left = right;
+    right = rows;
+    return this;
+  }
+}
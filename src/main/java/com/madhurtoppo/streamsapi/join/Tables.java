@@ -0,0 +1,182 @@
+package com.madhurtoppo.streamsapi.join;
+
+import com.madhurtoppo.streamsapi.money.Money;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The four tables as {@link Relation}s, read with JDBC projections rather than entities: {@code
+ * customer.id, customer.tier}; {@code order.id, order.customer_id, order.order_date}; {@code
+ * line.order_id, line.product_id}; {@code product.id, product.category, product.price}.
+ */
+public final class Tables {
+
+  private final Relation customers;
+
+  private final Relation orders;
+
+  private final Relation lines;
+
+  private final Relation products;
+
+  private final List<String> categories;
+
+  private Tables(
+      final Relation customers,
+      final Relation orders,
+      final Relation lines,
+      final Relation products,
+      final List<String> categories) {
+    this.customers = customers;
+    this.orders = orders;
+    this.lines = lines;
+    this.products = products;
+    this.categories = categories;
+  }
+
+  public static Tables load(final JdbcTemplate jdbcTemplate) {
+    Relation customers =
+        read(jdbcTemplate, "select id, tier from customer", "customer.id", "customer.tier");
+    Relation orders =
+        read(
+            jdbcTemplate,
+            "select id, customer_id, order_date from product_order",
+            "order.id",
+            "order.customer_id",
+            "order.order_date");
+    Relation lines =
+        read(
+            jdbcTemplate,
+            "select order_id, product_id from order_product_relationship",
+            "line.order_id",
+            "line.product_id");
+
+    Map<String, Integer> codes = new HashMap<>();
+    List<String> categories = new ArrayList<>();
+    ColumnsBuilder product = new ColumnsBuilder(3);
+    jdbcTemplate.query(
+        "select id, category, price from product",
+        resultSet -> {
+          long id = resultSet.getLong(1);
+          String category = resultSet.getString(2);
+          double price = resultSet.getDouble(3);
+          boolean noPrice = resultSet.wasNull();
+          product.add(
+              id,
+              category == null
+                  ? Relation.NULL
+                  : codes.computeIfAbsent(
+                      normalize(category),
+                      key -> {
+                        categories.add(key);
+                        return categories.size() - 1;
+                      }),
+              noPrice ? Relation.NULL : Money.toCents(price));
+        });
+    Relation products = product.build("product.id", "product.category", "product.price");
+    return new Tables(customers, orders, lines, products, List.copyOf(categories));
+  }
+
+  public Relation customers() {
+    return customers;
+  }
+
+  public Relation orders() {
+    return orders;
+  }
+
+  public Relation lines() {
+    return lines;
+  }
+
+  public Relation products() {
+    return products;
+  }
+
+  /** Code of {@code category} ignoring case, or {@link Relation#NULL} when there is none. */
+  public long categoryCode(final String category) {
+    int code = categories.indexOf(normalize(category));
+    return code < 0 ? Relation.NULL : code;
+  }
+
+  /**
+   * Ids of the products ordered by customers of {@code tier} between {@code from} and {@code to}
+   * inclusive, ascending (exercise 4).
+   */
+  public long[] productsOrderedByTier(final int tier, final LocalDate from, final LocalDate to) {
+    long first = from.toEpochDay();
+    long last = to.toEpochDay();
+    return JoinQuery.from(orders)
+        .join(customers, "order.customer_id", "customer.id")
+        .join(lines, "order.id", "line.order_id")
+        .join(products, "line.product_id", "product.id")
+        .where("customer.tier", value -> value == tier)
+        .where("order.order_date", day -> day >= first && day <= last)
+        .distinct("product.id");
+  }
+
+  public String category(final long code) {
+    return categories.get((int) code);
+  }
+
+  private static Relation read(
+      final JdbcTemplate jdbcTemplate, final String sql, final String... columns) {
+    ColumnsBuilder builder = new ColumnsBuilder(columns.length);
+    long[] row = new long[columns.length];
+    jdbcTemplate.query(
+        sql,
+        resultSet -> {
+          for (int i = 0; i < row.length; i++) {
+            Object value = resultSet.getObject(i + 1);
+            row[i] =
+                value == null
+                    ? Relation.NULL
+                    : value instanceof Date
+                        ? ((Date) value).toLocalDate().toEpochDay()
+                        : ((Number) value).longValue();
+          }
+          builder.add(row);
+        });
+    return builder.build(columns);
+  }
+
+  private static String normalize(final String category) {
+    return Objects.requireNonNull(category).toLowerCase(Locale.ROOT);
+  }
+
+  /** Appends rows to growable column arrays. */
+  private static final class ColumnsBuilder {
+
+    private final long[][] values;
+
+    private int size;
+
+    private ColumnsBuilder(final int columns) {
+      values = new long[columns][1024];
+    }
+
+    private void add(final long... row) {
+      if (size == values[0].length) {
+        for (int i = 0; i < values.length; i++) {
+          values[i] = Arrays.copyOf(values[i], size * 2);
+        }
+      }
+      for (int i = 0; i < values.length; i++) {
+        values[i][size] = row[i];
+      }
+      size++;
+    }
+
+    private Relation build(final String... columns) {
+      return new Relation(columns, values, size);
+    }
+  }
+}
@@ -0,0 +1,285 @@
+package com.madhurtoppo.streamsapi.materialized;
+
+import com.madhurtoppo.streamsapi.money.Money;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Mutable aggregate values plus the per-row state needed to update them incrementally: each
+ * product's category and price, each order's month and products, and the orders containing each
+ * product (so a price change can be pushed into the totals it contributes to). Amounts are kept in
+ * whole cents, so incremental updates never drift from a recomputation. Not thread-safe.
+ */
+final class AggregateState {
+
+  private final Map<Long, ProductRow> products = new HashMap<>();
+
+  private final Map<Long, OrderRow> orders = new HashMap<>();
+
+  private final Map<Long, Set<Long>> ordersByProduct = new HashMap<>();
+
+  private final Map<YearMonth, Long> revenueByMonth = new HashMap<>();
+
+  private final Map<Long, Long> orderTotals = new HashMap<>();
+
+  private final Map<String, CategoryStats> categories = new HashMap<>();
+
+  boolean hasProduct(final long id) {
+    return products.containsKey(id);
+  }
+
+  void putProduct(final long id, final String category, final long price) {
+    ProductRow old = products.put(id, new ProductRow(category, price));
+    if (old != null) {
+      removeFromCategory(id, old);
+    }
+    categories
+        .computeIfAbsent(normalize(category), key -> new CategoryStats(category))
+        .add(id, price);
+
+    long delta = old == null ? 0 : price - old.price;
+    if (delta != 0) {
+      for (long orderId : ordersByProduct.getOrDefault(id, Set.of())) {
+        orderTotals.merge(orderId, delta, Long::sum);
+        YearMonth month = orders.get(orderId).month;
+        if (month != null) {
+          revenueByMonth.merge(month, delta, Long::sum);
+        }
+      }
+    }
+  }
+
+  void removeProduct(final long id) {
+    ProductRow old = products.get(id);
+    if (old == null) {
+      return;
+    }
+    // orders still referencing the product stop counting its price
+    putProduct(id, old.category, 0);
+    removeFromCategory(id, products.remove(id));
+  }
+
+  private void removeFromCategory(final long id, final ProductRow row) {
+    CategoryStats stats = categories.get(normalize(row.category));
+    stats.remove(id, row.price);
+    if (stats.count == 0) {
+      categories.remove(normalize(row.category));
+    }
+  }
+
+  /**
+   * Inserts or replaces an order. {@code productIds} may be null when the order's products were
+   * not loaded, in which case the known products are kept. Unknown products count as free.
+   */
+  void putOrder(final long id, final LocalDate orderDate, final long[] productIds) {
+    OrderRow old = orders.get(id);
+    long[] lines = productIds != null ? productIds : old != null ? old.productIds : new long[0];
+    if (old != null) {
+      removeOrder(id);
+    }
+    YearMonth month = orderDate == null ? null : YearMonth.from(orderDate);
+    long total = 0;
+    for (long productId : lines) {
+      ProductRow product = products.get(productId);
+      total += product == null ? 0 : product.price;
+      ordersByProduct.computeIfAbsent(productId, key -> new HashSet<>()).add(id);
+    }
+    orders.put(id, new OrderRow(month, lines));
+    orderTotals.put(id, total);
+    if (month != null) {
+      revenueByMonth.merge(month, total, Long::sum);
+    }
+  }
+
+  void removeOrder(final long id) {
+    OrderRow old = orders.remove(id);
+    if (old == null) {
+      return;
+    }
+    long total = orderTotals.remove(id);
+    if (old.month != null) {
+      revenueByMonth.merge(old.month, -total, Long::sum);
+    }
+    for (long productId : old.productIds) {
+      Set<Long> containing = ordersByProduct.get(productId);
+      containing.remove(id);
+      if (containing.isEmpty()) {
+        ordersByProduct.remove(productId);
+      }
+    }
+  }
+
+  double revenue(final YearMonth month) {
+    return Money.toAmount(revenueByMonth.getOrDefault(month, 0L));
+  }
+
+  Double orderTotal(final long orderId) {
+    Long total = orderTotals.get(orderId);
+    return total == null ? null : Money.toAmount(total);
+  }
+
+  Map<Long, Double> orderTotals() {
+    Map<Long, Double> result = new HashMap<>(orderTotals.size() * 4 / 3 + 1);
+    orderTotals.forEach((orderId, total) -> result.put(orderId, Money.toAmount(total)));
+    return result;
+  }
+
+  DoubleSummaryStatistics categoryStatistics(final String category) {
+    CategoryStats stats = categories.get(normalize(category));
+    return stats == null ? new DoubleSummaryStatistics() : stats.statistics();
+  }
+
+  Long mostExpensiveProduct(final String category) {
+    CategoryStats stats = categories.get(normalize(category));
+    return stats == null ? null : stats.mostExpensive();
+  }
+
+  Map<String, Long> mostExpensiveProductByCategory() {
+    Map<String, Long> result = new HashMap<>();
+    for (CategoryStats stats : categories.values()) {
+      result.put(stats.name, stats.mostExpensive());
+    }
+    return result;
+  }
+
+  /** Human-readable differences between this state and {@code expected}; empty if consistent. */
+  List<String> differences(final AggregateState expected) {
+    List<String> differences = new ArrayList<>();
+    compare(differences, "revenue", revenueByMonth, expected.revenueByMonth);
+    compare(differences, "order", orderTotals, expected.orderTotals);
+    Set<String> categoryKeys = new HashSet<>(categories.keySet());
+    categoryKeys.addAll(expected.categories.keySet());
+    for (String category : categoryKeys) {
+      CategoryStats actual = categories.get(category);
+      CategoryStats wanted = expected.categories.get(category);
+      if (actual == null || wanted == null || !actual.sameAs(wanted)) {
+        differences.add(
+            "category "
+                + category
+                + ": "
+                + categoryStatistics(category)
+                + " most expensive "
+                + mostExpensiveProduct(category)
+                + " != "
+                + expected.categoryStatistics(category)
+                + " most expensive "
+                + expected.mostExpensiveProduct(category));
+      }
+    }
+    return differences;
+  }
+
+  private static <K> void compare(
+      final List<String> differences,
+      final String what,
+      final Map<K, Long> actual,
+      final Map<K, Long> expected) {
+    Set<K> keys = new HashSet<>(actual.keySet());
+    keys.addAll(expected.keySet());
+    for (K key : keys) {
+      Long value = actual.get(key);
+      Long wanted = expected.get(key);
+      // a month whose orders were all removed keeps a zero entry
+      if (!Objects.equals(value, wanted) && !(isZero(value) && isZero(wanted))) {
+        differences.add(what + " " + key + ": " + value + " != " + wanted + " cents");
+      }
+    }
+  }
+
+  private static boolean isZero(final Long cents) {
+    return cents == null || cents == 0;
+  }
+
+  private static String normalize(final String category) {
+    return category == null ? "" : category.toLowerCase(Locale.ROOT);
+  }
+
+  private static final class ProductRow {
+
+    private final String category;
+
+    private final long price;
+
+    private ProductRow(final String category, final long price) {
+      this.category = category;
+      this.price = price;
+    }
+  }
+
+  private static final class OrderRow {
+
+    private final YearMonth month;
+
+    private final long[] productIds;
+
+    private OrderRow(final YearMonth month, final long[] productIds) {
+      this.month = month;
+      this.productIds = productIds;
+    }
+  }
+
+  /** Count, sum and products ordered by price (for min, max and the most expensive product). */
+  private static final class CategoryStats {
+
+    private final String name;
+
+    private final NavigableMap<Long, TreeSet<Long>> productsByPrice = new TreeMap<>();
+
+    private long count;
+
+    private long sum;
+
+    private CategoryStats(final String name) {
+      this.name = name;
+    }
+
+    private void add(final long productId, final long price) {
+      productsByPrice.computeIfAbsent(price, key -> new TreeSet<>()).add(productId);
+      count++;
+      sum += price;
+    }
+
+    private void remove(final long productId, final long price) {
+      TreeSet<Long> ids = productsByPrice.get(price);
+      if (ids == null || !ids.remove(productId)) {
+        return;
+      }
+      if (ids.isEmpty()) {
+        productsByPrice.remove(price);
+      }
+      count--;
+      sum -= price;
+    }
+
+    private DoubleSummaryStatistics statistics() {
+      if (count == 0) {
+        return new DoubleSummaryStatistics();
+      }
+      return new DoubleSummaryStatistics(
+          count,
+          Money.toAmount(productsByPrice.firstKey()),
+          Money.toAmount(productsByPrice.lastKey()),
+          Money.toAmount(sum));
+    }
+
+    private boolean sameAs(final CategoryStats other) {
+      return count == other.count && sum == other.sum && productsByPrice.equals(other.productsByPrice);
+    }
+
+    private Long mostExpensive() {
+      return count == 0 ? null : productsByPrice.lastEntry().getValue().first();
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package com.madhurtoppo.streamsapi.materialized;
+
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.events.IncrementalView;
+import com.madhurtoppo.streamsapi.ingest.IngestedOrder;
+import com.madhurtoppo.streamsapi.ingest.OrderIngestListener;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.function.Consumer;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Report aggregates kept current as orders and products are written: revenue per month (exercise
+ * 8), total per order (exercise 13), price statistics per category (exercise 10) and the most
+ * expensive product per category (exercise 15). Reads are hash lookups instead of table scans.
+ *
+ * <p>Changes are applied when their transaction commits, and orders written by the {@link
+ * com.madhurtoppo.streamsapi.ingest.OrderIngestor} once their batch commits. Bulk JPQL or native
+ * updates bypass Hibernate events; they require a {@link #rebuild()}, which follows a published
+ * {@link com.madhurtoppo.streamsapi.events.BulkUpdate}.
+ */
+@Component
+public class MaterializedAggregates extends IncrementalView<AggregateState>
+    implements OrderIngestListener {
+
+  private final ProductRepository productRepository;
+
+  private final OrderRepository orderRepository;
+
+  public MaterializedAggregates(
+      final ProductRepository productRepository,
+      final OrderRepository orderRepository,
+      final PlatformTransactionManager transactionManager) {
+    super("Materialized aggregates", new AggregateState(), transactionManager);
+    this.productRepository = productRepository;
+    this.orderRepository = orderRepository;
+  }
+
+  /**
+   * Recomputes every aggregate from scratch and compares it with the incrementally maintained
+   * values.
+   *
+   * @return the differences found; empty if the aggregates are consistent
+   */
+  public List<String> verify() {
+    AggregateState expected = loadSnapshot();
+    return read(current -> current.differences(expected));
+  }
+
+  /** Total price of all orders placed in {@code month}. */
+  public double revenue(final YearMonth month) {
+    return read(current -> current.revenue(month));
+  }
+
+  public OptionalDouble orderTotal(final long orderId) {
+    Double total = read(current -> current.orderTotal(orderId));
+    return total == null ? OptionalDouble.empty() : OptionalDouble.of(total);
+  }
+
+  /** Order id to total price, as in exercise 13a. */
+  public Map<Long, Double> orderTotals() {
+    return read(AggregateState::orderTotals);
+  }
+
+  /** Price statistics of {@code category}, ignoring case. */
+  public DoubleSummaryStatistics categoryStatistics(final String category) {
+    return read(current -> current.categoryStatistics(category));
+  }
+
+  /** Id of the most expensive product in {@code category}, ignoring case. */
+  public Optional<Long> mostExpensiveProduct(final String category) {
+    return Optional.ofNullable(read(current -> current.mostExpensiveProduct(category)));
+  }
+
+  /** Category to id of its most expensive product, as in exercise 15. */
+  public Map<String, Long> mostExpensiveProductByCategory() {
+    return read(AggregateState::mostExpensiveProductByCategory);
+  }
+
+  /** Adds ingested orders; one holding a product the aggregates do not know makes them stale. */
+  @Override
+  public void onIngested(final List<IngestedOrder> orders) {
+    List<Consumer<AggregateState>> changes = new ArrayList<>(orders.size());
+    for (IngestedOrder order : orders) {
+      long id = order.getId();
+      LocalDate orderDate = order.getEvent().getOrderDate();
+      long[] productIds = order.getEvent().getProductIds().clone();
+      changes.add(target -> {
+        for (long productId : productIds) {
+          if (!target.hasProduct(productId)) {
+            markStale();
+          }
+        }
+        target.putOrder(id, orderDate, productIds);
+      });
+    }
+    applyCommitted(changes);
+  }
+
+  @Override
+  protected AggregateState load() {
+    AggregateState fresh = new AggregateState();
+    productRepository.findAll().forEach(product -> productRow(product).accept(fresh));
+    orderRepository.findAllWithProducts().forEach(order -> orderRow(order).accept(fresh));
+    return fresh;
+  }
+
+  @Override
+  protected void saved(final Object entity) {
+    if (entity instanceof Product) {
+      Product product = (Product) entity;
+      onCommit(List.of(Product.class, product.getId()), productRow(product));
+    } else if (entity instanceof Order) {
+      Order order = (Order) entity;
+      onCommit(List.of(Order.class, order.getId()), orderRow(order));
+    }
+  }
+
+  @Override
+  protected void deleted(final Object entity) {
+    if (entity instanceof Product) {
+      long id = ((Product) entity).getId();
+      onCommit(List.of(Product.class, id), current -> current.removeProduct(id));
+    } else if (entity instanceof Order) {
+      long id = ((Order) entity).getId();
+      onCommit(List.of(Order.class, id), current -> current.removeOrder(id));
+    }
+  }
+
+  private static Consumer<AggregateState> productRow(final Product product) {
+    long id = product.getId();
+    String category = product.getCategory();
+    long price = product.getPriceCents();
+    return target -> target.putProduct(id, category, price);
+  }
+
+  /** Copies the order now; its products are added first if the state does not know them yet. */
+  private static Consumer<AggregateState> orderRow(final Order order) {
+    long id = order.getId();
+    LocalDate orderDate = order.getOrderDate();
+    if (order.getProducts() == null || !Hibernate.isInitialized(order.getProducts())) {
+      return target -> target.putOrder(id, orderDate, null);
+    }
+    long[] productIds = new long[order.getProducts().size()];
+    List<Consumer<AggregateState>> products = new ArrayList<>(productIds.length);
+    int i = 0;
+    for (Product product : order.getProducts()) {
+      long productId = product.getId();
+      productIds[i++] = productId;
+      Consumer<AggregateState> row = productRow(product);
+      products.add(target -> {
+        if (!target.hasProduct(productId)) {
+          row.accept(target);
+        }
+      });
+    }
+    return target -> {
+      products.forEach(product -> product.accept(target));
+      target.putOrder(id, orderDate, productIds);
+    };
+  }
+}
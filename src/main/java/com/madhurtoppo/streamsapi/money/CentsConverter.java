@@ -0,0 +1,19 @@
+package com.madhurtoppo.streamsapi.money;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/** Maps {@code long} cents to a {@code double} amount column. A null column reads as 0 cents. */
+@Converter
+public class CentsConverter implements AttributeConverter<Long, Double> {
+
+  @Override
+  public Double convertToDatabaseColumn(final Long cents) {
+    return cents == null ? null : Money.toAmount(cents);
+  }
+
+  @Override
+  public Long convertToEntityAttribute(final Double amount) {
+    return amount == null ? 0L : Money.toCents(amount);
+  }
+}
@@ -0,0 +1,27 @@
+package com.madhurtoppo.streamsapi.money;
+
+/**
+ * Fixed-point money arithmetic on {@code long} cents. Sums of cents are exact, unlike sums of
+ * {@code double} prices, and nothing is boxed.
+ */
+public final class Money {
+
+  private Money() {}
+
+  /** {@code amount} rounded half up to whole cents. */
+  public static long toCents(final double amount) {
+    return Math.round(amount * 100);
+  }
+
+  public static double toAmount(final long cents) {
+    return cents / 100.0;
+  }
+
+  /** {@code cents} reduced by {@code percent}, rounded half up to whole cents. */
+  public static long discount(final long cents, final int percent) {
+    if (percent < 0 || percent > 100) {
+      throw new IllegalArgumentException("percent must be between 0 and 100: " + percent);
+    }
+    return Math.floorDiv(cents * (100 - percent) + 50, 100);
+  }
+}
@@ -0,0 +1,32 @@
+package com.madhurtoppo.streamsapi.primitive;
+
+/** Set of {@code long} values without boxing. Not thread-safe. */
+public final class LongHashSet extends LongKeyTable {
+
+  public LongHashSet() {
+    this(16);
+  }
+
+  public LongHashSet(final int expectedSize) {
+    super(expectedSize);
+  }
+
+  /** Adds {@code value}; returns false if it was already present. */
+  public boolean add(final long value) {
+    int before = size;
+    insert(value);
+    return size != before;
+  }
+
+  public boolean contains(final long value) {
+    return containsKey(value);
+  }
+
+  @Override
+  Object resizeValues(final int capacity) {
+    return null;
+  }
+
+  @Override
+  void moveValue(final Object oldValues, final int from, final int to) {}
+}
@@ -0,0 +1,81 @@
+package com.madhurtoppo.streamsapi.primitive;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** {@code long} to {@code int} hash map without boxing. Not thread-safe. */
+public final class LongIntMap extends LongKeyTable {
+
+  private int[] values;
+
+  public LongIntMap() {
+    this(16);
+  }
+
+  public LongIntMap(final int expectedSize) {
+    super(expectedSize);
+    values = new int[keys.length];
+  }
+
+  /** The value of {@code key}, or {@code defaultValue} if there is none. */
+  public int get(final long key, final int defaultValue) {
+    int slot = slot(key);
+    return used[slot] ? values[slot] : defaultValue;
+  }
+
+  public void put(final long key, final int value) {
+    // insert may grow the table and replace the values array, so it must run first
+    int slot = insert(key);
+    values[slot] = value;
+  }
+
+  /** Adds {@code delta} to the value of {@code key}, starting from 0, and returns the sum. */
+  public int addTo(final long key, final int delta) {
+    int slot = insert(key);
+    return values[slot] += delta;
+  }
+
+  /** Adds every value of {@code other} to this map; returns this map. */
+  public LongIntMap merge(final LongIntMap other) {
+    other.forEach(this::addTo);
+    return this;
+  }
+
+  public void forEach(final EntryConsumer consumer) {
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (used[slot]) {
+        consumer.accept(keys[slot], values[slot]);
+      }
+    }
+  }
+
+  /** A boxed copy, for callers that need a {@link Map}. */
+  public Map<Long, Integer> toMap() {
+    Map<Long, Integer> map = new HashMap<>(size * 4 / 3 + 1);
+    forEach(map::put);
+    return map;
+  }
+
+  @Override
+  Object resizeValues(final int capacity) {
+    int[] old = values;
+    values = new int[capacity];
+    return old;
+  }
+
+  @Override
+  void moveValue(final Object oldValues, final int from, final int to) {
+    values[to] = ((int[]) oldValues)[from];
+  }
+
+  @Override
+  public String toString() {
+    return toMap().toString();
+  }
+
+  @FunctionalInterface
+  public interface EntryConsumer {
+
+    void accept(long key, int value);
+  }
+}
@@ -0,0 +1,97 @@
+package com.madhurtoppo.streamsapi.primitive;
+
+/**
+ * Open-addressing hash table of {@code long} keys with linear probing, kept at most half full.
+ * Subclasses hold the values in arrays parallel to {@link #keys} and move them when it grows.
+ */
+abstract class LongKeyTable {
+
+  long[] keys;
+
+  boolean[] used;
+
+  int size;
+
+  private int mask;
+
+  LongKeyTable(final int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2) - 1) << 1;
+    keys = new long[capacity];
+    used = new boolean[capacity];
+    mask = capacity - 1;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean containsKey(final long key) {
+    return used[slot(key)];
+  }
+
+  /** The keys in table order. */
+  public long[] keys() {
+    long[] result = new long[size];
+    int i = 0;
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (used[slot]) {
+        result[i++] = keys[slot];
+      }
+    }
+    return result;
+  }
+
+  /** The slot holding {@code key}, or the free slot where it would go. */
+  final int slot(final long key) {
+    long hash = key * 0x9E3779B97F4A7C15L;
+    int slot = (int) (hash ^ (hash >>> 32)) & mask;
+    while (used[slot] && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /** The slot of {@code key}, claiming one (and growing the table) if the key is new. */
+  final int insert(final long key) {
+    int slot = slot(key);
+    if (used[slot]) {
+      return slot;
+    }
+    if (2 * (size + 1) > keys.length) {
+      grow();
+      slot = slot(key);
+    }
+    used[slot] = true;
+    keys[slot] = key;
+    size++;
+    return slot;
+  }
+
+  /** Allocates value arrays of {@code capacity} and returns the previous ones. */
+  abstract Object resizeValues(int capacity);
+
+  /** Copies the value at {@code from} in {@code oldValues} to {@code to} in the current arrays. */
+  abstract void moveValue(Object oldValues, int from, int to);
+
+  private void grow() {
+    long[] oldKeys = keys;
+    boolean[] oldUsed = used;
+    int capacity = oldKeys.length * 2;
+    keys = new long[capacity];
+    used = new boolean[capacity];
+    mask = capacity - 1;
+    Object oldValues = resizeValues(capacity);
+    for (int from = 0; from < oldKeys.length; from++) {
+      if (oldUsed[from]) {
+        int to = slot(oldKeys[from]);
+        used[to] = true;
+        keys[to] = oldKeys[from];
+        moveValue(oldValues, from, to);
+      }
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.madhurtoppo.streamsapi.primitive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code long} key to a list of {@code long} values without boxing, such as customer id to order
+ * ids. Values keep the order they were added in. Not thread-safe.
+ */
+public final class LongLongListMap extends LongKeyTable {
+
+  private static final long[] EMPTY = {};
+
+  private long[][] lists;
+
+  private int[] lengths;
+
+  public LongLongListMap() {
+    this(16);
+  }
+
+  public LongLongListMap(final int expectedSize) {
+    super(expectedSize);
+    lists = new long[keys.length][];
+    lengths = new int[keys.length];
+  }
+
+  /** Appends {@code value} to the list of {@code key}. */
+  public void add(final long key, final long value) {
+    int slot = insert(key);
+    long[] list = lists[slot];
+    int length = lengths[slot];
+    if (list == null) {
+      list = lists[slot] = new long[4];
+    } else if (length == list.length) {
+      list = lists[slot] = Arrays.copyOf(list, length * 2);
+    }
+    list[length] = value;
+    lengths[slot] = length + 1;
+  }
+
+  /** A copy of the values of {@code key}; empty if there are none. */
+  public long[] get(final long key) {
+    int slot = slot(key);
+    return used[slot] ? Arrays.copyOf(lists[slot], lengths[slot]) : EMPTY;
+  }
+
+  /** Total number of values over all keys. */
+  public long valueCount() {
+    long count = 0;
+    for (int slot = 0; slot < keys.length; slot++) {
+      count += lengths[slot];
+    }
+    return count;
+  }
+
+  /** Appends the values of {@code other} after this map's values; returns this map. */
+  public LongLongListMap merge(final LongLongListMap other) {
+    for (int slot = 0; slot < other.keys.length; slot++) {
+      if (other.used[slot]) {
+        for (int i = 0; i < other.lengths[slot]; i++) {
+          add(other.keys[slot], other.lists[slot][i]);
+        }
+      }
+    }
+    return this;
+  }
+
+  /** Calls {@code consumer} with each key and the values of that key, which must not be kept. */
+  public void forEach(final EntryConsumer consumer) {
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (used[slot]) {
+        consumer.accept(keys[slot], lists[slot], lengths[slot]);
+      }
+    }
+  }
+
+  /** A boxed copy, for callers that need a {@link Map}. */
+  public Map<Long, List<Long>> toMap() {
+    Map<Long, List<Long>> map = new HashMap<>(size * 4 / 3 + 1);
+    forEach(
+        (key, values, length) -> {
+          List<Long> list = new ArrayList<>(length);
+          for (int i = 0; i < length; i++) {
+            list.add(values[i]);
+          }
+          map.put(key, list);
+        });
+    return map;
+  }
+
+  @Override
+  Object resizeValues(final int capacity) {
+    Object old = new Object[] {lists, lengths};
+    lists = new long[capacity][];
+    lengths = new int[capacity];
+    return old;
+  }
+
+  @Override
+  void moveValue(final Object oldValues, final int from, final int to) {
+    Object[] old = (Object[]) oldValues;
+    lists[to] = ((long[][]) old[0])[from];
+    lengths[to] = ((int[]) old[1])[from];
+  }
+
+  @Override
+  public String toString() {
+    return toMap().toString();
+  }
+
+  @FunctionalInterface
+  public interface EntryConsumer {
+
+    /** {@code values[0 .. length-1]} are the values of {@code key}. */
+    void accept(long key, long[] values, int length);
+  }
+}
@@ -0,0 +1,133 @@
+package com.madhurtoppo.streamsapi.query;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Leaf and boolean combinations of {@link QuerySpec}, evaluated in memory with SQL's three-valued
+ * logic.
+ */
+final class CompositeSpecs {
+
+  private CompositeSpecs() {}
+
+  static final class Leaf<T> implements QuerySpec<T> {
+
+    private final Specification<T> specification;
+
+    private final Function<T, Boolean> evaluator;
+
+    Leaf(final Specification<T> specification, final Function<T, Boolean> evaluator) {
+      this.specification = specification;
+      this.evaluator = evaluator;
+    }
+
+    @Override
+    public Boolean evaluate(final T entity) {
+      return evaluator.apply(entity);
+    }
+
+    @Override
+    public Optional<Specification<T>> toSpecification() {
+      return Optional.ofNullable(specification);
+    }
+  }
+
+  static final class And<T> implements QuerySpec<T> {
+
+    private final List<QuerySpec<T>> conjuncts;
+
+    And(final List<QuerySpec<T>> conjuncts) {
+      this.conjuncts = List.copyOf(conjuncts);
+    }
+
+    /** False if any conjunct is false, else unknown if any is unknown. */
+    @Override
+    public Boolean evaluate(final T entity) {
+      Boolean result = true;
+      for (QuerySpec<T> conjunct : conjuncts) {
+        Boolean value = conjunct.evaluate(entity);
+        if (Boolean.FALSE.equals(value)) {
+          return false;
+        }
+        if (value == null) {
+          result = null;
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public Optional<Specification<T>> toSpecification() {
+      Specification<T> result = null;
+      for (QuerySpec<T> conjunct : conjuncts) {
+        Optional<Specification<T>> specification = conjunct.toSpecification();
+        if (specification.isEmpty()) {
+          return Optional.empty();
+        }
+        result = result == null ? specification.get() : result.and(specification.get());
+      }
+      return Optional.ofNullable(result);
+    }
+
+    @Override
+    public List<QuerySpec<T>> conjuncts() {
+      return conjuncts;
+    }
+  }
+
+  static final class Or<T> implements QuerySpec<T> {
+
+    private final QuerySpec<T> left;
+
+    private final QuerySpec<T> right;
+
+    Or(final QuerySpec<T> left, final QuerySpec<T> right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    /** True if either side is true, else unknown if either is unknown. */
+    @Override
+    public Boolean evaluate(final T entity) {
+      Boolean l = left.evaluate(entity);
+      if (Boolean.TRUE.equals(l)) {
+        return true;
+      }
+      Boolean r = right.evaluate(entity);
+      if (Boolean.TRUE.equals(r)) {
+        return true;
+      }
+      return l == null || r == null ? null : false;
+    }
+
+    @Override
+    public Optional<Specification<T>> toSpecification() {
+      return left.toSpecification()
+          .flatMap(l -> right.toSpecification().map(r -> Specification.where(l).or(r)));
+    }
+  }
+
+  static final class Not<T> implements QuerySpec<T> {
+
+    private final QuerySpec<T> spec;
+
+    Not(final QuerySpec<T> spec) {
+      this.spec = spec;
+    }
+
+    /** Unknown stays unknown, so {@code not} never matches a NULL the spec could not compare. */
+    @Override
+    public Boolean evaluate(final T entity) {
+      Boolean value = spec.evaluate(entity);
+      return value == null ? null : !value;
+    }
+
+    @Override
+    public Optional<Specification<T>> toSpecification() {
+      return spec.toSpecification().map(Specification::not);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.madhurtoppo.streamsapi.query;
+
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+/** Translatable specs over {@link Order}. */
+public final class OrderSpecs {
+
+  private OrderSpecs() {}
+
+  /** The customer's tier is {@code tier}; unknown for an order without a customer. */
+  public static QuerySpec<Order> customerTier(final int tier) {
+    return Specs.equalTo(
+        "customer.tier",
+        order -> order.getCustomer() == null ? null : order.getCustomer().getTier(),
+        tier);
+  }
+
+  /** {@code from <= orderDate <= to}. */
+  public static QuerySpec<Order> orderedBetween(final LocalDate from, final LocalDate to) {
+    return Specs.between("orderDate", Order::getOrderDate, from, to);
+  }
+
+  public static QuerySpec<Order> orderedOn(final LocalDate date) {
+    return Specs.equalTo("orderDate", Order::getOrderDate, date);
+  }
+
+  public static QuerySpec<Order> status(final String... statuses) {
+    return Specs.in("status", Order::getStatus, List.of(statuses));
+  }
+
+  /**
+   * At least one of the order's products matches {@code productSpec}. Translated to an {@code
+   * EXISTS} subquery over the join table when {@code productSpec} is translatable.
+   */
+  public static QuerySpec<Order> anyProduct(final QuerySpec<Product> productSpec) {
+    Optional<Specification<Product>> productSpecification = productSpec.toSpecification();
+    if (productSpecification.isEmpty()) {
+      return QuerySpec.opaque(order -> anyProduct(order, productSpec));
+    }
+    return QuerySpec.of(
+        (root, query, cb) -> {
+          Subquery<Long> subquery = query.subquery(Long.class);
+          Root<Product> product = subquery.from(Product.class);
+          Join<Product, Order> order = product.join("orders");
+          subquery
+              .select(product.get("id"))
+              .where(
+                  cb.equal(order, root),
+                  productSpecification.get().toPredicate(product, query, cb));
+          return cb.exists(subquery);
+        },
+        order -> anyProduct(order, productSpec));
+  }
+
+  private static boolean anyProduct(final Order order, final QuerySpec<Product> productSpec) {
+    return order.getProducts() != null && order.getProducts().stream().anyMatch(productSpec);
+  }
+}
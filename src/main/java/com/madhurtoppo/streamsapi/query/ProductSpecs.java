@@ -0,0 +1,29 @@
+package com.madhurtoppo.streamsapi.query;
+
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.money.Money;
+
+/** Translatable specs over {@link Product}. Prices are compared in whole cents. */
+public final class ProductSpecs {
+
+  private ProductSpecs() {}
+
+  /** Category equals {@code category}, ignoring case. */
+  public static QuerySpec<Product> category(final String category) {
+    return Specs.equalsIgnoreCase("category", Product::getCategory, category);
+  }
+
+  public static QuerySpec<Product> priceAbove(final double price) {
+    return Specs.greaterThan("priceCents", Product::getPriceCents, Money.toCents(price));
+  }
+
+  public static QuerySpec<Product> priceBelow(final double price) {
+    return Specs.lessThan("priceCents", Product::getPriceCents, Money.toCents(price));
+  }
+
+  /** {@code from <= price <= to}. */
+  public static QuerySpec<Product> priceBetween(final double from, final double to) {
+    return Specs.between(
+        "priceCents", Product::getPriceCents, Money.toCents(from), Money.toCents(to));
+  }
+}
@@ -0,0 +1,66 @@
+package com.madhurtoppo.streamsapi.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * A {@link Predicate} that may also know how to express itself as a JPA Criteria {@link
+ * Specification}. Translatable specs are pushed down into the SQL query by {@link
+ * RepositoryQuery}; opaque ones are evaluated in memory on the rows the database returns.
+ *
+ * @param <T> entity type
+ */
+public interface QuerySpec<T> extends Predicate<T> {
+
+  /**
+   * Evaluates this spec in memory with SQL's three-valued logic: {@code null} (unknown) when it
+   * compares a null value, such as the tier of an order without a customer, so that negations and
+   * disjunctions treat NULLs as the database does.
+   */
+  Boolean evaluate(T entity);
+
+  /** True only if the spec holds; unknown counts as false, as in a {@code WHERE} clause. */
+  @Override
+  default boolean test(final T entity) {
+    return Boolean.TRUE.equals(evaluate(entity));
+  }
+
+  /** Criteria form of this spec, or empty if it can only be evaluated in memory. */
+  Optional<Specification<T>> toSpecification();
+
+  /** The top-level conjuncts of this spec; a non-conjunction is its own single conjunct. */
+  default List<QuerySpec<T>> conjuncts() {
+    return List.of(this);
+  }
+
+  default QuerySpec<T> and(final QuerySpec<T> other) {
+    List<QuerySpec<T>> conjuncts = new ArrayList<>(conjuncts());
+    conjuncts.addAll(other.conjuncts());
+    return new CompositeSpecs.And<>(conjuncts);
+  }
+
+  default QuerySpec<T> or(final QuerySpec<T> other) {
+    return new CompositeSpecs.Or<>(this, other);
+  }
+
+  @Override
+  default QuerySpec<T> negate() {
+    return new CompositeSpecs.Not<>(this);
+  }
+
+  /**
+   * A spec with both a Criteria and an in-memory form, which must agree. The predicate is never
+   * unknown, so the Criteria form must not be either, like an {@code EXISTS}.
+   */
+  static <T> QuerySpec<T> of(final Specification<T> specification, final Predicate<T> predicate) {
+    return new CompositeSpecs.Leaf<>(specification, predicate::test);
+  }
+
+  /** A spec that is always evaluated in memory, e.g. an arbitrary lambda. */
+  static <T> QuerySpec<T> opaque(final Predicate<T> predicate) {
+    return new CompositeSpecs.Leaf<>(null, predicate::test);
+  }
+}
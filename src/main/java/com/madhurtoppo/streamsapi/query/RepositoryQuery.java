@@ -0,0 +1,120 @@
+package com.madhurtoppo.streamsapi.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+/**
+ * Fluent query over a repository. Every translatable conjunct of the accumulated spec is compiled
+ * into the Criteria query; the remaining (opaque) conjuncts filter the returned rows in memory. If
+ * nothing is translatable the whole table is loaded, as a plain {@code findAll()} would, unless
+ * the rows are read through {@link #stream()}.
+ *
+ * @param <T> entity type
+ */
+public final class RepositoryQuery<T> {
+
+  private final JpaSpecificationExecutor<T> executor;
+
+  private final Function<Specification<T>, Stream<T>> cursor;
+
+  private final List<QuerySpec<T>> conjuncts = new ArrayList<>();
+
+  /**
+   * @param cursor reads the rows matching a spec, or every row for {@code null}, one at a time
+   */
+  public RepositoryQuery(
+      final JpaSpecificationExecutor<T> executor,
+      final Function<Specification<T>, Stream<T>> cursor) {
+    this.executor = executor;
+    this.cursor = cursor;
+  }
+
+  public RepositoryQuery<T> where(final QuerySpec<T> spec) {
+    conjuncts.addAll(spec.conjuncts());
+    return this;
+  }
+
+  public RepositoryQuery<T> and(final QuerySpec<T> spec) {
+    return where(spec);
+  }
+
+  /** Adds an arbitrary lambda, which is always evaluated in memory. */
+  public RepositoryQuery<T> filter(final Predicate<T> predicate) {
+    return where(QuerySpec.opaque(predicate));
+  }
+
+  public List<T> list() {
+    Plan<T> plan = plan();
+    List<T> rows = executor.findAll(plan.pushedDown);
+    if (plan.residual.isEmpty()) {
+      return rows;
+    }
+    return rows.stream().filter(plan::matchesResidual).collect(Collectors.toList());
+  }
+
+  /**
+   * The matching rows, read through a cursor over the pushed-down query and filtered by the
+   * residual conjuncts as they arrive. Must be consumed inside a transaction and closed afterwards.
+   */
+  public Stream<T> stream() {
+    Plan<T> plan = plan();
+    Stream<T> rows = cursor.apply(plan.pushedDown);
+    return plan.residual.isEmpty() ? rows : rows.filter(plan::matchesResidual);
+  }
+
+  public long count() {
+    Plan<T> plan = plan();
+    if (plan.residual.isEmpty()) {
+      return executor.count(plan.pushedDown);
+    }
+    return list().size();
+  }
+
+  /** The spec that would be sent to the database, or empty if the whole table is loaded. */
+  public Optional<Specification<T>> pushedDown() {
+    return Optional.ofNullable(plan().pushedDown);
+  }
+
+  private Plan<T> plan() {
+    Specification<T> pushedDown = null;
+    List<QuerySpec<T>> residual = new ArrayList<>();
+    for (QuerySpec<T> conjunct : conjuncts) {
+      Optional<Specification<T>> specification = conjunct.toSpecification();
+      if (specification.isPresent()) {
+        pushedDown =
+            pushedDown == null ? specification.get() : pushedDown.and(specification.get());
+      } else {
+        residual.add(conjunct);
+      }
+    }
+    return new Plan<>(pushedDown, residual);
+  }
+
+  private static final class Plan<T> {
+
+    private final Specification<T> pushedDown;
+
+    private final List<QuerySpec<T>> residual;
+
+    private Plan(final Specification<T> pushedDown, final List<QuerySpec<T>> residual) {
+      this.pushedDown = pushedDown;
+      this.residual = residual;
+    }
+
+    private boolean matchesResidual(final T entity) {
+      for (QuerySpec<T> spec : residual) {
+        if (!spec.test(entity)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.madhurtoppo.streamsapi.query;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Generic translatable leaf specs. Attributes are dotted paths from the root entity (e.g. {@code
+ * "customer.tier"}); the getter must read the same value from a loaded entity, and null wherever
+ * the column would be NULL, including a missing association along the path. A comparison with a
+ * null value is unknown, as in SQL.
+ */
+public final class Specs {
+
+  private Specs() {}
+
+  public static <T, V> QuerySpec<T> equalTo(
+      final String attribute, final Function<T, V> getter, final V value) {
+    return leaf(
+        (root, query, cb) -> cb.equal(path(root, attribute), value), getter, value::equals);
+  }
+
+  public static <T> QuerySpec<T> equalsIgnoreCase(
+      final String attribute, final Function<T, String> getter, final String value) {
+    String normalized = value.toLowerCase(Locale.ROOT);
+    return leaf(
+        (root, query, cb) -> cb.equal(cb.lower(path(root, attribute)), normalized),
+        getter,
+        text -> text.toLowerCase(Locale.ROOT).equals(normalized));
+  }
+
+  /** {@code from <= value <= to}, both bounds inclusive. */
+  public static <T, V extends Comparable<? super V>> QuerySpec<T> between(
+      final String attribute, final Function<T, V> getter, final V from, final V to) {
+    return leaf(
+        (root, query, cb) -> cb.between(path(root, attribute), from, to),
+        getter,
+        value -> value.compareTo(from) >= 0 && value.compareTo(to) <= 0);
+  }
+
+  public static <T, V extends Comparable<? super V>> QuerySpec<T> greaterThan(
+      final String attribute, final Function<T, V> getter, final V bound) {
+    return leaf(
+        (root, query, cb) -> cb.greaterThan(path(root, attribute), bound),
+        getter,
+        value -> value.compareTo(bound) > 0);
+  }
+
+  public static <T, V extends Comparable<? super V>> QuerySpec<T> lessThan(
+      final String attribute, final Function<T, V> getter, final V bound) {
+    return leaf(
+        (root, query, cb) -> cb.lessThan(path(root, attribute), bound),
+        getter,
+        value -> value.compareTo(bound) < 0);
+  }
+
+  public static <T, V> QuerySpec<T> in(
+      final String attribute, final Function<T, V> getter, final Collection<V> values) {
+    Set<V> set = Set.copyOf(values);
+    return leaf((root, query, cb) -> path(root, attribute).in(set), getter, set::contains);
+  }
+
+  /**
+   * Associations along the path are left joined, so that a missing one reads as NULL instead of
+   * dropping the row, which would differ from the in-memory form under {@code or}. A join is
+   * shared by every spec of the query that goes through it.
+   */
+  static <T, V> Path<V> path(final From<?, T> root, final String attribute) {
+    String[] parts = attribute.split("\\.");
+    From<?, ?> from = root;
+    for (int i = 0; i < parts.length - 1; i++) {
+      from = leftJoin(from, parts[i]);
+    }
+    return from.get(parts[parts.length - 1]);
+  }
+
+  private static From<?, ?> leftJoin(final From<?, ?> from, final String attribute) {
+    for (Join<?, ?> join : from.getJoins()) {
+      if (join.getJoinType() == JoinType.LEFT
+          && join.getAttribute().getName().equals(attribute)) {
+        return join;
+      }
+    }
+    return from.join(attribute, JoinType.LEFT);
+  }
+
+  private static <T, V> QuerySpec<T> leaf(
+      final Specification<T> specification,
+      final Function<T, V> getter,
+      final Predicate<V> matches) {
+    return new CompositeSpecs.Leaf<>(
+        specification,
+        entity -> {
+          V value = getter.apply(entity);
+          return value == null ? null : matches.test(value);
+        });
+  }
+}
@@ -0,0 +1,176 @@
+package com.madhurtoppo.streamsapi.readmodel;
+
+import com.madhurtoppo.streamsapi.entities.Customer;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.OrderLine;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.events.EntityChangeListener;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the {@link OrderLine} table. Orders saved or deleted through Hibernate are written with
+ * SQL on the connection of the flushing transaction, so their lines commit or roll back with them.
+ * Writers that bypass Hibernate, such as the order ingestor and the bulk loader, run {@link
+ * #COPY_ORDER} or {@link #BACKFILL} in their own transactions instead.
+ *
+ * <p>Lines are append-only with respect to products and customers: a line keeps the category and
+ * price of its product and the tier of its customer as they were when it was written. Lines follow
+ * their order, though: they get its new date or customer, and go away with a removed product or a
+ * deleted order.
+ */
+@Slf4j
+@Component
+public class OrderLineWriter implements EntityChangeListener {
+
+  private static final String COPY =
+      "insert into order_line"
+          + " (order_id, product_id, order_date, customer_id, tier, category, price_cents)"
+          + " select o.id, p.id, o.order_date, o.customer_id, c.tier, p.category,"
+          // same rounding as Money.toCents, and 0 for a null price as in CentsConverter
+          + " cast(round(coalesce(p.price, 0) * 100) as bigint)"
+          + " from product_order o"
+          + " join order_product_relationship r on r.order_id = o.id"
+          + " join product p on p.id = r.product_id"
+          + " left join customer c on c.id = o.customer_id";
+
+  /** Copies the lines of the order whose id is the only parameter. */
+  public static final String COPY_ORDER = COPY + " where o.id = ?";
+
+  /** Copies every line of the join table that is not in {@code order_line} yet. */
+  public static final String BACKFILL =
+      COPY
+          + " where not exists (select 1 from order_line l"
+          + " where l.order_id = r.order_id and l.product_id = r.product_id)";
+
+  public static final String CLEAR = "delete from order_line";
+
+  private static final String INSERT =
+      "insert into order_line"
+          + " (order_id, product_id, order_date, customer_id, tier, category, price_cents)"
+          + " values (?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private final TransactionTemplate transaction;
+
+  public OrderLineWriter(
+      final JdbcTemplate jdbcTemplate, final PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transaction = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Writes the lines that are missing, such as those of the {@code data.sql} orders at startup.
+   *
+   * @return the number of lines written
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public int backfill() {
+    long start = System.nanoTime();
+    Integer lines = transaction.execute(status -> jdbcTemplate.update(BACKFILL));
+    log.info("Backfilled {} order lines in {} ms", lines, (System.nanoTime() - start) / 1_000_000);
+    return lines;
+  }
+
+  @Override
+  public void onSaved(final Object entity) {
+    if (entity instanceof Order && ((Order) entity).getId() != null) {
+      write((Order) entity);
+    }
+  }
+
+  @Override
+  public void onDeleted(final Object entity) {
+    if (entity instanceof Order && ((Order) entity).getId() != null) {
+      jdbcTemplate.update("delete from order_line where order_id = ?", ((Order) entity).getId());
+    }
+  }
+
+  private void write(final Order order) {
+    long orderId = order.getId();
+    Customer customer = order.getCustomer();
+    Long customerId = customer == null ? null : customer.getId();
+    Integer tier = customer == null ? null : customer.getTier();
+    Date orderDate = order.getOrderDate() == null ? null : Date.valueOf(order.getOrderDate());
+    List<OrderLine> existing =
+        jdbcTemplate.query(
+            "select product_id, order_date, customer_id from order_line where order_id = ?",
+            (row, index) ->
+                OrderLine.builder()
+                    .productId(row.getLong(1))
+                    .orderDate(row.getObject(2, LocalDate.class))
+                    .customerId(row.getObject(3, Long.class))
+                    .build(),
+            orderId);
+
+    Set<Long> written = new HashSet<>();
+    boolean moved = false;
+    boolean redated = false;
+    for (OrderLine line : existing) {
+      written.add(line.getProductId());
+      moved |= !Objects.equals(line.getCustomerId(), customerId);
+      redated |= !Objects.equals(line.getOrderDate(), order.getOrderDate());
+    }
+    if (moved) {
+      jdbcTemplate.update(
+          "update order_line set order_date = ?, customer_id = ?, tier = ? where order_id = ?",
+          orderDate, customerId, tier, orderId);
+    } else if (redated) {
+      jdbcTemplate.update(
+          "update order_line set order_date = ? where order_id = ?", orderDate, orderId);
+    }
+
+    // an unloaded product collection was not changed by this flush
+    if (order.getProducts() == null || !Hibernate.isInitialized(order.getProducts())) {
+      return;
+    }
+    List<Object[]> added = new ArrayList<>();
+    Set<Long> kept = new HashSet<>();
+    for (Product product : order.getProducts()) {
+      // a product that is not saved yet is written when the order's collection is flushed
+      if (product.getId() == null) {
+        continue;
+      }
+      kept.add(product.getId());
+      if (!written.contains(product.getId())) {
+        added.add(
+            new Object[] {
+              orderId,
+              product.getId(),
+              orderDate,
+              customerId,
+              tier,
+              product.getCategory(),
+              product.getPriceCents()
+            });
+      }
+    }
+    List<Object[]> removed = new ArrayList<>();
+    for (Long productId : written) {
+      if (!kept.contains(productId)) {
+        removed.add(new Object[] {orderId, productId});
+      }
+    }
+    if (!removed.isEmpty()) {
+      jdbcTemplate.batchUpdate(
+          "delete from order_line where order_id = ? and product_id = ?", removed);
+    }
+    if (!added.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT, added);
+    }
+  }
+}
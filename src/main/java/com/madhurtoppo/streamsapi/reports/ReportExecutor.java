@@ -0,0 +1,104 @@
+package com.madhurtoppo.streamsapi.reports;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs a report as two stages: a blocking load (repository I/O) and a CPU-bound aggregation.
+ *
+ * <p>In async mode every load runs on its own virtual thread, so any number of reports can wait on
+ * the database, or for one of its pooled connections, without holding a platform thread each.
+ * Aggregations run on a dedicated {@link ForkJoinPool} sized to the cores. With async off both
+ * stages run on the calling thread and the returned futures are already complete. Closing the
+ * executor waits for the reports that are running.
+ *
+ * <p>A load runs in a read-only transaction that ends before aggregation starts, so it must return
+ * fully initialized data, e.g. through an entity graph.
+ */
+@Slf4j
+@Component
+public class ReportExecutor implements AutoCloseable {
+
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+  private final TransactionTemplate readOnlyTransaction;
+
+  private final ExecutorService io;
+
+  private final ForkJoinPool compute;
+
+  private final Executor ioExecutor;
+
+  private final Executor computeExecutor;
+
+  public ReportExecutor(
+      final ReportProperties properties, final PlatformTransactionManager transactionManager) {
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    if (properties.isAsync()) {
+      this.io = Executors.newVirtualThreadPerTaskExecutor();
+      this.compute =
+          new ForkJoinPool(
+              properties.getComputeParallelism() > 0
+                  ? properties.getComputeParallelism()
+                  : Runtime.getRuntime().availableProcessors());
+      this.ioExecutor = io;
+      this.computeExecutor = compute;
+    } else {
+      this.io = null;
+      this.compute = null;
+      this.ioExecutor = Runnable::run;
+      this.computeExecutor = Runnable::run;
+    }
+  }
+
+  /** Loads data in a read-only transaction on the I/O executor. */
+  public <T> CompletableFuture<T> load(final Supplier<T> loader) {
+    return CompletableFuture.supplyAsync(
+        () -> readOnlyTransaction.execute(status -> loader.get()), ioExecutor);
+  }
+
+  /** Loads data, then aggregates it on the compute pool. */
+  public <T, R> CompletableFuture<R> report(
+      final Supplier<T> loader, final Function<? super T, ? extends R> aggregation) {
+    return load(loader).thenApplyAsync(aggregation, computeExecutor);
+  }
+
+  /**
+   * Stops accepting reports and waits for the running ones, loads first since they feed the
+   * aggregations; reports still running after the timeout are interrupted.
+   */
+  @PreDestroy
+  @Override
+  public void close() {
+    if (io != null) {
+      io.shutdown();
+      awaitTermination(io);
+      compute.shutdown();
+      awaitTermination(compute);
+    }
+  }
+
+  private static void awaitTermination(final ExecutorService executor) {
+    try {
+      if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        log.warn("Reports still running after {} s are interrupted", SHUTDOWN_TIMEOUT_SECONDS);
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
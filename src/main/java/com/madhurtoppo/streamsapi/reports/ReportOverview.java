@@ -0,0 +1,18 @@
+package com.madhurtoppo.streamsapi.reports;
+
+import java.time.YearMonth;
+import java.util.DoubleSummaryStatistics;
+import lombok.Value;
+
+/** Revenue of a month (exercise 8) together with price statistics of a category (exercise 10). */
+@Value
+public class ReportOverview {
+
+  YearMonth month;
+
+  double revenue;
+
+  String category;
+
+  DoubleSummaryStatistics priceStatistics;
+}
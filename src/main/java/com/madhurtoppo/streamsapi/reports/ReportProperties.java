@@ -0,0 +1,18 @@
+package com.madhurtoppo.streamsapi.reports;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Execution settings for {@link ReportExecutor} */
+@Data
+@Component
+@ConfigurationProperties(prefix = "streams-api.reports")
+public class ReportProperties {
+
+  /** Run reports asynchronously; when false they run on the calling thread. */
+  private boolean async = false;
+
+  /** Threads aggregating report data; 0 or less uses the number of available processors. */
+  private int computeParallelism = 0;
+}
@@ -0,0 +1,67 @@
+package com.madhurtoppo.streamsapi.reports;
+
+import com.madhurtoppo.streamsapi.collectors.Prices;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.money.Money;
+import com.madhurtoppo.streamsapi.query.ProductSpecs;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.time.YearMonth;
+import java.util.DoubleSummaryStatistics;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Service;
+
+/** Exercise reports run through {@link ReportExecutor}; independent reports run concurrently. */
+@Service
+public class Reports {
+
+  private final ReportExecutor executor;
+
+  private final OrderRepository orderRepository;
+
+  private final ProductRepository productRepository;
+
+  public Reports(
+      final ReportExecutor executor,
+      final OrderRepository orderRepository,
+      final ProductRepository productRepository) {
+    this.executor = executor;
+    this.orderRepository = orderRepository;
+    this.productRepository = productRepository;
+  }
+
+  /** Exercise 8: total price of all orders placed in {@code month}, loaded with their products. */
+  public CompletableFuture<Double> revenue(final YearMonth month) {
+    return executor.report(
+        () -> {
+          try (Stream<Order> orders =
+              orderRepository.streamPlacedBetweenWithProducts(
+                  month.atDay(1), month.atEndOfMonth())) {
+            return orders.collect(Collectors.toList());
+          }
+        },
+        orders ->
+            Money.toAmount(
+                orders.stream()
+                    .flatMap(order -> order.getProducts().stream())
+                    .collect(Prices.totalCents())));
+  }
+
+  /** Exercise 10: price statistics of the products in {@code category}, ignoring case. */
+  public CompletableFuture<DoubleSummaryStatistics> priceStatistics(final String category) {
+    return executor.report(
+        () -> productRepository.where(ProductSpecs.category(category)).list(),
+        products -> products.stream().mapToDouble(Product::getPrice).summaryStatistics());
+  }
+
+  /** Exercises 8 and 10 fanned out together and joined. */
+  public CompletableFuture<ReportOverview> overview(final YearMonth month, final String category) {
+    return revenue(month)
+        .thenCombine(
+            priceStatistics(category),
+            (revenue, statistics) -> new ReportOverview(month, revenue, category, statistics));
+  }
+}
@@ -1,13 +1,19 @@
 package com.madhurtoppo.streamsapi.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import com.madhurtoppo.streamsapi.entities.Customer;
 import java.util.List;
-import org.springframework.data.repository.CrudRepository;
+import javax.persistence.QueryHint;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 /** Repository for Customers */
 @Repository
-public interface CustomerRepository extends CrudRepository<Customer, Long> {
+public interface CustomerRepository
+    extends StreamingRepository<Customer, Long>, QueryableRepository<Customer> {
 
+  /** Every customer; the result is kept in the query cache until a customer is written. */
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   List<Customer> findAll();
 }
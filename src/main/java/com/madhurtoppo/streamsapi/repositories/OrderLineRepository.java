@@ -0,0 +1,43 @@
+package com.madhurtoppo.streamsapi.repositories;
+
+import com.madhurtoppo.streamsapi.entities.OrderLine;
+import com.madhurtoppo.streamsapi.primitive.LongLongMap;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.stream.Stream;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the denormalized {@link OrderLine} read model. Its queries are one sequential scan
+ * of a single table: no join table, and no price lookup in {@code product}.
+ */
+@Repository
+public interface OrderLineRepository extends StreamingRepository<OrderLine, OrderLine.Key> {
+
+  List<OrderLine> findByOrderIdOrderByProductId(long orderId);
+
+  /**
+   * Line prices in cents of the orders placed from {@code from} to {@code to}, inclusive: the sum
+   * is exercise 8's total and the average exercise 9's. The database aggregates them.
+   */
+  @Query(
+      "select new java.util.LongSummaryStatistics(count(l), coalesce(min(l.priceCents), 0L),"
+          + " coalesce(max(l.priceCents), 0L), coalesce(sum(l.priceCents), 0L))"
+          + " from OrderLine l where l.orderDate between :from and :to")
+  LongSummaryStatistics priceStatistics(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  /**
+   * Exercise 13a in cents, at the prices the orders were placed at; orders without products are
+   * absent. Must be called inside a transaction.
+   */
+  default LongLongMap orderTotalCents() {
+    LongLongMap totals = new LongLongMap();
+    try (Stream<OrderLine> lines = streamAll()) {
+      lines.forEach(line -> totals.addTo(line.getOrderId(), line.getPriceCents()));
+    }
+    return totals;
+  }
+}
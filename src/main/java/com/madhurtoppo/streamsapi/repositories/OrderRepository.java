@@ -1,13 +1,100 @@
 package com.madhurtoppo.streamsapi.repositories;
 
+import com.madhurtoppo.streamsapi.collectors.IdMaps;
+import com.madhurtoppo.streamsapi.collectors.Prices;
+import com.madhurtoppo.streamsapi.collectors.TopK;
 import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.primitive.LongDoubleMap;
+import com.madhurtoppo.streamsapi.primitive.LongIntMap;
+import com.madhurtoppo.streamsapi.primitive.LongLongListMap;
+import java.time.LocalDate;
 import java.util.List;
-import org.springframework.data.repository.CrudRepository;
+import java.util.LongSummaryStatistics;
+import java.util.stream.Stream;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /** Repository for Orders */
 @Repository
-public interface OrderRepository extends CrudRepository<Order, Long> {
+public interface OrderRepository
+    extends StreamingRepository<Order, Long>, QueryableRepository<Order> {
 
   List<Order> findAll();
+
+  /** Orders, latest first; page it to get {@code ORDER BY order_date DESC LIMIT k}. */
+  List<Order> findAllByOrderByOrderDateDescIdAsc(Pageable page);
+
+  /** The {@code k} most recently placed orders, ranked by the database. */
+  default List<Order> findLatest(final int k) {
+    return TopK.checkK(k) == 0
+        ? List.of()
+        : findAllByOrderByOrderDateDescIdAsc(PageRequest.of(0, k));
+  }
+
+  /** All orders with their customer and products, loaded by a single query. */
+  @EntityGraph(Order.WITH_CUSTOMER_AND_PRODUCTS)
+  @Query("select distinct o from Order o")
+  List<Order> findAllWithProducts();
+
+  /**
+   * All orders with their customer and products, read row by row from a single query. Must be
+   * consumed inside a transaction and closed afterwards.
+   */
+  @EntityGraph(Order.WITH_CUSTOMER_AND_PRODUCTS)
+  @Query("select o from Order o order by o.id")
+  Stream<Order> streamAllWithProducts();
+
+  /** {@link #streamAllWithProducts()} over the orders placed from {@code from} to {@code to}. */
+  @EntityGraph(Order.WITH_CUSTOMER_AND_PRODUCTS)
+  @Query("select o from Order o where o.orderDate between :from and :to order by o.id")
+  Stream<Order> streamPlacedBetweenWithProducts(
+      @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  /**
+   * Exercise 2: the orders with at least one product in {@code category}, ignoring case, selected
+   * by an {@code EXISTS} subquery and read with their graph as {@link #streamAllWithProducts()}.
+   */
+  @EntityGraph(Order.WITH_CUSTOMER_AND_PRODUCTS)
+  @Query(
+      "select o from Order o where exists (select p.id from Product p join p.orders po"
+          + " where po = o and lower(p.category) = lower(:category)) order by o.id")
+  Stream<Order> streamWithProductInCategory(@Param("category") String category);
+
+  /**
+   * Exercise 8: statistics of the order totals in cents, over the orders placed from {@code from}
+   * to {@code to}, inclusive. The count is the number of orders and the sum the revenue. Must be
+   * called inside a transaction.
+   */
+  default LongSummaryStatistics orderTotalCents(final LocalDate from, final LocalDate to) {
+    try (Stream<Order> orders = streamPlacedBetweenWithProducts(from, to)) {
+      return orders
+          .mapToLong(order -> order.getProducts().stream().collect(Prices.totalCents()))
+          .summaryStatistics();
+    }
+  }
+
+  /** Exercise 11 over {@link #streamAllWithProducts()}; must be called inside a transaction. */
+  default LongIntMap productCountByOrderId() {
+    try (Stream<Order> orders = streamAllWithProducts()) {
+      return orders.collect(IdMaps.productCountByOrder());
+    }
+  }
+
+  /** Exercise 12a over {@link #streamAll()}; must be called inside a transaction. */
+  default LongLongListMap orderIdsByCustomerId() {
+    try (Stream<Order> orders = streamAll()) {
+      return orders.collect(IdMaps.orderIdsByCustomer());
+    }
+  }
+
+  /** Exercise 13a over {@link #streamAllWithProducts()}; must be called inside a transaction. */
+  default LongDoubleMap orderTotals() {
+    try (Stream<Order> orders = streamAllWithProducts()) {
+      return orders.collect(IdMaps.orderTotals());
+    }
+  }
 }
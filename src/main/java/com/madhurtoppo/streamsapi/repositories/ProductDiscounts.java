@@ -0,0 +1,18 @@
+package com.madhurtoppo.streamsapi.repositories;
+
+import org.springframework.transaction.annotation.Transactional;
+
+/** Bulk price changes of {@link ProductRepository}, implemented in {@link ProductDiscountsImpl}. */
+public interface ProductDiscounts {
+
+  /**
+   * Reduces the price of every product in {@code category} (ignoring case) by {@code percent} in a
+   * single update statement, without loading the products. Prices are rounded half up to the cent,
+   * as {@link com.madhurtoppo.streamsapi.money.Money#discount} does. Publishes a {@link
+   * com.madhurtoppo.streamsapi.events.BulkUpdate}, since Hibernate reports no entity events for it.
+   *
+   * @return the number of products updated
+   */
+  @Transactional
+  int discountCategory(String category, int percent);
+}
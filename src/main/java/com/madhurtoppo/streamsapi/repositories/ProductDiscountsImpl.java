@@ -0,0 +1,42 @@
+package com.madhurtoppo.streamsapi.repositories;
+
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.events.BulkUpdate;
+import com.madhurtoppo.streamsapi.money.Money;
+import javax.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+class ProductDiscountsImpl implements ProductDiscounts {
+
+  /** {@link Money#discount} in integer cents; the price column holds the amount as a double. */
+  static final String DISCOUNT =
+      "update product"
+          + " set price = cast((cast(round(price * 100) as bigint) * (100 - :percent) + 50) / 100"
+          + " as double) / 100"
+          + " where lower(category) = lower(:category)";
+
+  private final EntityManager entityManager;
+
+  private final ApplicationEventPublisher events;
+
+  ProductDiscountsImpl(final EntityManager entityManager, final ApplicationEventPublisher events) {
+    this.entityManager = entityManager;
+    this.events = events;
+  }
+
+  @Override
+  public int discountCategory(final String category, final int percent) {
+    // validates the percent like the in-memory discount
+    Money.discount(0, percent);
+    entityManager.flush();
+    int updated =
+        entityManager
+            .createNativeQuery(DISCOUNT)
+            .setParameter("category", category)
+            .setParameter("percent", percent)
+            .executeUpdate();
+    entityManager.clear();
+    events.publishEvent(new BulkUpdate(Product.class));
+    return updated;
+  }
+}
@@ -1,13 +1,62 @@
 package com.madhurtoppo.streamsapi.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+import com.madhurtoppo.streamsapi.collectors.TopK;
 import com.madhurtoppo.streamsapi.entities.Product;
 import java.util.List;
-import org.springframework.data.repository.CrudRepository;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 /** Repository for products */
 @Repository
-public interface ProductRepository extends CrudRepository<Product, Long> {
+public interface ProductRepository
+    extends StreamingRepository<Product, Long>, QueryableRepository<Product>, ProductDiscounts {
 
+  /** Every product; the result is kept in the query cache until a product is written. */
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   List<Product> findAll();
+
+  /** Products of a category, cheapest first; page it to get {@code ORDER BY price LIMIT k}. */
+  List<Product> findByCategoryIgnoreCaseOrderByPriceCentsAscIdAsc(String category, Pageable page);
+
+  /** Products of a category, most expensive first. */
+  List<Product> findByCategoryIgnoreCaseOrderByPriceCentsDescIdAsc(String category, Pageable page);
+
+  /** The {@code k} cheapest products of a category, ranked by the database. */
+  default List<Product> findCheapestInCategory(final String category, final int k) {
+    return TopK.checkK(k) == 0
+        ? List.of()
+        : findByCategoryIgnoreCaseOrderByPriceCentsAscIdAsc(category, PageRequest.of(0, k));
+  }
+
+  /** The {@code k} most expensive products of a category, ranked by the database. */
+  default List<Product> findMostExpensiveInCategory(final String category, final int k) {
+    return TopK.checkK(k) == 0
+        ? List.of()
+        : findByCategoryIgnoreCaseOrderByPriceCentsDescIdAsc(category, PageRequest.of(0, k));
+  }
+
+  /** Exercise 5: the number of products per category, counted by the database. */
+  @Query(
+      "select new java.util.AbstractMap$SimpleImmutableEntry(p.category, count(p))"
+          + " from Product p group by p.category")
+  Stream<Map.Entry<String, Long>> streamCountByCategory();
+
+  /** Exercise 14 over {@link #streamAll()}; must be called inside a transaction. */
+  default Map<String, List<String>> productNamesByCategory() {
+    try (Stream<Product> products = streamAll()) {
+      return products.collect(
+          Collectors.groupingBy(
+              Product::getCategory,
+              Collectors.mapping(Product::getName, Collectors.toList())));
+    }
+  }
 }
@@ -0,0 +1,28 @@
+package com.madhurtoppo.streamsapi.repositories;
+
+import com.madhurtoppo.streamsapi.query.QuerySpec;
+import com.madhurtoppo.streamsapi.query.RepositoryQuery;
+import java.util.stream.Stream;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/** Repository that can push {@link QuerySpec} filters down to the database */
+@NoRepositoryBean
+public interface QueryableRepository<T> extends JpaSpecificationExecutor<T> {
+
+  /**
+   * Rows matching {@code spec}, or every row if it is null, read through a forward-only cursor.
+   * Must be consumed inside a transaction and closed afterwards.
+   */
+  Stream<T> streamAll(Specification<T> spec);
+
+  /** A query over every row, to be narrowed with {@link RepositoryQuery#and}. */
+  default RepositoryQuery<T> query() {
+    return new RepositoryQuery<>(this, this::streamAll);
+  }
+
+  default RepositoryQuery<T> where(final QuerySpec<T> spec) {
+    return query().where(spec);
+  }
+}
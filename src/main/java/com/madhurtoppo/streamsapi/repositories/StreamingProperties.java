@@ -0,0 +1,16 @@
+package com.madhurtoppo.streamsapi.repositories;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Cursor settings for {@link StreamingRepository#streamAll(int, int)} */
+@Data
+@Component
+@ConfigurationProperties(prefix = "streams-api.streaming")
+public class StreamingProperties {
+
+  private int fetchSize = StreamingRepository.DEFAULT_FETCH_SIZE;
+
+  private int clearInterval = StreamingRepository.DEFAULT_CLEAR_INTERVAL;
+}
@@ -0,0 +1,32 @@
+package com.madhurtoppo.streamsapi.repositories;
+
+import java.util.stream.Stream;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Repository that can stream a whole table through a forward-only JDBC cursor instead of
+ * materializing it as a {@code List}. Streams must be consumed inside a transaction and closed.
+ */
+@NoRepositoryBean
+public interface StreamingRepository<T, ID> extends CrudRepository<T, ID> {
+
+  int DEFAULT_FETCH_SIZE = 1_000;
+
+  int DEFAULT_CLEAR_INTERVAL = 10_000;
+
+  /** Streams every row with {@link #DEFAULT_FETCH_SIZE} and {@link #DEFAULT_CLEAR_INTERVAL}. */
+  default Stream<T> streamAll() {
+    return streamAll(DEFAULT_FETCH_SIZE, DEFAULT_CLEAR_INTERVAL);
+  }
+
+  /**
+   * Streams every row as a read-only entity.
+   *
+   * @param fetchSize rows the JDBC driver fetches per round trip
+   * @param clearInterval the persistence context is cleared after this many rows have been
+   *     consumed, detaching them and anything they loaded; 0 never clears. Unflushed changes to
+   *     other entities are discarded as well, so flush before streaming.
+   */
+  Stream<T> streamAll(int fetchSize, int clearInterval);
+}
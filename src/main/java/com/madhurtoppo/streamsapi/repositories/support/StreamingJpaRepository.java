@@ -0,0 +1,104 @@
+package com.madhurtoppo.streamsapi.repositories.support;
+
+import com.madhurtoppo.streamsapi.repositories.QueryableRepository;
+import com.madhurtoppo.streamsapi.repositories.StreamingRepository;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+/**
+ * Repository base class adding Hibernate scroll-backed {@link StreamingRepository} methods, and a
+ * cursor over a {@link Specification} for {@link QueryableRepository}.
+ */
+public class StreamingJpaRepository<T, ID> extends SimpleJpaRepository<T, ID>
+    implements StreamingRepository<T, ID> {
+
+  private final JpaEntityInformation<T, ?> entityInformation;
+
+  private final EntityManager entityManager;
+
+  public StreamingJpaRepository(
+      final JpaEntityInformation<T, ?> entityInformation, final EntityManager entityManager) {
+    super(entityInformation, entityManager);
+    this.entityInformation = entityInformation;
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public Stream<T> streamAll(final int fetchSize, final int clearInterval) {
+    Session session = entityManager.unwrap(Session.class);
+    return scroll(
+        session,
+        session.createQuery(
+            "select e from " + entityInformation.getEntityName() + " e",
+            entityInformation.getJavaType()),
+        fetchSize,
+        clearInterval);
+  }
+
+  /** Rows matching {@code spec}, or every row if it is null, read through a cursor. */
+  public Stream<T> streamAll(final Specification<T> spec) {
+    @SuppressWarnings("unchecked")
+    Query<T> query = getQuery(spec, Sort.unsorted()).unwrap(Query.class);
+    return scroll(
+        entityManager.unwrap(Session.class), query, DEFAULT_FETCH_SIZE, DEFAULT_CLEAR_INTERVAL);
+  }
+
+  private static <T> Stream<T> scroll(
+      final Session session, final Query<T> query, final int fetchSize, final int clearInterval) {
+    ScrollableResults results =
+        query
+            .setFetchSize(fetchSize)
+            .setReadOnly(true)
+            .setCacheMode(CacheMode.IGNORE)
+            .scroll(ScrollMode.FORWARD_ONLY);
+    Spliterator<T> rows = new ScrollSpliterator<>(session, results, clearInterval);
+    return StreamSupport.stream(rows, false)
+        .onClose(results::close);
+  }
+
+  private static final class ScrollSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+    private final Session session;
+
+    private final ScrollableResults results;
+
+    private final int clearInterval;
+
+    private long consumed;
+
+    private ScrollSpliterator(
+        final Session session, final ScrollableResults results, final int clearInterval) {
+      super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+      this.session = session;
+      this.results = results;
+      this.clearInterval = clearInterval;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+      if (!results.next()) {
+        return false;
+      }
+      @SuppressWarnings("unchecked")
+      T row = (T) results.get(0);
+      action.accept(row);
+      if (clearInterval > 0 && ++consumed % clearInterval == 0) {
+        session.clear();
+      }
+      return true;
+    }
+  }
+}
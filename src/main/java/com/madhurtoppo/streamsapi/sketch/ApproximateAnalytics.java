@@ -0,0 +1,198 @@
+package com.madhurtoppo.streamsapi.sketch;
+
+import com.madhurtoppo.streamsapi.entities.Customer;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.events.IncrementalView;
+import com.madhurtoppo.streamsapi.ingest.IngestedOrder;
+import com.madhurtoppo.streamsapi.ingest.OrderEvent;
+import com.madhurtoppo.streamsapi.ingest.OrderIngestListener;
+import com.madhurtoppo.streamsapi.repositories.CustomerRepository;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Approximate answers in constant memory per question, for dashboards that do not need exact
+ * ones: distinct products bought per customer tier (exercise 4 without its {@code Set}), line price
+ * quantiles per category (exercise 5a without sorting) and the most frequently ordered products.
+ * Every answer carries its error bounds; see {@link Estimate}.
+ *
+ * <p>The sketches are built from a stream over all orders, then fed the orders inserted through
+ * Hibernate as their transactions commit and the batches written by {@link
+ * com.madhurtoppo.streamsapi.ingest.OrderIngestor}. Sketches cannot take values back, so an order
+ * updated or deleted after it was counted, or a change to a product's category or price or to a
+ * customer's tier after its orders were counted, leaves them {@linkplain #isStale() stale} until
+ * the next {@link #rebuild()}.
+ */
+@Component
+public class ApproximateAnalytics extends IncrementalView<SketchState>
+    implements OrderIngestListener {
+
+  private final SketchProperties properties;
+
+  private final CustomerRepository customerRepository;
+
+  private final ProductRepository productRepository;
+
+  private final OrderRepository orderRepository;
+
+  public ApproximateAnalytics(
+      final SketchProperties properties,
+      final CustomerRepository customerRepository,
+      final ProductRepository productRepository,
+      final OrderRepository orderRepository,
+      final PlatformTransactionManager transactionManager) {
+    super("Approximate analytics", new SketchState(properties), transactionManager);
+    this.properties = properties;
+    this.customerRepository = customerRepository;
+    this.productRepository = productRepository;
+    this.orderRepository = orderRepository;
+  }
+
+  /** Orders counted. */
+  public long orderCount() {
+    return read(SketchState::orders);
+  }
+
+  /** Distinct products in the orders of customers of {@code tier}. */
+  public Estimate distinctProducts(final int tier) {
+    return read(current -> current.distinctProducts(tier));
+  }
+
+  /** Distinct products in the orders of customers of any tier, from the merged tier sketches. */
+  public Estimate distinctProducts() {
+    return read(SketchState::distinctProducts);
+  }
+
+  /**
+   * The order line price at {@code quantile} in {@code category}, ignoring case, or empty if no
+   * line of the category was counted.
+   */
+  public Optional<Estimate> priceQuantile(final String category, final double quantile) {
+    return Optional.ofNullable(read(current -> current.priceQuantile(category, quantile)));
+  }
+
+  /** The {@code k} most frequently ordered product ids, most frequent first. */
+  public List<HeavyHitter> topProducts(final int k) {
+    return read(current -> current.orderedProducts().top(k));
+  }
+
+  @Override
+  public void onIngested(final List<IngestedOrder> orders) {
+    applyCommitted(
+        List.of(
+            current -> {
+              for (IngestedOrder order : orders) {
+                OrderEvent event = order.getEvent();
+                current.addOrder(order.getId(), event.getCustomerId(), event.getProductIds());
+              }
+            }));
+  }
+
+  @Override
+  protected SketchState load() {
+    SketchState fresh = new SketchState(properties);
+    customerRepository
+        .findAll()
+        .forEach(customer -> fresh.putCustomer(customer.getId(), customer.getTier()));
+    productRepository
+        .findAll()
+        .forEach(
+            product ->
+                fresh.putProduct(product.getId(), product.getCategory(), product.getPriceCents()));
+    try (Stream<Order> orders = orderRepository.streamAllWithProducts()) {
+      orders.forEach(order -> new AddOrder(order).accept(fresh));
+    }
+    fresh.replaying();
+    return fresh;
+  }
+
+  @Override
+  protected void completed(final SketchState rebuilt) {
+    rebuilt.loaded();
+  }
+
+  @Override
+  protected void inserted(final Object entity) {
+    if (entity instanceof Order) {
+      Order order = (Order) entity;
+      onCommit(List.of(Order.class, order.getId()), new AddOrder(order));
+    } else {
+      saved(entity);
+    }
+  }
+
+  @Override
+  protected void saved(final Object entity) {
+    if (entity instanceof Order) {
+      Order order = (Order) entity;
+      List<Object> key = List.of(Order.class, order.getId());
+      // an order inserted by this transaction is not counted yet: count it as it is now
+      onCommit(key, pending(key) instanceof AddOrder ? new AddOrder(order) : current -> markStale());
+    } else if (entity instanceof Product) {
+      Product product = (Product) entity;
+      long id = product.getId();
+      String category = product.getCategory();
+      long price = product.getPriceCents();
+      onCommit(
+          List.of(Product.class, id),
+          current -> {
+            if (current.changesProduct(id, category, price)) {
+              markStale();
+            }
+            current.putProduct(id, category, price);
+          });
+    } else if (entity instanceof Customer) {
+      Customer customer = (Customer) entity;
+      long id = customer.getId();
+      Integer tier = customer.getTier();
+      onCommit(
+          List.of(Customer.class, id),
+          current -> {
+            if (current.changesCustomer(id, tier)) {
+              markStale();
+            }
+            current.putCustomer(id, tier);
+          });
+    }
+  }
+
+  @Override
+  protected void deleted(final Object entity) {
+    if (entity instanceof Order) {
+      List<Object> key = List.of(Order.class, ((Order) entity).getId());
+      onCommit(key, pending(key) instanceof AddOrder ? current -> {} : current -> markStale());
+    }
+  }
+
+  /** Counts an order with the customer and products it has when copied. */
+  private static final class AddOrder implements Consumer<SketchState> {
+
+    private final long orderId;
+
+    private final Long customerId;
+
+    private final long[] productIds;
+
+    private AddOrder(final Order order) {
+      this.orderId = order.getId();
+      this.customerId = order.getCustomer() == null ? null : order.getCustomer().getId();
+      this.productIds =
+          order.getProducts() == null || !Hibernate.isInitialized(order.getProducts())
+              ? new long[0]
+              : order.getProducts().stream().mapToLong(Product::getId).toArray();
+    }
+
+    @Override
+    public void accept(final SketchState target) {
+      target.addOrder(orderId, customerId, productIds);
+    }
+  }
+}
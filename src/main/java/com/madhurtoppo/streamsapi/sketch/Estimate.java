@@ -0,0 +1,28 @@
+package com.madhurtoppo.streamsapi.sketch;
+
+import lombok.Value;
+
+/**
+ * An approximate answer: the estimate and an interval that contains the exact answer with the given
+ * confidence. A confidence of 1 means the bounds are guaranteed.
+ */
+@Value
+public class Estimate {
+
+  double value;
+
+  double lower;
+
+  double upper;
+
+  double confidence;
+
+  /** An answer the sketch knows exactly. */
+  public static Estimate exact(final double value) {
+    return new Estimate(value, value, value, 1);
+  }
+
+  public boolean contains(final double exact) {
+    return lower <= exact && exact <= upper;
+  }
+}
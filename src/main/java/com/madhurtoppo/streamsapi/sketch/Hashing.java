@@ -0,0 +1,15 @@
+package com.madhurtoppo.streamsapi.sketch;
+
+/** Hashing of {@code long} keys for the sketches. */
+final class Hashing {
+
+  private Hashing() {}
+
+  /** SplitMix64 finalizer: sequential ids come out as well-spread 64-bit hashes. */
+  static long mix(final long value) {
+    long z = value + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
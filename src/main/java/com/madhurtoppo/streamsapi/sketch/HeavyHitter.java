@@ -0,0 +1,12 @@
+package com.madhurtoppo.streamsapi.sketch;
+
+import lombok.Value;
+
+/** A frequent key reported by {@link SpaceSaving}, with guaranteed bounds on its frequency. */
+@Value
+public class HeavyHitter {
+
+  long key;
+
+  Estimate frequency;
+}
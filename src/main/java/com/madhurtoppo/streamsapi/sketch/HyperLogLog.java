@@ -0,0 +1,96 @@
+package com.madhurtoppo.streamsapi.sketch;
+
+/**
+ * HyperLogLog distinct counter over {@code long} values, such as entity ids. {@code 2^precision}
+ * one-byte registers give a relative standard error of {@code 1.04 / sqrt(2^precision)}: 0.81% in
+ * 16 KiB at precision 14, however many values are added. Small cardinalities are estimated by
+ * linear counting, which is close to exact. Sketches of the same precision merge losslessly. Not
+ * thread-safe.
+ */
+public final class HyperLogLog {
+
+  private final int precision;
+
+  private final byte[] registers;
+
+  public HyperLogLog(final int precision) {
+    if (precision < 4 || precision > 18) {
+      throw new IllegalArgumentException("precision must be between 4 and 18: " + precision);
+    }
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  public int precision() {
+    return precision;
+  }
+
+  public void add(final long value) {
+    long hash = Hashing.mix(value);
+    int register = (int) (hash >>> (64 - precision));
+    // the marker bit caps the rank at 65 - precision once the remaining bits are all zero
+    int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+    if (rank > registers[register]) {
+      registers[register] = (byte) rank;
+    }
+  }
+
+  /** Adds every value counted by {@code other}. */
+  public HyperLogLog merge(final HyperLogLog other) {
+    if (other.precision != precision) {
+      throw new IllegalArgumentException(
+          "Cannot merge precision " + other.precision + " into " + precision);
+    }
+    for (int i = 0; i < registers.length; i++) {
+      if (other.registers[i] > registers[i]) {
+        registers[i] = other.registers[i];
+      }
+    }
+    return this;
+  }
+
+  /** Relative standard error of {@link #estimate()}. */
+  public double relativeError() {
+    return 1.04 / Math.sqrt(registers.length);
+  }
+
+  /** The number of distinct values added, within two standard errors at 95% confidence. */
+  public Estimate estimate() {
+    double count = count();
+    if (count == 0) {
+      return Estimate.exact(0);
+    }
+    double margin = 2 * relativeError() * count;
+    return new Estimate(count, Math.max(0, count - margin), count + margin, 0.95);
+  }
+
+  private double count() {
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += Double.longBitsToDouble((1023L - register) << 52);
+      if (register == 0) {
+        zeros++;
+      }
+    }
+    double raw = alpha(m) * m * m / sum;
+    if (raw <= 2.5 * m && zeros > 0) {
+      return m * Math.log((double) m / zeros);
+    }
+    return raw;
+  }
+
+  private static double alpha(final int m) {
+    switch (m) {
+      case 16:
+        return 0.673;
+      case 32:
+        return 0.697;
+      case 64:
+        return 0.709;
+      default:
+        return 0.7213 / (1 + 1.079 / m);
+    }
+  }
+}
@@ -0,0 +1,232 @@
+package com.madhurtoppo.streamsapi.sketch;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * KLL quantile sketch over {@code double} values. Values are kept in levels of compactors; an item
+ * on level {@code h} stands for {@code 2^h} values. When the sketch exceeds its capacity, the
+ * lowest full level is sorted and every other item, starting at a random one of the first two, is
+ * promoted to the next level. Level capacities shrink geometrically by 2/3 from {@code k} at the
+ * top, so the sketch holds about {@code 3k} items whatever the number of values.
+ *
+ * <p>Quantiles are exact until the first compaction. After that the rank of a returned value is
+ * within {@link #rankError()} of the requested rank with 99% confidence: 1.3% at {@code k = 200}.
+ * Sketches of the same {@code k} merge into a sketch with the same guarantee. Not thread-safe.
+ */
+public final class QuantileSketch {
+
+  private static final int MIN_CAPACITY = 8;
+
+  private final int k;
+
+  private final SplittableRandom random;
+
+  /** {@code levels[h][0, sizes[h])} holds the items of level {@code h}. */
+  private double[][] levels = {new double[MIN_CAPACITY]};
+
+  private int[] sizes = {0};
+
+  private long count;
+
+  /** Items held over all levels. */
+  private int retained;
+
+  /** Sum of the level capacities for the current number of levels. */
+  private int capacity;
+
+  private double min = Double.NaN;
+
+  private double max = Double.NaN;
+
+  private boolean compacted;
+
+  public QuantileSketch(final int k) {
+    this(k, new SplittableRandom());
+  }
+
+  QuantileSketch(final int k, final SplittableRandom random) {
+    if (k < MIN_CAPACITY) {
+      throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY + ": " + k);
+    }
+    this.k = k;
+    this.random = random;
+    this.capacity = totalCapacity();
+  }
+
+  public int k() {
+    return k;
+  }
+
+  /** Values added. */
+  public long count() {
+    return count;
+  }
+
+  public void add(final double value) {
+    if (Double.isNaN(value)) {
+      throw new IllegalArgumentException("NaN has no rank");
+    }
+    count++;
+    min = count == 1 ? value : Math.min(min, value);
+    max = count == 1 ? value : Math.max(max, value);
+    append(0, value);
+    compress();
+  }
+
+  /** Adds every value summarized by {@code other}. */
+  public QuantileSketch merge(final QuantileSketch other) {
+    if (other.k != k) {
+      throw new IllegalArgumentException("Cannot merge k = " + other.k + " into k = " + k);
+    }
+    if (other.count == 0) {
+      return this;
+    }
+    min = count == 0 ? other.min : Math.min(min, other.min);
+    max = count == 0 ? other.max : Math.max(max, other.max);
+    count += other.count;
+    compacted |= other.compacted;
+    for (int level = 0; level < other.sizes.length; level++) {
+      for (int i = 0; i < other.sizes[level]; i++) {
+        append(level, other.levels[level][i]);
+      }
+    }
+    compress();
+    return this;
+  }
+
+  /** Normalized rank error at 99% confidence; 0 while the sketch still holds every value. */
+  public double rankError() {
+    // the empirical fit published with the reference KLL implementation
+    return compacted ? 2.296 / Math.pow(k, 0.9723) : 0;
+  }
+
+  /**
+   * The value at {@code quantile} (0 is the minimum, 1 the maximum), bounded by the values at
+   * {@code quantile} minus and plus {@link #rankError()}.
+   *
+   * @throws IllegalStateException if no value was added
+   */
+  public Estimate quantile(final double quantile) {
+    if (!(quantile >= 0 && quantile <= 1)) {
+      throw new IllegalArgumentException("quantile must be between 0 and 1: " + quantile);
+    }
+    if (count == 0) {
+      throw new IllegalStateException("No values added");
+    }
+    SortedView view = new SortedView();
+    double error = rankError();
+    double value = view.valueAt(quantile);
+    if (error == 0) {
+      return Estimate.exact(value);
+    }
+    return new Estimate(
+        value,
+        view.valueAt(Math.max(0, quantile - error)),
+        view.valueAt(Math.min(1, quantile + error)),
+        0.99);
+  }
+
+  private void append(final int level, final double value) {
+    if (level == sizes.length) {
+      levels = Arrays.copyOf(levels, level + 1);
+      levels[level] = new double[MIN_CAPACITY];
+      sizes = Arrays.copyOf(sizes, level + 1);
+      capacity = totalCapacity();
+    }
+    if (sizes[level] == levels[level].length) {
+      levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+    }
+    levels[level][sizes[level]++] = value;
+    retained++;
+  }
+
+  private void compress() {
+    while (retained > capacity) {
+      int level = 0;
+      while (sizes[level] < capacity(level)) {
+        level++;
+      }
+      compact(level);
+    }
+  }
+
+  private void compact(final int level) {
+    double[] items = levels[level];
+    int size = sizes[level];
+    Arrays.sort(items, 0, size);
+    // an odd item out stays behind, so that promoted items pair up exactly
+    int odd = size & 1;
+    int pairs = size - odd;
+    for (int i = random.nextInt(2); i < pairs; i += 2) {
+      append(level + 1, items[i]);
+    }
+    if (odd == 1) {
+      items[0] = items[size - 1];
+    }
+    retained -= pairs;
+    sizes[level] = odd;
+    compacted = true;
+  }
+
+  private int totalCapacity() {
+    int total = 0;
+    for (int level = 0; level < sizes.length; level++) {
+      total += capacity(level);
+    }
+    return total;
+  }
+
+  private int capacity(final int level) {
+    int depth = sizes.length - 1 - level;
+    return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(2.0 / 3, depth)));
+  }
+
+  /** The retained items sorted by value, with cumulative weights. */
+  private final class SortedView {
+
+    private final double[] values;
+
+    private final long[] cumulativeWeights;
+
+    SortedView() {
+      values = new double[retained];
+      long[] weights = new long[retained];
+      int n = 0;
+      for (int level = 0; level < sizes.length; level++) {
+        for (int i = 0; i < sizes[level]; i++) {
+          values[n] = levels[level][i];
+          weights[n++] = 1L << level;
+        }
+      }
+      Integer[] order = new Integer[n];
+      for (int i = 0; i < n; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (left, right) -> Double.compare(values[left], values[right]));
+      double[] sorted = new double[n];
+      cumulativeWeights = new long[n];
+      long cumulative = 0;
+      for (int i = 0; i < n; i++) {
+        sorted[i] = values[order[i]];
+        cumulative += weights[order[i]];
+        cumulativeWeights[i] = cumulative;
+      }
+      System.arraycopy(sorted, 0, values, 0, n);
+    }
+
+    /** The smallest retained value whose cumulative weight reaches {@code quantile}. */
+    double valueAt(final double quantile) {
+      if (quantile == 0) {
+        return min;
+      }
+      if (quantile == 1) {
+        return max;
+      }
+      long total = cumulativeWeights[cumulativeWeights.length - 1];
+      long rank = (long) Math.ceil(quantile * total);
+      int index = Arrays.binarySearch(cumulativeWeights, Math.max(rank, 1));
+      return values[index >= 0 ? index : -index - 1];
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.madhurtoppo.streamsapi.sketch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Sketch sizes for {@link ApproximateAnalytics}; each trades memory for accuracy */
+@Data
+@Component
+@ConfigurationProperties(prefix = "streams-api.sketch")
+public class SketchProperties {
+
+  /** HyperLogLog registers are 2^precision bytes; 14 gives 0.81% standard error in 16 KiB. */
+  private int precision = 14;
+
+  /** Top-level compactor size of the quantile sketches; 200 gives 1.3% rank error. */
+  private int quantileK = 200;
+
+  /** Counters of the heavy-hitters sketch; keys above total / counters are always reported. */
+  private int heavyHitters = 1_024;
+}
@@ -0,0 +1,159 @@
+package com.madhurtoppo.streamsapi.sketch;
+
+import com.madhurtoppo.streamsapi.money.Money;
+import com.madhurtoppo.streamsapi.primitive.LongHashSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The sketches of {@link ApproximateAnalytics}, and the product and customer attributes needed to
+ * place an order line that arrives as bare ids. Sketches only grow, so orders can be added but not
+ * replaced or removed. Not thread-safe.
+ */
+final class SketchState {
+
+  private final SketchProperties properties;
+
+  private final Map<Integer, HyperLogLog> productsByTier = new HashMap<>();
+
+  /** Keyed by lower-case category. */
+  private final Map<String, QuantileSketch> pricesByCategory = new HashMap<>();
+
+  private final SpaceSaving orderedProducts;
+
+  private final Map<Long, ProductRow> products = new HashMap<>();
+
+  private final Map<Long, Integer> customerTiers = new HashMap<>();
+
+  /** Products and customers of the counted orders. */
+  private final LongHashSet countedProducts = new LongHashSet();
+
+  private final LongHashSet countedCustomers = new LongHashSet();
+
+  private long orders;
+
+  /** Highest id of the counted orders. */
+  private long lastOrderId = Long.MIN_VALUE;
+
+  /**
+   * While changes committed during a rebuild's load are replayed, the load stream's {@link
+   * #lastOrderId}: orders up to it were counted by the stream and are skipped.
+   */
+  private long replayedAfter = Long.MIN_VALUE;
+
+  SketchState(final SketchProperties properties) {
+    this.properties = properties;
+    this.orderedProducts = new SpaceSaving(properties.getHeavyHitters());
+  }
+
+  /** Whether a saved product has a different category or price than its lines were counted with. */
+  boolean changesProduct(final long id, final String category, final long price) {
+    ProductRow row = products.get(id);
+    return row != null
+        && countedProducts.contains(id)
+        && (!Objects.equals(row.category, normalize(category)) || row.price != price);
+  }
+
+  /** Whether a saved customer has a different tier than its orders were counted with. */
+  boolean changesCustomer(final long id, final Integer tier) {
+    return countedCustomers.contains(id) && !Objects.equals(customerTiers.get(id), tier);
+  }
+
+  /**
+   * Ends the load stream, which read the orders in id order: until {@link #loaded()}, only orders
+   * with a higher id than it last counted are added.
+   */
+  void replaying() {
+    replayedAfter = lastOrderId;
+  }
+
+  void loaded() {
+    replayedAfter = Long.MIN_VALUE;
+  }
+
+  void putProduct(final long id, final String category, final long price) {
+    products.put(id, new ProductRow(normalize(category), price));
+  }
+
+  void putCustomer(final long id, final Integer tier) {
+    customerTiers.put(id, tier);
+  }
+
+  /**
+   * Counts an order of the given customer and products. Products and the customer must have been
+   * put first; lines of unknown products are only counted as ordered products. While {@link
+   * #replaying()}, an order the load stream counted is skipped.
+   */
+  void addOrder(final long orderId, final Long customerId, final long[] productIds) {
+    if (orderId <= replayedAfter) {
+      return;
+    }
+    orders++;
+    lastOrderId = Math.max(lastOrderId, orderId);
+    if (customerId != null) {
+      countedCustomers.add(customerId);
+    }
+    Integer tier = customerId == null ? null : customerTiers.get(customerId);
+    HyperLogLog tierProducts = null;
+    if (tier != null) {
+      tierProducts =
+          productsByTier.computeIfAbsent(tier, key -> new HyperLogLog(properties.getPrecision()));
+    }
+    for (long productId : productIds) {
+      orderedProducts.add(productId);
+      countedProducts.add(productId);
+      if (tierProducts != null) {
+        tierProducts.add(productId);
+      }
+      ProductRow product = products.get(productId);
+      if (product != null && product.category != null) {
+        pricesByCategory
+            .computeIfAbsent(product.category, key -> new QuantileSketch(properties.getQuantileK()))
+            .add(Money.toAmount(product.price));
+      }
+    }
+  }
+
+  long orders() {
+    return orders;
+  }
+
+  Estimate distinctProducts(final int tier) {
+    HyperLogLog sketch = productsByTier.get(tier);
+    return sketch == null ? Estimate.exact(0) : sketch.estimate();
+  }
+
+  Estimate distinctProducts() {
+    HyperLogLog all = new HyperLogLog(properties.getPrecision());
+    productsByTier.values().forEach(all::merge);
+    return all.estimate();
+  }
+
+  /** Null if no line of {@code category} was counted. */
+  Estimate priceQuantile(final String category, final double quantile) {
+    QuantileSketch sketch = pricesByCategory.get(normalize(category));
+    return sketch == null ? null : sketch.quantile(quantile);
+  }
+
+  SpaceSaving orderedProducts() {
+    return orderedProducts;
+  }
+
+  private static String normalize(final String category) {
+    return category == null ? null : category.toLowerCase(Locale.ROOT);
+  }
+
+  private static final class ProductRow {
+
+    private final String category;
+
+    private final long price;
+
+    private ProductRow(final String category, final long price) {
+      this.category = category;
+      this.price = price;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.madhurtoppo.streamsapi.sketch;
+
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Collectors that summarize a stream into a sketch in constant memory. Partial sketches of a
+ * parallel stream are merged.
+ */
+public final class Sketches {
+
+  private Sketches() {}
+
+  /** Counts the distinct keys, as {@code map(key).distinct().count()} would. */
+  public static <T> Collector<T, ?, HyperLogLog> distinct(
+      final ToLongFunction<? super T> key, final int precision) {
+    return Collector.of(
+        () -> new HyperLogLog(precision),
+        (sketch, element) -> sketch.add(key.applyAsLong(element)),
+        HyperLogLog::merge,
+        Collector.Characteristics.UNORDERED);
+  }
+
+  /** Summarizes the distribution of the values. */
+  public static <T> Collector<T, ?, QuantileSketch> quantiles(
+      final ToDoubleFunction<? super T> value, final int k) {
+    return Collector.of(
+        () -> new QuantileSketch(k),
+        (sketch, element) -> sketch.add(value.applyAsDouble(element)),
+        QuantileSketch::merge,
+        Collector.Characteristics.UNORDERED);
+  }
+
+  /** Counts the most frequent keys. */
+  public static <T> Collector<T, ?, SpaceSaving> heavyHitters(
+      final ToLongFunction<? super T> key, final int capacity) {
+    return Collector.of(
+        () -> new SpaceSaving(capacity),
+        (sketch, element) -> sketch.add(key.applyAsLong(element)),
+        SpaceSaving::merge,
+        Collector.Characteristics.UNORDERED);
+  }
+}
@@ -0,0 +1,267 @@
+package com.madhurtoppo.streamsapi.sketch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy hitters over {@code long} keys, such as product ids, with at most {@code
+ * capacity} counters. A key that is not counted takes over the counter with the smallest count
+ * and inherits that count as its possible overestimate.
+ *
+ * <p>The bounds are guaranteed: a counted key's true frequency lies between its count minus its
+ * error and its count, and any key whose frequency exceeds {@code total / capacity} is counted.
+ * Sketches merge as described by Agarwal et al., "Mergeable Summaries", keeping the guarantees.
+ * Not thread-safe.
+ */
+public final class SpaceSaving {
+
+  private final int capacity;
+
+  /** Counters in a binary min-heap by count. */
+  private final long[] keys;
+
+  private final long[] counts;
+
+  private final long[] errors;
+
+  private final SlotIndex slots;
+
+  private int size;
+
+  private long total;
+
+  /** Upper bound on the frequency of keys dropped by merges. */
+  private long dropped;
+
+  public SpaceSaving(final int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.keys = new long[capacity];
+    this.counts = new long[capacity];
+    this.errors = new long[capacity];
+    this.slots = new SlotIndex(capacity);
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  /** Occurrences added. */
+  public long total() {
+    return total;
+  }
+
+  public void add(final long key) {
+    add(key, 1);
+  }
+
+  public void add(final long key, final long occurrences) {
+    if (occurrences < 1) {
+      throw new IllegalArgumentException("occurrences must be positive: " + occurrences);
+    }
+    total += occurrences;
+    int slot = slots.get(key);
+    if (slot >= 0) {
+      counts[slot] += occurrences;
+      siftDown(slot);
+      return;
+    }
+    long floor = untrackedBound();
+    if (size < capacity) {
+      put(size, key, floor + occurrences, floor);
+      siftUp(size++);
+    } else {
+      slots.remove(keys[0]);
+      put(0, key, floor + occurrences, floor);
+      siftDown(0);
+    }
+  }
+
+  /** Adds every occurrence summarized by {@code other}. */
+  public SpaceSaving merge(final SpaceSaving other) {
+    long floor = untrackedBound();
+    long otherFloor = other.untrackedBound();
+    Map<Long, long[]> merged = new HashMap<>((size + other.size) * 2);
+    for (int i = 0; i < size; i++) {
+      merged.put(keys[i], new long[] {counts[i] + otherFloor, errors[i] + otherFloor});
+    }
+    for (int i = 0; i < other.size; i++) {
+      long[] counter = merged.get(other.keys[i]);
+      if (counter == null) {
+        merged.put(other.keys[i], new long[] {other.counts[i] + floor, other.errors[i] + floor});
+      } else {
+        // this key was counted by both, so neither floor applies
+        counter[0] += other.counts[i] - otherFloor;
+        counter[1] += other.errors[i] - otherFloor;
+      }
+    }
+    List<Map.Entry<Long, long[]>> counters = new ArrayList<>(merged.entrySet());
+    counters.sort(
+        Comparator.comparingLong((Map.Entry<Long, long[]> counter) -> counter.getValue()[0])
+            .reversed());
+    long droppedBound = floor + otherFloor;
+    slots.clear();
+    size = 0;
+    for (Map.Entry<Long, long[]> counter : counters) {
+      if (size < capacity) {
+        put(size, counter.getKey(), counter.getValue()[0], counter.getValue()[1]);
+        siftUp(size++);
+      } else {
+        droppedBound = Math.max(droppedBound, counter.getValue()[0]);
+      }
+    }
+    dropped = droppedBound;
+    total += other.total;
+    return this;
+  }
+
+  /** The {@code k} keys with the highest counts, highest first. */
+  public List<HeavyHitter> top(final int k) {
+    Integer[] order = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingLong((Integer slot) -> counts[slot]).reversed());
+    List<HeavyHitter> top = new ArrayList<>(Math.min(k, size));
+    for (int i = 0; i < size && i < k; i++) {
+      top.add(new HeavyHitter(keys[order[i]], estimate(order[i])));
+    }
+    return top;
+  }
+
+  /** The frequency of {@code key}, which is at most the smallest count if it has no counter. */
+  public Estimate frequency(final long key) {
+    int slot = slots.get(key);
+    if (slot >= 0) {
+      return estimate(slot);
+    }
+    return new Estimate(0, 0, untrackedBound(), 1);
+  }
+
+  private Estimate estimate(final int slot) {
+    return new Estimate(counts[slot], counts[slot] - errors[slot], counts[slot], 1);
+  }
+
+  /** The most often a key without a counter can have occurred. */
+  private long untrackedBound() {
+    return size < capacity ? dropped : Math.max(dropped, counts[0]);
+  }
+
+  private void put(final int slot, final long key, final long count, final long error) {
+    keys[slot] = key;
+    counts[slot] = count;
+    errors[slot] = error;
+    slots.put(key, slot);
+  }
+
+  private void siftUp(final int slot) {
+    int child = slot;
+    while (child > 0) {
+      int parent = (child - 1) / 2;
+      if (counts[parent] <= counts[child]) {
+        return;
+      }
+      swap(parent, child);
+      child = parent;
+    }
+  }
+
+  private void siftDown(final int slot) {
+    int parent = slot;
+    while (true) {
+      int smallest = parent;
+      int left = 2 * parent + 1;
+      int right = left + 1;
+      if (left < size && counts[left] < counts[smallest]) {
+        smallest = left;
+      }
+      if (right < size && counts[right] < counts[smallest]) {
+        smallest = right;
+      }
+      if (smallest == parent) {
+        return;
+      }
+      swap(parent, smallest);
+      parent = smallest;
+    }
+  }
+
+  private void swap(final int i, final int j) {
+    long key = keys[i];
+    long count = counts[i];
+    long error = errors[i];
+    put(i, keys[j], counts[j], errors[j]);
+    put(j, key, count, error);
+  }
+
+  /** Open-addressing index from key to counter slot, without boxing. */
+  private static final class SlotIndex {
+
+    private final long[] keys;
+
+    /** Counter slot of {@code keys[i]}, or -1 if {@code i} is free. */
+    private final int[] slots;
+
+    private final int mask;
+
+    SlotIndex(final int capacity) {
+      int size = Integer.highestOneBit(capacity * 2 - 1) << 1;
+      keys = new long[size];
+      slots = new int[size];
+      mask = size - 1;
+      clear();
+    }
+
+    /** The slot of {@code key}, or -1. */
+    int get(final long key) {
+      for (int i = home(key); slots[i] >= 0; i = (i + 1) & mask) {
+        if (keys[i] == key) {
+          return slots[i];
+        }
+      }
+      return -1;
+    }
+
+    void put(final long key, final int slot) {
+      int i = home(key);
+      while (slots[i] >= 0 && keys[i] != key) {
+        i = (i + 1) & mask;
+      }
+      keys[i] = key;
+      slots[i] = slot;
+    }
+
+    void remove(final long key) {
+      int hole = home(key);
+      while (slots[hole] >= 0 && keys[hole] != key) {
+        hole = (hole + 1) & mask;
+      }
+      if (slots[hole] < 0) {
+        return;
+      }
+      // shift later entries of the probe run back, so that no lookup stops at the hole
+      for (int i = (hole + 1) & mask; slots[i] >= 0; i = (i + 1) & mask) {
+        if (((i - home(keys[i])) & mask) >= ((i - hole) & mask)) {
+          keys[hole] = keys[i];
+          slots[hole] = slots[i];
+          hole = i;
+        }
+      }
+      slots[hole] = -1;
+    }
+
+    void clear() {
+      Arrays.fill(slots, -1);
+    }
+
+    private int home(final long key) {
+      return (int) Hashing.mix(key) & mask;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.madhurtoppo.streamsapi.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/** JSON forms of the entities; relations are written as ids so nothing is loaded lazily twice. */
+final class JsonRows {
+
+  private JsonRows() {}
+
+  static void product(final JsonGenerator json, final Product product) throws IOException {
+    json.writeStartObject();
+    json.writeNumberField("id", product.getId());
+    json.writeStringField("name", product.getName());
+    json.writeStringField("category", product.getCategory());
+    json.writeNumberField("price", product.getPrice());
+    json.writeEndObject();
+  }
+
+  static void order(final JsonGenerator json, final Order order) throws IOException {
+    json.writeStartObject();
+    json.writeNumberField("id", order.getId());
+    date(json, "orderDate", order.getOrderDate());
+    date(json, "deliveryDate", order.getDeliveryDate());
+    json.writeStringField("status", order.getStatus());
+    if (order.getCustomer() != null) {
+      json.writeNumberField("customerId", order.getCustomer().getId());
+    }
+    json.writeArrayFieldStart("productIds");
+    if (order.getProducts() != null) {
+      for (Product product : order.getProducts()) {
+        json.writeNumber(product.getId());
+      }
+    }
+    json.writeEndArray();
+    json.writeEndObject();
+  }
+
+  static void ids(final JsonGenerator json, final Collection<Long> ids) throws IOException {
+    json.writeStartArray();
+    for (Long id : ids) {
+      json.writeNumber(id);
+    }
+    json.writeEndArray();
+  }
+
+  static void strings(final JsonGenerator json, final Collection<String> values)
+      throws IOException {
+    json.writeStartArray();
+    for (String value : values) {
+      json.writeString(value);
+    }
+    json.writeEndArray();
+  }
+
+  private static void date(final JsonGenerator json, final String field, final LocalDate date)
+      throws IOException {
+    if (date == null) {
+      json.writeNullField(field);
+    } else {
+      json.writeStringField(field, date.toString());
+    }
+  }
+}
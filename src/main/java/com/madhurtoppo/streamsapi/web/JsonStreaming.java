@@ -0,0 +1,124 @@
+package com.madhurtoppo.streamsapi.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes JSON responses while their rows are produced. The source stream is opened inside a
+ * read-only transaction on the response thread and every row is written straight to the response
+ * through a {@link JsonGenerator}, which is flushed every {@value #FLUSH_INTERVAL} rows. Only the
+ * generator's and the servlet container's buffers are held, whatever the size of the result.
+ */
+@Component
+public class JsonStreaming {
+
+  static final int FLUSH_INTERVAL = 256;
+
+  private final ObjectMapper objectMapper;
+
+  private final TransactionTemplate readOnlyTransaction;
+
+  public JsonStreaming(
+      final ObjectMapper objectMapper, final PlatformTransactionManager transactionManager) {
+    this.objectMapper = objectMapper;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  /** Writes a JSON array with one element per row of {@code rows}, which is closed afterwards. */
+  public <T> StreamingResponseBody array(
+      final Supplier<Stream<T>> rows, final JsonRowWriter<? super T> writer) {
+    return out ->
+        write(
+            out,
+            json -> {
+              try (Stream<T> source = rows.get()) {
+                json.writeStartArray();
+                Iterator<T> iterator = source.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                  writer.write(json, iterator.next());
+                  if (++written % FLUSH_INTERVAL == 0) {
+                    json.flush();
+                  }
+                }
+                json.writeEndArray();
+              }
+            });
+  }
+
+  /** Writes a JSON object with one field per entry of {@code entries}, closed afterwards. */
+  public <K, V> StreamingResponseBody object(
+      final Supplier<Stream<Map.Entry<K, V>>> entries, final JsonRowWriter<? super V> writer) {
+    return out ->
+        write(
+            out,
+            json -> {
+              try (Stream<Map.Entry<K, V>> source = entries.get()) {
+                json.writeStartObject();
+                Iterator<Map.Entry<K, V>> iterator = source.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                  Map.Entry<K, V> entry = iterator.next();
+                  json.writeFieldName(String.valueOf(entry.getKey()));
+                  writer.write(json, entry.getValue());
+                  if (++written % FLUSH_INTERVAL == 0) {
+                    json.flush();
+                  }
+                }
+                json.writeEndObject();
+              }
+            });
+  }
+
+  /** Writes a single value computed inside a read-only transaction. */
+  public <T> StreamingResponseBody value(
+      final Supplier<T> value, final JsonRowWriter<? super T> writer) {
+    return out -> write(out, json -> writer.write(json, value.get()));
+  }
+
+  private void write(final OutputStream out, final JsonBody body) throws IOException {
+    // a failure half way must leave the document truncated, not closed into valid JSON
+    try (JsonGenerator json =
+        objectMapper
+            .getFactory()
+            .createGenerator(out)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      readOnlyTransaction.executeWithoutResult(
+          status -> {
+            try {
+              body.write(json);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /** Writes one row as a JSON value. */
+  @FunctionalInterface
+  public interface JsonRowWriter<T> {
+
+    void write(JsonGenerator json, T row) throws IOException;
+  }
+
+  @FunctionalInterface
+  private interface JsonBody {
+
+    void write(JsonGenerator json) throws IOException;
+  }
+}
@@ -0,0 +1,96 @@
+package com.madhurtoppo.streamsapi.web;
+
+import static com.madhurtoppo.streamsapi.web.ProductController.checkK;
+import static com.madhurtoppo.streamsapi.web.ProductController.ok;
+
+import com.madhurtoppo.streamsapi.materialized.MaterializedAggregates;
+import com.madhurtoppo.streamsapi.money.Money;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import java.time.LocalDate;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/** Order analytics (exercises 2, 6, 8, 12 and 13) as streamed JSON. */
+@RestController
+@RequestMapping(path = "/orders", produces = MediaType.APPLICATION_JSON_VALUE)
+public class OrderController {
+
+  private final OrderRepository orderRepository;
+
+  private final MaterializedAggregates materializedAggregates;
+
+  private final JsonStreaming jsonStreaming;
+
+  public OrderController(
+      final OrderRepository orderRepository,
+      final MaterializedAggregates materializedAggregates,
+      final JsonStreaming jsonStreaming) {
+    this.orderRepository = orderRepository;
+    this.materializedAggregates = materializedAggregates;
+    this.jsonStreaming = jsonStreaming;
+  }
+
+  /**
+   * Orders with at least one product in {@code category}, ignoring case (exercise 2). The database
+   * selects them with an {@code EXISTS} subquery and returns them with their customer and products
+   * through a forward-only cursor.
+   */
+  @GetMapping
+  public ResponseEntity<StreamingResponseBody> ordersInCategory(
+      @RequestParam final String category) {
+    return ok(
+        jsonStreaming.array(
+            () -> orderRepository.streamWithProductInCategory(category), JsonRows::order));
+  }
+
+  /** The {@code k} most recently placed orders, ranked by the database (exercise 6). */
+  @GetMapping("/latest")
+  public ResponseEntity<StreamingResponseBody> latest(
+      @RequestParam(defaultValue = "3") final int k) {
+    checkK(k);
+    return ok(jsonStreaming.array(() -> orderRepository.findLatest(k).stream(), JsonRows::order));
+  }
+
+  /** Total price of the orders placed from {@code from} to {@code to}, inclusive (exercise 8). */
+  @GetMapping("/revenue")
+  public ResponseEntity<StreamingResponseBody> revenue(
+      @RequestParam @DateTimeFormat(iso = ISO.DATE) final LocalDate from,
+      @RequestParam @DateTimeFormat(iso = ISO.DATE) final LocalDate to) {
+    return ok(
+        jsonStreaming.value(
+            () -> orderRepository.orderTotalCents(from, to),
+            (json, totals) -> {
+              json.writeStartObject();
+              json.writeStringField("from", from.toString());
+              json.writeStringField("to", to.toString());
+              json.writeNumberField("orders", totals.getCount());
+              json.writeNumberField("revenue", Money.toAmount(totals.getSum()));
+              json.writeEndObject();
+            }));
+  }
+
+  /** Order ids per customer id (exercise 12a). */
+  @GetMapping("/ids-by-customer")
+  public ResponseEntity<StreamingResponseBody> idsByCustomer() {
+    return ok(
+        jsonStreaming.object(
+            () -> orderRepository.orderIdsByCustomerId().toMap().entrySet().stream(),
+            JsonRows::ids));
+  }
+
+  /** Order id to total price (exercise 13), from the materialized aggregates. */
+  @GetMapping("/totals")
+  public ResponseEntity<StreamingResponseBody> totals() {
+    return ok(
+        jsonStreaming.object(
+            () -> materializedAggregates.orderTotals().entrySet().stream(),
+            (json, total) -> json.writeNumber(total)));
+  }
+}
@@ -0,0 +1,126 @@
+package com.madhurtoppo.streamsapi.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.filter.CompiledFilter;
+import com.madhurtoppo.streamsapi.filter.FilterSchema;
+import com.madhurtoppo.streamsapi.query.ProductSpecs;
+import com.madhurtoppo.streamsapi.query.RepositoryQuery;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/** Product analytics (exercises 1, 5, 14 and 15) as streamed JSON. */
+@RestController
+@RequestMapping(path = "/products", produces = MediaType.APPLICATION_JSON_VALUE)
+public class ProductController {
+
+  /** Compiled filters kept by expression; compiling costs far more than a request's tests. */
+  private static final int COMPILED_FILTERS = 256;
+
+  private final Cache<String, CompiledFilter<Product>> filters =
+      Caffeine.newBuilder().maximumSize(COMPILED_FILTERS).build();
+
+  private final ProductRepository productRepository;
+
+  private final JsonStreaming jsonStreaming;
+
+  public ProductController(
+      final ProductRepository productRepository,
+      final JsonStreaming jsonStreaming) {
+    this.productRepository = productRepository;
+    this.jsonStreaming = jsonStreaming;
+  }
+
+  /**
+   * Products filtered by category (ignoring case) and exclusive price bounds, as in exercise 1,
+   * which the database applies, and by an optional {@link FilterSchema#PRODUCT} expression, which
+   * is tested on the rows of the forward-only cursor.
+   */
+  @GetMapping
+  public ResponseEntity<StreamingResponseBody> products(
+      @RequestParam(required = false) final String category,
+      @RequestParam(required = false) final Double priceAbove,
+      @RequestParam(required = false) final Double priceBelow,
+      @RequestParam(name = "filter", required = false) final String expression) {
+    Predicate<Product> filter = expression == null ? null : compile(expression);
+    RepositoryQuery<Product> query = productRepository.query();
+    if (category != null) {
+      query.and(ProductSpecs.category(category));
+    }
+    if (priceAbove != null) {
+      query.and(ProductSpecs.priceAbove(priceAbove));
+    }
+    if (priceBelow != null) {
+      query.and(ProductSpecs.priceBelow(priceBelow));
+    }
+    return ok(
+        jsonStreaming.array(
+            () -> filter == null ? query.stream() : query.stream().filter(filter),
+            JsonRows::product));
+  }
+
+  /** The {@code k} cheapest products of a category, ranked by the database. */
+  @GetMapping("/cheapest")
+  public ResponseEntity<StreamingResponseBody> cheapest(
+      @RequestParam final String category, @RequestParam(defaultValue = "3") final int k) {
+    checkK(k);
+    return ok(list(() -> productRepository.findCheapestInCategory(category, k)));
+  }
+
+  /** The {@code k} most expensive products of a category, ranked by the database. */
+  @GetMapping("/most-expensive")
+  public ResponseEntity<StreamingResponseBody> mostExpensive(
+      @RequestParam final String category, @RequestParam(defaultValue = "3") final int k) {
+    checkK(k);
+    return ok(list(() -> productRepository.findMostExpensiveInCategory(category, k)));
+  }
+
+  @GetMapping("/count-by-category")
+  public ResponseEntity<StreamingResponseBody> countByCategory() {
+    return ok(
+        jsonStreaming.object(
+            productRepository::streamCountByCategory, (json, count) -> json.writeNumber(count)));
+  }
+
+  @GetMapping("/names-by-category")
+  public ResponseEntity<StreamingResponseBody> namesByCategory() {
+    return ok(
+        jsonStreaming.object(
+            () -> productRepository.productNamesByCategory().entrySet().stream(),
+            JsonRows::strings));
+  }
+
+  private StreamingResponseBody list(final Supplier<List<Product>> products) {
+    return jsonStreaming.array(() -> products.get().stream(), JsonRows::product);
+  }
+
+  private Predicate<Product> compile(final String expression) {
+    try {
+      return filters.get(expression, FilterSchema.PRODUCT::compile);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+    }
+  }
+
+  static void checkK(final int k) {
+    if (k < 0) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "k must not be negative");
+    }
+  }
+
+  static ResponseEntity<StreamingResponseBody> ok(final StreamingResponseBody body) {
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+}
@@ -0,0 +1,32 @@
+package com.madhurtoppo.streamsapi.web;
+
+import com.madhurtoppo.streamsapi.reports.ReportOverview;
+import com.madhurtoppo.streamsapi.reports.Reports;
+import java.time.YearMonth;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Combined reports; the request thread is released while they run. */
+@RestController
+@RequestMapping(path = "/reports", produces = MediaType.APPLICATION_JSON_VALUE)
+public class ReportController {
+
+  private final Reports reports;
+
+  public ReportController(final Reports reports) {
+    this.reports = reports;
+  }
+
+  /** Revenue of {@code month} (yyyy-MM) and price statistics of {@code category}. */
+  @GetMapping("/overview")
+  public CompletableFuture<ReportOverview> overview(
+      @RequestParam @DateTimeFormat(pattern = "yyyy-MM") final YearMonth month,
+      @RequestParam final String category) {
+    return reports.overview(month, category);
+  }
+}
@@ -522,3 +522,7 @@ INSERT INTO order_product_relationship (order_id, product_id)
 VALUES (50, 15);
 INSERT INTO order_product_relationship (order_id, product_id)
 VALUES (50, 16);
+-- rows above carry explicit ids, which H2 does not count: generated ids start after them
+ALTER TABLE customer ALTER COLUMN id RESTART WITH 11;
+ALTER TABLE product ALTER COLUMN id RESTART WITH 31;
+ALTER TABLE product_order ALTER COLUMN id RESTART WITH 51;
@@ -0,0 +1,105 @@
+package com.madhurtoppo.streamsapi.aggregation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.madhurtoppo.streamsapi.entities.Customer;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AggregationEngineTest {
+
+    private static final String[] CATEGORIES = {"Baby", "Books", "Games", "Grocery", "Toys"};
+
+    private static AggregationEngine engine;
+
+    private static List<Product> products;
+
+    private static List<Order> orders;
+
+    @BeforeAll
+    static void setUp() {
+        engine = new AggregationEngine(4);
+        Random random = new Random(7);
+        List<Customer> customers = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            customers.add(Customer.builder().id(id).name("c" + id).tier(random.nextInt(3)).build());
+        }
+        products = new ArrayList<>();
+        for (long id = 1; id <= 50_000; id++) {
+            products.add(Product.builder()
+                    .id(id)
+                    .name("p" + id)
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .price(random.nextInt(100_000) / 100.0)
+                    .build());
+        }
+        orders = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            orders.add(Order.builder().id(id).customer(customers.get(random.nextInt(customers.size()))).build());
+        }
+    }
+
+    @AfterAll
+    static void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    @DisplayName("Order ids per customer id match groupingBy, including order within groups")
+    void orderIdsByCustomerId() {
+        Map<Long, List<Long>> expected = orders.stream()
+                .collect(Collectors.groupingBy(order -> order.getCustomer().getId(),
+                        Collectors.mapping(Order::getId, Collectors.toList())));
+
+        assertEquals(expected, engine.orderIdsByCustomerId(orders));
+    }
+
+    @Test
+    @DisplayName("Most expensive product per category matches exercise 15")
+    void maxProductByCategory() {
+        Map<String, Optional<Product>> expected = products.stream()
+                .collect(Collectors.groupingBy(Product::getCategory,
+                        Collectors.maxBy(Comparator.comparing(Product::getPrice))));
+
+        Map<String, Product> actual = engine.maxProductByCategory(products);
+
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((category, product) ->
+                assertEquals(product.get().getPrice(), actual.get(category).getPrice()));
+    }
+
+    @Test
+    @DisplayName("Counts, sums and top-N per category match sequential collectors")
+    void countSumAndTopN() {
+        assertEquals(products.stream().collect(Collectors.groupingBy(Product::getCategory, Collectors.counting())),
+                engine.countBy(products, Product::getCategory));
+
+        Map<String, Double> expectedSums = products.stream()
+                .collect(Collectors.groupingBy(Product::getCategory, Collectors.summingDouble(Product::getPrice)));
+        Map<String, Double> actualSums = engine.sumBy(products, Product::getCategory, Product::getPrice);
+        expectedSums.forEach((category, sum) -> assertEquals(sum, actualSums.get(category), 1e-3));
+
+        Map<String, List<Double>> expectedTop = products.stream()
+                .collect(Collectors.groupingBy(Product::getCategory, Collectors.collectingAndThen(
+                        Collectors.toList(),
+                        list -> list.stream().map(Product::getPrice)
+                                .sorted(Comparator.reverseOrder())
+                                .limit(5)
+                                .collect(Collectors.toList()))));
+        Map<String, List<Product>> actualTop =
+                engine.topN(products, Product::getCategory, Comparator.comparing(Product::getPrice), 5);
+        expectedTop.forEach((category, prices) -> assertEquals(prices,
+                actualTop.get(category).stream().map(Product::getPrice).collect(Collectors.toList())));
+    }
+}
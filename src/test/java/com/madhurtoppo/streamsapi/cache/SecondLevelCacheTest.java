@@ -0,0 +1,84 @@
+package com.madhurtoppo.streamsapi.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest
+@Import(SecondLevelCacheMetrics.class)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SecondLevelCacheMetrics metrics;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("A repeated catalog load is served from the query and entity caches without SQL")
+    void repeatedFindAllHitsTheCache() {
+        int size = productRepository.findAll().size();
+        entityManager.clear();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(size, productRepository.findAll().size());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Writing a product invalidates the cached catalog")
+    void writesInvalidateTheQueryCache() {
+        int size = productRepository.findAll().size();
+
+        productRepository.save(Product.builder().name("Atlas").category("Books").price(25).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(size + 1, productRepository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Hits and misses are published per region")
+    void publishesRegionMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        metrics.bindTo(registry);
+        Long id = productRepository.findAll().get(0).getId();
+        entityManager.clear();
+
+        assertNotNull(entityManager.find(Product.class, id));
+
+        assertTrue(registry.get("cache.gets").tag("cache", "product").tag("result", "hit")
+                .functionCounter().count() > 0);
+        assertNotNull(registry.get("cache.evictions").tag("cache", "product").functionCounter());
+    }
+}
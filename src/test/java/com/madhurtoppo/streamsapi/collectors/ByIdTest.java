@@ -0,0 +1,84 @@
+package com.madhurtoppo.streamsapi.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import com.madhurtoppo.streamsapi.entities.Customer;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+@DataJpaTest
+class ByIdTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Distinct and grouping by id match distinct() and groupingBy for exercises 4, 7 and 12")
+    void matchesExercises() {
+        List<Order> orders = orderRepository.findAllWithProducts();
+        List<Product> exercise7 = orders.stream()
+                .filter(order -> order.getOrderDate().isEqual(LocalDate.of(2021, 3, 15)))
+                .flatMap(order -> order.getProducts().stream())
+                .distinct()
+                .collect(Collectors.toList());
+        List<Product> exercise4 = orders.stream()
+                .filter(order -> order.getCustomer().getTier() == 2)
+                .flatMap(order -> order.getProducts().stream())
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Customer, List<Order>> exercise12 = orders.stream()
+                .collect(Collectors.groupingBy(Order::getCustomer));
+
+        assertEquals(exercise7, orders.stream()
+                .filter(order -> order.getOrderDate().isEqual(LocalDate.of(2021, 3, 15)))
+                .flatMap(order -> order.getProducts().stream())
+                .filter(ById.first(Product::getId))
+                .collect(Collectors.toList()));
+        assertEquals(exercise4, orders.parallelStream()
+                .filter(order -> order.getCustomer().getTier() == 2)
+                .flatMap(order -> order.getProducts().stream())
+                .collect(ById.distinct(Product::getId)));
+        assertEquals(exercise12, orders.stream().collect(ById.ordersByCustomer()));
+        assertEquals(exercise12, orders.parallelStream().collect(ById.ordersByCustomer()));
+    }
+
+    @Test
+    @DisplayName("Entities are equal by id, to proxies too, and distinct by id leaves proxies uninitialized")
+    void idBasedIdentity() {
+        Order order = orderRepository.findAll().get(0);
+        long customerId = order.getCustomer().getId();
+        entityManager.clear();
+
+        Customer proxy = entityManager.getEntityManager().getReference(Customer.class, customerId);
+        Customer loaded = entityManager.find(Customer.class, customerId);
+        entityManager.clear();
+        Customer detachedProxy = entityManager.getEntityManager().getReference(Customer.class, customerId);
+
+        assertEquals(loaded, detachedProxy);
+        assertEquals(loaded.hashCode(), detachedProxy.hashCode());
+        assertEquals(proxy, loaded);
+        assertNotEquals(new Customer(), new Customer());
+
+        Customer unloaded = entityManager.getEntityManager().getReference(Customer.class, customerId + 1);
+        Customer again = entityManager.getEntityManager().getReference(Customer.class, customerId + 1);
+        assertEquals(List.of(unloaded), List.of(unloaded, again).stream()
+                .collect(ById.distinct(Customer::getId)));
+        assertFalse(Hibernate.isInitialized(unloaded));
+    }
+}
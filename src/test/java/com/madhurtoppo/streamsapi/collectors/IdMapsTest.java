@@ -0,0 +1,56 @@
+package com.madhurtoppo.streamsapi.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest
+class IdMapsTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    @DisplayName("Primitive collectors match exercises 11, 12a and 13a on sequential and parallel streams")
+    void matchesBoxedExercises() {
+        List<Order> orders = orderRepository.findAllWithProducts();
+        Map<Long, Integer> productCounts = orders.stream()
+                .collect(Collectors.toMap(Order::getId, order -> order.getProducts().size()));
+        Map<Long, List<Long>> orderIds = orders.stream()
+                .collect(Collectors.groupingBy(order -> order.getCustomer().getId(),
+                        Collectors.mapping(Order::getId, Collectors.toList())));
+        Map<Long, Double> totals = orders.stream()
+                .collect(Collectors.toMap(Order::getId, order -> order.getProducts().stream()
+                        .collect(Prices.total())));
+
+        assertEquals(productCounts, orders.stream().collect(IdMaps.productCountByOrder()).toMap());
+        assertEquals(productCounts, orders.parallelStream().collect(IdMaps.productCountByOrder()).toMap());
+        assertEquals(orderIds, orders.stream().collect(IdMaps.orderIdsByCustomer()).toMap());
+        assertEquals(orderIds, orders.parallelStream().collect(IdMaps.orderIdsByCustomer()).toMap());
+        assertEquals(totals, orders.parallelStream().collect(IdMaps.orderTotals()).toMap());
+    }
+
+    @Test
+    @DisplayName("Repository result paths return the same maps")
+    void repositoryResults() {
+        List<Order> orders = orderRepository.findAllWithProducts();
+
+        assertEquals(orders.stream().collect(IdMaps.productCountByOrder()).toMap(),
+                orderRepository.productCountByOrderId().toMap());
+        assertEquals(orders.stream().collect(IdMaps.orderIdsByCustomer()).toMap(),
+                orderRepository.orderIdsByCustomerId().toMap());
+        assertEquals(orders.size(), orderRepository.orderTotals().size());
+        Order first = orders.get(0);
+        assertEquals(first.getProducts().stream().mapToLong(Product::getPriceCents).sum() / 100.0,
+                orderRepository.orderTotals().get(first.getId(), -1), 1e-9);
+    }
+}
@@ -0,0 +1,78 @@
+package com.madhurtoppo.streamsapi.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TopKTest {
+
+    private static List<Product> products;
+
+    private static List<Order> orders;
+
+    @BeforeAll
+    static void setUp() {
+        Random random = new Random(11);
+        products = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            products.add(Product.builder().id(id).name("p" + id).category("Books")
+                    .price(random.nextInt(10_000) / 100.0).build());
+        }
+        orders = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            orders.add(Order.builder().id(id).orderDate(LocalDate.of(2021, 1, 1).plusDays(random.nextInt(365))).build());
+        }
+    }
+
+    @Test
+    @DisplayName("Cheapest and most expensive products match sorted + limit, sequential and parallel")
+    void productsMatchSortAndLimit() {
+        for (int k : new int[] {0, 1, 3, 100}) {
+            List<Double> cheapest = products.stream().map(Product::getPrice).sorted().limit(k)
+                    .collect(Collectors.toList());
+            List<Double> dearest = products.stream().map(Product::getPrice).sorted(Comparator.reverseOrder()).limit(k)
+                    .collect(Collectors.toList());
+
+            assertEquals(cheapest, prices(products.stream().collect(TopK.cheapestProducts(k))));
+            assertEquals(cheapest, prices(products.parallelStream().collect(TopK.cheapestProducts(k))));
+            assertEquals(cheapest, prices(products.parallelStream()
+                    .collect(TopK.least(k, Comparator.comparing(Product::getPrice)))));
+            assertEquals(dearest, prices(products.parallelStream().collect(TopK.mostExpensiveProducts(k))));
+            assertEquals(dearest, prices(products.parallelStream()
+                    .collect(TopK.greatest(k, Comparator.comparing(Product::getPrice)))));
+        }
+    }
+
+    @Test
+    @DisplayName("Latest orders match sorted + limit and small inputs return everything")
+    void latestOrders() {
+        List<LocalDate> expected = orders.stream().map(Order::getOrderDate).sorted(Comparator.reverseOrder()).limit(3)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, orders.parallelStream().collect(TopK.latestOrders(3))
+                .stream().map(Order::getOrderDate).collect(Collectors.toList()));
+        assertEquals(List.of(3L, 2L, 1L), List.of(2L, 1L, 3L).stream().collect(TopK.greatestByLong(5, Long::longValue)));
+        assertEquals(List.of(Long.MIN_VALUE, 0L), List.of(0L, Long.MIN_VALUE, Long.MAX_VALUE).stream()
+                .collect(TopK.leastByLong(2, Long::longValue)));
+        assertTrue(List.<Order>of().stream().collect(TopK.latestOrders(3)).isEmpty());
+        assertEquals(List.of(-2.5, -0.0, 0.0), List.of(0.0, 7.0, -0.0, -2.5, 3.0).stream()
+                .collect(TopK.leastByDouble(3, Double::doubleValue)));
+        assertEquals(List.of(Double.POSITIVE_INFINITY, 7.0), List.of(-1.0, 7.0, Double.POSITIVE_INFINITY).parallelStream()
+                .collect(TopK.greatestByDouble(2, Double::doubleValue)));
+    }
+
+    private static List<Double> prices(final List<Product> products) {
+        return products.stream().map(Product::getPrice).collect(Collectors.toList());
+    }
+}
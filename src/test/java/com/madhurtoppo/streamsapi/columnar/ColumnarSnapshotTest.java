@@ -0,0 +1,96 @@
+package com.madhurtoppo.streamsapi.columnar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.repositories.CustomerRepository;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.time.LocalDate;
+import java.util.DoubleSummaryStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest
+class ColumnarSnapshotTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private ColumnarSnapshot snapshot;
+
+    @BeforeEach
+    void loadSnapshot() {
+        snapshot = ColumnarSnapshot.load(customerRepository, productRepository, orderRepository);
+    }
+
+    @Test
+    @DisplayName("Snapshot mirrors the row counts of the repositories")
+    void rowCounts() {
+        assertEquals(customerRepository.count(), snapshot.customerCount());
+        assertEquals(productRepository.count(), snapshot.productCount());
+        assertEquals(orderRepository.count(), snapshot.orderCount());
+    }
+
+    @Test
+    @DisplayName("Total price of all orders placed in Feb 2021 matches exercise 8")
+    void revenueInFebruary() {
+        double expected = orderRepository.findAll()
+                .stream()
+                .filter(o -> !o.getOrderDate().isBefore(LocalDate.of(2021, 2, 1)))
+                .filter(o -> o.getOrderDate().isBefore(LocalDate.of(2021, 3, 1)))
+                .flatMap(o -> o.getProducts().stream())
+                .mapToDouble(Product::getPrice)
+                .sum();
+
+        double actual = snapshot
+                .orderedPrices(snapshot.ordersBetween(LocalDate.of(2021, 2, 1), LocalDate.of(2021, 3, 1)))
+                .sum();
+
+        assertEquals(expected, actual, 1e-6);
+    }
+
+    @Test
+    @DisplayName("Average price of orders placed on 15-Mar-2021 matches exercise 9")
+    void averageOnDay() {
+        double expected = orderRepository.findAll()
+                .stream()
+                .filter(order -> order.getOrderDate().isEqual(LocalDate.of(2021, 3, 15)))
+                .flatMap(order -> order.getProducts().stream())
+                .mapToDouble(Product::getPrice)
+                .average()
+                .getAsDouble();
+
+        double actual = snapshot.orderedPrices(snapshot.ordersOn(LocalDate.of(2021, 3, 15)))
+                .average()
+                .getAsDouble();
+
+        assertEquals(expected, actual, 1e-6);
+    }
+
+    @Test
+    @DisplayName("Statistics of \"Books\" prices match exercise 10")
+    void categoryStatistics() {
+        DoubleSummaryStatistics expected = productRepository.findAll()
+                .stream()
+                .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+                .mapToDouble(Product::getPrice)
+                .summaryStatistics();
+
+        DoubleSummaryStatistics actual = snapshot.productPrices("books").summaryStatistics();
+
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getSum(), actual.getSum(), 1e-6);
+        assertEquals(expected.getMin(), actual.getMin(), 1e-6);
+        assertEquals(expected.getMax(), actual.getMax(), 1e-6);
+    }
+}
@@ -0,0 +1,94 @@
+package com.madhurtoppo.streamsapi.columnar;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.madhurtoppo.streamsapi.repositories.CustomerRepository;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest
+class SnapshotFileTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("A mapped snapshot returns every value of the snapshot it was written from")
+    void roundTrip() {
+        ColumnarSnapshot snapshot = ColumnarSnapshot.load(customerRepository, productRepository, orderRepository);
+        Path file = directory.resolve("data.snapshot");
+
+        SnapshotFile.write(snapshot, file);
+        MappedSnapshot mapped = SnapshotFile.open(file);
+
+        assertEquals(snapshot.customerCount(), mapped.customerCount());
+        for (int c = 0; c < snapshot.customerCount(); c++) {
+            assertEquals(snapshot.customerId(c), mapped.customerId(c));
+            assertEquals(snapshot.customerName(c), mapped.customerName(c));
+            assertEquals(snapshot.customerTier(c), mapped.customerTier(c));
+        }
+        assertEquals(snapshot.productCount(), mapped.productCount());
+        for (int p = 0; p < snapshot.productCount(); p++) {
+            assertEquals(snapshot.productId(p), mapped.productId(p));
+            assertEquals(snapshot.productName(p), mapped.productName(p));
+            assertEquals(snapshot.productCategory(p), mapped.productCategory(p));
+            assertEquals(snapshot.productPriceCents(p), mapped.productPriceCents(p));
+        }
+        assertEquals(snapshot.orderCount(), mapped.orderCount());
+        for (int o = 0; o < snapshot.orderCount(); o++) {
+            assertEquals(snapshot.orderId(o), mapped.orderId(o));
+            assertEquals(snapshot.orderDate(o), mapped.orderDate(o));
+            assertEquals(snapshot.orderDeliveryDate(o), mapped.orderDeliveryDate(o));
+            assertEquals(snapshot.orderStatus(o), mapped.orderStatus(o));
+            assertEquals(snapshot.orderCustomer(o), mapped.orderCustomer(o));
+            assertArrayEquals(snapshot.orderProducts(o).toArray(), mapped.orderProducts(o).toArray());
+        }
+        assertEquals(snapshot.categories().size(), mapped.categories().size());
+        assertEquals(snapshot.statuses().idOf("delivered"), mapped.statuses().idOf("DELIVERED"));
+    }
+
+    @Test
+    @DisplayName("Stream queries give the same answers over the mapped file")
+    void streamQueries() {
+        ColumnarSnapshot snapshot = ColumnarSnapshot.load(customerRepository, productRepository, orderRepository);
+        Path file = directory.resolve("data.snapshot");
+        SnapshotFile.write(snapshot, file);
+        MappedSnapshot mapped = SnapshotFile.open(file);
+        LocalDate from = LocalDate.of(2021, 2, 1);
+        LocalDate to = LocalDate.of(2021, 3, 1);
+
+        assertEquals(snapshot.orderedPrices(snapshot.ordersBetween(from, to)).sum(),
+                mapped.orderedPrices(mapped.ordersBetween(from, to)).sum(), 1e-9);
+        assertArrayEquals(snapshot.productsInCategory("Books").toArray(), mapped.productsInCategory("books").toArray());
+        assertEquals(snapshot.productPrices("Toys").max(), mapped.productPrices("Toys").max());
+        assertEquals(snapshot.orderTotal(0), mapped.orderTotal(0), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Files that are not snapshots are rejected")
+    void rejectsOtherFiles() throws Exception {
+        Path file = directory.resolve("other.bin");
+        Files.write(file, new byte[SnapshotFile.HEADER_BYTES]);
+
+        assertThrows(IllegalArgumentException.class, () -> SnapshotFile.open(file));
+    }
+}
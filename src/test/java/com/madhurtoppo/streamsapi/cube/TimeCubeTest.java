@@ -0,0 +1,142 @@
+package com.madhurtoppo.streamsapi.cube;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.events.EntityChangePublisher;
+import com.madhurtoppo.streamsapi.events.IncrementalViewTestBase;
+import com.madhurtoppo.streamsapi.repositories.CustomerRepository;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+@Import({EntityChangePublisher.class, TimeCube.class})
+class TimeCubeTest extends IncrementalViewTestBase {
+
+    private static final LocalDate MARCH_15 = LocalDate.of(2021, 3, 15);
+
+    @Autowired
+    private TimeCube cube;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Override
+    protected TimeCube view() {
+        return cube;
+    }
+
+    @Test
+    @DisplayName("Rollups match exercises 8 and 9 and a tier and category filter over the orders")
+    void matchesExercises() {
+        List<Order> orders = orderRepository.findAllWithProducts();
+        double february = orders.stream()
+                .filter(o -> YearMonth.from(o.getOrderDate()).equals(YearMonth.of(2021, 2)))
+                .flatMap(o -> o.getProducts().stream())
+                .mapToDouble(Product::getPrice)
+                .sum();
+        double march15 = orders.stream()
+                .filter(o -> o.getOrderDate().isEqual(MARCH_15))
+                .flatMap(o -> o.getProducts().stream())
+                .mapToDouble(Product::getPrice)
+                .average()
+                .orElse(0);
+        LongSummaryStatistics tier2Books = orders.stream()
+                .filter(o -> o.getCustomer().getTier() == 2)
+                .filter(o -> !o.getOrderDate().isBefore(LocalDate.of(2021, 2, 1)))
+                .filter(o -> o.getOrderDate().isBefore(LocalDate.of(2021, 4, 2)))
+                .flatMap(o -> o.getProducts().stream())
+                .filter(p -> p.getCategory().equalsIgnoreCase("Books"))
+                .mapToLong(Product::getPriceCents)
+                .summaryStatistics();
+
+        assertFalse(cube.isStale());
+        assertEquals(february, cube.query().in(YearMonth.of(2021, 2)).revenue(), 1e-6);
+        assertEquals(march15, cube.query().on(MARCH_15).averagePrice(), 1e-6);
+        assertEquals(tier2Books.toString(), cube.query()
+                .between(LocalDate.of(2021, 2, 1), LocalDate.of(2021, 4, 2))
+                .tier(2)
+                .category("BOOKS")
+                .statistics()
+                .toString());
+
+        LongSummaryStatistics all = cube.query().statistics();
+        assertEquals(all.getSum(), cube.query().byMonth().values().stream().mapToLong(LongSummaryStatistics::getSum).sum());
+        assertEquals(all.getCount(), cube.query().byWeek().values().stream().mapToLong(LongSummaryStatistics::getCount).sum());
+        assertEquals(all.getMax(), cube.query().byCategory().values().stream().mapToLong(LongSummaryStatistics::getMax).max().orElseThrow());
+        assertEquals(all.getMin(), cube.query().byTier().values().stream().mapToLong(LongSummaryStatistics::getMin).min().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("New, changed and deleted orders are applied as a rebuild would")
+    void incrementalUpdates() {
+        List<Product> products = productRepository.findAll();
+        Product mostExpensive = products.stream().max(Comparator.comparing(Product::getPriceCents)).orElseThrow();
+        Order order = transaction.execute(status -> orderRepository.save(Order.builder()
+                .orderDate(MARCH_15)
+                .status("NEW")
+                .customer(customerRepository.findAll().get(0))
+                .products(new HashSet<>(Set.of(mostExpensive, products.get(0))))
+                .build()));
+        try {
+            String before = snapshot();
+
+            assertEquals(mostExpensive.getPriceCents(), cube.query().on(MARCH_15).statistics().getMax());
+            assertEquals(before, rebuilt());
+
+            transaction.executeWithoutResult(status -> {
+                Order saved = orderRepository.findById(order.getId()).orElseThrow();
+                saved.getProducts().remove(mostExpensive);
+                saved.setOrderDate(MARCH_15.plusDays(1));
+            });
+            assertEquals(snapshot(), rebuilt());
+        } finally {
+            transaction.executeWithoutResult(status -> orderRepository.deleteById(order.getId()));
+        }
+        assertEquals(snapshot(), rebuilt());
+        assertFalse(cube.isStale());
+    }
+
+    @Test
+    @DisplayName("A price change to a counted product marks the cube stale")
+    void priceChangeMarksStale() {
+        Product product = orderRepository.findAllWithProducts().get(0).getProducts().iterator().next();
+
+        try {
+            transaction.executeWithoutResult(status ->
+                    productRepository.findById(product.getId()).orElseThrow().setPrice(product.getPrice() + 1));
+            assertTrue(cube.isStale());
+        } finally {
+            transaction.executeWithoutResult(status ->
+                    productRepository.findById(product.getId()).orElseThrow().setPrice(product.getPrice()));
+        }
+        cube.rebuild();
+        assertFalse(cube.isStale());
+    }
+
+    @Override
+    protected String snapshot() {
+        return cube.query().byDay().toString() + cube.query().byCategory().toString()
+                + cube.query().byTier().toString();
+    }
+
+    private String rebuilt() {
+        cube.rebuild();
+        return snapshot();
+    }
+}
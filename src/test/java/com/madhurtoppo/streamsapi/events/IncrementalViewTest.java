@@ -0,0 +1,101 @@
+package com.madhurtoppo.streamsapi.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class IncrementalViewTest {
+
+    @Test
+    @DisplayName("Changes committed while a rebuild loads are applied to the rebuilt state")
+    void rebuildKeepsChangesCommittedDuringTheLoad() {
+        IdView view = new IdView();
+        view.table.addAll(List.of(1L, 2L));
+        view.duringLoad = () -> {
+            view.table.add(3L);
+            view.onSaved(3L);
+        };
+        assertTrue(view.isStale());
+
+        view.rebuild();
+
+        assertEquals(Set.of(1L, 2L, 3L), view.ids());
+        assertFalse(view.isStale());
+    }
+
+    @Test
+    @DisplayName("A change that fails leaves the view stale instead of failing the write")
+    void failedChangesMarkStale() {
+        IdView view = new IdView();
+        view.rebuild();
+
+        view.onSaved(-1L);
+        view.onSaved(4L);
+
+        assertTrue(view.isStale());
+        assertEquals(Set.of(4L), view.ids());
+        view.rebuild();
+        assertFalse(view.isStale());
+    }
+
+    /** Views a "table" of ids; the load runs {@code duringLoad} after reading it. */
+    private static final class IdView extends IncrementalView<Set<Long>> {
+
+        private final List<Long> table = new ArrayList<>();
+
+        private Runnable duringLoad = () -> {};
+
+        private IdView() {
+            super("Ids", new TreeSet<>(), new NoTransactions());
+        }
+
+        Set<Long> ids() {
+            return read(TreeSet::new);
+        }
+
+        @Override
+        protected Set<Long> load() {
+            Set<Long> loaded = new TreeSet<>(table);
+            duringLoad.run();
+            return loaded;
+        }
+
+        @Override
+        protected void saved(final Object entity) {
+            long id = (Long) entity;
+            onCommit(id, ids -> {
+                if (id < 0) {
+                    throw new IllegalArgumentException("negative id " + id);
+                }
+                ids.add(id);
+            });
+        }
+    }
+
+    private static final class NoTransactions implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(final TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(final TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(final TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.madhurtoppo.streamsapi.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tests of an {@link IncrementalView} over the sample data. Changes apply when their transaction
+ * commits, so tests commit their own through {@link #transaction} and undo them. The view is
+ * rebuilt before each test. Subclasses import the view and what it needs.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public abstract class IncrementalViewTestBase {
+
+    @Autowired
+    protected ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    protected TransactionTemplate transaction;
+
+    /** The view under test. */
+    protected abstract IncrementalView<?> view();
+
+    /** What the view answers, in a form that compares equal exactly when the answers agree. */
+    protected abstract Object snapshot();
+
+    @BeforeEach
+    void rebuildView() {
+        transaction = new TransactionTemplate(transactionManager);
+        view().rebuild();
+    }
+
+    @Test
+    @DisplayName("A committed bulk discount rebuilds the view")
+    void bulkUpdateRebuilds() {
+        List<Product> toys = productRepository.findAll().stream()
+                .filter(product -> product.getCategory().equalsIgnoreCase("Toys"))
+                .collect(Collectors.toList());
+        Object before = snapshot();
+
+        try {
+            transaction.executeWithoutResult(status -> productRepository.discountCategory("Toys", 10));
+
+            assertFalse(view().isStale());
+            Object discounted = snapshot();
+            view().rebuild();
+            assertEquals(discounted, snapshot());
+        } finally {
+            transaction.executeWithoutResult(status -> toys.forEach(product ->
+                    productRepository.findById(product.getId()).orElseThrow().setPrice(product.getPrice())));
+        }
+        view().rebuild();
+        assertEquals(before, snapshot());
+    }
+}
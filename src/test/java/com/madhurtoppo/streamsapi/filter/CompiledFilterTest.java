@@ -0,0 +1,178 @@
+package com.madhurtoppo.streamsapi.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.columnar.ColumnarSnapshot;
+import com.madhurtoppo.streamsapi.entities.Customer;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.repositories.CustomerRepository;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest
+class CompiledFilterTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private List<Product> products;
+
+    private List<Order> orders;
+
+    private ColumnarSnapshot snapshot;
+
+    private FilterColumns columns;
+
+    @BeforeEach
+    void load() {
+        products = productRepository.findAll();
+        orders = orderRepository.findAll();
+        snapshot = ColumnarSnapshot.load(customerRepository, productRepository, orderRepository);
+        columns = FilterColumns.of(snapshot);
+    }
+
+    @Test
+    @DisplayName("Exercise 1 as a filter expression matches the hand-written predicate")
+    void exercise1() {
+        CompiledFilter<Product> filter = FilterSchema.PRODUCT.compile("category = 'books' and price > 100");
+
+        List<Product> expected = products.stream()
+                .filter(p -> p.getCategory().equalsIgnoreCase("Books"))
+                .filter(p -> p.getPrice() > 100)
+                .collect(Collectors.toList());
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, filter.filter(products));
+        assertEquals(expected, products.stream().filter(filter).collect(Collectors.toList()));
+        assertEquals(productIds(expected), productIds(filter.select(columns)));
+    }
+
+    @Test
+    @DisplayName("Entities and columns agree on every kind of comparison")
+    void entitiesAndColumnsAgree() {
+        List<String> productFilters = List.of(
+                "price between 10 and 100",
+                "category in ('TOYS', 'baby') or price <= 50.5",
+                "not (category = 'Books' or price < 200)",
+                "category != 'Games' and price <> 0",
+                "category not in ('Toys')",
+                "category in ('a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'BOOKS', 'baby')",
+                "category not in ('a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'toys', 'Games')");
+        for (String expression : productFilters) {
+            CompiledFilter<Product> filter = FilterSchema.PRODUCT.compile(expression);
+            assertEquals(productIds(filter.filter(products)), productIds(filter.select(columns)), expression);
+        }
+
+        List<String> orderFilters = List.of(
+                "orderDate >= '2021-02-01' and orderDate < 2021-03-01",
+                "status = 'new' and tier in (1, 2)",
+                "tier not in (2) or deliveryDate = 2021-03-16",
+                "not status in ('DELIVERED', 'PENDING')"
+                        + " and (tier > 1 or orderDate between 2021-03-01 and 2021-03-31)");
+        for (String expression : orderFilters) {
+            CompiledFilter<Order> filter = FilterSchema.ORDER.compile(expression);
+            int[] rows = filter.select(columns);
+            assertEquals(orderIds(filter.filter(orders)), orderIds(rows), expression);
+            assertEquals(rows.length, filter.count(columns), expression);
+        }
+    }
+
+    @Test
+    @DisplayName("Order filters compare dates and the customer's tier")
+    void orders() {
+        Predicate<Order> expected = order -> order.getCustomer().getTier() == 2
+                && !order.getOrderDate().isBefore(LocalDate.of(2021, 2, 1))
+                && order.getOrderDate().isBefore(LocalDate.of(2021, 4, 1));
+
+        CompiledFilter<Order> filter =
+                FilterSchema.ORDER.compile("Tier = 2 AND orderDate BETWEEN '2021-02-01' AND '2021-03-31'");
+
+        List<Order> matches = filter.filter(orders);
+        assertFalse(matches.isEmpty());
+        assertEquals(orders.stream().filter(expected).collect(Collectors.toList()), matches);
+    }
+
+    @Test
+    @DisplayName("Each filter is an instance of its own hidden class")
+    void hiddenClassPerFilter() {
+        CompiledFilter<Product> books = FilterSchema.PRODUCT.compile("category = 'Books'");
+        CompiledFilter<Product> toys = FilterSchema.PRODUCT.compile("category = 'Toys'");
+
+        assertTrue(books.getClass().isHidden());
+        assertNotEquals(books.getClass(), toys.getClass());
+        assertTrue(products.stream().anyMatch(books));
+        assertFalse(products.stream().anyMatch(books.and(toys)));
+    }
+
+    @Test
+    @DisplayName("Missing values match no comparison, but a negated one")
+    void missingValues() {
+        Order order = Order.builder().status(null).customer(new Customer()).build();
+
+        assertFalse(FilterSchema.ORDER.compile("status != 'NEW'").test(order));
+        assertFalse(FilterSchema.ORDER.compile("tier not in (1)").test(order));
+        assertFalse(FilterSchema.ORDER.compile("orderDate < 2030-01-01").test(order));
+        assertTrue(FilterSchema.ORDER.compile("not orderDate < 2030-01-01").test(order));
+    }
+
+    @Test
+    @DisplayName("Malformed filters are rejected with the position of the error")
+    void malformed() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> FilterSchema.PRODUCT.compile("colour = 'red'"));
+        assertEquals("Unknown field 'colour', expected one of [category, price]"
+                + " at position 0 in filter: colour = 'red'", unknown.getMessage());
+        List<String> malformed = List.of(
+                "price >",
+                "price > 'cheap'",
+                "category > 'Books'",
+                "category = Books",
+                "(price > 1",
+                "price > 1 price < 2",
+                "category = 'Books",
+                "price => 1",
+                "price between 1 or 2");
+        for (String expression : malformed) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> FilterSchema.PRODUCT.compile(expression), expression);
+            assertTrue(e.getMessage().contains(" at position "), e.getMessage());
+        }
+    }
+
+    private List<Long> productIds(final int[] rows) {
+        return Arrays.stream(rows).mapToObj(snapshot::productId).sorted().collect(Collectors.toList());
+    }
+
+    private List<Long> orderIds(final int[] rows) {
+        return Arrays.stream(rows).mapToObj(snapshot::orderId).sorted().collect(Collectors.toList());
+    }
+
+    private static List<Long> productIds(final List<Product> products) {
+        return products.stream().map(Product::getId).sorted().collect(Collectors.toList());
+    }
+
+    private static List<Long> orderIds(final List<Order> orders) {
+        return orders.stream().map(Order::getId).sorted().collect(Collectors.toList());
+    }
+}
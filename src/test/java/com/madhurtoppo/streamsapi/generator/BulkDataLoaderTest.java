@@ -0,0 +1,158 @@
+package com.madhurtoppo.streamsapi.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.repositories.CustomerRepository;
+import com.madhurtoppo.streamsapi.repositories.OrderLineRepository;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest
+@Import(BulkDataLoader.class)
+class BulkDataLoaderTest {
+
+    @Autowired
+    private BulkDataLoader loader;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderLineRepository orderLineRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    /** The second-level cache outlives the rolled back load and is shared with other test contexts. */
+    @AfterEach
+    void evictLoadedRows() {
+        entityManager.getEntityManager().getEntityManagerFactory().getCache().evictAll();
+    }
+
+    private static GeneratorProperties properties(final long seed) {
+        GeneratorProperties properties = new GeneratorProperties();
+        properties.setSeed(seed);
+        properties.setOrders(20_000);
+        return properties;
+    }
+
+    @Test
+    @DisplayName("The same seed generates the same rows, another seed different rows")
+    void generationIsDeterministic() {
+        assertEquals(rows(properties(7)), rows(properties(7)));
+        assertNotEquals(rows(properties(7)), rows(properties(8)));
+    }
+
+    @Test
+    @DisplayName("Products, tiers and dates are skewed")
+    void generatedDataIsSkewed() {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(properties(42));
+        Map<Long, Integer> linesByProduct = new HashMap<>();
+        int[] tiers = new int[3];
+        int[] months = new int[13];
+        long[] lines = new long[1];
+        generator.generate(new RowSink() {
+            @Override
+            public void customer(final long id, final String name, final int tier) {
+                tiers[tier]++;
+            }
+
+            @Override
+            public void product(final long id, final String name, final String category, final long priceCents) {
+            }
+
+            @Override
+            public void order(final long id, final LocalDate orderDate, final LocalDate deliveryDate,
+                    final String status, final long customerId) {
+                months[orderDate.getMonthValue()]++;
+            }
+
+            @Override
+            public void orderLine(final long orderId, final long productId) {
+                linesByProduct.merge(productId, 1, Integer::sum);
+                lines[0]++;
+            }
+        });
+
+        int top = generator.productCount() / 100;
+        long topLines = 0;
+        for (long id = 1; id <= top; id++) {
+            topLines += linesByProduct.getOrDefault(id, 0);
+        }
+        assertTrue(topLines > lines[0] / 3, "top 1% of products hold over a third of order lines");
+        assertTrue(tiers[1] > tiers[2] && tiers[2] > tiers[0]);
+        assertTrue(months[12] > 2 * months[2]);
+    }
+
+    @Test
+    @DisplayName("Loaded rows are readable through the repositories")
+    void loadsThroughJdbcBatches() {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(properties(42));
+
+        long rows = loader.load(generator, 1_000);
+        entityManager.clear();
+
+        assertEquals(generator.customerCount(), customerRepository.count());
+        assertEquals(generator.productCount(), productRepository.count());
+        assertEquals(20_000, orderRepository.count());
+        long lines = orderRepository.findAllWithProducts().stream().mapToLong(o -> o.getProducts().size()).sum();
+        assertEquals(rows, customerRepository.count() + productRepository.count() + orderRepository.count() + lines);
+        assertEquals(lines, orderLineRepository.count());
+
+        Order saved = orderRepository.save(Order.builder()
+                .orderDate(LocalDate.of(2021, 3, 1))
+                .status("NEW")
+                .customer(customerRepository.findAll().get(0))
+                .build());
+        entityManager.flush();
+        assertTrue(saved.getId() > 20_000, "identity continues after the generated ids");
+    }
+
+    private static List<String> rows(final GeneratorProperties properties) {
+        List<String> rows = new ArrayList<>();
+        new SyntheticDataGenerator(properties).generate(new RowSink() {
+            @Override
+            public void customer(final long id, final String name, final int tier) {
+                rows.add(id + name + tier);
+            }
+
+            @Override
+            public void product(final long id, final String name, final String category, final long priceCents) {
+                rows.add(id + name + category + priceCents);
+            }
+
+            @Override
+            public void order(final long id, final LocalDate orderDate, final LocalDate deliveryDate,
+                    final String status, final long customerId) {
+                rows.add(id + " " + orderDate + deliveryDate + status + customerId);
+            }
+
+            @Override
+            public void orderLine(final long orderId, final long productId) {
+                rows.add(orderId + ":" + productId);
+            }
+        });
+        return rows;
+    }
+}
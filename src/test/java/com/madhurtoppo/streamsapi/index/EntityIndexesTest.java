@@ -0,0 +1,147 @@
+package com.madhurtoppo.streamsapi.index;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.entities.Customer;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.events.EntityChangePublisher;
+import com.madhurtoppo.streamsapi.events.IncrementalViewTestBase;
+import com.madhurtoppo.streamsapi.repositories.CustomerRepository;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+@Import({EntityChangePublisher.class, EntityIndexes.class})
+class EntityIndexesTest extends IncrementalViewTestBase {
+
+    private static final LocalDate FROM = LocalDate.of(2021, 2, 1);
+
+    private static final LocalDate TO = LocalDate.of(2021, 4, 1);
+
+    @Autowired
+    private EntityIndexes indexes;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Override
+    protected EntityIndexes view() {
+        return indexes;
+    }
+
+    @Override
+    protected String snapshot() {
+        return indexes.productsInCategory("Toys") + Arrays.toString(indexes.orders().inCategory("Toys").ids());
+    }
+
+    @Test
+    @DisplayName("Category, date range and tier lookups match scans (exercises 1, 2 and 3)")
+    void lookupsMatchScans() {
+        assertFalse(indexes.isStale());
+        assertArrayEquals(productRepository.findAll().stream()
+                        .filter(p -> p.getCategory().equalsIgnoreCase("Books"))
+                        .mapToLong(Product::getId).sorted().toArray(),
+                indexes.productsInCategory("BOOKS").stream().asLongStream().toArray());
+
+        assertArrayEquals(scan(o -> inCategory(o, "Baby")), indexes.orders().inCategory("baby").ids());
+        assertArrayEquals(scan(o -> o.getCustomer().getTier() == 2
+                        && !o.getOrderDate().isBefore(FROM) && o.getOrderDate().isBefore(TO)),
+                indexes.orders().ofTier(2).orderedBetween(FROM, TO).ids());
+        assertArrayEquals(scan(o -> inCategory(o, "Toys") && o.getCustomer().getTier() == 2
+                        && !o.getOrderDate().isBefore(FROM) && o.getOrderDate().isBefore(TO)),
+                indexes.orders().inCategory("Toys").orderedBetween(FROM, TO).ofTier(2).ids());
+        assertEquals(orderRepository.count(), indexes.orders().count());
+    }
+
+    @Test
+    @DisplayName("Indexes follow committed category, tier and order changes")
+    void indexesFollowChanges() {
+        List<Product> products = productRepository.findAll();
+        long productId = products.get(0).getId();
+        String category = products.get(0).getCategory();
+        Customer customer = customerRepository.findAll().get(0);
+        Integer tier = customer.getTier();
+        Order order = transaction.execute(status -> {
+            Product product = productRepository.findById(productId).orElseThrow();
+            product.setCategory("Garden");
+            Customer buyer = customerRepository.findById(customer.getId()).orElseThrow();
+            buyer.setTier(7);
+            Order saved = orderRepository.save(Order.builder()
+                    .orderDate(LocalDate.of(2021, 3, 15))
+                    .status("NEW")
+                    .customer(buyer)
+                    .products(new HashSet<>(List.of(product)))
+                    .build());
+            entityManager.flush();
+            assertEquals(0, indexes.orders().inCategory("Garden").count(), "not visible before the commit");
+            return saved;
+        });
+        try {
+            assertTrue(indexes.productsInCategory("garden").get((int) productId));
+            assertArrayEquals(new long[] {order.getId()},
+                    indexes.orders().inCategory("Garden").orderedOn(LocalDate.of(2021, 3, 15)).ids());
+            assertArrayEquals(scan(o -> o.getCustomer().getId().equals(customer.getId())),
+                    indexes.orders().ofTier(7).ids());
+
+            transaction.executeWithoutResult(status -> {
+                Order saved = orderRepository.findById(order.getId()).orElseThrow();
+                saved.getProducts().clear();
+                saved.getProducts().add(products.get(1));
+            });
+            assertArrayEquals(scan(o -> inCategory(o, "Garden")), indexes.orders().inCategory("Garden").ids());
+        } finally {
+            transaction.executeWithoutResult(status -> {
+                orderRepository.deleteById(order.getId());
+                productRepository.findById(productId).orElseThrow().setCategory(category);
+                customerRepository.findById(customer.getId()).orElseThrow().setTier(tier);
+            });
+        }
+        assertFalse(indexes.orders().bitmap().get(order.getId().intValue()));
+        assertEquals(0, indexes.orders().ofTier(7).count());
+        assertFalse(indexes.isStale());
+    }
+
+    @Test
+    @DisplayName("An id beyond the bitmap range marks the indexes stale instead of failing the write")
+    void oversizedIdsMarkStale() {
+        Order order = Order.builder()
+                .id(1L << 40)
+                .orderDate(LocalDate.of(2021, 3, 15))
+                .status("NEW")
+                .products(new HashSet<>())
+                .build();
+
+        indexes.onSaved(order);
+
+        assertTrue(indexes.isStale());
+        assertEquals(orderRepository.count(), indexes.orders().count());
+        indexes.rebuild();
+        assertFalse(indexes.isStale());
+    }
+
+    private long[] scan(final Predicate<Order> predicate) {
+        return orderRepository.findAllWithProducts().stream().filter(predicate).mapToLong(Order::getId).sorted().toArray();
+    }
+
+    private static boolean inCategory(final Order order, final String category) {
+        return order.getProducts().stream().anyMatch(p -> p.getCategory().equalsIgnoreCase(category));
+    }
+}
@@ -0,0 +1,226 @@
+package com.madhurtoppo.streamsapi.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.cube.TimeCube;
+import com.madhurtoppo.streamsapi.index.EntityIndexes;
+import com.madhurtoppo.streamsapi.materialized.MaterializedAggregates;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/** The ingestor commits on its own thread, so tests run outside a transaction and clean up. */
+@DataJpaTest
+@Import({OrderIngestorTest.Recorder.class, MaterializedAggregates.class, EntityIndexes.class, TimeCube.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIngestorTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Recorder recorder;
+
+    @Autowired
+    private MaterializedAggregates aggregates;
+
+    @Autowired
+    private EntityIndexes indexes;
+
+    @Autowired
+    private TimeCube cube;
+
+    private long lastOrderId;
+
+    @BeforeEach
+    void rememberLastOrder() {
+        lastOrderId = jdbcTemplate.queryForObject("select max(id) from product_order", Long.class);
+        recorder.ingested.clear();
+        recorder.failed.clear();
+        recorder.gate = null;
+    }
+
+    @AfterEach
+    void deleteIngestedOrders() {
+        jdbcTemplate.update("delete from order_line where order_id > ?", lastOrderId);
+        jdbcTemplate.update("delete from order_product_relationship where order_id > ?", lastOrderId);
+        jdbcTemplate.update("delete from product_order where id > ?", lastOrderId);
+    }
+
+    @Test
+    @DisplayName("Orders are written in batches with generated ids and passed to listeners")
+    void writesBatches() throws InterruptedException {
+        try (OrderIngestor ingestor = ingestor(100, 1_000)) {
+            for (int i = 0; i < 1_050; i++) {
+                ingestor.submit(order(1L, i % 2 == 0 ? new long[] {1, 2} : new long[] {3}));
+            }
+            assertTrue(ingestor.flush(TIMEOUT));
+            assertEquals(1_050, ingestor.ingested());
+        }
+
+        List<IngestedOrder> ingested = recorder.ingested.stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        assertEquals(1_050, ingested.size());
+        assertTrue(recorder.ingested.stream().allMatch(batch -> batch.size() <= 100));
+        assertEquals(1_050, ingested.stream().mapToLong(IngestedOrder::getId).distinct().count());
+
+        long firstId = ingested.get(0).getId();
+        assertEquals(List.of(Date.valueOf("2021-05-01"), Date.valueOf("2021-05-03"), "NEW", 1L),
+                jdbcTemplate.queryForList(
+                        "select order_date, delivery_date, status, customer_id from product_order where id = ?",
+                        firstId).get(0).values().stream().collect(Collectors.toList()));
+        assertEquals(List.of(1L, 2L), jdbcTemplate.queryForList(
+                "select product_id from order_product_relationship where order_id = ? order by product_id",
+                Long.class, firstId));
+        assertEquals(525 * 2 + 525, jdbcTemplate.queryForObject(
+                "select count(*) from order_product_relationship where order_id > ?", Long.class, lastOrderId));
+        assertEquals(List.of(1L, 2L), jdbcTemplate.queryForList(
+                "select product_id from order_line where order_id = ? order by product_id", Long.class, firstId));
+        assertEquals(525 * 2 + 525, jdbcTemplate.queryForObject(
+                "select count(*) from order_line where order_id > ?", Long.class, lastOrderId));
+    }
+
+    @Test
+    @DisplayName("A full queue blocks producers until the writer catches up")
+    void appliesBackpressure() throws InterruptedException {
+        recorder.gate = new CountDownLatch(1);
+        try (OrderIngestor ingestor = ingestor(5, 10)) {
+            int accepted = 0;
+            while (ingestor.offer(order(1L, new long[] {1}), Duration.ofMillis(200))) {
+                accepted++;
+            }
+            // the writer holds up to one batch while its listener is blocked; the queue holds the rest
+            assertTrue(accepted > 10 && accepted <= 15, accepted + " accepted");
+            assertFalse(ingestor.flush(Duration.ofMillis(50)));
+
+            recorder.gate.countDown();
+            assertTrue(ingestor.offer(order(1L, new long[] {1}), TIMEOUT));
+            assertTrue(ingestor.flush(TIMEOUT));
+            assertEquals(accepted + 1, ingestor.ingested());
+        }
+    }
+
+    @Test
+    @DisplayName("A batch with an unknown product is rolled back and reported")
+    void rollsBackFailedBatches() throws InterruptedException {
+        try (OrderIngestor ingestor = ingestor(10, 100)) {
+            ingestor.submit(order(1L, new long[] {1}));
+            ingestor.submit(order(1L, new long[] {-1}));
+            assertTrue(ingestor.flush(TIMEOUT));
+
+            assertEquals(2, ingestor.failed());
+            assertEquals(2, recorder.failed.size());
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "select count(*) from product_order where id > ?", Long.class, lastOrderId));
+
+            ingestor.submit(order(1L, new long[] {1}));
+            assertTrue(ingestor.flush(TIMEOUT));
+            assertEquals(1, ingestor.ingested());
+            assertThrows(IllegalArgumentException.class, () -> ingestor.submit(order(1L, new long[] {1, 1})));
+        }
+    }
+
+    @Test
+    @DisplayName("Committed batches reach the aggregates, indexes and cube without a rebuild")
+    void updatesViews() throws InterruptedException {
+        aggregates.rebuild();
+        indexes.rebuild();
+        cube.rebuild();
+        long before = indexes.orders().count();
+        int tier = jdbcTemplate.queryForObject("select tier from customer where id = 2", Integer.class);
+        long ofTier = indexes.orders().ofTier(tier).count();
+
+        try (OrderIngestor ingestor = ingestor(10, 100)) {
+            for (int i = 0; i < 25; i++) {
+                ingestor.submit(order(2L, new long[] {1, 3}));
+            }
+            assertTrue(ingestor.flush(TIMEOUT));
+        }
+
+        assertEquals(List.of(), aggregates.verify());
+        assertEquals(before + 25, indexes.orders().count());
+        assertEquals(ofTier + 25, indexes.orders().ofTier(tier).count());
+        String incremental = cube.query().byDay().toString() + cube.query().byTier();
+        cube.rebuild();
+        assertEquals(cube.query().byDay().toString() + cube.query().byTier(), incremental);
+        assertFalse(aggregates.isStale());
+        assertFalse(indexes.isStale());
+        assertFalse(cube.isStale());
+    }
+
+    private OrderIngestor ingestor(final int batchSize, final int queueCapacity) {
+        IngestProperties properties = new IngestProperties();
+        properties.setBatchSize(batchSize);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setFlushInterval(Duration.ofMillis(10));
+        OrderIngestor ingestor = new OrderIngestor(properties, dataSource,
+                applicationContext.getBeanProvider(OrderIngestListener.class));
+        ingestor.start();
+        return ingestor;
+    }
+
+    private static OrderEvent order(final Long customerId, final long[] productIds) {
+        return OrderEvent.builder()
+                .customerId(customerId)
+                .productIds(productIds)
+                .orderDate(LocalDate.of(2021, 5, 1))
+                .deliveryDate(LocalDate.of(2021, 5, 3))
+                .status("NEW")
+                .build();
+    }
+
+    static class Recorder implements OrderIngestListener {
+
+        private final List<List<IngestedOrder>> ingested = new CopyOnWriteArrayList<>();
+
+        private final List<OrderEvent> failed = new CopyOnWriteArrayList<>();
+
+        private volatile CountDownLatch gate;
+
+        @Override
+        public void onIngested(final List<IngestedOrder> orders) {
+            ingested.add(orders);
+            CountDownLatch current = gate;
+            if (current != null) {
+                try {
+                    current.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void onFailed(final List<OrderEvent> orders, final Exception cause) {
+            failed.addAll(orders);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.madhurtoppo.streamsapi.instrument;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+@Slf4j
+@DataJpaTest
+class ProfiledStreamTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final PipelineRecorder recorder = new PipelineRecorder(registry);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Profiling exercise 4 gives the same result and counts every stage")
+    void profilesExercise4() {
+        List<Product> expected = exercise4();
+        entityManager.clear();
+
+        Pipeline pipeline = recorder.pipeline("exercise4");
+        List<Product> products = pipeline.load("findAll", orderRepository::findAll)
+                .filter("tier 2", order -> order.getCustomer().getTier() == 2)
+                .filter("from", order -> !order.getOrderDate().isBefore(LocalDate.of(2021, 2, 1)))
+                .filter("to", order -> !order.getOrderDate().isAfter(LocalDate.of(2021, 4, 1)))
+                .flatMap("products", order -> order.getProducts().stream())
+                .distinct()
+                .collect(Collectors.toList());
+        PipelineProfile profile = pipeline.profile();
+        log.info(profile.toString());
+
+        assertEquals(expected, products);
+        long orders = orderRepository.count();
+        assertEquals(orders, profile.stage("findAll").getElementsOut());
+        assertEquals(orders, profile.stage("tier 2").getElementsIn());
+        assertEquals(profile.stage("to").getElementsOut(), profile.stage("products").getElementsIn());
+        assertEquals(profile.stage("products").getElementsOut(), profile.stage("distinct").getElementsIn());
+        assertEquals(products.size(), profile.stage("distinct").getElementsOut());
+        assertEquals(products.size(), profile.stage("collect").getElementsOut());
+        assertTrue(profile.stage("products").getNanos() > 0);
+        assertTrue(profile.getNanos() >= profile.stage("findAll").getNanos());
+
+        assertEquals(1, registry.get("streams.pipeline").tag("pipeline", "exercise4").timer().count());
+        assertEquals(products.size(), registry.get("streams.pipeline.stage.elements")
+                .tag("stage", "5:distinct")
+                .tag("direction", "out")
+                .counter()
+                .count());
+    }
+
+    @Test
+    @DisplayName("Sorted stages count elements and each stage is emitted as a JFR event")
+    void emitsJfrEvents() throws Exception {
+        Path file = Files.createTempFile("pipeline", ".jfr");
+        List<Integer> sorted;
+        try (Recording recording = new Recording()) {
+            recording.enable(PipelineStageEvent.class);
+            recording.start();
+            sorted = recorder.pipeline("numbers")
+                    .load("values", () -> List.of(5, 3, 9, 1, 3))
+                    .map("square", value -> value * value)
+                    .sorted(Comparator.reverseOrder())
+                    .collect(Collectors.toList());
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertEquals(List.of(81, 25, 9, 9, 1), sorted);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.madhurtoppo.streamsapi.PipelineStage"))
+                .collect(Collectors.toList());
+        Files.delete(file);
+        assertEquals(List.of("values", "square", "sorted", "collect"), events.stream()
+                .map(event -> event.getString("stage"))
+                .collect(Collectors.toList()));
+        assertEquals(5, events.get(2).getLong("elementsOut"));
+    }
+
+    @Test
+    @DisplayName("A flatMap stage is charged for traversing its lazy inner streams, not for the stages downstream")
+    void flatMapTimesInnerTraversal() {
+        Pipeline pipeline = recorder.pipeline("lazy");
+        // like a lazy collection, each inner stream does its work only when it is traversed
+        List<Integer> values = pipeline.load("values", () -> List.of(1, 2))
+                .flatMap("inner", value -> Stream.of(value).map(v -> sleep(50, v)))
+                .map("downstream", value -> sleep(100, value))
+                .collect(Collectors.toList());
+        PipelineProfile profile = pipeline.profile();
+
+        assertEquals(List.of(1, 2), values);
+        assertEquals(2, profile.stage("inner").getElementsOut());
+        long inner = TimeUnit.NANOSECONDS.toMillis(profile.stage("inner").getNanos());
+        assertTrue(inner >= 100 && inner < 200, () -> "inner stage: " + inner + " ms");
+        assertTrue(profile.stage("downstream").getNanos() >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    private static <T> T sleep(final long millis, final T value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return value;
+    }
+
+    private List<Product> exercise4() {
+        return orderRepository.findAll()
+                .stream()
+                .filter(order -> order.getCustomer().getTier() == 2)
+                .filter(order -> !order.getOrderDate().isBefore(LocalDate.of(2021, 2, 1)))
+                .filter(order -> !order.getOrderDate().isAfter(LocalDate.of(2021, 4, 1)))
+                .flatMap(order -> order.getProducts().stream())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
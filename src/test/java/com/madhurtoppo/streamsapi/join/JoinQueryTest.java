@@ -0,0 +1,88 @@
+package com.madhurtoppo.streamsapi.join;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@DataJpaTest
+class JoinQueryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("Joins match keys on either build side, repeat duplicates and skip nulls")
+    void hashJoin() {
+        Relation left = new Relation(new String[] {"l.key", "l.value"},
+                new long[][] {{1, 2, 2, Relation.NULL, 3}, {10, 20, 21, 30, 40}}, 5);
+        Relation right = new Relation(new String[] {"r.key"}, new long[][] {{2, Relation.NULL, 3}}, 3);
+
+        Relation joined = left.join(right, "l.key", "r.key");
+        Relation reversed = right.join(left, "r.key", "l.key");
+
+        assertEquals(3, joined.size());
+        assertArrayEquals(new long[] {20, 21, 40}, joined.distinct("l.value"));
+        assertArrayEquals(new long[] {20, 21, 40}, reversed.distinct("l.value"));
+        assertArrayEquals(new String[] {"r.key", "l.key", "l.value"}, reversed.columns());
+        assertArrayEquals(new long[] {2, 3}, joined.distinct("r.key"));
+    }
+
+    @Test
+    @DisplayName("Products bought by tier 2 customers in Feb-Apr 2021 match exercise 4")
+    void matchesExercise4() {
+        LocalDate from = LocalDate.of(2021, 2, 1);
+        LocalDate to = LocalDate.of(2021, 4, 1);
+        long[] expected = orderRepository.findAll()
+                .stream()
+                .filter(order -> order.getCustomer().getTier() == 2)
+                .filter(order -> !order.getOrderDate().isBefore(from))
+                .filter(order -> !order.getOrderDate().isAfter(to))
+                .flatMap(order -> order.getProducts().stream())
+                .mapToLong(Product::getId)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        assertArrayEquals(expected, Tables.load(jdbcTemplate).productsOrderedByTier(2, from, to));
+    }
+
+    @Test
+    @DisplayName("Category filters and prices come through the JDBC projection")
+    void filtersOnProductColumns() {
+        Tables tables = Tables.load(jdbcTemplate);
+        long books = tables.categoryCode("BOOKS");
+
+        Relation lines = JoinQuery.from(tables.lines())
+                .join(tables.products(), "line.product_id", "product.id")
+                .where("product.category", code -> code == books)
+                .execute();
+
+        Map<Long, Long> expected = orderRepository.findAll().stream()
+                .flatMap(order -> order.getProducts().stream())
+                .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+                .collect(Collectors.groupingBy(Product::getId, Collectors.counting()));
+        assertEquals(expected.values().stream().mapToLong(Long::longValue).sum(), lines.size());
+        for (long id : lines.distinct("product.id")) {
+            assertEquals(productRepository.findById(id).orElseThrow().getPriceCents(),
+                    JoinQuery.from(tables.products()).where("product.id", value -> value == id)
+                            .execute().value("product.price", 0));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.madhurtoppo.streamsapi.materialized;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.events.EntityChangePublisher;
+import com.madhurtoppo.streamsapi.events.IncrementalViewTestBase;
+import com.madhurtoppo.streamsapi.repositories.CustomerRepository;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TreeMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+@Import({EntityChangePublisher.class, MaterializedAggregates.class})
+class MaterializedAggregatesTest extends IncrementalViewTestBase {
+
+    private static final YearMonth FEB_2021 = YearMonth.of(2021, 2);
+
+    @Autowired
+    private MaterializedAggregates aggregates;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Override
+    protected MaterializedAggregates view() {
+        return aggregates;
+    }
+
+    @Override
+    protected String snapshot() {
+        return new TreeMap<>(aggregates.orderTotals()).toString() + aggregates.categoryStatistics("Toys")
+                + aggregates.mostExpensiveProductByCategory();
+    }
+
+    @Test
+    @DisplayName("Rebuilt aggregates match exercise 8 and are consistent")
+    void rebuildMatchesExercise8() {
+        double expected = orderRepository.findAllWithProducts()
+                .stream()
+                .filter(o -> !o.getOrderDate().isBefore(LocalDate.of(2021, 2, 1)))
+                .filter(o -> o.getOrderDate().isBefore(LocalDate.of(2021, 3, 1)))
+                .flatMap(o -> o.getProducts().stream())
+                .mapToDouble(Product::getPrice)
+                .sum();
+
+        assertFalse(aggregates.isStale());
+        assertEquals(expected, aggregates.revenue(FEB_2021), 1e-6);
+        assertEquals(List.of(), aggregates.verify());
+    }
+
+    @Test
+    @DisplayName("A committed price change updates revenue, order totals and category statistics")
+    void priceChangeIsApplied() {
+        Product product = orderRepository.findAllWithProducts().stream()
+                .filter(order -> YearMonth.from(order.getOrderDate()).equals(FEB_2021))
+                .findFirst()
+                .orElseThrow()
+                .getProducts()
+                .iterator()
+                .next();
+        double price = product.getPrice();
+        double before = aggregates.revenue(FEB_2021);
+
+        try {
+            transaction.executeWithoutResult(status -> {
+                productRepository.findById(product.getId()).orElseThrow().setPrice(price + 1_000);
+                entityManager.flush();
+                assertEquals(before, aggregates.revenue(FEB_2021), "not visible before the commit");
+            });
+
+            assertNotEquals(before, aggregates.revenue(FEB_2021));
+            assertEquals(product.getId(), aggregates.mostExpensiveProduct(product.getCategory()).orElseThrow());
+            assertEquals(List.of(), aggregates.verify());
+        } finally {
+            transaction.executeWithoutResult(
+                    status -> productRepository.findById(product.getId()).orElseThrow().setPrice(price));
+        }
+        assertEquals(before, aggregates.revenue(FEB_2021), 1e-6);
+        assertEquals(List.of(), aggregates.verify());
+    }
+
+    @Test
+    @DisplayName("New orders and changes to an order's products are applied")
+    void orderChangesAreApplied() {
+        List<Product> products = productRepository.findAll();
+        Order order = transaction.execute(status -> orderRepository.save(Order.builder()
+                .orderDate(LocalDate.of(2021, 2, 10))
+                .status("NEW")
+                .customer(customerRepository.findAll().get(0))
+                .products(new HashSet<>(products.subList(0, 3)))
+                .build()));
+        try {
+            double total = products.subList(0, 3).stream().mapToDouble(Product::getPrice).sum();
+            assertEquals(total, aggregates.orderTotal(order.getId()).orElseThrow(), 1e-6);
+            assertEquals(List.of(), aggregates.verify());
+
+            transaction.executeWithoutResult(status -> {
+                Order saved = orderRepository.findById(order.getId()).orElseThrow();
+                saved.getProducts().remove(products.get(0));
+                saved.getProducts().add(products.get(10));
+            });
+
+            assertEquals(List.of(), aggregates.verify());
+        } finally {
+            transaction.executeWithoutResult(status -> orderRepository.deleteById(order.getId()));
+        }
+
+        assertTrue(aggregates.orderTotal(order.getId()).isEmpty());
+        assertEquals(List.of(), aggregates.verify());
+    }
+
+    @Test
+    @DisplayName("Changes of a transaction that rolls back are dropped")
+    void rolledBackChangesAreDropped() {
+        List<Product> products = productRepository.findAll();
+        double before = aggregates.revenue(FEB_2021);
+
+        Order order = transaction.execute(status -> {
+            Order saved = orderRepository.save(Order.builder()
+                    .orderDate(LocalDate.of(2021, 2, 10))
+                    .status("NEW")
+                    .customer(customerRepository.findAll().get(0))
+                    .products(new HashSet<>(products.subList(0, 3)))
+                    .build());
+            entityManager.flush();
+            status.setRollbackOnly();
+            return saved;
+        });
+
+        assertTrue(aggregates.orderTotal(order.getId()).isEmpty());
+        assertEquals(before, aggregates.revenue(FEB_2021));
+        assertFalse(aggregates.isStale());
+        assertEquals(List.of(), aggregates.verify());
+    }
+}
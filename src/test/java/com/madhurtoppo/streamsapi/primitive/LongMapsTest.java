@@ -0,0 +1,89 @@
+package com.madhurtoppo.streamsapi.primitive;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LongMapsTest {
+
+    @Test
+    @DisplayName("Maps and sets grow past their expected size and agree with HashMap, including keys 0 and negative")
+    void growsAndMatchesHashMap() {
+        SplittableRandom random = new SplittableRandom(1);
+        LongIntMap counts = new LongIntMap(4);
+        LongDoubleMap sums = new LongDoubleMap(4);
+        LongLongMap cents = new LongLongMap(4);
+        LongHashSet keys = new LongHashSet(4);
+        Map<Long, Integer> expectedCounts = new HashMap<>();
+        Map<Long, Double> expectedSums = new HashMap<>();
+        Map<Long, Long> expectedCents = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextLong(-5_000, 5_000);
+            assertEquals(!expectedCounts.containsKey(key), keys.add(key));
+            counts.addTo(key, 1);
+            sums.addTo(key, 0.5);
+            cents.addTo(key, 1L << 40);
+            expectedCounts.merge(key, 1, Integer::sum);
+            expectedSums.merge(key, 0.5, Double::sum);
+            expectedCents.merge(key, 1L << 40, Long::sum);
+        }
+
+        assertEquals(expectedCounts, counts.toMap());
+        assertEquals(expectedSums, sums.toMap());
+        assertEquals(expectedCents, cents.toMap());
+        assertEquals(expectedCounts.size(), keys.size());
+
+        LongIntMap copy = new LongIntMap(1);
+        LongDoubleMap doubles = new LongDoubleMap(1);
+        expectedCounts.forEach((key, count) -> {
+            copy.put(key, count);
+            doubles.put(key, count);
+        });
+        assertEquals(expectedCounts, copy.toMap());
+        assertEquals(expectedCounts.size(), doubles.size());
+        assertTrue(keys.contains(0) == expectedCounts.containsKey(0L));
+        assertEquals(expectedCounts.getOrDefault(0L, -1), counts.get(0, -1));
+        assertFalse(counts.containsKey(10_000));
+        assertEquals(-1, counts.get(10_000, -1));
+    }
+
+    @Test
+    @DisplayName("Merging sums values and appends lists after the receiver's")
+    void merges() {
+        LongIntMap left = new LongIntMap();
+        left.put(1, 2);
+        LongIntMap right = new LongIntMap();
+        right.put(1, 3);
+        right.put(2, 1);
+        assertEquals(Map.of(1L, 5, 2L, 1), left.merge(right).toMap());
+
+        LongLongMap totals = new LongLongMap();
+        totals.put(1, Long.MAX_VALUE - 1);
+        LongLongMap more = new LongLongMap();
+        more.put(1, 1);
+        more.put(-1, 7);
+        assertEquals(Map.of(1L, Long.MAX_VALUE, -1L, 7L), totals.merge(more).toMap());
+
+        LongLongListMap first = new LongLongListMap(1);
+        LongLongListMap second = new LongLongListMap(1);
+        for (long i = 0; i < 10; i++) {
+            first.add(i % 3, i);
+            second.add(i % 3, 100 + i);
+        }
+        first.merge(second);
+
+        assertArrayEquals(new long[] {0, 3, 6, 9, 100, 103, 106, 109}, first.get(0));
+        assertEquals(20, first.valueCount());
+        assertEquals(3, first.size());
+        assertTrue(first.get(7).length == 0);
+        assertEquals(List.of(2L, 5L, 8L, 102L, 105L, 108L), first.toMap().get(2L));
+    }
+}
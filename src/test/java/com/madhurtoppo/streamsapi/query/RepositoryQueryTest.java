@@ -0,0 +1,141 @@
+package com.madhurtoppo.streamsapi.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+@DataJpaTest
+class RepositoryQueryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Category and price filters of exercise 1 are pushed down to SQL")
+    void productFilterIsPushedDown() {
+        List<Product> expected = productRepository.findAll()
+                .stream()
+                .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+                .filter(product -> product.getPrice() > 100)
+                .collect(Collectors.toList());
+
+        RepositoryQuery<Product> query = productRepository
+                .where(ProductSpecs.category("books"))
+                .and(ProductSpecs.priceAbove(100));
+
+        assertTrue(query.pushedDown().isPresent());
+        assertEquals(ids(expected), ids(query.list()));
+        assertEquals(expected.size(), query.count());
+    }
+
+    @Test
+    @DisplayName("Tier and date range filters of exercise 4 are pushed down to SQL")
+    void orderFilterIsPushedDown() {
+        List<Order> expected = orderRepository.findAll()
+                .stream()
+                .filter(order -> order.getCustomer().getTier() == 2)
+                .filter(order -> !order.getOrderDate().isBefore(LocalDate.of(2021, 2, 1)))
+                .filter(order -> !order.getOrderDate().isAfter(LocalDate.of(2021, 4, 1)))
+                .collect(Collectors.toList());
+
+        List<Order> actual = orderRepository
+                .where(OrderSpecs.customerTier(2))
+                .and(OrderSpecs.orderedBetween(LocalDate.of(2021, 2, 1), LocalDate.of(2021, 4, 1)))
+                .list();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(orderIds(expected), orderIds(actual));
+    }
+
+    @Test
+    @DisplayName("anyMatch over products of exercise 2 becomes an EXISTS subquery")
+    void anyProductIsPushedDown() {
+        List<Order> expected = orderRepository.findAll()
+                .stream()
+                .filter(o -> o.getProducts().stream().anyMatch(p -> p.getCategory().equalsIgnoreCase("Baby")))
+                .collect(Collectors.toList());
+
+        RepositoryQuery<Order> query = orderRepository.where(OrderSpecs.anyProduct(ProductSpecs.category("Baby")));
+
+        assertTrue(query.pushedDown().isPresent());
+        assertEquals(orderIds(expected), orderIds(query.list()));
+        try (Stream<Order> rows = query.stream()) {
+            assertEquals(orderIds(expected), orderIds(rows.collect(Collectors.toList())));
+        }
+    }
+
+    @Test
+    @DisplayName("Opaque lambdas are evaluated in memory after the translatable part")
+    void opaqueLambdaFallsBackToMemory() {
+        List<Product> expected = productRepository.findAll()
+                .stream()
+                .filter(product -> product.getCategory().equalsIgnoreCase("Toys"))
+                .filter(product -> product.getName().startsWith("v"))
+                .collect(Collectors.toList());
+
+        RepositoryQuery<Product> query = productRepository
+                .where(ProductSpecs.category("Toys"))
+                .filter(product -> product.getName().startsWith("v"));
+
+        assertTrue(query.pushedDown().isPresent());
+        assertEquals(ids(expected), ids(query.list()));
+        assertEquals(expected.size(), query.count());
+        try (Stream<Product> rows = query.stream()) {
+            assertEquals(ids(expected), ids(rows.collect(Collectors.toList())));
+        }
+    }
+
+    @Test
+    @DisplayName("An order without a customer has an unknown tier in memory as in SQL, also under not and or")
+    void nullsFollowSql() {
+        Order orphan = entityManager.persistFlushFind(Order.builder()
+                .orderDate(LocalDate.of(2021, 5, 1))
+                .status("ORPHAN")
+                .products(new HashSet<>())
+                .build());
+        QuerySpec<Order> tier2 = OrderSpecs.customerTier(2);
+        QuerySpec<Order> orphaned = OrderSpecs.status("ORPHAN");
+
+        assertFalse(tier2.test(orphan));
+        assertFalse(tier2.negate().test(orphan));
+        assertTrue(tier2.or(orphaned).test(orphan));
+        assertFalse(tier2.and(orphaned).negate().test(orphan));
+
+        List<Order> orders = orderRepository.findAll();
+        for (QuerySpec<Order> spec : List.of(tier2, tier2.negate(), tier2.or(orphaned), tier2.negate().or(orphaned),
+                tier2.and(orphaned).negate())) {
+            RepositoryQuery<Order> query = orderRepository.where(spec);
+            assertTrue(query.pushedDown().isPresent());
+            assertEquals(orderIds(orders.stream().filter(spec).collect(Collectors.toList())), orderIds(query.list()));
+        }
+    }
+
+    private static List<Long> ids(final List<Product> products) {
+        return products.stream().map(Product::getId).sorted().collect(Collectors.toList());
+    }
+
+    private static List<Long> orderIds(final List<Order> orders) {
+        return orders.stream().map(Order::getId).sorted().collect(Collectors.toList());
+    }
+}
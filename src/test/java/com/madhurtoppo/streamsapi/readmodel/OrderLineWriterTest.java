@@ -0,0 +1,130 @@
+package com.madhurtoppo.streamsapi.readmodel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.collectors.Prices;
+import com.madhurtoppo.streamsapi.entities.Customer;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.OrderLine;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.events.EntityChangePublisher;
+import com.madhurtoppo.streamsapi.repositories.CustomerRepository;
+import com.madhurtoppo.streamsapi.repositories.OrderLineRepository;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@DataJpaTest
+@Import({EntityChangePublisher.class, OrderLineWriter.class})
+class OrderLineWriterTest {
+
+    @Autowired
+    private OrderLineWriter writer;
+
+    @Autowired
+    private OrderLineRepository orderLineRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Backfilled lines answer exercises 8, 9 and 13a without the join table")
+    void backfillMatchesJoin() {
+        List<Order> orders = orderRepository.findAll();
+        long joined = orders.stream().mapToLong(order -> order.getProducts().size()).sum();
+        // contexts that started up completely have backfilled the shared database already
+        jdbcTemplate.update(OrderLineWriter.CLEAR);
+        assertEquals(joined, writer.backfill());
+        assertEquals(0, writer.backfill());
+
+        LocalDate february = LocalDate.of(2021, 2, 1);
+        long exercise8 = orders.stream()
+                .filter(order -> !order.getOrderDate().isBefore(february))
+                .filter(order -> order.getOrderDate().isBefore(february.plusMonths(1)))
+                .flatMap(order -> order.getProducts().stream())
+                .mapToLong(Product::getPriceCents)
+                .sum();
+        assertTrue(exercise8 > 0);
+        assertEquals(exercise8, orderLineRepository.priceStatistics(february, LocalDate.of(2021, 2, 28)).getSum());
+
+        LocalDate day = LocalDate.of(2021, 3, 15);
+        LongSummaryStatistics exercise9 = orders.stream()
+                .filter(order -> order.getOrderDate().isEqual(day))
+                .flatMap(order -> order.getProducts().stream())
+                .mapToLong(Product::getPriceCents)
+                .summaryStatistics();
+        assertEquals(exercise9.toString(), orderLineRepository.priceStatistics(day, day).toString());
+        LocalDate future = LocalDate.of(2030, 1, 1);
+        assertEquals(new LongSummaryStatistics().toString(),
+                orderLineRepository.priceStatistics(future, future).toString());
+
+        assertEquals(orders.stream()
+                        .filter(order -> !order.getProducts().isEmpty())
+                        .collect(Collectors.toMap(Order::getId,
+                                order -> order.getProducts().stream().collect(Prices.totalCents()))),
+                orderLineRepository.orderTotalCents().toMap());
+    }
+
+    @Test
+    @DisplayName("Saved orders get lines that keep their prices and follow the order")
+    void followsOrders() {
+        Customer customer = customerRepository.findById(4L).orElseThrow();
+        List<Product> products = productRepository.findAll().subList(0, 2);
+        Product kept = products.get(0);
+        long price = kept.getPriceCents();
+        Order order = orderRepository.save(Order.builder()
+                .orderDate(LocalDate.of(2021, 4, 1))
+                .status("NEW")
+                .customer(customer)
+                .products(new HashSet<>(products))
+                .build());
+        entityManager.flush();
+
+        List<OrderLine> lines = orderLineRepository.findByOrderIdOrderByProductId(order.getId());
+        assertEquals(products.stream().map(Product::getId).collect(Collectors.toSet()),
+                lines.stream().map(OrderLine::getProductId).collect(Collectors.toSet()));
+        OrderLine line = lines.stream().filter(l -> l.getProductId().equals(kept.getId())).findFirst().orElseThrow();
+        assertEquals(new OrderLine(order.getId(), kept.getId(), LocalDate.of(2021, 4, 1), 4L,
+                customer.getTier(), kept.getCategory(), price), line);
+
+        kept.setPrice(kept.getPrice() * 2);
+        order.setOrderDate(LocalDate.of(2021, 4, 2));
+        order.setProducts(new HashSet<>(Set.of(kept)));
+        entityManager.flush();
+        entityManager.clear();
+
+        lines = orderLineRepository.findByOrderIdOrderByProductId(order.getId());
+        assertEquals(1, lines.size());
+        assertEquals(price, lines.get(0).getPriceCents(), "a line keeps the price it was ordered at");
+        assertEquals(LocalDate.of(2021, 4, 2), lines.get(0).getOrderDate());
+
+        orderRepository.deleteById(order.getId());
+        entityManager.flush();
+        assertTrue(orderLineRepository.findByOrderIdOrderByProductId(order.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,116 @@
+package com.madhurtoppo.streamsapi.reports;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import com.madhurtoppo.streamsapi.repositories.ProductRepository;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@DataJpaTest
+class ReportsTest {
+
+    private static final YearMonth FEB_2021 = YearMonth.of(2021, 2);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ReportExecutor executor;
+
+    private Reports reports;
+
+    @BeforeEach
+    void setUp() {
+        ReportProperties properties = new ReportProperties();
+        properties.setAsync(true);
+        properties.setComputeParallelism(2);
+        executor = new ReportExecutor(properties, transactionManager);
+        reports = new Reports(executor, orderRepository, productRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("Fanned-out reports match exercises 8 and 10")
+    void overviewMatchesExercises() {
+        double revenue = orderRepository.findAll().stream()
+                .filter(o -> !o.getOrderDate().isBefore(LocalDate.of(2021, 2, 1)))
+                .filter(o -> o.getOrderDate().isBefore(LocalDate.of(2021, 3, 1)))
+                .flatMap(o -> o.getProducts().stream())
+                .mapToDouble(Product::getPrice)
+                .sum();
+        DoubleSummaryStatistics statistics = productRepository.findAll().stream()
+                .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+                .mapToDouble(Product::getPrice)
+                .summaryStatistics();
+
+        ReportOverview overview = reports.overview(FEB_2021, "books").join();
+
+        assertEquals(revenue, overview.getRevenue(), 1e-6);
+        assertEquals(statistics.getCount(), overview.getPriceStatistics().getCount());
+        assertEquals(statistics.getMax(), overview.getPriceStatistics().getMax());
+    }
+
+    @Test
+    @DisplayName("Many concurrent reports complete without exhausting the executors")
+    void manyConcurrentReports() {
+        List<CompletableFuture<Double>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(reports.revenue(FEB_2021));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        double expected = futures.get(0).join();
+        assertTrue(futures.stream().allMatch(future -> future.join() == expected));
+    }
+
+    @Test
+    @DisplayName("Loads run on virtual threads and aggregations on platform threads")
+    void loadsRunOnVirtualThreads() {
+        CompletableFuture<Boolean> report = executor.report(
+                () -> Thread.currentThread().isVirtual(),
+                virtualLoad -> virtualLoad && !Thread.currentThread().isVirtual());
+
+        assertTrue(report.join());
+    }
+
+    @Test
+    @DisplayName("Closing the executor waits for the reports that are running")
+    void closeAwaitsRunningReports() {
+        CompletableFuture<Double> report = executor.report(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return 1.0;
+        }, value -> value * 2);
+
+        executor.close();
+
+        assertTrue(report.isDone());
+        assertEquals(2.0, report.join());
+    }
+}
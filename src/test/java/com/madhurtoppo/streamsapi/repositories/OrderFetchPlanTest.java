@@ -0,0 +1,124 @@
+package com.madhurtoppo.streamsapi.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.collectors.Prices;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest
+class OrderFetchPlanTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("findAllWithProducts loads orders, customers and products in one statement")
+    void findAllWithProductsUsesOneStatement() {
+        List<Order> orders = orderRepository.findAllWithProducts();
+        double total = touchGraph(orders);
+
+        assertEquals(50, orders.size());
+        assertTrue(total > 0);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("streamAllWithProducts reads the whole graph through one statement")
+    void streamAllWithProductsUsesOneStatement() {
+        List<Order> orders;
+        try (Stream<Order> stream = orderRepository.streamAllWithProducts()) {
+            orders = stream.collect(Collectors.toList());
+        }
+        touchGraph(orders);
+
+        assertEquals(50, orders.size());
+        assertEquals(50, orders.stream().map(Order::getId).distinct().count());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Orders with a product in a category stream with their graph through one statement")
+    void streamWithProductInCategoryUsesOneStatement() {
+        List<Long> expected = orderRepository.findAllWithProducts()
+                .stream()
+                .filter(o -> o.getProducts().stream().anyMatch(p -> p.getCategory().equalsIgnoreCase("Baby")))
+                .map(Order::getId)
+                .sorted()
+                .collect(Collectors.toList());
+        statistics.clear();
+
+        List<Order> orders;
+        try (Stream<Order> stream = orderRepository.streamWithProductInCategory("baby")) {
+            orders = stream.collect(Collectors.toList());
+        }
+        touchGraph(orders);
+
+        assertTrue(expected.size() > 0);
+        assertEquals(expected, orders.stream().map(Order::getId).collect(Collectors.toList()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("orderTotalCents sums the orders of a date range through one statement")
+    void orderTotalCentsUsesOneStatement() {
+        LocalDate from = LocalDate.of(2021, 2, 1);
+        LocalDate to = LocalDate.of(2021, 2, 28);
+        LongSummaryStatistics expected = orderRepository.findAllWithProducts()
+                .stream()
+                .filter(order -> !order.getOrderDate().isBefore(from) && !order.getOrderDate().isAfter(to))
+                .mapToLong(order -> order.getProducts().stream().collect(Prices.totalCents()))
+                .summaryStatistics();
+        statistics.clear();
+
+        LongSummaryStatistics totals = orderRepository.orderTotalCents(from, to);
+
+        assertTrue(expected.getCount() > 0);
+        assertEquals(expected.toString(), totals.toString());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("findAll followed by lazy product access is batched instead of one select per order")
+    void findAllIsBatched() {
+        List<Order> orders = orderRepository.findAll();
+        touchGraph(orders);
+
+        // orders, one batch of customers and one batch of product collections
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                () -> "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    private static double touchGraph(final List<Order> orders) {
+        return orders.stream()
+                .peek(order -> order.getCustomer().getTier())
+                .flatMap(order -> order.getProducts().stream())
+                .mapToDouble(Product::getPrice)
+                .sum();
+    }
+}
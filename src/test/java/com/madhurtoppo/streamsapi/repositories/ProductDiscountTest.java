@@ -0,0 +1,74 @@
+package com.madhurtoppo.streamsapi.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.madhurtoppo.streamsapi.collectors.Prices;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.money.Money;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+@DataJpaTest
+class ProductDiscountTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("The bulk update discounts a category like Product.discount does in memory (exercise 3)")
+    void bulkDiscountMatchesInMemoryDiscount() {
+        Map<Long, Long> expected = productRepository.findAll().stream()
+                .peek(product -> {
+                    if (product.getCategory().equalsIgnoreCase("Toys")) {
+                        product.discount(10);
+                    }
+                })
+                .collect(Collectors.toMap(Product::getId, Product::getPriceCents));
+        entityManager.clear();
+
+        int updated = productRepository.discountCategory("toys", 10);
+
+        List<Product> products = productRepository.findAll();
+        assertEquals(products.stream().filter(p -> p.getCategory().equalsIgnoreCase("Toys")).count(), updated);
+        assertEquals(expected, products.stream().collect(Collectors.toMap(Product::getId, Product::getPriceCents)));
+    }
+
+    @Test
+    @DisplayName("Half-cent results round up in the database as they do in memory")
+    void bulkDiscountRoundsTiesUp() {
+        Product small = productRepository.save(Product.builder().name("Clip").category("Ties").price(2.05).build());
+        Product large = productRepository.save(Product.builder().name("Lamp").category("Ties").price(12.35).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(2, productRepository.discountCategory("ties", 10));
+
+        assertEquals(185, productRepository.findById(small.getId()).orElseThrow().getPriceCents());
+        assertEquals(1112, productRepository.findById(large.getId()).orElseThrow().getPriceCents());
+        assertEquals(185, Money.discount(205, 10));
+        assertEquals(1112, Money.discount(1235, 10));
+    }
+
+    @Test
+    @DisplayName("Prices round-trip through the price column and sum exactly in cents")
+    void pricesAreStoredAsCents() {
+        Product product = productRepository.save(Product.builder().name("Pen").category("Office").price(0.1).build());
+        productRepository.save(Product.builder().name("Ink").category("Office").price(0.2).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(10, productRepository.findById(product.getId()).orElseThrow().getPriceCents());
+        assertEquals(0.3, productRepository.findAll().stream()
+                .filter(p -> p.getCategory().equals("Office"))
+                .collect(Prices.total()));
+    }
+}
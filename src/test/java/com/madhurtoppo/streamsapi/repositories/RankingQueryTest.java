@@ -0,0 +1,59 @@
+package com.madhurtoppo.streamsapi.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.collectors.TopK;
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+@DataJpaTest
+class RankingQueryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("ORDER BY ... LIMIT queries rank like the in-memory top-K collectors")
+    void pushedDownRankingMatchesCollectors() {
+        List<Product> books = productRepository.findAll().stream()
+                .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+                .collect(Collectors.toList());
+
+        assertEquals(prices(books.stream().collect(TopK.cheapestProducts(3))),
+                prices(productRepository.findCheapestInCategory("books", 3)));
+        assertEquals(prices(books.stream().collect(TopK.mostExpensiveProducts(3))),
+                prices(productRepository.findMostExpensiveInCategory("BOOKS", 3)));
+        assertEquals(orderRepository.findAll().stream().collect(TopK.latestOrders(3))
+                        .stream().map(Order::getOrderDate).collect(Collectors.toList()),
+                orderRepository.findLatest(3).stream().map(Order::getOrderDate).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Database rankings accept k = 0 and reject a negative k like the collectors")
+    void rankingsCheckKLikeCollectors() {
+        assertEquals(List.of(), productRepository.findCheapestInCategory("books", 0));
+        assertEquals(List.of(), productRepository.findMostExpensiveInCategory("books", 0));
+        assertEquals(List.of(), orderRepository.findLatest(0));
+        assertEquals(List.of(), Stream.<Order>of().collect(TopK.latestOrders(0)));
+        assertTrue(assertThrows(InvalidDataAccessApiUsageException.class, () -> orderRepository.findLatest(-1))
+                .getCause() instanceof IllegalArgumentException);
+        assertThrows(IllegalArgumentException.class, () -> TopK.latestOrders(-1));
+    }
+
+    private static List<Double> prices(final List<Product> products) {
+        return products.stream().map(Product::getPrice).collect(Collectors.toList());
+    }
+}
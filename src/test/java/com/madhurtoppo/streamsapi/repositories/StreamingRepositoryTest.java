@@ -0,0 +1,67 @@
+package com.madhurtoppo.streamsapi.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.entities.Order;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest
+class StreamingRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("streamAll yields the same rows as findAll")
+    void streamAllMatchesFindAll() {
+        try (Stream<Order> orders = orderRepository.streamAll()) {
+            assertEquals(orderRepository.count(), orders.count());
+        }
+        try (Stream<?> products = productRepository.streamAll()) {
+            assertEquals(productRepository.count(), products.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Exercise 12a aggregates over the cursor while the persistence context stays bounded")
+    void exercise12aOverCursor() {
+        HashMap<Long, List<Long>> expected = orderRepository.findAll()
+                .stream()
+                .collect(Collectors.groupingBy(order -> order.getCustomer().getId(),
+                        HashMap::new,
+                        Collectors.mapping(Order::getId, Collectors.toList())));
+        entityManager.clear();
+
+        Session session = entityManager.unwrap(Session.class);
+        AtomicInteger maxManaged = new AtomicInteger();
+        HashMap<Long, List<Long>> actual;
+        try (Stream<Order> orders = orderRepository.streamAll(10, 7)) {
+            actual = orders
+                    .peek(order -> maxManaged.accumulateAndGet(session.getStatistics().getEntityCount(), Math::max))
+                    .collect(Collectors.groupingBy(order -> order.getCustomer().getId(),
+                            HashMap::new,
+                            Collectors.mapping(Order::getId, Collectors.toList())));
+        }
+
+        assertEquals(expected, actual);
+        // at most 7 orders plus their customers are managed at any time
+        assertTrue(maxManaged.get() <= 14, () -> "managed entities: " + maxManaged.get());
+    }
+}
@@ -0,0 +1,140 @@
+package com.madhurtoppo.streamsapi.sketch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.madhurtoppo.streamsapi.entities.Order;
+import com.madhurtoppo.streamsapi.entities.Product;
+import com.madhurtoppo.streamsapi.events.EntityChangePublisher;
+import com.madhurtoppo.streamsapi.events.IncrementalViewTestBase;
+import com.madhurtoppo.streamsapi.ingest.IngestedOrder;
+import com.madhurtoppo.streamsapi.ingest.OrderEvent;
+import com.madhurtoppo.streamsapi.repositories.CustomerRepository;
+import com.madhurtoppo.streamsapi.repositories.OrderRepository;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+@Import({EntityChangePublisher.class, ApproximateAnalytics.class, SketchProperties.class})
+class ApproximateAnalyticsTest extends IncrementalViewTestBase {
+
+    @Autowired
+    private ApproximateAnalytics analytics;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private List<Order> orders;
+
+    @BeforeEach
+    void loadOrders() {
+        orders = orderRepository.findAllWithProducts();
+    }
+
+    @Override
+    protected ApproximateAnalytics view() {
+        return analytics;
+    }
+
+    @Override
+    protected List<Object> snapshot() {
+        return List.of(analytics.orderCount(), analytics.distinctProducts(2), analytics.priceQuantile("Toys", 0.5),
+                analytics.topProducts(10));
+    }
+
+    @Test
+    @DisplayName("Estimates bound the exact distinct products per tier, Books median and top products")
+    void boundsExactAnswers() {
+        assertFalse(analytics.isStale());
+        assertEquals(orders.size(), analytics.orderCount());
+
+        for (int tier = 1; tier <= 3; tier++) {
+            int current = tier;
+            long distinct = orders.stream()
+                    .filter(order -> order.getCustomer().getTier() == current)
+                    .flatMap(order -> order.getProducts().stream())
+                    .distinct()
+                    .count();
+            Estimate estimate = analytics.distinctProducts(tier);
+            assertTrue(estimate.contains(distinct), tier + ": " + estimate);
+        }
+
+        // few lines, so the quantile sketch still holds them all and the median is exact
+        List<Double> books = orders.stream()
+                .flatMap(order -> order.getProducts().stream())
+                .filter(product -> product.getCategory().equalsIgnoreCase("Books"))
+                .map(Product::getPrice)
+                .sorted()
+                .collect(Collectors.toList());
+        double median = books.get((int) Math.ceil(books.size() / 2.0) - 1);
+        assertEquals(Estimate.exact(median), analytics.priceQuantile("BOOKS", 0.5).orElseThrow());
+        assertTrue(analytics.priceQuantile("Garden", 0.5).isEmpty());
+
+        Map<Long, Long> lines = orders.stream()
+                .flatMap(order -> order.getProducts().stream())
+                .collect(Collectors.groupingBy(Product::getId, Collectors.counting()));
+        List<HeavyHitter> top = analytics.topProducts(3);
+        assertEquals(3, top.size());
+        assertEquals(lines.values().stream().max(Comparator.naturalOrder()).orElseThrow(),
+                (long) top.get(0).getFrequency().getValue());
+        for (HeavyHitter product : top) {
+            assertEquals(Estimate.exact(lines.get(product.getKey())), product.getFrequency());
+        }
+    }
+
+    @Test
+    @DisplayName("Ingested and inserted orders are counted; an updated order makes the sketches stale")
+    void followsOrders() {
+        Product product = orders.get(0).getProducts().iterator().next();
+        long before = (long) frequencies().apply(product.getId()).getValue();
+
+        analytics.onIngested(List.of(new IngestedOrder(-1, OrderEvent.builder()
+                .customerId(orders.get(0).getCustomer().getId())
+                .productIds(new long[] {product.getId()})
+                .orderDate(LocalDate.of(2021, 5, 1))
+                .status("NEW")
+                .build())));
+
+        assertEquals(orders.size() + 1, analytics.orderCount());
+        assertEquals(before + 1, frequencies().apply(product.getId()).getValue());
+        assertFalse(analytics.isStale());
+
+        Order inserted = transaction.execute(status -> orderRepository.save(Order.builder()
+                .orderDate(LocalDate.of(2021, 5, 2))
+                .status("NEW")
+                .customer(customerRepository.findById(orders.get(0).getCustomer().getId()).orElseThrow())
+                .products(new HashSet<>(Set.of(product)))
+                .build()));
+        try {
+            assertEquals(orders.size() + 2, analytics.orderCount());
+            assertEquals(before + 2, frequencies().apply(product.getId()).getValue());
+            assertFalse(analytics.isStale());
+
+            transaction.executeWithoutResult(status ->
+                    orderRepository.findById(inserted.getId()).orElseThrow().setStatus("DELIVERED"));
+            assertTrue(analytics.isStale());
+        } finally {
+            transaction.executeWithoutResult(status -> orderRepository.deleteById(inserted.getId()));
+        }
+    }
+
+    private Function<Long, Estimate> frequencies() {
+        Map<Long, Estimate> top = analytics.topProducts(Integer.MAX_VALUE).stream()
+                .collect(Collectors.toMap(HeavyHitter::getKey, HeavyHitter::getFrequency));
+        return top::get;
+    }
+}
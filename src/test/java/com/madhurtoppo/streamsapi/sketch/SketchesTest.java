@@ -0,0 +1,125 @@
+package com.madhurtoppo.streamsapi.sketch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SketchesTest {
+
+    @Test
+    @DisplayName("HyperLogLog estimates stay within their bounds and merge like a union")
+    void hyperLogLog() {
+        HyperLogLog small = LongStream.rangeClosed(1, 1_000).boxed()
+                .collect(Sketches.distinct(Long::longValue, 14));
+        assertTrue(small.estimate().contains(1_000), small.estimate().toString());
+
+        HyperLogLog left = new HyperLogLog(14);
+        HyperLogLog right = new HyperLogLog(14);
+        HyperLogLog union = new HyperLogLog(14);
+        for (long id = 0; id < 300_000; id++) {
+            // every id twice, so repeats must not count
+            (id < 200_000 ? left : right).add(id);
+            (id >= 100_000 ? right : left).add(id);
+            union.add(id);
+        }
+        Estimate estimate = union.estimate();
+        assertTrue(estimate.contains(300_000), estimate.toString());
+        assertEquals(estimate, left.merge(right).estimate());
+        assertThrows(IllegalArgumentException.class, () -> union.merge(new HyperLogLog(12)));
+    }
+
+    @Test
+    @DisplayName("Quantiles are exact for few values and within the rank error for many")
+    void quantiles() {
+        QuantileSketch few = new QuantileSketch(200, new SplittableRandom(1));
+        for (int value = 100; value >= 1; value--) {
+            few.add(value);
+        }
+        assertEquals(Estimate.exact(50), few.quantile(0.5));
+        assertEquals(Estimate.exact(1), few.quantile(0));
+        assertEquals(Estimate.exact(100), few.quantile(1));
+
+        int n = 1_000_000;
+        List<Integer> values = new ArrayList<>(n);
+        for (int value = 0; value < n; value++) {
+            values.add(value);
+        }
+        Collections.shuffle(values, new Random(7));
+        List<QuantileSketch> parts = new ArrayList<>();
+        for (int part = 0; part < 4; part++) {
+            parts.add(new QuantileSketch(200, new SplittableRandom(part)));
+        }
+        for (int i = 0; i < n; i++) {
+            parts.get(i % 4).add(values.get(i));
+        }
+        QuantileSketch merged = parts.get(0);
+        parts.subList(1, 4).forEach(merged::merge);
+
+        assertEquals(n, merged.count());
+        double error = merged.rankError();
+        assertTrue(error > 0 && error < 0.015, "rank error " + error);
+        for (double q = 0.05; q < 1; q += 0.05) {
+            Estimate estimate = merged.quantile(q);
+            // value v has rank v / n, so the estimate's rank error is directly measurable
+            assertEquals(q, estimate.getValue() / n, error, "q = " + q);
+            assertTrue(estimate.contains(Math.ceil(q * n) - 1), estimate.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Space-Saving reports the heaviest keys with guaranteed bounds, also after a merge")
+    void heavyHitters() {
+        List<Long> occurrences = new ArrayList<>();
+        for (long key = 1; key <= 2_000; key++) {
+            for (int i = 0; i < 2_000 / key; i++) {
+                occurrences.add(key);
+            }
+        }
+        Collections.shuffle(occurrences, new Random(3));
+        SpaceSaving left = new SpaceSaving(200);
+        SpaceSaving right = new SpaceSaving(200);
+        for (int i = 0; i < occurrences.size(); i++) {
+            (i % 3 == 0 ? left : right).add(occurrences.get(i));
+        }
+        SpaceSaving single = occurrences.stream().collect(Sketches.heavyHitters(Long::longValue, 200));
+
+        for (SpaceSaving sketch : List.of(single, left.merge(right))) {
+            assertEquals(occurrences.size(), sketch.total());
+            // no count can be off by more than total / capacity, about 80, which cannot reorder these
+            List<HeavyHitter> top = sketch.top(3);
+            assertEquals(List.of(1L, 2L, 3L),
+                    top.stream().map(HeavyHitter::getKey).collect(Collectors.toList()));
+            for (long key = 1; key <= 2_000; key += 37) {
+                Estimate frequency = sketch.frequency(key);
+                assertTrue(frequency.contains(2_000 / key), key + ": " + frequency);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Replayed orders the load stream already counted are skipped by id")
+    void replayedOrdersAreCountedOnce() {
+        SketchState state = new SketchState(new SketchProperties());
+        for (long id = 1; id <= 5; id++) {
+            state.addOrder(id, null, new long[] {id});
+        }
+        state.replaying();
+        state.addOrder(4, null, new long[] {4});
+        state.addOrder(6, null, new long[] {6});
+        state.loaded();
+        state.addOrder(3, null, new long[] {3});
+
+        assertEquals(7, state.orders());
+        assertEquals(2, state.orderedProducts().frequency(3).getValue(), 0);
+    }
+}
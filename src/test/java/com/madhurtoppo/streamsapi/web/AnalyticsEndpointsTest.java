@@ -0,0 +1,74 @@
+package com.madhurtoppo.streamsapi.web;
+
+import static org.hamcrest.Matchers.equalToIgnoringCase;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AnalyticsEndpointsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Streamed endpoints return complete JSON documents")
+    void streamedEndpoints() throws Exception {
+        perform(get("/products").param("category", "books").param("priceAbove", "100"))
+                .andExpect(jsonPath("$[*].category", everyItem(equalToIgnoringCase("Books"))))
+                .andExpect(jsonPath("$[*].price", everyItem(greaterThan(100.0))));
+        perform(get("/products").param("filter", "category in ('Books', 'Toys') and price <= 100"))
+                .andExpect(jsonPath("$[*].price", everyItem(lessThanOrEqualTo(100.0))));
+        perform(get("/products/cheapest").param("category", "Books").param("k", "3"))
+                .andExpect(jsonPath("$", hasSize(3)));
+        perform(get("/products/count-by-category"))
+                .andExpect(jsonPath("$.Books", greaterThan(0)));
+        perform(get("/products/names-by-category"))
+                .andExpect(jsonPath("$.Books", hasSize(greaterThan(0))));
+        perform(get("/orders").param("category", "Baby"))
+                .andExpect(jsonPath("$", hasSize(greaterThan(0))));
+        perform(get("/orders/latest").param("k", "2"))
+                .andExpect(jsonPath("$", hasSize(2)));
+        perform(get("/orders/revenue").param("from", "2021-02-01").param("to", "2021-02-28"))
+                .andExpect(jsonPath("$.revenue", greaterThan(0.0)));
+        perform(get("/orders/ids-by-customer"))
+                .andExpect(jsonPath("$.1", hasSize(greaterThan(0))));
+    }
+
+    @Test
+    @DisplayName("A negative k is rejected before streaming starts; k = 0 ranks nothing, like TopK")
+    void invalidK() throws Exception {
+        mockMvc.perform(get("/orders/latest").param("k", "-1")).andExpect(status().isBadRequest());
+        perform(get("/orders/latest").param("k", "0")).andExpect(content().json("[]"));
+    }
+
+    @Test
+    @DisplayName("A malformed filter is rejected before streaming starts, every time it is sent")
+    void invalidFilter() throws Exception {
+        mockMvc.perform(get("/products").param("filter", "price >")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products").param("filter", "price >")).andExpect(status().isBadRequest());
+    }
+
+    private ResultActions perform(final MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+    }
+}